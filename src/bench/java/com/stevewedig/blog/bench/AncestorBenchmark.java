@@ -0,0 +1,76 @@
+package com.stevewedig.blog.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.collect.ImmutableSet;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Ancestor/descendant set queries and filtering on random dags.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AncestorBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  @Param({"3"})
+  public int maxParents;
+
+  private IdDag<Integer> dag;
+
+  private Integer leafId;
+
+  private Integer rootId;
+
+  private ImmutableSet<Integer> halfIds;
+
+  @Setup
+  public void setup() {
+    dag = BenchGraphLib.randomDag(BenchGraphLib.seed, size, maxParents);
+
+    // the last id has the most potential ancestors, and id 0 is always a root
+    leafId = size - 1;
+    rootId = 0;
+
+    Random random = new Random(BenchGraphLib.seed);
+    ImmutableSet.Builder<Integer> builder = ImmutableSet.builder();
+    for (Integer id : dag.idSet())
+      if (random.nextBoolean())
+        builder.add(id);
+    halfIds = builder.build();
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public ImmutableSet<Integer> ancestorIdSet() {
+    return dag.ancestorIdSet(leafId, true);
+  }
+
+  @Benchmark
+  public ImmutableSet<Integer> descendantIdSet() {
+    return dag.descendantIdSet(rootId, true);
+  }
+
+  @Benchmark
+  public boolean isDescendantOf() {
+    return dag.isDescendantOf(leafId, rootId, false);
+  }
+
+  @Benchmark
+  public IdGraph<Integer> filterIdGraph() {
+    return dag.filterIdGraph(halfIds);
+  }
+
+}
@@ -0,0 +1,129 @@
+package com.stevewedig.blog.bench;
+
+import java.util.Random;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Generating random graphs with Integer ids (0 until idSize) for benchmarks.
+ */
+public abstract class BenchGraphLib {
+
+  /**
+   * Seed used by all benchmarks, so every run measures the same graphs.
+   */
+  public static final long seed = 42;
+
+  /**
+   * A random dag, where each id gets up to maxParents parents with smaller ids.
+   */
+  public static IdDag<Integer> randomDag(long seed, int idSize, int maxParents) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++) {
+
+      int parentCount = random.nextInt(maxParents + 1);
+
+      for (int i = 0; i < parentCount; i++)
+        id__parentIds.put(id, random.nextInt(id));
+    }
+
+    return IdDagLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A random tree rooted at id 0, where each other id has a single parent with a smaller id.
+   */
+  public static IdTree<Integer> randomTree(long seed, int idSize) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, random.nextInt(id));
+
+    return IdTreeLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A random graph (usually cyclic), where each id gets up to maxParents parents.
+   */
+  public static IdGraph<Integer> randomGraph(long seed, int idSize, int maxParents) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 0; id < idSize; id++) {
+
+      int parentCount = random.nextInt(maxParents + 1);
+
+      for (int i = 0; i < parentCount; i++)
+        id__parentIds.put(id, random.nextInt(idSize));
+    }
+
+    return IdGraphLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A chain 0 -> 1 -> ... -> idSize - 1, the deepest possible tree.
+   */
+  public static IdTree<Integer> chainTree(int idSize) {
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, id - 1);
+
+    return IdTreeLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A star where 0 is the parent of every other id, the shallowest possible tree.
+   */
+  public static IdTree<Integer> starTree(int idSize) {
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, 0);
+
+    return IdTreeLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * 4 layers where every id's parents are all of the previous layer's ids, with about arcSize arcs.
+   */
+  public static IdDag<Integer> bipartiteDag(int arcSize) {
+
+    int width = Math.max(1, (int) Math.sqrt(arcSize / 3));
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int layer = 1; layer < 4; layer++)
+      for (int i = 0; i < width; i++)
+        for (int j = 0; j < width; j++)
+          id__parentIds.put(layer * width + i, (layer - 1) * width + j);
+
+    return IdDagLib.fromParentMap(ids(4 * width), id__parentIds.build());
+  }
+
+  /**
+   * The ids 0 until idSize.
+   */
+  public static ImmutableSet<Integer> ids(int idSize) {
+
+    ImmutableSet.Builder<Integer> ids = ImmutableSet.builder();
+
+    for (int id = 0; id < idSize; id++)
+      ids.add(id);
+
+    return ids.build();
+  }
+
+}
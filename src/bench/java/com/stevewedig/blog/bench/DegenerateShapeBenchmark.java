@@ -0,0 +1,82 @@
+package com.stevewedig.blog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Whole-graph queries on the deepest (chain) and shallowest (star) trees of size ids, and on
+ * complete bipartite layers (bipartite) of about size arcs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DegenerateShapeBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  @Param({"chain", "star", "bipartite"})
+  public String shape;
+
+  private IdDag<Integer> dag;
+
+  private Integer leafId;
+
+  @Setup
+  public void setup() {
+    if (shape.equals("chain"))
+      dag = BenchGraphLib.chainTree(size);
+    else if (shape.equals("star"))
+      dag = BenchGraphLib.starTree(size);
+    else
+      dag = BenchGraphLib.bipartiteDag(size);
+
+    // the last id is always a deepest leaf
+    leafId = dag.idSize() - 1;
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  // rebuilt each time, since a dag caches its topsort
+  @Benchmark
+  public ImmutableList<Integer> topsortIdList() {
+    return IdDagLib.fromParentMap(dag.idSet(), dag.id__parentIds()).topsortIdList();
+  }
+
+  // the path to the root in a tree
+  @Benchmark
+  public ImmutableSet<Integer> ancestorIdSet() {
+    return dag.ancestorIdSet(leafId, true);
+  }
+
+  @Benchmark
+  public ImmutableSet<Integer> descendantIdSet() {
+    return dag.descendantIdSet(0, true);
+  }
+
+  @Benchmark
+  public int isDescendantOfEveryId() {
+    int count = 0;
+    for (Integer id : dag.idSet())
+      if (dag.isDescendantOf(leafId, id, true))
+        count++;
+    return count;
+  }
+
+  // the longest path, which is the max depth in a tree
+  @Benchmark
+  public ImmutableList<Integer> criticalPathIdList() {
+    return WeightedPathLib.criticalPathIdList(dag, ArcWeightsLib.uniform(dag, 1));
+  }
+
+}
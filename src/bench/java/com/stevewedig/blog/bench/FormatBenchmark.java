@@ -0,0 +1,89 @@
+package com.stevewedig.blog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.translate.FormatLib;
+
+/**
+ * Parsing and writing FormatLib's collection formats, with size items per collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormatBenchmark {
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private ImmutableList<String> strList;
+  private String strListSyntax;
+
+  private ImmutableSet<Integer> intSet;
+  private String intSetSyntax;
+
+  private ImmutableSetMultimap<String, String> strMultimap;
+  private String strMultimapSyntax;
+
+  @Setup
+  public void setup() {
+    ImmutableList.Builder<String> strListBuilder = ImmutableList.builder();
+    ImmutableSet.Builder<Integer> intSetBuilder = ImmutableSet.builder();
+    ImmutableSetMultimap.Builder<String, String> strMultimapBuilder = ImmutableSetMultimap.builder();
+
+    for (int i = 0; i < size; i++) {
+      strListBuilder.add("item" + i);
+      intSetBuilder.add(i);
+      strMultimapBuilder.put("key" + (i % 10), "value" + i);
+    }
+
+    strList = strListBuilder.build();
+    strListSyntax = FormatLib.strCommaListFormat.write(strList);
+
+    intSet = intSetBuilder.build();
+    intSetSyntax = FormatLib.intCommaSetFormat.write(intSet);
+
+    strMultimap = strMultimapBuilder.build();
+    strMultimapSyntax = FormatLib.strMultimapFormat.write(strMultimap);
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public ImmutableList<String> parseStrList() {
+    return FormatLib.strCommaListFormat.parse(strListSyntax);
+  }
+
+  @Benchmark
+  public String writeStrList() {
+    return FormatLib.strCommaListFormat.write(strList);
+  }
+
+  @Benchmark
+  public ImmutableSet<Integer> parseIntSet() {
+    return FormatLib.intCommaSetFormat.parse(intSetSyntax);
+  }
+
+  @Benchmark
+  public String writeIntSet() {
+    return FormatLib.intCommaSetFormat.write(intSet);
+  }
+
+  @Benchmark
+  public ImmutableSetMultimap<String, String> parseStrMultimap() {
+    return FormatLib.strMultimapFormat.parse(strMultimapSyntax);
+  }
+
+  @Benchmark
+  public String writeStrMultimap() {
+    return FormatLib.strMultimapFormat.write(strMultimap);
+  }
+
+}
@@ -0,0 +1,86 @@
+package com.stevewedig.blog.bench;
+
+import static com.stevewedig.blog.symbol.SymbolLib.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.stevewedig.blog.symbol.*;
+import com.stevewedig.blog.symbol.translate.*;
+import com.stevewedig.blog.translate.FormatLib;
+
+/**
+ * SymbolMap get/put and SymbolTranslator parse/write, with size symbols per map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SymbolBenchmark {
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private List<Symbol<Integer>> symbols;
+
+  private SymbolMap symbolMap;
+
+  private SymbolTranslator translator;
+
+  private Map<String, String> strMap;
+
+  @Setup
+  public void setup() {
+    symbols = new ArrayList<>();
+
+    SymbolMap.Fluid fluid = map();
+    SymbolTranslator.Builder builder = SymbolFormatLib.translator();
+    strMap = new HashMap<>();
+
+    for (int i = 0; i < size; i++) {
+      Symbol<Integer> symbol = symbol("symbol" + i);
+      symbols.add(symbol);
+      fluid.put(symbol, i);
+      builder.add(symbol, FormatLib.intFormat);
+      strMap.put(symbol.name(), String.valueOf(i));
+    }
+
+    symbolMap = fluid.solid();
+    translator = builder.build();
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public SymbolMap put() {
+    SymbolMap.Fluid fluid = map();
+    for (int i = 0; i < symbols.size(); i++)
+      fluid.put(symbols.get(i), i);
+    return fluid;
+  }
+
+  @Benchmark
+  public int get() {
+    int sum = 0;
+    for (Symbol<Integer> symbol : symbols)
+      sum += symbolMap.get(symbol);
+    return sum;
+  }
+
+  @Benchmark
+  public SymbolMap parse() {
+    return translator.parse(strMap);
+  }
+
+  @Benchmark
+  public Map<String, String> write() {
+    return translator.write(symbolMap);
+  }
+
+}
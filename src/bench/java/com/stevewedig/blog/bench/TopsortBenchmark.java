@@ -0,0 +1,53 @@
+package com.stevewedig.blog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.TopsortLib;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+
+/**
+ * Topologically sorting random dags, by id and by int index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TopsortBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  @Param({"3"})
+  public int maxParents;
+
+  private IdDag<Integer> dag;
+
+  @Setup
+  public void setup() {
+    dag = BenchGraphLib.randomDag(BenchGraphLib.seed, size, maxParents);
+
+    // build the int graph outside of the measurement
+    dag.intGraph();
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public Optional<ImmutableList<Integer>> sortIds() {
+    return TopsortLib.sort(dag.idSet(), dag.id__parentIds());
+  }
+
+  @Benchmark
+  public Optional<int[]> sortIndexes() {
+    return TopsortLib.sort(dag.intGraph());
+  }
+
+}
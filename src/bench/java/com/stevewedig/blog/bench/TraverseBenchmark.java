@@ -0,0 +1,86 @@
+package com.stevewedig.blog.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+import com.stevewedig.blog.digraph.int_graph.IntIterator;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+/**
+ * Depth first and breadth first traversal of a random graph, comparing the generic id traversal
+ * with the int traverser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TraverseBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  @Param({"3"})
+  public int maxParents;
+
+  @Param({"true", "false"})
+  public boolean depthFirst;
+
+  private IdGraph<Integer> graph;
+
+  private Fn1<Integer, List<Integer>> expand;
+
+  private IntTraverser traverser;
+
+  private ImmutableList<Integer> startIds;
+
+  private int[] startIndexes;
+
+  @Setup
+  public void setup() {
+    graph = BenchGraphLib.randomGraph(BenchGraphLib.seed, size, maxParents);
+
+    expand = new Fn1<Integer, List<Integer>>() {
+      @Override
+      public List<Integer> apply(Integer id) {
+        return ImmutableList.copyOf(graph.childIdSet(id));
+      }
+    };
+
+    traverser = TraverseLib.intTraverser(graph.intGraph());
+
+    startIds = ImmutableList.copyOf(graph.rootIdSet().isEmpty() ? graph.idSet() : graph.rootIdSet());
+
+    startIndexes = new int[startIds.size()];
+    for (int i = 0; i < startIndexes.length; i++)
+      startIndexes[i] = graph.idIndex().index(startIds.get(i));
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public int traverseIds() {
+    int count = 0;
+    for (Integer id : TraverseLib.idIterable(depthFirst, true, startIds, expand))
+      count += id;
+    return count;
+  }
+
+  @Benchmark
+  public int traverseIndexes() {
+    int count = 0;
+    IntIterator iterator = traverser.iterator(depthFirst, true, startIndexes);
+    while (iterator.hasNext())
+      count += iterator.next();
+    return count;
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.stevewedig.blog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * ValueMixin equals/hashCode, both for a small value object and for a graph of size ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValueMixinBenchmark {
+
+  // ===========================================================================
+  // Person
+  // ===========================================================================
+
+  static class Person extends ValueMixin {
+    private final String name;
+    private final int age;
+    private final ImmutableList<String> tags;
+
+    @Override
+    public Object[] fields() {
+      return array("name", name, "age", age, "tags", tags);
+    }
+
+    public Person(String name, int age, ImmutableList<String> tags) {
+      this.name = name;
+      this.age = age;
+      this.tags = tags;
+    }
+  }
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private Person person;
+  private Person samePerson;
+
+  private IdDag<Integer> dag;
+  private IdDag<Integer> sameDag;
+
+  @Setup
+  public void setup() {
+    person = new Person("bob", 9, ImmutableList.of("a", "b", "c"));
+    samePerson = new Person("bob", 9, ImmutableList.of("a", "b", "c"));
+
+    dag = BenchGraphLib.randomDag(BenchGraphLib.seed, size, 3);
+    sameDag = BenchGraphLib.randomDag(BenchGraphLib.seed, size, 3);
+  }
+
+  // ===========================================================================
+  // benchmarks
+  // ===========================================================================
+
+  @Benchmark
+  public boolean personEquals() {
+    return person.equals(samePerson);
+  }
+
+  @Benchmark
+  public int personHashCode() {
+    return person.hashCode();
+  }
+
+  @Benchmark
+  public boolean dagEquals() {
+    return dag.equals(sameDag);
+  }
+
+  @Benchmark
+  public int dagHashCode() {
+    return dag.hashCode();
+  }
+
+}
@@ -0,0 +1,44 @@
+package com.stevewedig.blog.digraph.alg;
+
+/**
+ * Precomputed depths and ancestor jumps for a tree (or forest) over int indexes, answering depth in
+ * constant time and kth ancestor and lowest common ancestor in logarithmic time.
+ */
+public interface AncestorTable {
+
+  // ===========================================================================
+  // depth
+  // ===========================================================================
+
+  /**
+   * Getting an index's depth (the number of ancestors it has).
+   */
+  int depth(int index);
+
+  /**
+   * The maximum depth.
+   */
+  int maxDepth();
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  /**
+   * Getting an index's parent index, will be -1 for a root.
+   */
+  int parentIndex(int index);
+
+  /**
+   * Getting the ancestor k steps above an index (0 is the index itself, 1 is its parent), will be -1
+   * if k is negative or greater than the index's depth.
+   */
+  int kthAncestor(int index, int k);
+
+  /**
+   * Getting the deepest index that is an inclusive ancestor of both indexes, will be -1 if they are
+   * in different trees of a forest.
+   */
+  int lowestCommonAncestor(int index, int otherIndex);
+
+}
@@ -0,0 +1,166 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.errors.TreeNodesCannotHaveMultipleParents;
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+
+/**
+ * An implementation of AncestorTable, using jump pointers (a form of binary lifting needing only
+ * one extra int per index instead of log(depth) ints).
+ * 
+ * Each index stores a jump to an ancestor, chosen from its parent's jumps so the jump lengths along
+ * any root path follow a skew-binary pattern. Walking up by taking a jump whenever it doesn't
+ * overshoot reaches any ancestor in O(log depth) steps.
+ * 
+ * http://en.wikipedia.org/wiki/Level_ancestor_problem#Jump_pointer_algorithm
+ */
+public class AncestorTableClass implements AncestorTable {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final int[] depths;
+
+  // a root is its own parent and jump, so walking up stops there
+  private final int[] parents;
+  private final int[] jumps;
+
+  private final int maxDepth;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public AncestorTableClass(IntGraph intGraph) throws TreeNodesCannotHaveMultipleParents {
+
+    int indexSize = intGraph.indexSize();
+
+    depths = new int[indexSize];
+    parents = new int[indexSize];
+    jumps = new int[indexSize];
+
+    // breadth first from the roots, so each parent is done before its children
+    int[] queue = new int[indexSize];
+    int queueHead = 0;
+    int queueTail = 0;
+
+    for (int index = 0; index < indexSize; index++) {
+
+      int parentCount = intGraph.parentCount(index);
+
+      if (parentCount > 1)
+        throw new TreeNodesCannotHaveMultipleParents("index = %s, parentCount = %s", index,
+            parentCount);
+
+      if (parentCount == 0) {
+        parents[index] = index;
+        jumps[index] = index;
+        queue[queueTail++] = index;
+      }
+    }
+
+    int maxDepth = 0;
+
+    while (queueHead != queueTail) {
+
+      int parent = queue[queueHead++];
+
+      int childCount = intGraph.childCount(parent);
+      for (int position = 0; position < childCount; position++) {
+
+        int child = intGraph.childIndex(parent, position);
+
+        depths[child] = depths[parent] + 1;
+        parents[child] = parent;
+
+        // jump twice as far when the parent's jump and the jump after it have equal length
+        int jump = jumps[parent];
+        if (depths[parent] - depths[jump] == depths[jump] - depths[jumps[jump]])
+          jumps[child] = jumps[jump];
+        else
+          jumps[child] = parent;
+
+        maxDepth = Math.max(maxDepth, depths[child]);
+
+        queue[queueTail++] = child;
+      }
+    }
+
+    this.maxDepth = maxDepth;
+  }
+
+  // ===========================================================================
+  // depth
+  // ===========================================================================
+
+  @Override
+  public int depth(int index) {
+    return depths[index];
+  }
+
+  @Override
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public int parentIndex(int index) {
+    return parents[index] == index ? -1 : parents[index];
+  }
+
+  @Override
+  public int kthAncestor(int index, int k) {
+
+    if (k < 0 || k > depths[index])
+      return -1;
+
+    return ancestorAtDepth(index, depths[index] - k);
+  }
+
+  @Override
+  public int lowestCommonAncestor(int index, int otherIndex) {
+
+    int depth = Math.min(depths[index], depths[otherIndex]);
+
+    index = ancestorAtDepth(index, depth);
+    otherIndex = ancestorAtDepth(otherIndex, depth);
+
+    // both at the same depth, so their jumps have the same length
+    while (index != otherIndex) {
+
+      // reached different roots
+      if (parents[index] == index)
+        return -1;
+
+      if (jumps[index] != jumps[otherIndex]) {
+        index = jumps[index];
+        otherIndex = jumps[otherIndex];
+      } else {
+        index = parents[index];
+        otherIndex = parents[otherIndex];
+      }
+    }
+
+    return index;
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private int ancestorAtDepth(int index, int depth) {
+
+    while (depths[index] > depth)
+      if (depths[jumps[index]] >= depth)
+        index = jumps[index];
+      else
+        index = parents[index];
+
+    return index;
+  }
+
+}
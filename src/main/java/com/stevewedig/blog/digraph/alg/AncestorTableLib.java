@@ -0,0 +1,21 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.errors.TreeNodesCannotHaveMultipleParents;
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+
+/**
+ * Building ancestor tables.
+ */
+public abstract class AncestorTableLib {
+
+  /**
+   * Build an ancestor table over a tree (or forest) in linear time.
+   * 
+   * @param intGraph The tree's arcs, where each index has at most one parent.
+   * @return The ancestor table.
+   */
+  public static AncestorTable table(IntGraph intGraph) throws TreeNodesCannotHaveMultipleParents {
+    return new AncestorTableClass(intGraph);
+  }
+
+}
@@ -0,0 +1,40 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotContained;
+
+/**
+ * A double weight per arc, stored in an array aligned with an IntGraph's children (so the weights
+ * of an index's child arcs are adjacent, in child position order).
+ */
+public interface ArcWeights<Id> {
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * The arcs being weighted.
+   */
+  IntGraph intGraph();
+
+  // ===========================================================================
+  // weights
+  // ===========================================================================
+
+  /**
+   * Getting the weight of the arc from a parent id to a child id.
+   */
+  double weight(Id parentId, Id childId) throws NotContained;
+
+  /**
+   * Getting the weight of the arc from an index to its child at a position (0 until childCount).
+   */
+  double childWeight(int index, int position);
+
+}
@@ -0,0 +1,72 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotContained;
+
+/**
+ * An implementation of ArcWeights.
+ */
+public class ArcWeightsClass<Id> implements ArcWeights<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final IntGraph intGraph;
+
+  // the weights of index i's child arcs are weights[childOffsets[i]] until
+  // weights[childOffsets[i + 1]]
+  private final int[] childOffsets;
+  private final double[] weights;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public ArcWeightsClass(IdIndex<Id> idIndex, IntGraph intGraph, int[] childOffsets,
+      double[] weights) {
+
+    this.idIndex = idIndex;
+    this.intGraph = intGraph;
+    this.childOffsets = childOffsets;
+    this.weights = weights;
+  }
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public IntGraph intGraph() {
+    return intGraph;
+  }
+
+  // ===========================================================================
+  // weights
+  // ===========================================================================
+
+  @Override
+  public double weight(Id parentId, Id childId) throws NotContained {
+
+    int index = idIndex.index(parentId);
+    int childIndex = idIndex.index(childId);
+
+    for (int position = 0; position < intGraph.childCount(index); position++)
+      if (intGraph.childIndex(index, position) == childIndex)
+        return childWeight(index, position);
+
+    throw new NotContained("parentId = %s, childId = %s", parentId, childId);
+  }
+
+  @Override
+  public double childWeight(int index, int position) {
+    return weights[childOffsets[index] + position];
+  }
+
+}
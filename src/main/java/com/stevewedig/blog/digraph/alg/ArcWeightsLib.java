@@ -0,0 +1,97 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Arrays;
+
+import com.google.common.collect.Table;
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotContained;
+import com.stevewedig.blog.util.LambdaLib.Fn2;
+
+/**
+ * A library for weighting the arcs of a digraph.
+ */
+public abstract class ArcWeightsLib {
+
+  /**
+   * Weights aligned with an IntGraph's children, so weights[i] is the weight of the i-th arc when
+   * iterating over each index's children in index order, then in child position order.
+   */
+  public static <Id> ArcWeights<Id> weights(IdIndex<Id> idIndex, IntGraph intGraph,
+      double[] weights) {
+
+    if (weights.length != intGraph.arcSize())
+      throw new IllegalArgumentException("weights.length = " + weights.length + ", arcSize = "
+          + intGraph.arcSize());
+
+    return new ArcWeightsClass<>(idIndex, intGraph, childOffsets(intGraph), weights);
+  }
+
+  /**
+   * Weights from a function of each arc's parent id and child id.
+   */
+  public static <Id> ArcWeights<Id> weights(IdGraph<Id> idGraph,
+      Fn2<Id, Id, Double> parentId_childId__weight) {
+
+    IdIndex<Id> idIndex = idGraph.idIndex();
+    IntGraph intGraph = idGraph.intGraph();
+
+    double[] weights = new double[intGraph.arcSize()];
+
+    int arc = 0;
+    for (int index = 0; index < intGraph.indexSize(); index++)
+      for (int position = 0; position < intGraph.childCount(index); position++)
+        weights[arc++] =
+            parentId_childId__weight.apply(idIndex.id(index),
+                idIndex.id(intGraph.childIndex(index, position)));
+
+    return new ArcWeightsClass<>(idIndex, intGraph, childOffsets(intGraph), weights);
+  }
+
+  /**
+   * Weights from a table with parent ids as rows and child ids as columns, which must contain
+   * every arc.
+   */
+  public static <Id> ArcWeights<Id> weights(IdGraph<Id> idGraph,
+      final Table<Id, Id, Double> parentId_childId__weight) throws NotContained {
+
+    return weights(idGraph, new Fn2<Id, Id, Double>() {
+      @Override
+      public Double apply(Id parentId, Id childId) {
+
+        Double weight = parentId_childId__weight.get(parentId, childId);
+
+        if (weight == null)
+          throw new NotContained("parentId = %s, childId = %s", parentId, childId);
+
+        return weight;
+      }
+    });
+  }
+
+  /**
+   * The same weight for every arc (1 counts arcs, so shortest paths have the fewest arcs).
+   */
+  public static <Id> ArcWeights<Id> uniform(IdGraph<Id> idGraph, double weight) {
+
+    IntGraph intGraph = idGraph.intGraph();
+
+    double[] weights = new double[intGraph.arcSize()];
+    Arrays.fill(weights, weight);
+
+    return new ArcWeightsClass<>(idGraph.idIndex(), intGraph, childOffsets(intGraph), weights);
+  }
+
+  // ===================================
+
+  private static int[] childOffsets(IntGraph intGraph) {
+
+    int[] childOffsets = new int[intGraph.indexSize() + 1];
+
+    for (int index = 0; index < intGraph.indexSize(); index++)
+      childOffsets[index + 1] = childOffsets[index] + intGraph.childCount(index);
+
+    return childOffsets;
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * A breadth first traversal grouped into levels by distance. Level 0 contains the start ids, and
+ * each other reached id is in the level after its nearest reached parent.
+ */
+public interface BreadthLevels<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * The reached ids in visit order, ordered by distance and then by index within each level.
+   */
+  ImmutableList<Id> visitIdList();
+
+  /**
+   * Getting an id's distance from the start ids (-1 if it wasn't reached).
+   */
+  int distance(Id id);
+
+  // ===========================================================================
+  // levels
+  // ===========================================================================
+
+  /**
+   * The number of levels (the greatest distance + 1).
+   */
+  int levelSize();
+
+  /**
+   * Getting the ids in a level (0 until levelSize), in index order.
+   */
+  ImmutableList<Id> levelIdList(int level);
+
+  /**
+   * The number of levels found by bottom-up steps, which check unreached indexes' parents against
+   * the frontier instead of expanding the frontier (0 unless direction optimizing).
+   */
+  int bottomUpLevelSize();
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * The number of reached indexes.
+   */
+  int reachedSize();
+
+  /**
+   * Getting an index's distance from the start indexes (-1 if it wasn't reached).
+   */
+  int indexDistance(int index);
+
+  /**
+   * A copy of the distance of every index (-1 if it wasn't reached).
+   */
+  int[] distances();
+
+  /**
+   * A copy of the reached indexes in visit order, ordered by distance and then by index.
+   */
+  int[] visitIndexes();
+
+  /**
+   * A copy of the indexes in a level, in index order.
+   */
+  int[] levelIndexes(int level);
+
+}
@@ -0,0 +1,129 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * An implementation of BreadthLevels.
+ */
+public class BreadthLevelsClass<Id> implements BreadthLevels<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+
+  // reached indexes ordered by distance, then by index
+  private final int[] visited;
+
+  // level i is visited[levelOffsets[i]] until visited[levelOffsets[i + 1]]
+  private final int[] levelOffsets;
+
+  // index -> distance, or -1
+  private final int[] distances;
+
+  private final int bottomUpLevelSize;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public BreadthLevelsClass(IdIndex<Id> idIndex, int[] visited, int[] levelOffsets,
+      int[] distances, int bottomUpLevelSize) {
+
+    this.idIndex = idIndex;
+    this.visited = visited;
+    this.levelOffsets = levelOffsets;
+    this.distances = distances;
+    this.bottomUpLevelSize = bottomUpLevelSize;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public ImmutableList<Id> visitIdList() {
+    if (visitIdList == null)
+      visitIdList = idList(0, visited.length);
+    return visitIdList;
+  }
+
+  private ImmutableList<Id> visitIdList;
+
+  @Override
+  public int distance(Id id) {
+    return indexDistance(idIndex.index(id));
+  }
+
+  // ===========================================================================
+  // levels
+  // ===========================================================================
+
+  @Override
+  public int levelSize() {
+    return levelOffsets.length - 1;
+  }
+
+  @Override
+  public ImmutableList<Id> levelIdList(int level) {
+    return idList(levelOffsets[level], levelOffsets[level + 1]);
+  }
+
+  @Override
+  public int bottomUpLevelSize() {
+    return bottomUpLevelSize;
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public int reachedSize() {
+    return visited.length;
+  }
+
+  @Override
+  public int indexDistance(int index) {
+    return distances[index];
+  }
+
+  @Override
+  public int[] distances() {
+    return distances.clone();
+  }
+
+  @Override
+  public int[] visitIndexes() {
+    return visited.clone();
+  }
+
+  @Override
+  public int[] levelIndexes(int level) {
+    return Arrays.copyOfRange(visited, levelOffsets[level], levelOffsets[level + 1]);
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private ImmutableList<Id> idList(int start, int end) {
+
+    ImmutableList.Builder<Id> builder = ImmutableList.builder();
+
+    for (int i = start; i < end; i++)
+      builder.add(idIndex.id(visited[i]));
+
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+
+/**
+ * A bounded cache of ancestor and descendant closures over an immutable graph. The closure of each
+ * id is cached separately, closures of id sets are unions of these, and computing a closure reuses
+ * any cached closures it reaches. Queries are synchronized.
+ */
+public interface ClosureCache<Id> {
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  /**
+   * The graph whose closures are cached.
+   */
+  IdGraph<Id> graph();
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  /**
+   * Whether an id is a ancestor of another id (same as IdGraph.isAncestorOf).
+   */
+  boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive);
+
+  /**
+   * Getting an id's ancestor id set (same as IdGraph.ancestorIdSet).
+   */
+  ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive);
+
+  /**
+   * Getting an id set's ancestor id set (same as IdGraph.ancestorIdSet).
+   */
+  ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive);
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  /**
+   * Whether an id is a descendant of another id (same as IdGraph.isDescendantOf).
+   */
+  boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive);
+
+  /**
+   * Getting an id's descendant id set (same as IdGraph.descendantIdSet).
+   */
+  ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive);
+
+  /**
+   * Getting an id set's descendant id set (same as IdGraph.descendantIdSet).
+   */
+  ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive);
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  /**
+   * The maximum number of cached closures (ancestor and descendant closures both count).
+   */
+  int maxSize();
+
+  /**
+   * The number of cached closures.
+   */
+  int size();
+
+  /**
+   * The number of id closures found in the cache.
+   */
+  long hitCount();
+
+  /**
+   * The number of id closures that had to be computed.
+   */
+  long missCount();
+
+  /**
+   * The number of closures evicted to stay within maxSize.
+   */
+  long evictionCount();
+
+}
@@ -0,0 +1,360 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+
+/**
+ * An implementation of ClosureCache, which caches inclusive closures per id, and evicts by either
+ * least recently used or least frequently used.
+ */
+public class ClosureCacheClass<Id> implements ClosureCache<Id> {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public ClosureCacheClass(IdGraph<Id> graph, int maxSize, boolean leastFrequentlyUsed) {
+
+    this.graph = graph;
+    this.maxSize = Math.max(0, maxSize);
+
+    if (leastFrequentlyUsed)
+      store = new LfuStore<Key<Id>, ImmutableSet<Id>>();
+    else
+      store = new LruStore<Key<Id>, ImmutableSet<Id>>();
+  }
+
+  private final Store<Key<Id>, ImmutableSet<Id>> store;
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  @Override
+  public IdGraph<Id> graph() {
+    return graph;
+  }
+
+  private final IdGraph<Id> graph;
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public synchronized ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive) {
+    return closureSet(true, ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public synchronized ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive) {
+    return closureSet(true, ids, inclusive);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public synchronized boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (id.equals(potentialAncestor))
+      return inclusive;
+
+    return closure(true, id).contains(potentialAncestor);
+  }
+
+  @Override
+  public synchronized ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive) {
+    return closureSet(false, ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public synchronized ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive) {
+    return closureSet(false, ids, inclusive);
+  }
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  @Override
+  public int maxSize() {
+    return maxSize;
+  }
+
+  private final int maxSize;
+
+  @Override
+  public synchronized int size() {
+    return store.size();
+  }
+
+  @Override
+  public synchronized long hitCount() {
+    return hitCount;
+  }
+
+  private long hitCount = 0;
+
+  @Override
+  public synchronized long missCount() {
+    return missCount;
+  }
+
+  private long missCount = 0;
+
+  @Override
+  public synchronized long evictionCount() {
+    return evictionCount;
+  }
+
+  private long evictionCount = 0;
+
+  // ===========================================================================
+  // closures
+  // ===========================================================================
+
+  // union the inclusive closures, then remove the start ids if exclusive (like TraverseLib)
+  private ImmutableSet<Id> closureSet(boolean ancestors, Set<Id> ids, boolean inclusive) {
+
+    if (ids.size() == 1) {
+      Id id = ids.iterator().next();
+      ImmutableSet<Id> closure = closure(ancestors, id);
+      if (inclusive)
+        return closure;
+      return ImmutableSet.copyOf(Sets.difference(closure, ids));
+    }
+
+    Set<Id> union = new LinkedHashSet<>();
+
+    for (Id id : ids)
+      union.addAll(closure(ancestors, id));
+
+    if (!inclusive)
+      union.removeAll(ids);
+
+    return ImmutableSet.copyOf(union);
+  }
+
+  // the inclusive closure of an id, from the cache or computed
+  private ImmutableSet<Id> closure(boolean ancestors, Id id) {
+
+    Key<Id> key = new Key<Id>(ancestors, id);
+
+    ImmutableSet<Id> closure = store.get(key);
+
+    if (closure != null) {
+      hitCount++;
+      return closure;
+    }
+
+    missCount++;
+
+    closure = computeClosure(ancestors, id);
+
+    if (maxSize > 0) {
+      if (store.size() >= maxSize) {
+        store.evict();
+        evictionCount++;
+      }
+      store.put(key, closure);
+    }
+
+    return closure;
+  }
+
+  // depth first search, which stops at ids whose closures are already cached and unions them in
+  private ImmutableSet<Id> computeClosure(boolean ancestors, Id id) {
+
+    Set<Id> closed = new LinkedHashSet<>();
+    LinkedList<Id> open = new LinkedList<>();
+
+    closed.add(id);
+    open.addFirst(id);
+
+    while (!open.isEmpty()) {
+
+      Id current = open.removeFirst();
+
+      for (Id next : ancestors ? graph.parentIdSet(current) : graph.childIdSet(current)) {
+
+        if (closed.contains(next))
+          continue;
+
+        ImmutableSet<Id> cached = store.get(new Key<Id>(ancestors, next));
+
+        if (cached != null)
+          closed.addAll(cached);
+        else {
+          closed.add(next);
+          open.addFirst(next);
+        }
+      }
+    }
+
+    return ImmutableSet.copyOf(closed);
+  }
+
+  // ===========================================================================
+  // key
+  // ===========================================================================
+
+  private static final class Key<Id> {
+
+    private final boolean ancestors;
+    private final Id id;
+
+    public Key(boolean ancestors, Id id) {
+      this.ancestors = ancestors;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key))
+        return false;
+      Key<?> other = (Key<?>) obj;
+      return ancestors == other.ancestors && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * id.hashCode() + (ancestors ? 1 : 0);
+    }
+  }
+
+  // ===========================================================================
+  // stores
+  // ===========================================================================
+
+  private interface Store<K, V> {
+
+    // null if missing, otherwise records the use
+    V get(K key);
+
+    // key must be missing
+    void put(K key, V value);
+
+    // remove the entry chosen by the eviction policy
+    void evict();
+
+    int size();
+  }
+
+  // =================================
+  // least recently used
+  // =================================
+
+  private static class LruStore<K, V> implements Store<K, V> {
+
+    // access ordered, so the first entry is the least recently used
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+    @Override
+    public V get(K key) {
+      return map.get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+      map.put(key, value);
+    }
+
+    @Override
+    public void evict() {
+      Iterator<K> iterator = map.keySet().iterator();
+      iterator.next();
+      iterator.remove();
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+  }
+
+  // =================================
+  // least frequently used
+  // =================================
+
+  // constant time LFU: keys are bucketed by use count, each bucket in insertion (use) order
+  private static class LfuStore<K, V> implements Store<K, V> {
+
+    private final Map<K, V> values = new HashMap<>();
+    private final Map<K, Integer> key__count = new HashMap<>();
+    private final Map<Integer, LinkedHashSet<K>> count__keys = new HashMap<>();
+    private int minCount = 0;
+
+    @Override
+    public V get(K key) {
+
+      V value = values.get(key);
+
+      if (value == null)
+        return null;
+
+      int count = key__count.get(key);
+
+      LinkedHashSet<K> bucket = count__keys.get(count);
+      bucket.remove(key);
+
+      if (bucket.isEmpty()) {
+        count__keys.remove(count);
+        if (minCount == count)
+          minCount = count + 1;
+      }
+
+      key__count.put(key, count + 1);
+      bucket(count + 1).add(key);
+
+      return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+      values.put(key, value);
+      key__count.put(key, 1);
+      bucket(1).add(key);
+      minCount = 1;
+    }
+
+    @Override
+    public void evict() {
+
+      LinkedHashSet<K> bucket = count__keys.get(minCount);
+
+      Iterator<K> iterator = bucket.iterator();
+      K key = iterator.next();
+      iterator.remove();
+
+      if (bucket.isEmpty())
+        count__keys.remove(minCount);
+
+      values.remove(key);
+      key__count.remove(key);
+    }
+
+    @Override
+    public int size() {
+      return values.size();
+    }
+
+    private LinkedHashSet<K> bucket(int count) {
+      LinkedHashSet<K> bucket = count__keys.get(count);
+      if (bucket == null) {
+        bucket = new LinkedHashSet<>();
+        count__keys.put(count, bucket);
+      }
+      return bucket;
+    }
+  }
+
+}
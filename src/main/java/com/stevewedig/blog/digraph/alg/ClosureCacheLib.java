@@ -0,0 +1,33 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+
+/**
+ * Creating closure caches.
+ */
+public abstract class ClosureCacheLib {
+
+  /**
+   * A closure cache evicting the least recently used closure when full.
+   * 
+   * @param graph The immutable graph whose closures are cached.
+   * @param maxSize The maximum number of cached closures.
+   * @return The closure cache.
+   */
+  public static <Id> ClosureCache<Id> lru(IdGraph<Id> graph, int maxSize) {
+    return new ClosureCacheClass<Id>(graph, maxSize, false);
+  }
+
+  /**
+   * A closure cache evicting the least frequently used closure when full (ties evict the least
+   * recently used).
+   * 
+   * @param graph The immutable graph whose closures are cached.
+   * @param maxSize The maximum number of cached closures.
+   * @return The closure cache.
+   */
+  public static <Id> ClosureCache<Id> lfu(IdGraph<Id> graph, int maxSize) {
+    return new ClosureCacheClass<Id>(graph, maxSize, true);
+  }
+
+}
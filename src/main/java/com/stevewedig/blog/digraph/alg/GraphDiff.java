@@ -0,0 +1,61 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.*;
+
+/**
+ * The changes between an old and a new version of a digraph, plus the ids whose ancestors or
+ * descendants were affected (such as for invalidating caches derived from them).
+ */
+public interface GraphDiff<Id> {
+
+  // ===========================================================================
+  // changes
+  // ===========================================================================
+
+  /**
+   * Whether the versions contain the same ids and arcs.
+   */
+  boolean isEmpty();
+
+  /**
+   * The ids only in the new version.
+   */
+  ImmutableSet<Id> addedIdSet();
+
+  /**
+   * The ids only in the old version.
+   */
+  ImmutableSet<Id> removedIdSet();
+
+  /**
+   * The arcs only in the new version, as a mapping from id to the parent ids it gained.
+   */
+  ImmutableSetMultimap<Id, Id> id__addedParentIds();
+
+  /**
+   * The arcs only in the old version, as a mapping from id to the parent ids it lost.
+   */
+  ImmutableSetMultimap<Id, Id> id__removedParentIds();
+
+  /**
+   * The added ids, removed ids, and the ids at either end of an added or removed arc.
+   */
+  ImmutableSet<Id> changedIdSet();
+
+  // ===========================================================================
+  // affected regions
+  // ===========================================================================
+
+  /**
+   * The changed ids and their ancestors in either version, so the ids whose descendants may have
+   * changed.
+   */
+  ImmutableSet<Id> affectedAncestorIdSet();
+
+  /**
+   * The changed ids and their descendants in either version, so the ids whose ancestors may have
+   * changed.
+   */
+  ImmutableSet<Id> affectedDescendantIdSet();
+
+}
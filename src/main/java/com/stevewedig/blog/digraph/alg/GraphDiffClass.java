@@ -0,0 +1,102 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of GraphDiff.
+ */
+public class GraphDiffClass<Id> extends ValueMixin implements GraphDiff<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final ImmutableSet<Id> addedIdSet;
+  private final ImmutableSet<Id> removedIdSet;
+  private final ImmutableSetMultimap<Id, Id> id__addedParentIds;
+  private final ImmutableSetMultimap<Id, Id> id__removedParentIds;
+  private final ImmutableSet<Id> affectedAncestorIdSet;
+  private final ImmutableSet<Id> affectedDescendantIdSet;
+
+  @Override
+  protected Object[] fields() {
+    return array("addedIdSet", addedIdSet, "removedIdSet", removedIdSet, "id__addedParentIds",
+        id__addedParentIds, "id__removedParentIds", id__removedParentIds);
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public GraphDiffClass(ImmutableSet<Id> addedIdSet, ImmutableSet<Id> removedIdSet,
+      ImmutableSetMultimap<Id, Id> id__addedParentIds,
+      ImmutableSetMultimap<Id, Id> id__removedParentIds, ImmutableSet<Id> affectedAncestorIdSet,
+      ImmutableSet<Id> affectedDescendantIdSet) {
+
+    this.addedIdSet = addedIdSet;
+    this.removedIdSet = removedIdSet;
+    this.id__addedParentIds = id__addedParentIds;
+    this.id__removedParentIds = id__removedParentIds;
+    this.affectedAncestorIdSet = affectedAncestorIdSet;
+    this.affectedDescendantIdSet = affectedDescendantIdSet;
+  }
+
+  // ===========================================================================
+  // changes
+  // ===========================================================================
+
+  @Override
+  public boolean isEmpty() {
+    return addedIdSet.isEmpty() && removedIdSet.isEmpty() && id__addedParentIds.isEmpty()
+        && id__removedParentIds.isEmpty();
+  }
+
+  @Override
+  public ImmutableSet<Id> addedIdSet() {
+    return addedIdSet;
+  }
+
+  @Override
+  public ImmutableSet<Id> removedIdSet() {
+    return removedIdSet;
+  }
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__addedParentIds() {
+    return id__addedParentIds;
+  }
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__removedParentIds() {
+    return id__removedParentIds;
+  }
+
+  @Override
+  public ImmutableSet<Id> changedIdSet() {
+    if (changedIdSet == null)
+      changedIdSet =
+          ImmutableSet.<Id>builder().addAll(addedIdSet).addAll(removedIdSet)
+              .addAll(id__addedParentIds.keySet()).addAll(id__addedParentIds.values())
+              .addAll(id__removedParentIds.keySet()).addAll(id__removedParentIds.values())
+              .build();
+    return changedIdSet;
+  }
+
+  private ImmutableSet<Id> changedIdSet;
+
+  // ===========================================================================
+  // affected regions
+  // ===========================================================================
+
+  @Override
+  public ImmutableSet<Id> affectedAncestorIdSet() {
+    return affectedAncestorIdSet;
+  }
+
+  @Override
+  public ImmutableSet<Id> affectedDescendantIdSet() {
+    return affectedDescendantIdSet;
+  }
+
+}
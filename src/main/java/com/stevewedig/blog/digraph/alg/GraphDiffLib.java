@@ -0,0 +1,87 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Set;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * A library for diffing two versions of a digraph.
+ */
+public abstract class GraphDiffLib {
+
+  /**
+   * The changes from an old version of a digraph to a new version, comparing each id's parent set
+   * once, so linear in the size of the graphs (the affected regions only traverse from the changed
+   * ids). Returns immediately for the same instance, or for equal dags with the same structure
+   * hash (which dags cache, see StructureHashLib). The hash alone isn't enough, since it is seeded
+   * from the ids' hashCodes.
+   */
+  public static <Id> GraphDiff<Id> diff(IdGraph<Id> oldGraph, IdGraph<Id> newGraph) {
+
+    if (oldGraph == newGraph)
+      return empty();
+
+    if (oldGraph instanceof IdDag && newGraph instanceof IdDag
+        && StructureHashLib.sameHash((IdDag<Id>) oldGraph, (IdDag<Id>) newGraph)
+        && oldGraph.equals(newGraph))
+      return empty();
+
+    ImmutableSet<Id> oldIds = oldGraph.idSet();
+    ImmutableSet<Id> newIds = newGraph.idSet();
+
+    ImmutableSet<Id> addedIds = Sets.difference(newIds, oldIds).immutableCopy();
+    ImmutableSet<Id> removedIds = Sets.difference(oldIds, newIds).immutableCopy();
+
+    ImmutableSetMultimap.Builder<Id, Id> id__addedParentIds = ImmutableSetMultimap.builder();
+    ImmutableSetMultimap.Builder<Id, Id> id__removedParentIds = ImmutableSetMultimap.builder();
+
+    // covers every arc into a kept or added id
+    for (Id id : newIds) {
+
+      ImmutableSet<Id> newParentIds = newGraph.parentIdSet(id);
+      ImmutableSet<Id> oldParentIds = oldGraph.parentIdSet(id);
+
+      if (newParentIds.equals(oldParentIds))
+        continue;
+
+      id__addedParentIds.putAll(id, Sets.difference(newParentIds, oldParentIds));
+      id__removedParentIds.putAll(id, Sets.difference(oldParentIds, newParentIds));
+    }
+
+    // the arcs into removed ids
+    for (Id id : removedIds)
+      id__removedParentIds.putAll(id, oldGraph.parentIdSet(id));
+
+    ImmutableSetMultimap<Id, Id> addedArcs = id__addedParentIds.build();
+    ImmutableSetMultimap<Id, Id> removedArcs = id__removedParentIds.build();
+
+    ImmutableSet<Id> changedIds =
+        ImmutableSet.<Id>builder().addAll(addedIds).addAll(removedIds)
+            .addAll(addedArcs.keySet()).addAll(addedArcs.values()).addAll(removedArcs.keySet())
+            .addAll(removedArcs.values()).build();
+
+    Set<Id> oldChangedIds = Sets.intersection(changedIds, oldIds);
+    Set<Id> newChangedIds = Sets.intersection(changedIds, newIds);
+
+    ImmutableSet<Id> affectedAncestorIds =
+        ImmutableSet.<Id>builder().addAll(oldGraph.ancestorIdIterable(oldChangedIds, true))
+            .addAll(newGraph.ancestorIdIterable(newChangedIds, true)).build();
+
+    ImmutableSet<Id> affectedDescendantIds =
+        ImmutableSet.<Id>builder().addAll(oldGraph.descendantIdIterable(oldChangedIds, true))
+            .addAll(newGraph.descendantIdIterable(newChangedIds, true)).build();
+
+    return new GraphDiffClass<>(addedIds, removedIds, addedArcs, removedArcs,
+        affectedAncestorIds, affectedDescendantIds);
+  }
+
+  // ===================================
+
+  private static <Id> GraphDiff<Id> empty() {
+    return new GraphDiffClass<>(ImmutableSet.<Id>of(), ImmutableSet.<Id>of(),
+        ImmutableSetMultimap.<Id, Id>of(), ImmutableSetMultimap.<Id, Id>of(),
+        ImmutableSet.<Id>of(), ImmutableSet.<Id>of());
+  }
+
+}
@@ -0,0 +1,98 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * A reusable depth first or breadth first traversal over an IntGraph's indexes, following arcs from
+ * parent to child (traverse intGraph.inverse() to follow arcs from child to parent).
+ * 
+ * A traverser allocates its arrays once and reuses them for every traversal (only growing its open
+ * list as needed), so a traversal allocates nothing per visited index. This means a traverser is
+ * not thread safe, and starting a traversal ends any previous traversal (including an unfinished
+ * iterator). See IntTraverserPool for sharing traversers between queries.
+ */
+public interface IntTraverser {
+
+  /**
+   * The graph being traversed.
+   */
+  IntGraph intGraph();
+
+  // ===========================================================================
+  // visitor
+  // ===========================================================================
+
+  /**
+   * Traverse from a start index, passing each index to a visitor.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start index in the traversal.
+   * @param startIndex The initial index.
+   * @param visitor Receives each index, and can stop the traversal by returning false.
+   * @return Whether the traversal finished (false if the visitor stopped it).
+   */
+  boolean traverse(boolean depthFirst, boolean inclusive, int startIndex, IntVisitor visitor);
+
+  /**
+   * Traverse from start indexes, passing each index to a visitor.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start indexes in the traversal.
+   * @param startIndexes The initial indexes.
+   * @param visitor Receives each index, and can stop the traversal by returning false.
+   * @return Whether the traversal finished (false if the visitor stopped it).
+   */
+  boolean traverse(boolean depthFirst, boolean inclusive, int[] startIndexes, IntVisitor visitor);
+
+  /**
+   * Traverse from start indexes, passing each index to a visitor, but only expanding the indexes a
+   * filter accepts, so the indexes beyond a rejected index are skipped unless reached another way.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start indexes in the traversal.
+   * @param startIndexes The initial indexes.
+   * @param visitor Receives each index, and can stop the traversal by returning false.
+   * @param expandFilter Receives each index (including excluded start indexes) before it is
+   *        expanded, and returns whether to expand it.
+   * @return Whether the traversal finished (false if the visitor stopped it).
+   */
+  boolean traverse(boolean depthFirst, boolean inclusive, int[] startIndexes, IntVisitor visitor,
+      IntVisitor expandFilter);
+
+  // ===========================================================================
+  // iterator
+  // ===========================================================================
+
+  /**
+   * Traverse from a start index as an iterator. The iterator is the traverser itself, so it is only
+   * valid until the next traversal starts.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start index in the traversal.
+   * @param startIndex The initial index.
+   * @return An index iterator corresponding to the traversal.
+   */
+  IntIterator iterator(boolean depthFirst, boolean inclusive, int startIndex);
+
+  /**
+   * Traverse from start indexes as an iterator. The iterator is the traverser itself, so it is only
+   * valid until the next traversal starts.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start indexes in the traversal.
+   * @param startIndexes The initial indexes.
+   * @return An index iterator corresponding to the traversal.
+   */
+  IntIterator iterator(boolean depthFirst, boolean inclusive, int[] startIndexes);
+
+  // ===========================================================================
+  // visited
+  // ===========================================================================
+
+  /**
+   * Whether the current (or most recent) traversal reached an index. An index is reached when it
+   * is discovered, which can be before it is visited.
+   */
+  boolean isReached(int index);
+
+}
@@ -0,0 +1,264 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * An implementation of IntTraverser.
+ */
+public class IntTraverserClass implements IntTraverser, IntIterator {
+
+  // ===========================================================================
+  // inputs
+  // ===========================================================================
+
+  private final IntGraph intGraph;
+
+  private boolean depthFirst;
+  private boolean inclusive;
+
+  // null to expand every index
+  private IntVisitor expandFilter;
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  // used as a stack (depth first) or as a queue starting at openHead (breadth first), each index is
+  // pushed at most once per traversal, so it grows (as needed) to at most indexSize
+  private int[] open;
+  private int openHead = 0;
+  private int openTail = 0;
+
+  // instead of clearing stamps between traversals, each traversal gets a new base stamp, and an
+  // index counts as reached if its stamp is at least the base (and as started if it is base + 1)
+  private final int[] stamps;
+  private int base = 0;
+
+  // lookahead for hasNext(), -1 when empty
+  private int nextIndex = -1;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IntTraverserClass(IntGraph intGraph) {
+
+    this.intGraph = intGraph;
+
+    int indexSize = intGraph.indexSize();
+
+    open = new int[Math.min(indexSize, 16)];
+    stamps = new int[indexSize];
+  }
+
+  @Override
+  public IntGraph intGraph() {
+    return intGraph;
+  }
+
+  // ===========================================================================
+  // visitor
+  // ===========================================================================
+
+  @Override
+  public boolean traverse(boolean depthFirst, boolean inclusive, int startIndex, IntVisitor visitor) {
+
+    start(depthFirst, inclusive);
+
+    push1(startIndex);
+    started(startIndex);
+
+    return drain(visitor);
+  }
+
+  @Override
+  public boolean traverse(boolean depthFirst, boolean inclusive, int[] startIndexes,
+      IntVisitor visitor) {
+
+    start(depthFirst, inclusive, startIndexes);
+
+    return drain(visitor);
+  }
+
+  @Override
+  public boolean traverse(boolean depthFirst, boolean inclusive, int[] startIndexes,
+      IntVisitor visitor, IntVisitor expandFilter) {
+
+    start(depthFirst, inclusive, startIndexes);
+
+    this.expandFilter = expandFilter;
+
+    return drain(visitor);
+  }
+
+  private boolean drain(IntVisitor visitor) {
+
+    while (hasNext())
+      if (!visitor.visit(next()))
+        return false;
+
+    return true;
+  }
+
+  // ===========================================================================
+  // iterator
+  // ===========================================================================
+
+  @Override
+  public IntIterator iterator(boolean depthFirst, boolean inclusive, int startIndex) {
+
+    start(depthFirst, inclusive);
+
+    push1(startIndex);
+    started(startIndex);
+
+    return this;
+  }
+
+  @Override
+  public IntIterator iterator(boolean depthFirst, boolean inclusive, int[] startIndexes) {
+
+    start(depthFirst, inclusive, startIndexes);
+
+    return this;
+  }
+
+  // =================================
+  // hasNext
+  // =================================
+
+  @Override
+  public boolean hasNext() {
+
+    findNext();
+
+    return nextIndex != -1;
+  }
+
+  // =================================
+  // next
+  // =================================
+
+  @Override
+  public int next() {
+
+    if (!hasNext())
+      throw new NoSuchElementException();
+
+    int index = nextIndex;
+
+    nextIndex = -1;
+
+    return index;
+  }
+
+  // ===========================================================================
+  // visited
+  // ===========================================================================
+
+  @Override
+  public boolean isReached(int index) {
+    return stamps[index] >= base;
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private void start(boolean depthFirst, boolean inclusive) {
+
+    this.depthFirst = depthFirst;
+    this.inclusive = inclusive;
+
+    openHead = 0;
+    openTail = 0;
+    nextIndex = -1;
+    expandFilter = null;
+
+    // only clear the stamps once every 2^30 traversals
+    if (base >= Integer.MAX_VALUE - 2) {
+      Arrays.fill(stamps, 0);
+      base = 0;
+    }
+
+    base += 2;
+  }
+
+  private void start(boolean depthFirst, boolean inclusive, int[] startIndexes) {
+
+    start(depthFirst, inclusive);
+
+    if (depthFirst)
+      // reversed because we want startIndexes[0] to end up on top
+      for (int i = startIndexes.length - 1; i >= 0; i--)
+        push1(startIndexes[i]);
+    else
+      for (int startIndex : startIndexes)
+        push1(startIndex);
+
+    for (int startIndex : startIndexes)
+      started(startIndex);
+  }
+
+  // after push1(), which skips reached indexes
+  private void started(int startIndex) {
+    stamps[startIndex] = base + 1;
+  }
+
+  // =================================
+  // findNext
+  // =================================
+
+  private void findNext() {
+
+    while (nextIndex == -1 && openHead != openTail) {
+
+      int index = depthFirst ? open[--openTail] : open[openHead++];
+
+      if (expandFilter == null || expandFilter.visit(index))
+        expand(index);
+
+      if (!inclusive && stamps[index] == base + 1)
+        continue;
+
+      nextIndex = index;
+    }
+  }
+
+  // =================================
+  // expand
+  // =================================
+
+  private void expand(int index) {
+
+    int childCount = intGraph.childCount(index);
+
+    if (depthFirst)
+      // reversed because we want the first child to end up on top
+      for (int position = childCount - 1; position >= 0; position--)
+        push1(intGraph.childIndex(index, position));
+    else
+      for (int position = 0; position < childCount; position++)
+        push1(intGraph.childIndex(index, position));
+  }
+
+  // =================================
+  // push1
+  // =================================
+
+  private void push1(int index) {
+
+    if (stamps[index] >= base)
+      return;
+
+    stamps[index] = base;
+
+    if (openTail == open.length)
+      open = Arrays.copyOf(open, Math.min(2 * open.length, stamps.length));
+
+    open[openTail++] = index;
+  }
+
+}
@@ -0,0 +1,28 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+
+/**
+ * Idle IntTraversers over one IntGraph, so queries reuse a traverser's arrays instead of allocating
+ * arrays the size of the graph each time. Each traversal acquires its own traverser, so nested or
+ * concurrent traversals never share one, and the pool can be shared between threads.
+ */
+public interface IntTraverserPool {
+
+  /**
+   * The graph being traversed.
+   */
+  IntGraph intGraph();
+
+  /**
+   * An idle traverser, or a new one if every traverser is in use.
+   */
+  IntTraverser acquire();
+
+  /**
+   * Return a traverser once its traversal is finished (a traverser that is never released is just
+   * garbage collected).
+   */
+  void release(IntTraverser traverser);
+
+}
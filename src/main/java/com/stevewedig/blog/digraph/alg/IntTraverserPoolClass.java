@@ -0,0 +1,56 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+
+/**
+ * An implementation of IntTraverserPool, which keeps every released traverser (so at most as many
+ * as were ever in use at once).
+ */
+public class IntTraverserPoolClass implements IntTraverserPool {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IntTraverserPoolClass(IntGraph intGraph) {
+    this.intGraph = intGraph;
+  }
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  @Override
+  public IntGraph intGraph() {
+    return intGraph;
+  }
+
+  private final IntGraph intGraph;
+
+  // ===========================================================================
+  // traversers
+  // ===========================================================================
+
+  @Override
+  public synchronized IntTraverser acquire() {
+
+    if (idle.isEmpty())
+      return new IntTraverserClass(intGraph);
+
+    return idle.remove(idle.size() - 1);
+  }
+
+  @Override
+  public synchronized void release(IntTraverser traverser) {
+
+    if (traverser.intGraph() != intGraph)
+      throw new IllegalArgumentException("traverser is for another graph");
+
+    idle.add(traverser);
+  }
+
+  private final List<IntTraverser> idle = new ArrayList<>();
+
+}
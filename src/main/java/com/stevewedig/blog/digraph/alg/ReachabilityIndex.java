@@ -0,0 +1,59 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * A precomputed index over an immutable dag, answering ancestor and descendant checks without
+ * collecting ancestor or descendant sets. Queries are thread safe.
+ */
+public interface ReachabilityIndex<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * Whether an id is a ancestor of another id (same as IdGraph.isAncestorOf).
+   */
+  boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive);
+
+  /**
+   * Whether an id is a descendant of another id (same as IdGraph.isDescendantOf).
+   */
+  boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive);
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * Whether there is a path from an index to a target index (an index can always reach itself).
+   */
+  boolean canReach(int index, int targetIndex);
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  /**
+   * The number of randomized interval labels per index.
+   */
+  int labelSize();
+
+  /**
+   * How long building the index took, in nanoseconds.
+   */
+  long buildNanos();
+
+  /**
+   * The approximate memory used by the index's arrays, in bytes (not including the IdIndex or
+   * graph).
+   */
+  long memoryBytes();
+
+}
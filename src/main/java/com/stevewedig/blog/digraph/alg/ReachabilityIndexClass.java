@@ -0,0 +1,370 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Stopwatch;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.StrLib;
+
+/**
+ * An implementation of ReachabilityIndex, using GRAIL-style randomized interval labels plus
+ * topological levels.
+ * 
+ * Each label comes from a depth first traversal with randomized root and child orders. An index's
+ * label is the interval [low, post], where post is its post-order rank and low is the smallest rank
+ * among its descendants. If a path from u to v exists, v's interval is inside u's interval in every
+ * label, so most unreachable pairs are rejected by a few int comparisons. The first traversal also
+ * records spanning tree intervals, which confirm most reachable pairs. The remaining pairs fall back
+ * to a depth first search that skips every child whose labels exclude the target.
+ * 
+ * http://www.cs.rpi.edu/~zaki/PaperDir/VLDB10.pdf
+ */
+public class ReachabilityIndexClass<Id> implements ReachabilityIndex<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final IntGraph intGraph;
+
+  // index -> topological level, an index can only reach indexes in later levels
+  private final int[] levels;
+
+  // label -> index -> interval
+  private final int[][] lows;
+  private final int[][] posts;
+
+  // index -> start of its spanning tree interval in the first label (which ends at posts[0])
+  private final int[] treeLows;
+
+  private final long buildNanos;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public ReachabilityIndexClass(IdIndex<Id> idIndex, IntGraph intGraph, int labelSize, long seed) {
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+
+    this.idIndex = idIndex;
+    this.intGraph = intGraph;
+
+    Optional<TopsortLevels<Id>> optionalLevels = TopsortLib.levels(idIndex, intGraph);
+
+    if (!optionalLevels.isPresent())
+      throw new DagCannotHaveCycle();
+
+    TopsortLevels<Id> topsortLevels = optionalLevels.get();
+
+    int indexSize = intGraph.indexSize();
+
+    levels = new int[indexSize];
+    for (int index = 0; index < indexSize; index++)
+      levels[index] = topsortLevels.indexLevel(index);
+
+    lows = new int[labelSize][];
+    posts = new int[labelSize][];
+    treeLows = new int[indexSize];
+
+    int[] rootIndexes = topsortLevels.levelSize() == 0 ? new int[0] : topsortLevels.levelIndexes(0);
+
+    Random random = new Random(seed);
+
+    for (int label = 0; label < labelSize; label++)
+      buildLabel(label, rootIndexes, random);
+
+    buildNanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  // ===========================================================================
+  // build
+  // ===========================================================================
+
+  private void buildLabel(int label, int[] rootIndexes, Random random) {
+
+    int indexSize = intGraph.indexSize();
+
+    int[] low = new int[indexSize];
+    int[] post = new int[indexSize];
+    lows[label] = low;
+    posts[label] = post;
+
+    boolean recordTree = label == 0;
+
+    // an iterative depth first traversal, so deep dags can't overflow the call stack
+    boolean[] reached = new boolean[indexSize];
+    int[] stack = new int[indexSize];
+    int[] stackPositions = new int[indexSize];
+    int[] stackRotations = new int[indexSize];
+    int stackSize = 0;
+
+    int rank = 0;
+
+    shuffle(rootIndexes, random);
+
+    for (int rootIndex : rootIndexes) {
+
+      reached[rootIndex] = true;
+      low[rootIndex] = Integer.MAX_VALUE;
+      if (recordTree)
+        treeLows[rootIndex] = Integer.MAX_VALUE;
+      stack[stackSize] = rootIndex;
+      stackPositions[stackSize] = 0;
+      stackRotations[stackSize] = random.nextInt(Math.max(1, intGraph.childCount(rootIndex)));
+      stackSize++;
+
+      while (stackSize > 0) {
+
+        int top = stackSize - 1;
+        int index = stack[top];
+        int childCount = intGraph.childCount(index);
+
+        if (stackPositions[top] < childCount) {
+
+          // children are visited starting at a random position, instead of shuffling them
+          int position = (stackPositions[top]++ + stackRotations[top]) % childCount;
+          int child = intGraph.childIndex(index, position);
+
+          if (reached[child])
+            // already finished (a dag has no back arcs), so just take its low
+            low[index] = Math.min(low[index], low[child]);
+          else {
+            reached[child] = true;
+            low[child] = Integer.MAX_VALUE;
+            if (recordTree)
+              treeLows[child] = Integer.MAX_VALUE;
+            stack[stackSize] = child;
+            stackPositions[stackSize] = 0;
+            stackRotations[stackSize] = random.nextInt(Math.max(1, intGraph.childCount(child)));
+            stackSize++;
+          }
+
+          continue;
+        }
+
+        // finished, so assign the post-order rank and pass the low up to the spanning tree parent
+        post[index] = rank++;
+        low[index] = Math.min(low[index], post[index]);
+        if (recordTree)
+          treeLows[index] = Math.min(treeLows[index], post[index]);
+
+        stackSize--;
+
+        if (stackSize > 0) {
+          int parent = stack[stackSize - 1];
+          low[parent] = Math.min(low[parent], low[index]);
+          if (recordTree)
+            treeLows[parent] = Math.min(treeLows[parent], treeLows[index]);
+        }
+      }
+    }
+  }
+
+  private static void shuffle(int[] indexes, Random random) {
+
+    for (int i = indexes.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int index = indexes[i];
+      indexes[i] = indexes[j];
+      indexes[j] = index;
+    }
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (id.equals(potentialAncestor))
+      return inclusive;
+
+    int index = idIndex.indexOf(id);
+    int potentialAncestorIndex = idIndex.indexOf(potentialAncestor);
+
+    if (index == -1 || potentialAncestorIndex == -1)
+      return false;
+
+    return canReach(potentialAncestorIndex, index);
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public boolean canReach(int index, int targetIndex) {
+
+    if (index == targetIndex)
+      return true;
+
+    if (!mayReach(index, targetIndex))
+      return false;
+
+    if (treeReaches(index, targetIndex))
+      return true;
+
+    // fallback: depth first search, only expanding children that may reach the target (the search
+    // state is local, so concurrent queries don't interfere)
+    int[] stack = new int[16];
+    int stackSize = 0;
+    IntSet reached = new IntSet();
+
+    stack[stackSize++] = index;
+    reached.add(index);
+
+    while (stackSize > 0) {
+
+      int current = stack[--stackSize];
+
+      int childCount = intGraph.childCount(current);
+      for (int position = 0; position < childCount; position++) {
+
+        int child = intGraph.childIndex(current, position);
+
+        if (child == targetIndex || treeReaches(child, targetIndex))
+          return true;
+
+        if (mayReach(child, targetIndex) && reached.add(child)) {
+
+          if (stackSize == stack.length)
+            stack = Arrays.copyOf(stack, stackSize * 2);
+
+          stack[stackSize++] = child;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  // false means definitely not reachable
+  private boolean mayReach(int index, int targetIndex) {
+
+    if (levels[index] >= levels[targetIndex])
+      return false;
+
+    for (int label = 0; label < lows.length; label++)
+      if (lows[label][targetIndex] < lows[label][index]
+          || posts[label][targetIndex] > posts[label][index])
+        return false;
+
+    return true;
+  }
+
+  // true means definitely reachable (a spanning tree descendant)
+  private boolean treeReaches(int index, int targetIndex) {
+
+    if (lows.length == 0)
+      return false;
+
+    int targetPost = posts[0][targetIndex];
+
+    return treeLows[index] <= targetPost && targetPost <= posts[0][index];
+  }
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  @Override
+  public int labelSize() {
+    return lows.length;
+  }
+
+  @Override
+  public long buildNanos() {
+    return buildNanos;
+  }
+
+  @Override
+  public long memoryBytes() {
+
+    long ints = levels.length + treeLows.length;
+
+    for (int label = 0; label < lows.length; label++)
+      ints += lows[label].length + posts[label].length;
+
+    return ints * 4;
+  }
+
+  @Override
+  public String toString() {
+    return StrLib.format(
+        "ReachabilityIndex(indexSize = %s, labelSize = %s, buildNanos = %s, memoryBytes = %s)",
+        levels.length, labelSize(), buildNanos, memoryBytes());
+  }
+
+  // ===========================================================================
+  // IntSet
+  // ===========================================================================
+
+  // a small open addressing set of non-negative ints, grown as needed
+  private static class IntSet {
+
+    private int[] table = newTable(16);
+    private int size = 0;
+
+    public boolean add(int value) {
+
+      if ((size + 1) * 2 > table.length)
+        grow();
+
+      int mask = table.length - 1;
+
+      for (int slot = hash(value) & mask;; slot = (slot + 1) & mask) {
+
+        if (table[slot] == value)
+          return false;
+
+        if (table[slot] == -1) {
+          table[slot] = value;
+          size++;
+          return true;
+        }
+      }
+    }
+
+    private void grow() {
+
+      int[] oldTable = table;
+
+      table = newTable(oldTable.length * 2);
+      size = 0;
+
+      for (int value : oldTable)
+        if (value != -1)
+          add(value);
+    }
+
+    private static int[] newTable(int length) {
+      int[] table = new int[length];
+      Arrays.fill(table, -1);
+      return table;
+    }
+
+    private static int hash(int value) {
+      int hash = value * 0x9E3779B9;
+      return hash ^ (hash >>> 16);
+    }
+
+  }
+
+}
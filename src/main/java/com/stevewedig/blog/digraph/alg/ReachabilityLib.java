@@ -0,0 +1,45 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Building reachability indexes.
+ */
+public abstract class ReachabilityLib {
+
+  /**
+   * The default number of randomized interval labels, more labels reject more unreachable pairs
+   * without searching but cost 2 ints per index each.
+   */
+  public static final int defaultLabelSize = 3;
+
+  /**
+   * Build a reachability index over a dag, with the default label size and a fixed seed.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dag's arcs.
+   * @return The reachability index.
+   */
+  public static <Id> ReachabilityIndex<Id> index(IdIndex<Id> idIndex, IntGraph intGraph)
+      throws DagCannotHaveCycle {
+
+    return index(idIndex, intGraph, defaultLabelSize, 0);
+  }
+
+  /**
+   * Build a reachability index over a dag.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dag's arcs.
+   * @param labelSize The number of randomized interval labels.
+   * @param seed The seed for randomizing the labels.
+   * @return The reachability index.
+   */
+  public static <Id> ReachabilityIndex<Id> index(IdIndex<Id> idIndex, IntGraph intGraph,
+      int labelSize, long seed) throws DagCannotHaveCycle {
+
+    return new ReachabilityIndexClass<Id>(idIndex, intGraph, labelSize, seed);
+  }
+
+}
@@ -0,0 +1,87 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * A digraph's strongly connected components, so the maximal id sets where every id can reach every
+ * other id. Components are numbered 0 until componentSize() in topological order of the
+ * condensation, so an arc always goes from a component to itself or to a larger component.
+ */
+public interface StrongComponents<Id> {
+
+  // ===========================================================================
+  // components
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * The number of components.
+   */
+  int componentSize();
+
+  /**
+   * Getting an id's component.
+   */
+  int component(Id id);
+
+  /**
+   * Getting an index's component.
+   */
+  int indexComponent(int index);
+
+  /**
+   * The mapping from id to component.
+   */
+  ImmutableMap<Id, Integer> id__component();
+
+  /**
+   * Getting the ids in a component.
+   */
+  ImmutableSet<Id> componentIdSet(int component);
+
+  /**
+   * The components' id sets, in component order.
+   */
+  ImmutableList<ImmutableSet<Id>> componentIdSetList();
+
+  /**
+   * Whether two ids are in the same component.
+   */
+  boolean isSameComponent(Id id, Id otherId);
+
+  // ===========================================================================
+  // cycles
+  // ===========================================================================
+
+  /**
+   * Whether a component contains a cycle (it has multiple ids, or one id with an arc to itself).
+   */
+  boolean isCyclic(int component);
+
+  /**
+   * Whether any component contains a cycle, so whether the digraph does.
+   */
+  boolean containsCycle();
+
+  /**
+   * The cyclic components' id sets, in component order.
+   */
+  ImmutableList<ImmutableSet<Id>> cyclicComponentIdSetList();
+
+  // ===========================================================================
+  // condensation
+  // ===========================================================================
+
+  /**
+   * The condensation, a dag of components with an arc between two components whenever the digraph
+   * has an arc between their ids.
+   */
+  IdDag<Integer> condensation();
+
+}
@@ -0,0 +1,198 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * An implementation of StrongComponents, over a component array indexed by IdIndex.
+ */
+public class StrongComponentsClass<Id> implements StrongComponents<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final IntGraph intGraph;
+
+  // index -> component
+  private final int[] components;
+
+  private final int componentSize;
+
+  // component -> whether it contains a cycle
+  private final boolean[] cyclic;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public StrongComponentsClass(IdIndex<Id> idIndex, IntGraph intGraph, int[] components,
+      int componentSize) {
+
+    this.idIndex = idIndex;
+    this.intGraph = intGraph;
+    this.components = components;
+    this.componentSize = componentSize;
+
+    cyclic = new boolean[componentSize];
+
+    // a component is cyclic if it has an arc inside it
+    for (int index = 0; index < components.length; index++) {
+
+      int childCount = intGraph.childCount(index);
+      for (int position = 0; position < childCount; position++)
+        if (components[intGraph.childIndex(index, position)] == components[index])
+          cyclic[components[index]] = true;
+    }
+  }
+
+  // ===========================================================================
+  // components
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public int componentSize() {
+    return componentSize;
+  }
+
+  @Override
+  public int component(Id id) {
+    return components[idIndex.index(id)];
+  }
+
+  @Override
+  public int indexComponent(int index) {
+    return components[index];
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableMap<Id, Integer> id__component() {
+    if (id__component == null) {
+
+      ImmutableMap.Builder<Id, Integer> builder = ImmutableMap.builder();
+
+      for (int index = 0; index < components.length; index++)
+        builder.put(idIndex.id(index), components[index]);
+
+      id__component = builder.build();
+    }
+    return id__component;
+  }
+
+  private volatile ImmutableMap<Id, Integer> id__component;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> componentIdSet(int component) {
+    return componentIdSetList().get(component);
+  }
+
+  @Override
+  public ImmutableList<ImmutableSet<Id>> componentIdSetList() {
+    if (componentIdSetList == null) {
+
+      List<ImmutableSet.Builder<Id>> builders = new ArrayList<>(componentSize);
+
+      for (int component = 0; component < componentSize; component++)
+        builders.add(ImmutableSet.<Id>builder());
+
+      for (int index = 0; index < components.length; index++)
+        builders.get(components[index]).add(idIndex.id(index));
+
+      ImmutableList.Builder<ImmutableSet<Id>> builder = ImmutableList.builder();
+
+      for (ImmutableSet.Builder<Id> componentBuilder : builders)
+        builder.add(componentBuilder.build());
+
+      componentIdSetList = builder.build();
+    }
+    return componentIdSetList;
+  }
+
+  private volatile ImmutableList<ImmutableSet<Id>> componentIdSetList;
+
+  // ===================================
+
+  @Override
+  public boolean isSameComponent(Id id, Id otherId) {
+    return component(id) == component(otherId);
+  }
+
+  // ===========================================================================
+  // cycles
+  // ===========================================================================
+
+  @Override
+  public boolean isCyclic(int component) {
+    return cyclic[component];
+  }
+
+  @Override
+  public boolean containsCycle() {
+    for (boolean componentCyclic : cyclic)
+      if (componentCyclic)
+        return true;
+    return false;
+  }
+
+  @Override
+  public ImmutableList<ImmutableSet<Id>> cyclicComponentIdSetList() {
+
+    ImmutableList.Builder<ImmutableSet<Id>> builder = ImmutableList.builder();
+
+    for (int component = 0; component < componentSize; component++)
+      if (cyclic[component])
+        builder.add(componentIdSet(component));
+
+    return builder.build();
+  }
+
+  // ===========================================================================
+  // condensation
+  // ===========================================================================
+
+  @Override
+  public IdDag<Integer> condensation() {
+    if (condensation == null) {
+
+      ImmutableSet.Builder<Integer> componentSet = ImmutableSet.builder();
+
+      for (int component = 0; component < componentSize; component++)
+        componentSet.add(component);
+
+      ImmutableSetMultimap.Builder<Integer, Integer> component__parentComponents =
+          ImmutableSetMultimap.builder();
+
+      for (int index = 0; index < components.length; index++) {
+
+        int childCount = intGraph.childCount(index);
+        for (int position = 0; position < childCount; position++) {
+
+          int childComponent = components[intGraph.childIndex(index, position)];
+
+          if (childComponent != components[index])
+            component__parentComponents.put(childComponent, components[index]);
+        }
+      }
+
+      condensation =
+          IdDagLib.fromParentMap(componentSet.build(), component__parentComponents.build());
+    }
+    return condensation;
+  }
+
+  private volatile IdDag<Integer> condensation;
+
+}
@@ -0,0 +1,117 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Arrays;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Finding strongly connected components.
+ */
+public abstract class StrongComponentsLib {
+
+  /**
+   * Find a digraph's strongly connected components with Tarjan's algorithm, in linear time.
+   * 
+   * The depth first search uses an explicit stack of (index, next child position) frames instead of
+   * recursion, so long paths can't overflow the call stack. Tarjan's algorithm completes each
+   * component after every component it can reach, so components are numbered in reverse completion
+   * order, making the numbering a topological order of the condensation.
+   * 
+   * http://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The digraph's arcs.
+   * @return The components.
+   */
+  public static <Id> StrongComponents<Id> tarjan(IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    int indexSize = intGraph.indexSize();
+
+    // index -> discovery order (-1 until discovered)
+    int[] order = new int[indexSize];
+    Arrays.fill(order, -1);
+
+    // index -> smallest discovery order reachable through the search tree and one more arc
+    int[] low = new int[indexSize];
+
+    // index -> completion order of its component (-1 while on the component stack)
+    int[] components = new int[indexSize];
+    Arrays.fill(components, -1);
+
+    // discovered indexes whose components aren't complete yet
+    int[] componentStack = new int[indexSize];
+    int componentStackSize = 0;
+
+    // the search path, with each frame's next child position
+    int[] frames = new int[indexSize];
+    int[] framePositions = new int[indexSize];
+    int frameSize = 0;
+
+    int orderSize = 0;
+    int componentSize = 0;
+
+    for (int root = 0; root < indexSize; root++) {
+
+      if (order[root] != -1)
+        continue;
+
+      order[root] = low[root] = orderSize++;
+      componentStack[componentStackSize++] = root;
+      frames[frameSize] = root;
+      framePositions[frameSize++] = 0;
+
+      while (frameSize > 0) {
+
+        int index = frames[frameSize - 1];
+        int position = framePositions[frameSize - 1];
+
+        if (position < intGraph.childCount(index)) {
+
+          framePositions[frameSize - 1]++;
+
+          int child = intGraph.childIndex(index, position);
+
+          if (order[child] == -1) {
+
+            // descend
+            order[child] = low[child] = orderSize++;
+            componentStack[componentStackSize++] = child;
+            frames[frameSize] = child;
+            framePositions[frameSize++] = 0;
+
+          } else if (components[child] == -1)
+            // still on the component stack, so in the current component
+            low[index] = Math.min(low[index], order[child]);
+
+          continue;
+        }
+
+        // all children explored
+        frameSize--;
+
+        if (low[index] == order[index]) {
+
+          int member;
+          do {
+            member = componentStack[--componentStackSize];
+            components[member] = componentSize;
+          } while (member != index);
+
+          componentSize++;
+        }
+
+        if (frameSize > 0) {
+          int parent = frames[frameSize - 1];
+          low[parent] = Math.min(low[parent], low[index]);
+        }
+      }
+    }
+
+    // reverse completion order is a topological order
+    for (int index = 0; index < indexSize; index++)
+      components[index] = componentSize - 1 - components[index];
+
+    return new StrongComponentsClass<Id>(idIndex, intGraph, components, componentSize);
+  }
+
+}
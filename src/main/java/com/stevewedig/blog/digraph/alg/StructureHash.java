@@ -0,0 +1,57 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * Merkle style 64 bit hashes over an immutable dag: one for the whole graph, and one for each id's
+ * descendants (its subtree in a tree) and ancestors. Equal hashes mean equal structure with
+ * overwhelming probability, so they cheaply reject unequal graphs and find the parts of a dag that
+ * are unchanged between versions. Queries are thread safe.
+ */
+public interface StructureHash<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  // ===========================================================================
+  // hashes
+  // ===========================================================================
+
+  /**
+   * A hash of the ids and arcs, independent of their order.
+   */
+  long graphHash();
+
+  /**
+   * A hash of an id and its descendant graph, so equal for ids whose descendants and arcs between
+   * them are the same.
+   */
+  long descendantHash(Id id);
+
+  /**
+   * A hash of an id and its ancestor graph, so equal for ids whose ancestors and arcs between them
+   * are the same.
+   */
+  long ancestorHash(Id id);
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * The descendant hash of an index.
+   */
+  long indexDescendantHash(int index);
+
+  /**
+   * The ancestor hash of an index.
+   */
+  long indexAncestorHash(int index);
+
+}
@@ -0,0 +1,144 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.List;
+
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * An implementation of StructureHash.
+ * 
+ * An id's descendant hash mixes its own hash with the sum of its children's mixed descendant hashes
+ * (filled in reverse topological order), and ancestor hashes do the same with parents. Summing
+ * makes the hashes independent of index and arc order, so different implementations of the same
+ * dag hash the same. Building is linear in ids plus arcs.
+ */
+public class StructureHashClass<Id> implements StructureHash<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final long graphHash;
+
+  // index -> hash
+  private final long[] descendantHashes;
+  private final long[] ancestorHashes;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public StructureHashClass(IdIndex<Id> idIndex, IntGraph intGraph, List<Id> topsortIdList) {
+
+    this.idIndex = idIndex;
+
+    int size = intGraph.indexSize();
+
+    long[] idHashes = new long[size];
+
+    for (int index = 0; index < size; index++)
+      idHashes[index] = mix(idIndex.id(index).hashCode());
+
+    int[] topsortIndexes = new int[size];
+
+    for (int i = 0; i < size; i++)
+      topsortIndexes[i] = idIndex.index(topsortIdList.get(i));
+
+    // arcs as (parent, child) pairs, so the graph hash doesn't depend on a topsort
+    long graphHash = size;
+
+    for (int index = 0; index < size; index++) {
+
+      long parentSum = 0;
+
+      for (int position = 0; position < intGraph.parentCount(index); position++)
+        parentSum += mix(idHashes[intGraph.parentIndex(index, position)] ^ parentSalt);
+
+      graphHash += mix(idHashes[index] + mix(parentSum));
+    }
+
+    this.graphHash = mix(graphHash);
+
+    descendantHashes = new long[size];
+
+    for (int i = size - 1; i >= 0; i--) {
+
+      int index = topsortIndexes[i];
+      long childSum = 0;
+
+      for (int position = 0; position < intGraph.childCount(index); position++)
+        childSum += mix(descendantHashes[intGraph.childIndex(index, position)] ^ childSalt);
+
+      descendantHashes[index] = mix(idHashes[index] + mix(childSum));
+    }
+
+    ancestorHashes = new long[size];
+
+    for (int i = 0; i < size; i++) {
+
+      int index = topsortIndexes[i];
+      long parentSum = 0;
+
+      for (int position = 0; position < intGraph.parentCount(index); position++)
+        parentSum += mix(ancestorHashes[intGraph.parentIndex(index, position)] ^ parentSalt);
+
+      ancestorHashes[index] = mix(idHashes[index] + mix(parentSum));
+    }
+  }
+
+  // ===================================
+
+  private static final long parentSalt = 0x9e3779b97f4a7c15L;
+  private static final long childSalt = 0xc2b2ae3d27d4eb4fL;
+
+  // the splitmix64 finalizer
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+    return value ^ (value >>> 31);
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  // ===========================================================================
+  // hashes
+  // ===========================================================================
+
+  @Override
+  public long graphHash() {
+    return graphHash;
+  }
+
+  @Override
+  public long descendantHash(Id id) {
+    return descendantHashes[idIndex.index(id)];
+  }
+
+  @Override
+  public long ancestorHash(Id id) {
+    return ancestorHashes[idIndex.index(id)];
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public long indexDescendantHash(int index) {
+    return descendantHashes[index];
+  }
+
+  @Override
+  public long indexAncestorHash(int index) {
+    return ancestorHashes[index];
+  }
+
+}
@@ -0,0 +1,115 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableSet;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Building and comparing structure hashes.
+ */
+public abstract class StructureHashLib {
+
+  // ===========================================================================
+  // building
+  // ===========================================================================
+
+  /**
+   * Hash a dag.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dag's arcs.
+   * @param topsortIdList The dag's ids in topological order.
+   * @return The structure hash.
+   */
+  public static <Id> StructureHash<Id> hash(IdIndex<Id> idIndex, IntGraph intGraph,
+      List<Id> topsortIdList) {
+
+    return new StructureHashClass<>(idIndex, intGraph, topsortIdList);
+  }
+
+  /**
+   * Hash a dag, without using its cached structure hash.
+   */
+  public static <Id> StructureHash<Id> hash(IdDag<Id> dag) throws DagCannotHaveCycle {
+    return hash(dag.idIndex(), dag.intGraph(), dag.topsortIdList());
+  }
+
+  // ===========================================================================
+  // comparing
+  // ===========================================================================
+
+  /**
+   * Whether two dags have the same structure hash, so usually the same ids and arcs (constant time
+   * once both hashes are cached). This isn't proof of equality, since ids with colliding
+   * hashCodes hash the same, but different hashes prove the dags differ.
+   */
+  public static <Id> boolean sameHash(IdDag<Id> dag1, IdDag<Id> dag2) {
+    return dag1 == dag2 || dag1.structureHash().graphHash() == dag2.structureHash().graphHash();
+  }
+
+  // ===================================
+
+  /**
+   * For IdDag equals() implementations: whether another object is the same class of dag with the
+   * same structure hash. Unequal dags almost never are, so only these need their arcs compared.
+   */
+  public static boolean sameClassAndHash(IdDag<?> dag, Object other) {
+
+    if (other == null || other.getClass() != dag.getClass())
+      return false;
+
+    return dag.structureHash().graphHash() == ((IdDag<?>) other).structureHash().graphHash();
+  }
+
+  /**
+   * For IdDag hashCode() implementations: a hash of the class and structure hash, consistent with
+   * sameClassAndHash().
+   */
+  public static int classAndHashCode(IdDag<?> dag) {
+    long graphHash = dag.structureHash().graphHash();
+    return 31 * dag.getClass().hashCode() + (int) (graphHash ^ (graphHash >>> 32));
+  }
+
+  // ===================================
+
+  /**
+   * The ids in both versions of a dag whose descendant graphs are unchanged (so results computed
+   * from their descendants can be reused).
+   */
+  public static <Id> ImmutableSet<Id> unchangedDescendantIdSet(IdDag<Id> oldDag,
+      IdDag<Id> newDag) {
+
+    StructureHash<Id> oldHash = oldDag.structureHash();
+    StructureHash<Id> newHash = newDag.structureHash();
+
+    ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+    for (Id id : newDag.idSet())
+      if (oldDag.idSet().contains(id) && oldHash.descendantHash(id) == newHash.descendantHash(id))
+        builder.add(id);
+
+    return builder.build();
+  }
+
+  /**
+   * The ids in both versions of a dag whose ancestor graphs are unchanged (so results computed from
+   * their ancestors can be reused).
+   */
+  public static <Id> ImmutableSet<Id> unchangedAncestorIdSet(IdDag<Id> oldDag, IdDag<Id> newDag) {
+
+    StructureHash<Id> oldHash = oldDag.structureHash();
+    StructureHash<Id> newHash = newDag.structureHash();
+
+    ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+    for (Id id : newDag.idSet())
+      if (oldDag.idSet().contains(id) && oldHash.ancestorHash(id) == newHash.ancestorHash(id))
+        builder.add(id);
+
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * A topological sort grouped into levels (wavefronts). Level 0 contains the roots (sources), and
+ * each other id is in the level after its deepest parent, so the ids in a level only depend on ids
+ * in earlier levels and can be processed in parallel.
+ */
+public interface TopsortLevels<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * A topologically sorted list of ids, ordered by level and then by index within each level.
+   */
+  ImmutableList<Id> topsortIdList();
+
+  // ===========================================================================
+  // levels
+  // ===========================================================================
+
+  /**
+   * The number of levels (the number of ids on the longest path).
+   */
+  int levelSize();
+
+  /**
+   * Getting an id's level.
+   */
+  int level(Id id);
+
+  /**
+   * Getting an index's level.
+   */
+  int indexLevel(int index);
+
+  /**
+   * Getting the ids in a level (0 until levelSize), in index order.
+   */
+  ImmutableList<Id> levelIdList(int level);
+
+  /**
+   * The ids in each level.
+   */
+  ImmutableList<ImmutableList<Id>> levelIdLists();
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * A copy of the topologically sorted indexes, ordered by level and then by index.
+   */
+  int[] topsortIndexes();
+
+  /**
+   * A copy of the indexes in a level, in index order.
+   */
+  int[] levelIndexes(int level);
+
+}
@@ -0,0 +1,130 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * An implementation of TopsortLevels.
+ */
+public class TopsortLevelsClass<Id> implements TopsortLevels<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+
+  // indexes ordered by level, then by index
+  private final int[] sorted;
+
+  // level i is sorted[levelOffsets[i]] until sorted[levelOffsets[i + 1]]
+  private final int[] levelOffsets;
+
+  // index -> level
+  private final int[] indexLevels;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public TopsortLevelsClass(IdIndex<Id> idIndex, int[] sorted, int[] levelOffsets) {
+
+    this.idIndex = idIndex;
+    this.sorted = sorted;
+    this.levelOffsets = levelOffsets;
+
+    indexLevels = new int[sorted.length];
+    for (int level = 0; level < levelSize(); level++)
+      for (int i = levelOffsets[level]; i < levelOffsets[level + 1]; i++)
+        indexLevels[sorted[i]] = level;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public ImmutableList<Id> topsortIdList() {
+    if (topsortIdList == null)
+      topsortIdList = idList(0, sorted.length);
+    return topsortIdList;
+  }
+
+  private ImmutableList<Id> topsortIdList;
+
+  // ===========================================================================
+  // levels
+  // ===========================================================================
+
+  @Override
+  public int levelSize() {
+    return levelOffsets.length - 1;
+  }
+
+  @Override
+  public int level(Id id) {
+    return indexLevel(idIndex.index(id));
+  }
+
+  @Override
+  public int indexLevel(int index) {
+    return indexLevels[index];
+  }
+
+  @Override
+  public ImmutableList<Id> levelIdList(int level) {
+    return levelIdLists().get(level);
+  }
+
+  @Override
+  public ImmutableList<ImmutableList<Id>> levelIdLists() {
+    if (levelIdLists == null) {
+
+      ImmutableList.Builder<ImmutableList<Id>> builder = ImmutableList.builder();
+
+      for (int level = 0; level < levelSize(); level++)
+        builder.add(idList(levelOffsets[level], levelOffsets[level + 1]));
+
+      levelIdLists = builder.build();
+    }
+    return levelIdLists;
+  }
+
+  private ImmutableList<ImmutableList<Id>> levelIdLists;
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public int[] topsortIndexes() {
+    return sorted.clone();
+  }
+
+  @Override
+  public int[] levelIndexes(int level) {
+    return Arrays.copyOfRange(sorted, levelOffsets[level], levelOffsets[level + 1]);
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private ImmutableList<Id> idList(int start, int end) {
+
+    ImmutableList.Builder<Id> builder = ImmutableList.builder();
+
+    for (int i = start; i < end; i++)
+      builder.add(idIndex.id(sorted[i]));
+
+    return builder.build();
+  }
+
+}
@@ -4,6 +4,7 @@ import java.util.*;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.MultimapLib;
 
 /**
@@ -107,4 +108,134 @@ public abstract class TopsortLib {
     return sort(idSet, id__parents);
   }
 
+  /**
+   * Topological sort over int indexes, using int arrays instead of id collections. Follows the same
+   * algorithm as the id version, so with matching id and arc orders it produces the same sort.
+   * 
+   * @param intGraph The dependency structure of your dag.
+   * @return A topological sort of indexes with roots (sources) at the start, will be absent if the
+   *         graph is cyclic.
+   */
+  public static Optional<int[]> sort(IntGraph intGraph) {
+
+    int indexSize = intGraph.indexSize();
+
+    // building a topologically sorted index array
+    int[] sorted = new int[indexSize];
+    int sortedSize = 0;
+
+    // indexes are opened when their parents are all closed (each is opened at most once)
+    int[] open = new int[indexSize];
+    int openSize = 0;
+
+    // parent counts
+    int[] parentCounts = new int[indexSize];
+    for (int index = 0; index < indexSize; index++) {
+
+      parentCounts[index] = intGraph.parentCount(index);
+
+      // the graph's roots (sources) form the initial open set
+      if (parentCounts[index] == 0)
+        open[openSize++] = index;
+    }
+
+    // loop: close an open index and see if that opens any of its children
+    while (openSize > 0) {
+
+      int index = open[--openSize];
+
+      // close
+      sorted[sortedSize++] = index;
+
+      // update parent counts of children, and open if now 0
+      int childCount = intGraph.childCount(index);
+      for (int position = 0; position < childCount; position++) {
+
+        int child = intGraph.childIndex(index, position);
+
+        if (--parentCounts[child] == 0)
+          open[openSize++] = child;
+      }
+    }
+
+    // if we're missing any indexes there is a cycle
+    if (sortedSize != indexSize)
+      return Optional.absent();
+
+    return Optional.of(sorted);
+  }
+
+  // ===========================================================================
+  // levels
+  // ===========================================================================
+
+  /**
+   * Topological sort grouped into levels (wavefronts), where level 0 contains the roots and each
+   * level contains the ids whose parents are all in earlier levels. The result is deterministic:
+   * ordered by level, then by index within each level.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dependency structure of your dag.
+   * @return The levels, will be absent if the graph is cyclic.
+   */
+  public static <Id> Optional<TopsortLevels<Id>> levels(IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    int indexSize = intGraph.indexSize();
+
+    // each level is appended to sorted, and the next level is collected after it
+    int[] sorted = new int[indexSize];
+    int sortedSize = 0;
+
+    // level offsets (at most indexSize levels, plus the end offset)
+    int[] levelOffsets = new int[indexSize + 1];
+    int levelSize = 0;
+
+    // parent counts, with the graph's roots (sources) forming level 0
+    int[] parentCounts = new int[indexSize];
+    for (int index = 0; index < indexSize; index++) {
+
+      parentCounts[index] = intGraph.parentCount(index);
+
+      if (parentCounts[index] == 0)
+        sorted[sortedSize++] = index;
+    }
+
+    int levelStart = 0;
+
+    // loop: close a level and collect the children it opens as the next level
+    while (levelStart < sortedSize) {
+
+      int levelEnd = sortedSize;
+      levelOffsets[levelSize++] = levelStart;
+
+      for (int i = levelStart; i < levelEnd; i++) {
+
+        int index = sorted[i];
+
+        int childCount = intGraph.childCount(index);
+        for (int position = 0; position < childCount; position++) {
+
+          int child = intGraph.childIndex(index, position);
+
+          if (--parentCounts[child] == 0)
+            sorted[sortedSize++] = child;
+        }
+      }
+
+      // index order within a level, so the result doesn't depend on arc order
+      Arrays.sort(sorted, levelEnd, sortedSize);
+
+      levelStart = levelEnd;
+    }
+
+    // if we're missing any indexes there is a cycle
+    if (sortedSize != indexSize)
+      return Optional.absent();
+
+    levelOffsets[levelSize] = sortedSize;
+
+    return Optional.<TopsortLevels<Id>>of(new TopsortLevelsClass<Id>(idIndex, sorted,
+        Arrays.copyOf(levelOffsets, levelSize + 1)));
+  }
+
 }
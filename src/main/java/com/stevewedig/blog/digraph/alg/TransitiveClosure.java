@@ -0,0 +1,98 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.Set;
+
+import com.google.common.collect.*;
+
+/**
+ * The precomputed ancestor and descendant closures of every id in an immutable dag, stored as
+ * compressed bitsets over topological positions. Closure queries, and unions and intersections of
+ * closures, use word-parallel bit operations rather than traversal. Ids not in the dag have empty
+ * closures. Queries are thread safe.
+ */
+public interface TransitiveClosure<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The dag's topologically sorted ids, the bit positions of the closures.
+   */
+  ImmutableList<Id> topsortIdList();
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  /**
+   * Whether an id is a ancestor of another id (same as IdGraph.isAncestorOf).
+   */
+  boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive);
+
+  /**
+   * The number of ancestors an id has.
+   */
+  int ancestorSize(Id id, boolean inclusive);
+
+  /**
+   * Getting an id's ancestor id set, in topological order (same set as IdGraph.ancestorIdSet).
+   */
+  ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive);
+
+  /**
+   * Getting an id set's ancestor id set, the union of their closures (same set as
+   * IdGraph.ancestorIdSet).
+   */
+  ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive);
+
+  /**
+   * The ids that are ancestors of every id in an id set, the intersection of their closures.
+   */
+  ImmutableSet<Id> commonAncestorIdSet(Set<Id> ids, boolean inclusive);
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  /**
+   * Whether an id is a descendant of another id (same as IdGraph.isDescendantOf).
+   */
+  boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive);
+
+  /**
+   * The number of descendants an id has.
+   */
+  int descendantSize(Id id, boolean inclusive);
+
+  /**
+   * Getting an id's descendant id set, in topological order (same set as IdGraph.descendantIdSet).
+   */
+  ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive);
+
+  /**
+   * Getting an id set's descendant id set, the union of their closures (same set as
+   * IdGraph.descendantIdSet).
+   */
+  ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive);
+
+  /**
+   * The ids that are descendants of every id in an id set, the intersection of their closures.
+   */
+  ImmutableSet<Id> commonDescendantIdSet(Set<Id> ids, boolean inclusive);
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  /**
+   * How long computing the closures took, in nanoseconds.
+   */
+  long buildNanos();
+
+  /**
+   * The approximate memory used by the closures, in bytes (not including the ids).
+   */
+  long memoryBytes();
+
+}
@@ -0,0 +1,451 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.StrLib;
+
+/**
+ * An implementation of TransitiveClosure.
+ * 
+ * Ids are numbered by topological position, so an id's descendants all have larger positions and
+ * its ancestors all have smaller positions. Descendant closures are computed from the last position
+ * backwards (each is the union of its children and their closures), and ancestor closures from the
+ * first position forwards, using one reusable word array. Each closure is then stored either as a
+ * sorted position array (when sparse) or as the words spanning its first to last set bit (when
+ * dense), whichever is smaller.
+ */
+public class TransitiveClosureClass<Id> implements TransitiveClosure<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final ImmutableList<Id> topsortIdList;
+  private final IdIndex<Id> idIndex;
+
+  // index -> topological position
+  private final int[] positionOfIndex;
+
+  // position -> exclusive closure
+  private final Bits[] ancestors;
+  private final Bits[] descendants;
+
+  private final long buildNanos;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public TransitiveClosureClass(ImmutableList<Id> topsortIdList, IdIndex<Id> idIndex,
+      IntGraph intGraph) {
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+
+    this.topsortIdList = topsortIdList;
+    this.idIndex = idIndex;
+
+    int positionSize = topsortIdList.size();
+
+    positionOfIndex = new int[positionSize];
+    int[] indexOfPosition = new int[positionSize];
+
+    for (int position = 0; position < positionSize; position++) {
+      int index = idIndex.index(topsortIdList.get(position));
+      positionOfIndex[index] = position;
+      indexOfPosition[position] = index;
+    }
+
+    long[] scratch = new long[wordSize(positionSize)];
+
+    // descendants, from the last position backwards
+    descendants = new Bits[positionSize];
+
+    for (int position = positionSize - 1; position >= 0; position--) {
+
+      int index = indexOfPosition[position];
+      int childCount = intGraph.childCount(index);
+      int fromWord = scratch.length;
+
+      for (int k = 0; k < childCount; k++) {
+        int childPosition = positionOfIndex[intGraph.childIndex(index, k)];
+        setBit(scratch, childPosition);
+        descendants[childPosition].orInto(scratch);
+        fromWord = Math.min(fromWord, childPosition >>> 6);
+      }
+
+      descendants[position] = Bits.take(scratch, fromWord, scratch.length);
+    }
+
+    // ancestors, from the first position forwards
+    ancestors = new Bits[positionSize];
+
+    for (int position = 0; position < positionSize; position++) {
+
+      int index = indexOfPosition[position];
+      int parentCount = intGraph.parentCount(index);
+      int toWord = 0;
+
+      for (int k = 0; k < parentCount; k++) {
+        int parentPosition = positionOfIndex[intGraph.parentIndex(index, k)];
+        setBit(scratch, parentPosition);
+        ancestors[parentPosition].orInto(scratch);
+        toWord = Math.max(toWord, (parentPosition >>> 6) + 1);
+      }
+
+      ancestors[position] = Bits.take(scratch, 0, toWord);
+    }
+
+    buildNanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public ImmutableList<Id> topsortIdList() {
+    return topsortIdList;
+  }
+
+  // -1 if the id isn't in the dag
+  private int position(Id id) {
+    int index = idIndex.indexOf(id);
+    if (index == -1)
+      return -1;
+    return positionOfIndex[index];
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public int ancestorSize(Id id, boolean inclusive) {
+    return closureSize(ancestors, id, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive) {
+    return closureIdSet(ancestors, id, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive) {
+    return unionIdSet(ancestors, ids, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> commonAncestorIdSet(Set<Id> ids, boolean inclusive) {
+    return intersectionIdSet(ancestors, ids, inclusive);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (id.equals(potentialAncestor))
+      return inclusive;
+
+    int position = position(id);
+    int ancestorPosition = position(potentialAncestor);
+
+    if (position == -1 || ancestorPosition == -1 || ancestorPosition > position)
+      return false;
+
+    return ancestors[position].contains(ancestorPosition);
+  }
+
+  @Override
+  public int descendantSize(Id id, boolean inclusive) {
+    return closureSize(descendants, id, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive) {
+    return closureIdSet(descendants, id, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive) {
+    return unionIdSet(descendants, ids, inclusive);
+  }
+
+  @Override
+  public ImmutableSet<Id> commonDescendantIdSet(Set<Id> ids, boolean inclusive) {
+    return intersectionIdSet(descendants, ids, inclusive);
+  }
+
+  // ===========================================================================
+  // closures
+  // ===========================================================================
+
+  private int closureSize(Bits[] closures, Id id, boolean inclusive) {
+
+    int position = position(id);
+
+    int size = position == -1 ? 0 : closures[position].size;
+
+    return inclusive ? size + 1 : size;
+  }
+
+  private ImmutableSet<Id> closureIdSet(Bits[] closures, Id id, boolean inclusive) {
+
+    int position = position(id);
+
+    if (position == -1)
+      return inclusive ? ImmutableSet.of(id) : ImmutableSet.<Id>of();
+
+    int[] positions = closures[position].positions();
+
+    ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+    // merge the id into its closure, keeping topological order
+    boolean added = !inclusive;
+
+    for (int closurePosition : positions) {
+      if (!added && position < closurePosition) {
+        builder.add(id);
+        added = true;
+      }
+      builder.add(topsortIdList.get(closurePosition));
+    }
+
+    if (!added)
+      builder.add(id);
+
+    return builder.build();
+  }
+
+  // union the closures, then remove the ids if exclusive (like IdGraph)
+  private ImmutableSet<Id> unionIdSet(Bits[] closures, Set<Id> ids, boolean inclusive) {
+
+    long[] words = new long[wordSize(topsortIdList.size())];
+
+    List<Id> missingIds = new ArrayList<>();
+
+    for (Id id : ids) {
+      int position = position(id);
+      if (position == -1)
+        missingIds.add(id);
+      else {
+        closures[position].orInto(words);
+        if (inclusive)
+          setBit(words, position);
+      }
+    }
+
+    if (!inclusive)
+      for (Id id : ids) {
+        int position = position(id);
+        if (position != -1)
+          clearBit(words, position);
+      }
+
+    ImmutableSet.Builder<Id> builder = idSetBuilder(words);
+
+    if (inclusive)
+      builder.addAll(missingIds);
+
+    return builder.build();
+  }
+
+  // intersect the closures (of no ids is empty)
+  private ImmutableSet<Id> intersectionIdSet(Bits[] closures, Set<Id> ids, boolean inclusive) {
+
+    if (ids.isEmpty())
+      return ImmutableSet.of();
+
+    for (Id id : ids)
+      if (position(id) == -1)
+        // a missing id's closure contains no other ids
+        return inclusive && ids.size() == 1 ? ImmutableSet.copyOf(ids) : ImmutableSet.<Id>of();
+
+    long[] words = null;
+    long[] closureWords = new long[wordSize(topsortIdList.size())];
+
+    for (Id id : ids) {
+
+      int position = position(id);
+
+      Arrays.fill(closureWords, 0);
+      closures[position].orInto(closureWords);
+      if (inclusive)
+        setBit(closureWords, position);
+
+      if (words == null)
+        words = closureWords.clone();
+      else
+        for (int word = 0; word < words.length; word++)
+          words[word] &= closureWords[word];
+    }
+
+    return idSetBuilder(words).build();
+  }
+
+  private ImmutableSet.Builder<Id> idSetBuilder(long[] words) {
+
+    ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+    for (int word = 0; word < words.length; word++)
+      for (long bits = words[word]; bits != 0; bits &= bits - 1)
+        builder.add(topsortIdList.get((word << 6) + Long.numberOfTrailingZeros(bits)));
+
+    return builder;
+  }
+
+  // ===========================================================================
+  // stats
+  // ===========================================================================
+
+  @Override
+  public long buildNanos() {
+    return buildNanos;
+  }
+
+  @Override
+  public long memoryBytes() {
+
+    long bytes = 4L * positionOfIndex.length;
+
+    for (int position = 0; position < positionOfIndex.length; position++)
+      bytes += ancestors[position].memoryBytes() + descendants[position].memoryBytes();
+
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return StrLib.format("TransitiveClosure(idSize = %s, buildNanos = %s, memoryBytes = %s)",
+        topsortIdList.size(), buildNanos, memoryBytes());
+  }
+
+  // ===========================================================================
+  // words
+  // ===========================================================================
+
+  private static int wordSize(int bitSize) {
+    return (bitSize + 63) >>> 6;
+  }
+
+  private static void setBit(long[] words, int bit) {
+    words[bit >>> 6] |= 1L << bit;
+  }
+
+  private static void clearBit(long[] words, int bit) {
+    words[bit >>> 6] &= ~(1L << bit);
+  }
+
+  // ===========================================================================
+  // Bits
+  // ===========================================================================
+
+  // an immutable set of positions, either sparse (sorted positions) or dense (a range of words)
+  private static final class Bits {
+
+    // sparse, or null if dense
+    private final int[] positions;
+
+    // dense, or null if sparse
+    private final long[] words;
+    private final int fromWord;
+
+    private final int size;
+
+    private Bits(int[] positions, long[] words, int fromWord, int size) {
+      this.positions = positions;
+      this.words = words;
+      this.fromWord = fromWord;
+      this.size = size;
+    }
+
+    // copy the set bits of scratch[fromWord, toWord) and clear them for reuse
+    public static Bits take(long[] scratch, int fromWord, int toWord) {
+
+      // trim empty words
+      while (fromWord < toWord && scratch[fromWord] == 0)
+        fromWord++;
+      while (toWord > fromWord && scratch[toWord - 1] == 0)
+        toWord--;
+
+      int size = 0;
+      for (int word = fromWord; word < toWord; word++)
+        size += Long.bitCount(scratch[word]);
+
+      Bits bits;
+
+      // an int per position vs two ints per word
+      if (size <= 2 * (toWord - fromWord)) {
+
+        int[] positions = new int[size];
+        int i = 0;
+
+        for (int word = fromWord; word < toWord; word++)
+          for (long wordBits = scratch[word]; wordBits != 0; wordBits &= wordBits - 1)
+            positions[i++] = (word << 6) + Long.numberOfTrailingZeros(wordBits);
+
+        bits = new Bits(positions, null, 0, size);
+
+      } else
+        bits = new Bits(null, Arrays.copyOfRange(scratch, fromWord, toWord), fromWord, size);
+
+      Arrays.fill(scratch, fromWord, toWord, 0);
+
+      return bits;
+    }
+
+    public boolean contains(int position) {
+
+      if (positions != null)
+        return Arrays.binarySearch(positions, position) >= 0;
+
+      int word = (position >>> 6) - fromWord;
+
+      if (word < 0 || word >= words.length)
+        return false;
+
+      return (words[word] & (1L << position)) != 0;
+    }
+
+    public void orInto(long[] target) {
+
+      if (positions != null)
+        for (int position : positions)
+          setBit(target, position);
+      else
+        for (int word = 0; word < words.length; word++)
+          target[fromWord + word] |= words[word];
+    }
+
+    public int[] positions() {
+
+      if (positions != null)
+        return positions;
+
+      int[] result = new int[size];
+      int i = 0;
+
+      for (int word = 0; word < words.length; word++)
+        for (long wordBits = words[word]; wordBits != 0; wordBits &= wordBits - 1)
+          result[i++] = ((fromWord + word) << 6) + Long.numberOfTrailingZeros(wordBits);
+
+      return result;
+    }
+
+    public long memoryBytes() {
+      return positions != null ? 4L * positions.length : 8L * words.length;
+    }
+  }
+
+}
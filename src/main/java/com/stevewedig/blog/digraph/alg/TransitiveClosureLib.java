@@ -0,0 +1,27 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Computing transitive closures.
+ */
+public abstract class TransitiveClosureLib {
+
+  /**
+   * Compute the transitive closure of a dag. This takes time proportional to the number of arcs
+   * times the number of ids / 64, and memory proportional to the total closure size (compressed),
+   * so it is meant for dags up to tens of thousands of ids.
+   * 
+   * @param topsortIdList The dag's topologically sorted ids (such as IdDag.topsortIdList).
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dag's arcs.
+   * @return The transitive closure.
+   */
+  public static <Id> TransitiveClosure<Id> closure(ImmutableList<Id> topsortIdList,
+      IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    return new TransitiveClosureClass<Id>(topsortIdList, idIndex, intGraph);
+  }
+
+}
@@ -2,7 +2,11 @@ package com.stevewedig.blog.digraph.alg;
 
 import java.util.*;
 
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.errors.*;
 import com.stevewedig.blog.util.LambdaLib.Fn1;
 
@@ -273,4 +277,375 @@ public abstract class TraverseLib {
     }
 
   }
+
+  // ===========================================================================
+  // index iterable
+  // ===========================================================================
+
+  /**
+   * Digraph traversal over int indexes as an id iterable. Follows the IntGraph's arcs from parent to
+   * child, so traverse intGraph.inverse() to follow arcs from child to parent. Visits ids in the same
+   * order as the generic traversal would with an expand function listing children in IntGraph
+   * order, but without allocating per visited id. Each iterator acquires a traverser from the pool
+   * on its first hasNext() or next(), and releases it only once it is exhausted. An iteration that
+   * stops early never returns its traverser (the pool then allocates another, and the abandoned one
+   * is garbage collected), so callers that short circuit should use findId or countIds, which
+   * always release.
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start ids in the traversal.
+   * @param startIndexes The initial indexes.
+   * @param idIndex The mapping between ids and indexes.
+   * @param traversers Traversers over the arcs to follow.
+   * @return An id iterable corresponding to the traversal.
+   */
+  public static <Id> Iterable<Id> idIterable(final boolean depthFirst, final boolean inclusive,
+      final int[] startIndexes, final IdIndex<Id> idIndex, final IntTraverserPool traversers) {
+
+    return new Iterable<Id>() {
+      @Override
+      public Iterator<Id> iterator() {
+        return idIterator(depthFirst, inclusive, startIndexes, idIndex, traversers);
+      }
+    };
+  }
+
+  /**
+   * Digraph traversal over int indexes as an id iterator (see idIterable).
+   * 
+   * @param depthFirst Whether to traverse depth first or breadth first.
+   * @param inclusive Whether to include the start ids in the traversal.
+   * @param startIndexes The initial indexes.
+   * @param idIndex The mapping between ids and indexes.
+   * @param traversers Traversers over the arcs to follow.
+   * @return An id iterator corresponding to the traversal.
+   */
+  public static <Id> Iterator<Id> idIterator(boolean depthFirst, boolean inclusive,
+      int[] startIndexes, IdIndex<Id> idIndex, IntTraverserPool traversers) {
+
+    return new IndexIteratorClass<Id>(depthFirst, inclusive, startIndexes, idIndex, traversers);
+  }
+
+  // ===========================================================================
+  // IndexIteratorClass
+  // ===========================================================================
+
+  private static class IndexIteratorClass<Id> implements Iterator<Id> {
+
+    private final boolean depthFirst;
+    private final boolean inclusive;
+    private final int[] startIndexes;
+    private final IdIndex<Id> idIndex;
+    private final IntTraverserPool traversers;
+
+    // acquired on the first hasNext(), and null again once exhausted and released
+    private IntTraverser traverser;
+    private IntIterator indexes;
+    private boolean exhausted;
+
+    public IndexIteratorClass(boolean depthFirst, boolean inclusive, int[] startIndexes,
+        IdIndex<Id> idIndex, IntTraverserPool traversers) {
+
+      this.depthFirst = depthFirst;
+      this.inclusive = inclusive;
+      this.startIndexes = startIndexes;
+      this.idIndex = idIndex;
+      this.traversers = traversers;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+      if (exhausted)
+        return false;
+
+      if (traverser == null) {
+        traverser = traversers.acquire();
+        indexes = traverser.iterator(depthFirst, inclusive, startIndexes);
+      }
+
+      if (indexes.hasNext())
+        return true;
+
+      traversers.release(traverser);
+      traverser = null;
+      indexes = null;
+      exhausted = true;
+
+      return false;
+    }
+
+    @Override
+    public Id next() {
+
+      if (!hasNext())
+        throw new NoSuchElementException();
+
+      return idIndex.id(indexes.next());
+    }
+
+    @Override
+    public void remove() {
+      throw new NotImplemented();
+    }
+
+  }
+
+  // ===========================================================================
+  // int traverser
+  // ===========================================================================
+
+  /**
+   * A reusable traverser over an IntGraph's indexes, which allocates its arrays once so each
+   * traversal allocates nothing per visited index (not thread safe, so use one per thread).
+   * 
+   * @param intGraph The arcs to follow.
+   * @return A traverser that can be used for any number of traversals.
+   */
+  public static IntTraverser intTraverser(IntGraph intGraph) {
+    return new IntTraverserClass(intGraph);
+  }
+
+  /**
+   * A pool of traversers over an IntGraph, so a graph can reuse traversers between queries while
+   * still being shared between threads.
+   * 
+   * @param intGraph The arcs to follow.
+   * @return An empty pool, which creates traversers as needed.
+   */
+  public static IntTraverserPool intTraverserPool(IntGraph intGraph) {
+    return new IntTraverserPoolClass(intGraph);
+  }
+
+  // ===========================================================================
+  // search
+  // ===========================================================================
+
+  /**
+   * Breadth first search for the nearest id matching a predicate, stopping as soon as one is found.
+   * Ids accepted by the prune predicate are still tested, but aren't expanded, so the ids beyond
+   * them are skipped unless reached another way.
+   * 
+   * @param inclusive Whether to test the start ids.
+   * @param startIds The initial ids.
+   * @param expand A function mapping an id to the next ids.
+   * @param match The predicate to find.
+   * @param prune Which ids not to expand.
+   * @return The first matching id in breadth first order (absent if none match).
+   */
+  public static <Id> Optional<Id> findId(boolean inclusive, ImmutableList<Id> startIds,
+      Fn1<Id, List<Id>> expand, Predicate<? super Id> match, Predicate<? super Id> prune) {
+
+    return Optional.fromNullable(search(inclusive, startIds, expand, match, prune, new int[1]));
+  }
+
+  /**
+   * Count the ids reached by a traversal that doesn't expand ids matching a predicate (so those ids
+   * are counted, but the ids beyond them are skipped unless reached another way).
+   * 
+   * @param inclusive Whether to count the start ids.
+   * @param startIds The initial ids.
+   * @param expand A function mapping an id to the next ids.
+   * @param until Which ids not to expand.
+   * @return The number of ids reached.
+   */
+  public static <Id> int countIds(boolean inclusive, ImmutableList<Id> startIds,
+      Fn1<Id, List<Id>> expand, Predicate<? super Id> until) {
+
+    int[] count = new int[1];
+
+    search(inclusive, startIds, expand, Predicates.alwaysFalse(), until, count);
+
+    return count[0];
+  }
+
+  // the first match (null if none match), adding the number of tested ids to count[0]
+  private static <Id> Id search(boolean inclusive, ImmutableList<Id> startIds,
+      Fn1<Id, List<Id>> expand, Predicate<? super Id> match, Predicate<? super Id> prune,
+      int[] count) {
+
+    ImmutableSet<Id> startSet = ImmutableSet.copyOf(startIds);
+
+    LinkedList<Id> open = new LinkedList<Id>(startSet);
+    Set<Id> closed = new HashSet<>(startSet);
+
+    while (!open.isEmpty()) {
+
+      Id id = open.removeFirst();
+
+      if (inclusive || !startSet.contains(id)) {
+
+        count[0]++;
+
+        if (match.apply(id))
+          return id;
+      }
+
+      if (prune.apply(id))
+        continue;
+
+      for (Id nextId : expand.apply(id))
+        if (closed.add(nextId))
+          open.addLast(nextId);
+    }
+
+    return null;
+  }
+
+  /**
+   * Breadth first search over int indexes for the nearest id matching a predicate (see the generic
+   * findId()), following the IntGraph's arcs from parent to child.
+   * 
+   * @param inclusive Whether to test the start ids.
+   * @param startIndexes The initial indexes.
+   * @param idIndex The mapping between ids and indexes.
+   * @param traversers Traversers over the arcs to follow.
+   * @param match The predicate to find.
+   * @param prune Which ids not to expand.
+   * @return The first matching id in breadth first order (absent if none match).
+   */
+  public static <Id> Optional<Id> findId(boolean inclusive, int[] startIndexes,
+      final IdIndex<Id> idIndex, IntTraverserPool traversers, final Predicate<? super Id> match,
+      Predicate<? super Id> prune) {
+
+    final int[] found = {-1};
+
+    IntTraverser traverser = traversers.acquire();
+
+    try {
+      traverser.traverse(false, inclusive, startIndexes, new IntVisitor() {
+        @Override
+        public boolean visit(int index) {
+
+          if (!match.apply(idIndex.id(index)))
+            return true;
+
+          found[0] = index;
+          return false;
+        }
+      }, expandFilter(idIndex, prune));
+
+    } finally {
+      traversers.release(traverser);
+    }
+
+    return found[0] == -1 ? Optional.<Id>absent() : Optional.of(idIndex.id(found[0]));
+  }
+
+  /**
+   * Count the ids reached by a traversal over int indexes that doesn't expand ids matching a
+   * predicate (see the generic countIds()), following the IntGraph's arcs from parent to child.
+   * 
+   * @param inclusive Whether to count the start ids.
+   * @param startIndexes The initial indexes.
+   * @param idIndex The mapping between ids and indexes.
+   * @param traversers Traversers over the arcs to follow.
+   * @param until Which ids not to expand.
+   * @return The number of ids reached.
+   */
+  public static <Id> int countIds(boolean inclusive, int[] startIndexes, IdIndex<Id> idIndex,
+      IntTraverserPool traversers, Predicate<? super Id> until) {
+
+    final int[] count = {0};
+
+    IntTraverser traverser = traversers.acquire();
+
+    try {
+      traverser.traverse(false, inclusive, startIndexes, new IntVisitor() {
+        @Override
+        public boolean visit(int index) {
+          count[0]++;
+          return true;
+        }
+      }, expandFilter(idIndex, until));
+
+    } finally {
+      traversers.release(traverser);
+    }
+
+    return count[0];
+  }
+
+  private static <Id> IntVisitor expandFilter(final IdIndex<Id> idIndex,
+      final Predicate<? super Id> prune) {
+
+    return new IntVisitor() {
+      @Override
+      public boolean visit(int index) {
+        return !prune.apply(idIndex.id(index));
+      }
+    };
+  }
+
+  // ===========================================================================
+  // breadth levels
+  // ===========================================================================
+
+  /**
+   * Breadth first traversal grouped into levels by distance, following arcs from parents to
+   * children (pass intGraph.inverse() to follow arcs upwards). The result is deterministic: each
+   * level is in index order (see ParallelBfsLib for a parallel version with the same result).
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The arcs to follow.
+   * @param startIndexes The indexes at distance 0.
+   * @return The levels.
+   */
+  public static <Id> BreadthLevels<Id> breadthLevels(IdIndex<Id> idIndex, IntGraph intGraph,
+      int[] startIndexes) {
+
+    int indexSize = intGraph.indexSize();
+
+    int[] distances = new int[indexSize];
+    Arrays.fill(distances, -1);
+
+    // each level is appended to visited, and the next level is collected after it
+    int[] visited = new int[indexSize];
+    int visitedSize = 0;
+
+    // level offsets (at most indexSize levels, plus the end offset)
+    int[] levelOffsets = new int[indexSize + 1];
+    int levelSize = 0;
+
+    for (int index : startIndexes)
+      if (distances[index] == -1) {
+        distances[index] = 0;
+        visited[visitedSize++] = index;
+      }
+    Arrays.sort(visited, 0, visitedSize);
+
+    int levelStart = 0;
+
+    while (levelStart < visitedSize) {
+
+      int levelEnd = visitedSize;
+      levelOffsets[levelSize++] = levelStart;
+
+      for (int i = levelStart; i < levelEnd; i++) {
+
+        int index = visited[i];
+
+        int childCount = intGraph.childCount(index);
+        for (int position = 0; position < childCount; position++) {
+
+          int child = intGraph.childIndex(index, position);
+
+          if (distances[child] == -1) {
+            distances[child] = levelSize;
+            visited[visitedSize++] = child;
+          }
+        }
+      }
+
+      Arrays.sort(visited, levelEnd, visitedSize);
+
+      levelStart = levelEnd;
+    }
+
+    levelOffsets[levelSize] = visitedSize;
+
+    return new BreadthLevelsClass<Id>(idIndex, Arrays.copyOf(visited, visitedSize),
+        Arrays.copyOf(levelOffsets, levelSize + 1), distances, 0);
+  }
+
 }
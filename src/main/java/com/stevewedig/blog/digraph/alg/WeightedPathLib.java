@@ -0,0 +1,297 @@
+package com.stevewedig.blog.digraph.alg;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Shortest and longest weighted paths. Dags relax each arc once in topological order (linear time,
+ * and any weights work), while cyclic digraphs use Dijkstra's algorithm (non-negative weights).
+ */
+public abstract class WeightedPathLib {
+
+  // ===========================================================================
+  // dags
+  // ===========================================================================
+
+  /**
+   * The shortest paths from a source id, relaxing arcs in the dag's topological order.
+   */
+  public static <Id> WeightedPaths<Id> dagShortest(IdDag<Id> idDag, ArcWeights<Id> weights,
+      Id sourceId) {
+    return dagShortest(idDag, weights, ImmutableSet.of(sourceId));
+  }
+
+  /**
+   * The shortest paths from a set of source ids, relaxing arcs in the dag's topological order.
+   */
+  public static <Id> WeightedPaths<Id> dagShortest(IdDag<Id> idDag, ArcWeights<Id> weights,
+      Set<Id> sourceIds) {
+    return dagPaths(idDag, weights, sourceIds, false);
+  }
+
+  /**
+   * The longest paths from a source id, relaxing arcs in the dag's topological order.
+   */
+  public static <Id> WeightedPaths<Id> dagLongest(IdDag<Id> idDag, ArcWeights<Id> weights,
+      Id sourceId) {
+    return dagLongest(idDag, weights, ImmutableSet.of(sourceId));
+  }
+
+  /**
+   * The longest paths from a set of source ids, relaxing arcs in the dag's topological order.
+   */
+  public static <Id> WeightedPaths<Id> dagLongest(IdDag<Id> idDag, ArcWeights<Id> weights,
+      Set<Id> sourceIds) {
+    return dagPaths(idDag, weights, sourceIds, true);
+  }
+
+  /**
+   * The longest paths from the dag's roots, so farthestId() ends the critical path (with job
+   * durations as the weights of the arcs into each job, its distance is the completion time).
+   */
+  public static <Id> WeightedPaths<Id> criticalPaths(IdDag<Id> idDag, ArcWeights<Id> weights) {
+    return dagLongest(idDag, weights, idDag.rootIdSet());
+  }
+
+  /**
+   * The ids on the critical path, the longest path starting at a root (empty if the dag is empty).
+   */
+  public static <Id> ImmutableList<Id> criticalPathIdList(IdDag<Id> idDag, ArcWeights<Id> weights) {
+
+    WeightedPaths<Id> paths = criticalPaths(idDag, weights);
+
+    if (!paths.farthestId().isPresent())
+      return ImmutableList.of();
+
+    return paths.pathIdList(paths.farthestId().get());
+  }
+
+  // ===================================
+
+  private static <Id> WeightedPaths<Id> dagPaths(IdDag<Id> idDag, ArcWeights<Id> weights,
+      Set<Id> sourceIds, boolean longest) {
+
+    verifyWeights(idDag, weights);
+
+    IdIndex<Id> idIndex = weights.idIndex();
+    IntGraph intGraph = weights.intGraph();
+
+    double[] distances = new double[intGraph.indexSize()];
+    Arrays.fill(distances, longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+
+    int[] previousIndexes = new int[intGraph.indexSize()];
+    Arrays.fill(previousIndexes, -1);
+
+    for (Id sourceId : sourceIds)
+      distances[idIndex.index(sourceId)] = 0;
+
+    // the cached sort, so each arc is relaxed after every arc into its parent
+    for (Id id : idDag.topsortIdList()) {
+
+      int index = idIndex.index(id);
+      double distance = distances[index];
+
+      if (Double.isInfinite(distance))
+        continue;
+
+      for (int position = 0; position < intGraph.childCount(index); position++) {
+
+        int childIndex = intGraph.childIndex(index, position);
+        double childDistance = distance + weights.childWeight(index, position);
+
+        if (longest ? childDistance > distances[childIndex]
+            : childDistance < distances[childIndex]) {
+          distances[childIndex] = childDistance;
+          previousIndexes[childIndex] = index;
+        }
+      }
+    }
+
+    return new WeightedPathsClass<>(idIndex, ImmutableSet.copyOf(sourceIds), distances,
+        previousIndexes);
+  }
+
+  // ===========================================================================
+  // digraphs
+  // ===========================================================================
+
+  /**
+   * The shortest paths from a source id, using Dijkstra's algorithm.
+   */
+  public static <Id> WeightedPaths<Id> dijkstra(IdGraph<Id> idGraph, ArcWeights<Id> weights,
+      Id sourceId) throws ArcWeightCannotBeNegative {
+    return dijkstra(idGraph, weights, ImmutableSet.of(sourceId));
+  }
+
+  /**
+   * The shortest paths from a set of source ids, using Dijkstra's algorithm with a binary heap of
+   * int indexes.
+   */
+  public static <Id> WeightedPaths<Id> dijkstra(IdGraph<Id> idGraph, ArcWeights<Id> weights,
+      Set<Id> sourceIds) throws ArcWeightCannotBeNegative {
+
+    verifyWeights(idGraph, weights);
+
+    IdIndex<Id> idIndex = weights.idIndex();
+    IntGraph intGraph = weights.intGraph();
+
+    double[] distances = new double[intGraph.indexSize()];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+    int[] previousIndexes = new int[intGraph.indexSize()];
+    Arrays.fill(previousIndexes, -1);
+
+    IndexHeap heap = new IndexHeap(distances);
+
+    for (Id sourceId : sourceIds) {
+      int sourceIndex = idIndex.index(sourceId);
+      distances[sourceIndex] = 0;
+      heap.update(sourceIndex);
+    }
+
+    while (!heap.isEmpty()) {
+
+      int index = heap.pop();
+      double distance = distances[index];
+
+      for (int position = 0; position < intGraph.childCount(index); position++) {
+
+        double weight = weights.childWeight(index, position);
+
+        if (weight < 0)
+          throw new ArcWeightCannotBeNegative("parentId = %s, childId = %s, weight = %s",
+              idIndex.id(index), idIndex.id(intGraph.childIndex(index, position)), weight);
+
+        int childIndex = intGraph.childIndex(index, position);
+        double childDistance = distance + weight;
+
+        if (childDistance < distances[childIndex]) {
+          distances[childIndex] = childDistance;
+          previousIndexes[childIndex] = index;
+          heap.update(childIndex);
+        }
+      }
+    }
+
+    return new WeightedPathsClass<>(idIndex, ImmutableSet.copyOf(sourceIds), distances,
+        previousIndexes);
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> void verifyWeights(IdGraph<Id> idGraph, ArcWeights<Id> weights) {
+
+    if (weights.idIndex().indexSize() != idGraph.idSize()
+        || weights.intGraph().arcSize() != idGraph.intGraph().arcSize())
+      throw new GraphHadUnexpectedIds("weighted ids = %s, graph ids = %s",
+          weights.idIndex().indexSize(), idGraph.idSize());
+  }
+
+  /**
+   * A binary min heap of indexes keyed by their distances, tracking each index's heap position so
+   * a decreased distance moves its index up in place (instead of adding a duplicate entry).
+   */
+  private static class IndexHeap {
+
+    private final double[] keys;
+    private final int[] heap;
+
+    // index -> heap position (-1 if not in the heap)
+    private final int[] positions;
+
+    private int size;
+
+    IndexHeap(double[] keys) {
+      this.keys = keys;
+      heap = new int[keys.length];
+      positions = new int[keys.length];
+      Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    // add an index, or move it up after its key decreased
+    void update(int index) {
+
+      if (positions[index] == -1) {
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+      }
+
+      siftUp(positions[index]);
+    }
+
+    int pop() {
+
+      int top = heap[0];
+      positions[top] = -1;
+
+      size--;
+
+      if (size > 0) {
+        heap[0] = heap[size];
+        positions[heap[0]] = 0;
+        siftDown(0);
+      }
+
+      return top;
+    }
+
+    private void siftUp(int position) {
+
+      int index = heap[position];
+
+      while (position > 0) {
+
+        int parent = (position - 1) >>> 1;
+
+        if (keys[heap[parent]] <= keys[index])
+          break;
+
+        move(heap[parent], position);
+        position = parent;
+      }
+
+      move(index, position);
+    }
+
+    private void siftDown(int position) {
+
+      int index = heap[position];
+
+      while (true) {
+
+        int child = 2 * position + 1;
+
+        if (child >= size)
+          break;
+
+        if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+          child++;
+
+        if (keys[index] <= keys[heap[child]])
+          break;
+
+        move(heap[child], position);
+        position = child;
+      }
+
+      move(index, position);
+    }
+
+    private void move(int index, int position) {
+      heap[position] = index;
+      positions[index] = position;
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * The best (shortest or longest) weighted path from a set of source ids to every id reachable from
+ * them, stored as a distance and a previous index per index.
+ */
+public interface WeightedPaths<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and indexes.
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * The ids the paths start from (at distance 0).
+   */
+  ImmutableSet<Id> sourceIdSet();
+
+  // ===========================================================================
+  // paths
+  // ===========================================================================
+
+  /**
+   * Whether an id is reachable from the sources.
+   */
+  boolean isReachable(Id id);
+
+  /**
+   * The total weight of the best path to an id (infinite if unreachable, positive for shortest
+   * paths and negative for longest paths).
+   */
+  double distance(Id id);
+
+  /**
+   * The id before an id on its best path (absent for sources and unreachable ids).
+   */
+  Optional<Id> previousId(Id id);
+
+  /**
+   * The ids on the best path to an id, starting with a source (empty if unreachable).
+   */
+  ImmutableList<Id> pathIdList(Id id);
+
+  /**
+   * The reachable id with the greatest distance (for longest paths from the roots, the end of the
+   * critical path).
+   */
+  Optional<Id> farthestId();
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * The total weight of the best path to an index.
+   */
+  double indexDistance(int index);
+
+  /**
+   * The index before an index on its best path (-1 for sources and unreachable indexes).
+   */
+  int previousIndex(int index);
+
+}
@@ -0,0 +1,113 @@
+package com.stevewedig.blog.digraph.alg;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+
+/**
+ * An implementation of WeightedPaths.
+ */
+public class WeightedPathsClass<Id> implements WeightedPaths<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final ImmutableSet<Id> sourceIdSet;
+  private final double[] distances;
+  private final int[] previousIndexes;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public WeightedPathsClass(IdIndex<Id> idIndex, ImmutableSet<Id> sourceIdSet, double[] distances,
+      int[] previousIndexes) {
+
+    this.idIndex = idIndex;
+    this.sourceIdSet = sourceIdSet;
+    this.distances = distances;
+    this.previousIndexes = previousIndexes;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public ImmutableSet<Id> sourceIdSet() {
+    return sourceIdSet;
+  }
+
+  // ===========================================================================
+  // paths
+  // ===========================================================================
+
+  @Override
+  public boolean isReachable(Id id) {
+    return !Double.isInfinite(distance(id));
+  }
+
+  @Override
+  public double distance(Id id) {
+    return distances[idIndex.index(id)];
+  }
+
+  @Override
+  public Optional<Id> previousId(Id id) {
+
+    int previousIndex = previousIndexes[idIndex.index(id)];
+
+    return previousIndex == -1 ? Optional.<Id>absent() : Optional.of(idIndex.id(previousIndex));
+  }
+
+  @Override
+  public ImmutableList<Id> pathIdList(Id id) {
+
+    int index = idIndex.index(id);
+
+    if (Double.isInfinite(distances[index]))
+      return ImmutableList.of();
+
+    ImmutableList.Builder<Id> reversed = ImmutableList.builder();
+
+    for (; index != -1; index = previousIndexes[index])
+      reversed.add(idIndex.id(index));
+
+    return reversed.build().reverse();
+  }
+
+  @Override
+  public Optional<Id> farthestId() {
+
+    int farthest = -1;
+
+    for (int index = 0; index < distances.length; index++)
+      if (!Double.isInfinite(distances[index])
+          && (farthest == -1 || distances[index] > distances[farthest]))
+        farthest = index;
+
+    return farthest == -1 ? Optional.<Id>absent() : Optional.of(idIndex.id(farthest));
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public double indexDistance(int index) {
+    return distances[index];
+  }
+
+  @Override
+  public int previousIndex(int index) {
+    return previousIndexes[index];
+  }
+
+}
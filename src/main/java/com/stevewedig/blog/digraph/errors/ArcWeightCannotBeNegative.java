@@ -0,0 +1,15 @@
+package com.stevewedig.blog.digraph.errors;
+
+import com.stevewedig.blog.errors.ErrorMixin;
+
+public class ArcWeightCannotBeNegative extends ErrorMixin {
+  private static final long serialVersionUID = 1L;
+
+  public ArcWeightCannotBeNegative() {
+    super();
+  }
+
+  public ArcWeightCannotBeNegative(String template, Object... parts) {
+    super(template, parts);
+  };
+}
@@ -0,0 +1,15 @@
+package com.stevewedig.blog.digraph.errors;
+
+import com.stevewedig.blog.errors.ErrorMixin;
+
+public class EdgeListWasMalformed extends ErrorMixin {
+  private static final long serialVersionUID = 1L;
+
+  public EdgeListWasMalformed() {
+    super();
+  }
+
+  public EdgeListWasMalformed(String template, Object... parts) {
+    super(template, parts);
+  };
+}
\ No newline at end of file
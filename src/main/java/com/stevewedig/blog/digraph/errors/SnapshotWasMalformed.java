@@ -0,0 +1,15 @@
+package com.stevewedig.blog.digraph.errors;
+
+import com.stevewedig.blog.errors.ErrorMixin;
+
+public class SnapshotWasMalformed extends ErrorMixin {
+  private static final long serialVersionUID = 1L;
+
+  public SnapshotWasMalformed() {
+    super();
+  }
+
+  public SnapshotWasMalformed(String template, Object... parts) {
+    super(template, parts);
+  };
+}
\ No newline at end of file
@@ -0,0 +1,466 @@
+package com.stevewedig.blog.digraph.file;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.EdgeListWasMalformed;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Loading graphs from edge list files, not compatible with GWT.
+ * 
+ * Files are read through memory mapped windows, ids are interned into indexes as they are read, and
+ * arcs are collected into int arrays that become the compact graph's rows, so no multimap or node
+ * objects are built along the way.
+ */
+public abstract class EdgeListLib {
+
+  /**
+   * The default largest part of a file mapped at once (each mapping is limited to 2GB).
+   */
+  public static final int defaultWindowSize = 1 << 28;
+
+  // ===========================================================================
+  // text
+  // ===========================================================================
+
+  /**
+   * Load a graph from a UTF-8 text edge list. Each line contains a parent id and a child id
+   * separated by spaces or tabs, or a single id (for ids without arcs). Blank lines and lines
+   * starting with # are skipped.
+   * 
+   * @param path The file to load.
+   * @return The graph and load throughput.
+   */
+  public static EdgeListLoad<String> loadText(Path path) throws IOException,
+      EdgeListWasMalformed {
+
+    return loadText(path, defaultWindowSize);
+  }
+
+  /**
+   * Load a graph from a UTF-8 text edge list (see loadText(Path)).
+   * 
+   * @param path The file to load.
+   * @param windowSize The largest part of the file mapped at once, which must fit the longest line
+   *        (at least 1).
+   * @return The graph and load throughput.
+   */
+  public static EdgeListLoad<String> loadText(Path path, int windowSize) throws IOException,
+      EdgeListWasMalformed {
+
+    if (windowSize < 1)
+      throw new IllegalArgumentException("windowSize must be at least 1: " + windowSize);
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      long byteSize = channel.size();
+
+      TextInterner interner = new TextInterner();
+      IntArcBuilder arcs =
+          IntGraphLib.arcBuilder((int) Math.min(byteSize / 16, Integer.MAX_VALUE - 8));
+
+      int[] lineIndexes = new int[2];
+      int lineNumber = 0;
+
+      // each window starts at a line start, and stops after its last complete line
+      long windowStart = 0;
+
+      while (windowStart < byteSize) {
+
+        int windowLength = (int) Math.min(windowSize, byteSize - windowStart);
+        boolean lastWindow = windowStart + windowLength == byteSize;
+
+        MappedByteBuffer buffer =
+            channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+
+        int lineStart = 0;
+
+        while (lineStart < windowLength) {
+
+          int lineEnd = lineStart;
+          while (lineEnd < windowLength && buffer.get(lineEnd) != '\n')
+            lineEnd++;
+
+          if (lineEnd == windowLength && !lastWindow)
+            break;
+
+          lineNumber++;
+
+          int tokenSize = 0;
+          int position = lineStart;
+
+          while (position < lineEnd) {
+
+            byte b = buffer.get(position);
+
+            if (isSpace(b)) {
+              position++;
+              continue;
+            }
+
+            if (b == '#' && tokenSize == 0)
+              break;
+
+            int tokenStart = position;
+            while (position < lineEnd && !isSpace(buffer.get(position)))
+              position++;
+
+            if (tokenSize == 2)
+              throw new EdgeListWasMalformed("more than 2 ids, path = %s, line = %s", path,
+                  lineNumber);
+
+            lineIndexes[tokenSize++] = interner.intern(buffer, tokenStart, position);
+          }
+
+          if (tokenSize == 2)
+            arcs.addArc(lineIndexes[0], lineIndexes[1]);
+
+          lineStart = lineEnd + 1;
+        }
+
+        if (lineStart == 0 && !lastWindow)
+          throw new EdgeListWasMalformed("line longer than window, path = %s, line = %s", path,
+              lineNumber + 1);
+
+        windowStart += Math.min(lineStart, windowLength);
+      }
+
+      ImmutableList<String> idList = interner.idList();
+
+      return new EdgeListLoadClass<String>(idGraph(idList, arcs), byteSize, arcs.arcSize(),
+          stopwatch.elapsed(TimeUnit.NANOSECONDS));
+    }
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r';
+  }
+
+  // ===========================================================================
+  // binary
+  // ===========================================================================
+
+  /**
+   * Load a graph from a binary edge list, a sequence of (parent id, child id) pairs of big-endian
+   * 32 bit ints (as written by DataOutputStream.writeInt). Only ids with arcs are included.
+   * 
+   * @param path The file to load.
+   * @return The graph and load throughput.
+   */
+  public static EdgeListLoad<Integer> loadBinary(Path path) throws IOException,
+      EdgeListWasMalformed {
+
+    return loadBinary(path, defaultWindowSize);
+  }
+
+  /**
+   * Load a graph from a binary edge list (see loadBinary(Path)).
+   * 
+   * @param path The file to load.
+   * @param windowSize The largest part of the file mapped at once (at least 8, rounded down to
+   *        whole pairs).
+   * @return The graph and load throughput.
+   */
+  public static EdgeListLoad<Integer> loadBinary(Path path, int windowSize) throws IOException,
+      EdgeListWasMalformed {
+
+    // a smaller window would round down to 0 and never advance
+    if (windowSize < 8)
+      throw new IllegalArgumentException("windowSize must be at least 8: " + windowSize);
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      long byteSize = channel.size();
+
+      if (byteSize % 8 != 0)
+        throw new EdgeListWasMalformed("size isn't a multiple of 8, path = %s, byteSize = %s",
+            path, byteSize);
+
+      if (byteSize / 8 > Integer.MAX_VALUE - 8)
+        throw new EdgeListWasMalformed("too many arcs, path = %s, byteSize = %s", path, byteSize);
+
+      IntInterner interner = new IntInterner();
+      IntArcBuilder arcs = IntGraphLib.arcBuilder((int) (byteSize / 8));
+
+      // whole pairs per window
+      windowSize -= windowSize % 8;
+
+      for (long windowStart = 0; windowStart < byteSize; windowStart += windowSize) {
+
+        int windowLength = (int) Math.min(windowSize, byteSize - windowStart);
+
+        IntBuffer buffer =
+            channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength)
+                .order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+
+        for (int position = 0; position < buffer.limit(); position += 2) {
+          int parentIndex = interner.intern(buffer.get(position));
+          arcs.addArc(parentIndex, interner.intern(buffer.get(position + 1)));
+        }
+      }
+
+      ImmutableList<Integer> idList = interner.idList();
+
+      return new EdgeListLoadClass<Integer>(idGraph(idList, arcs), byteSize, arcs.arcSize(),
+          stopwatch.elapsed(TimeUnit.NANOSECONDS));
+    }
+  }
+
+  // ===========================================================================
+  // writing
+  // ===========================================================================
+
+  /**
+   * Write a graph as a UTF-8 text edge list, readable by loadText() if the ids' strings don't
+   * contain whitespace (ids without arcs are written on their own lines).
+   */
+  public static <Id> void writeText(IdGraph<Id> idGraph, Path path) throws IOException {
+
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+
+      for (Id id : idGraph.idSet()) {
+
+        if (idGraph.parentIdSet(id).isEmpty() && idGraph.childIdSet(id).isEmpty())
+          writer.write(id + "\n");
+
+        for (Id childId : idGraph.childIdSet(id))
+          writer.write(id + " " + childId + "\n");
+      }
+    }
+  }
+
+  /**
+   * Write a graph as a binary edge list, readable by loadBinary() (ids without arcs are lost).
+   */
+  public static void writeBinary(IdGraph<Integer> idGraph, Path path) throws IOException {
+
+    try (DataOutputStream output =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+
+      for (Integer id : idGraph.idSet())
+        for (Integer childId : idGraph.childIdSet(id)) {
+          output.writeInt(id);
+          output.writeInt(childId);
+        }
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  // the ids are already in index order, so the index is built without another lookup per id
+  private static <Id> IdGraph<Id> idGraph(ImmutableList<Id> idList, IntArcBuilder arcs) {
+
+    ImmutableMap.Builder<Id, Integer> id__index = ImmutableMap.builder();
+
+    for (int index = 0; index < idList.size(); index++)
+      id__index.put(idList.get(index), index);
+
+    IdIndex<Id> idIndex = new IdIndexClass<Id>(idList, id__index.build());
+
+    return IdGraphLib.compact(idIndex, arcs.build(idList.size()));
+  }
+
+  // ===========================================================================
+  // TextInterner
+  // ===========================================================================
+
+  // Interns UTF-8 ids straight from the mapped bytes, with an open addressing table over a byte
+  // arena, so each distinct id is copied once and repeated ids allocate nothing.
+  private static class TextInterner {
+
+    private byte[] arena = new byte[1 << 12];
+    private int arenaSize;
+
+    // index -> arena offset, the id's bytes end at the next index's offset
+    private int[] offsets = new int[1 << 8];
+    private int[] hashes = new int[offsets.length];
+    private int size;
+
+    // index + 1, or 0 for empty slots
+    private int[] table = new int[1 << 8];
+
+    public int intern(ByteBuffer buffer, int start, int end) {
+
+      int hash = 0;
+      for (int position = start; position < end; position++)
+        hash = 31 * hash + buffer.get(position);
+
+      int mask = table.length - 1;
+
+      for (int slot = mix(hash) & mask;; slot = (slot + 1) & mask) {
+
+        int entry = table[slot];
+
+        if (entry == 0)
+          return add(buffer, start, end, hash, slot);
+
+        int index = entry - 1;
+
+        if (hashes[index] == hash && equal(index, buffer, start, end))
+          return index;
+      }
+    }
+
+    private boolean equal(int index, ByteBuffer buffer, int start, int end) {
+
+      int offset = offsets[index];
+
+      if (end(index) - offset != end - start)
+        return false;
+
+      for (int position = start; position < end; position++)
+        if (arena[offset++] != buffer.get(position))
+          return false;
+
+      return true;
+    }
+
+    private int end(int index) {
+      return index + 1 < size ? offsets[index + 1] : arenaSize;
+    }
+
+    private int add(ByteBuffer buffer, int start, int end, int hash, int slot) {
+
+      int length = end - start;
+
+      if (arenaSize + length > arena.length)
+        arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+
+      for (int position = start; position < end; position++)
+        arena[arenaSize++] = buffer.get(position);
+
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size * 2);
+        hashes = Arrays.copyOf(hashes, size * 2);
+      }
+
+      int index = size++;
+      offsets[index] = arenaSize - length;
+      hashes[index] = hash;
+      table[slot] = index + 1;
+
+      // keep the table at most half full
+      if (size * 2 > table.length)
+        rehash();
+
+      return index;
+    }
+
+    private void rehash() {
+
+      table = new int[table.length * 2];
+      int mask = table.length - 1;
+
+      for (int index = 0; index < size; index++) {
+
+        int slot = mix(hashes[index]) & mask;
+        while (table[slot] != 0)
+          slot = (slot + 1) & mask;
+
+        table[slot] = index + 1;
+      }
+    }
+
+    public ImmutableList<String> idList() {
+
+      ImmutableList.Builder<String> builder = ImmutableList.builder();
+
+      for (int index = 0; index < size; index++)
+        builder.add(new String(arena, offsets[index], end(index) - offsets[index],
+            StandardCharsets.UTF_8));
+
+      return builder.build();
+    }
+  }
+
+  // ===========================================================================
+  // IntInterner
+  // ===========================================================================
+
+  // Interns int ids with an open addressing table, so repeated ids allocate nothing.
+  private static class IntInterner {
+
+    // index -> id
+    private int[] ids = new int[1 << 8];
+    private int size;
+
+    // index + 1, or 0 for empty slots
+    private int[] table = new int[1 << 8];
+
+    public int intern(int id) {
+
+      int mask = table.length - 1;
+
+      for (int slot = mix(id) & mask;; slot = (slot + 1) & mask) {
+
+        int entry = table[slot];
+
+        if (entry == 0)
+          return add(id, slot);
+
+        if (ids[entry - 1] == id)
+          return entry - 1;
+      }
+    }
+
+    private int add(int id, int slot) {
+
+      if (size == ids.length)
+        ids = Arrays.copyOf(ids, size * 2);
+
+      int index = size++;
+      ids[index] = id;
+      table[slot] = index + 1;
+
+      // keep the table at most half full
+      if (size * 2 > table.length) {
+
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+
+        for (int other = 0; other < size; other++) {
+
+          int otherSlot = mix(ids[other]) & mask;
+          while (table[otherSlot] != 0)
+            otherSlot = (otherSlot + 1) & mask;
+
+          table[otherSlot] = other + 1;
+        }
+      }
+
+      return index;
+    }
+
+    public ImmutableList<Integer> idList() {
+
+      ImmutableList.Builder<Integer> builder = ImmutableList.builder();
+
+      for (int index = 0; index < size; index++)
+        builder.add(ids[index]);
+
+      return builder.build();
+    }
+  }
+
+  // spreads hash bits so that sequential ids don't cluster in the table
+  private static int mix(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+}
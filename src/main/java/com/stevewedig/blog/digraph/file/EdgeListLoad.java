@@ -0,0 +1,48 @@
+package com.stevewedig.blog.digraph.file;
+
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+
+/**
+ * The outcome of loading an edge list file with EdgeListLib, not compatible with GWT.
+ */
+public interface EdgeListLoad<Id> {
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  /**
+   * The loaded graph (compact, so its arcs are stored in int arrays).
+   */
+  IdGraph<Id> idGraph();
+
+  // ===========================================================================
+  // throughput
+  // ===========================================================================
+
+  /**
+   * The file's size in bytes.
+   */
+  long byteSize();
+
+  /**
+   * The number of arcs read, including duplicates.
+   */
+  int arcSize();
+
+  /**
+   * The time taken to read the file and build the graph, in nanoseconds.
+   */
+  long loadNanos();
+
+  /**
+   * Bytes read per second.
+   */
+  double bytesPerSecond();
+
+  /**
+   * Arcs read per second.
+   */
+  double arcsPerSecond();
+
+}
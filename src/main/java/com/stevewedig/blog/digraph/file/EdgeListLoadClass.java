@@ -0,0 +1,81 @@
+package com.stevewedig.blog.digraph.file;
+
+import java.util.concurrent.TimeUnit;
+
+import com.stevewedig.blog.digraph.id_graph.IdGraph;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of EdgeListLoad.
+ */
+public class EdgeListLoadClass<Id> extends ValueMixin implements EdgeListLoad<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdGraph<Id> idGraph;
+  private final long byteSize;
+  private final int arcSize;
+  private final long loadNanos;
+
+  @Override
+  protected Object[] fields() {
+    return array("idGraph", idGraph, "byteSize", byteSize, "arcSize", arcSize, "loadNanos",
+        loadNanos);
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public EdgeListLoadClass(IdGraph<Id> idGraph, long byteSize, int arcSize, long loadNanos) {
+    this.idGraph = idGraph;
+    this.byteSize = byteSize;
+    this.arcSize = arcSize;
+    this.loadNanos = loadNanos;
+  }
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  @Override
+  public IdGraph<Id> idGraph() {
+    return idGraph;
+  }
+
+  // ===========================================================================
+  // throughput
+  // ===========================================================================
+
+  @Override
+  public long byteSize() {
+    return byteSize;
+  }
+
+  @Override
+  public int arcSize() {
+    return arcSize;
+  }
+
+  @Override
+  public long loadNanos() {
+    return loadNanos;
+  }
+
+  @Override
+  public double bytesPerSecond() {
+    return perSecond(byteSize);
+  }
+
+  @Override
+  public double arcsPerSecond() {
+    return perSecond(arcSize);
+  }
+
+  private double perSecond(long count) {
+    return count * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(loadNanos, 1);
+  }
+
+}
@@ -0,0 +1,129 @@
+package com.stevewedig.blog.digraph.file;
+
+import java.nio.IntBuffer;
+
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+
+/**
+ * An implementation of IntGraph reading compressed sparse rows (see IntGraphClass) straight from
+ * int buffers, such as views of a memory mapped snapshot, so loading doesn't copy the arcs. Not
+ * compatible with GWT.
+ */
+public class MappedIntGraphClass implements IntGraph {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IntBuffer parentOffsets;
+  private final IntBuffer parentIndexes;
+  private final IntBuffer childOffsets;
+  private final IntBuffer childIndexes;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  /**
+   * The buffers are read with absolute gets, so their positions don't matter, but their contents
+   * must not be modified afterwards.
+   */
+  public MappedIntGraphClass(IntBuffer parentOffsets, IntBuffer parentIndexes,
+      IntBuffer childOffsets, IntBuffer childIndexes) {
+
+    this.parentOffsets = parentOffsets;
+    this.parentIndexes = parentIndexes;
+    this.childOffsets = childOffsets;
+    this.childIndexes = childIndexes;
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public int indexSize() {
+    return parentOffsets.limit() - 1;
+  }
+
+  @Override
+  public int arcSize() {
+    return parentIndexes.limit();
+  }
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  @Override
+  public boolean isParentOf(int index, int potentialChild) {
+    return isChildOf(potentialChild, index);
+  }
+
+  @Override
+  public int parentCount(int index) {
+    return parentOffsets.get(index + 1) - parentOffsets.get(index);
+  }
+
+  @Override
+  public int parentIndex(int index, int position) {
+    return parentIndexes.get(parentOffsets.get(index) + position);
+  }
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  @Override
+  public boolean isChildOf(int index, int potentialParent) {
+
+    // scan whichever side has fewer neighbors
+    if (parentCount(index) <= childCount(potentialParent))
+      return contains(parentIndexes, parentOffsets.get(index), parentOffsets.get(index + 1),
+          potentialParent);
+    else
+      return contains(childIndexes, childOffsets.get(potentialParent),
+          childOffsets.get(potentialParent + 1), index);
+  }
+
+  @Override
+  public int childCount(int index) {
+    return childOffsets.get(index + 1) - childOffsets.get(index);
+  }
+
+  @Override
+  public int childIndex(int index, int position) {
+    return childIndexes.get(childOffsets.get(index) + position);
+  }
+
+  // ===========================================================================
+  // inverse
+  // ===========================================================================
+
+  @Override
+  public IntGraph inverse() {
+    if (inverse == null) {
+      MappedIntGraphClass inverseClass =
+          new MappedIntGraphClass(childOffsets, childIndexes, parentOffsets, parentIndexes);
+      inverseClass.inverse = this;
+      inverse = inverseClass;
+    }
+    return inverse;
+  }
+
+  private IntGraph inverse;
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static boolean contains(IntBuffer indexes, int start, int end, int index) {
+
+    for (int i = start; i < end; i++)
+      if (indexes.get(i) == index)
+        return true;
+
+    return false;
+  }
+
+}
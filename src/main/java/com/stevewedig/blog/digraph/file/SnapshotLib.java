@@ -0,0 +1,329 @@
+package com.stevewedig.blog.digraph.file;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.*;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.SnapshotWasMalformed;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.translate.Format;
+
+/**
+ * Writing graphs to binary snapshot files and loading them back, not compatible with GWT.
+ * 
+ * A snapshot stores a graph's ids (in index order), its compressed sparse rows, and its topological
+ * sort (if acyclic). Loading memory maps the file and reads the rows in place (see
+ * MappedIntGraphClass), and when the checksum matches the graph isn't validated again, so loading
+ * an IdDag or IdTree skips the cycle check and tree checks. Only the ids are decoded.
+ * 
+ * Layout (big-endian):
+ * 
+ * <pre>
+ * int magic, int version, int kind (0 graph, 1 dag, 2 tree), int indexSize, int arcSize,
+ * int hasTopsort, int idByteSize, int reserved, long checksum (CRC32 of everything else),
+ * int[indexSize + 1] parentOffsets, int[arcSize] parentIndexes,
+ * int[indexSize + 1] childOffsets, int[arcSize] childIndexes,
+ * int[indexSize] topsortIndexes (if hasTopsort),
+ * idByteSize bytes of ids, each an int length followed by the UTF-8 of idFormat.write(id)
+ * </pre>
+ */
+public abstract class SnapshotLib {
+
+  private static final int magic = 0x49445347; // "IDSG"
+
+  /**
+   * The snapshot format version, increased whenever the layout changes.
+   */
+  public static final int version = 1;
+
+  private static final int graphKind = 0;
+  private static final int dagKind = 1;
+  private static final int treeKind = 2;
+
+  private static final int checksumPosition = 32;
+  private static final int headerSize = 40;
+
+  // ===========================================================================
+  // write
+  // ===========================================================================
+
+  /**
+   * Write a graph to a snapshot file (dags and trees are loaded back as dags and trees).
+   * 
+   * @param idGraph The graph.
+   * @param idFormat Writes ids as strings (and parses them when loading).
+   * @param path The file to write.
+   */
+  public static <Id> void write(IdGraph<Id> idGraph, Format<Id> idFormat, Path path)
+      throws IOException {
+
+    IdIndex<Id> idIndex = idGraph.idIndex();
+    IntGraph intGraph = idGraph.intGraph();
+
+    int indexSize = intGraph.indexSize();
+
+    int kind =
+        idGraph instanceof IdTree ? treeKind : idGraph instanceof IdDag ? dagKind : graphKind;
+
+    Optional<ImmutableList<Id>> optionalTopsortIdList = idGraph.optionalTopsortIdList();
+
+    byte[][] idBytes = new byte[indexSize][];
+    int idByteSize = 0;
+
+    for (int index = 0; index < indexSize; index++) {
+      idBytes[index] = idFormat.write(idIndex.id(index)).getBytes(StandardCharsets.UTF_8);
+      idByteSize += 4 + idBytes[index].length;
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(headerSize);
+    header.putInt(magic).putInt(version).putInt(kind).putInt(indexSize)
+        .putInt(intGraph.arcSize()).putInt(optionalTopsortIdList.isPresent() ? 1 : 0)
+        .putInt(idByteSize).putInt(0);
+
+    CRC32 checksum = new CRC32();
+    checksum.update(header.array(), 0, checksumPosition);
+
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      header.rewind();
+      writeFully(channel, header, 0);
+      channel.position(headerSize);
+
+      DataOutputStream output =
+          new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(
+              Channels.newOutputStream(channel)), checksum));
+
+      writeRows(output, intGraph.inverse());
+      writeRows(output, intGraph);
+
+      if (optionalTopsortIdList.isPresent())
+        for (Id id : optionalTopsortIdList.get())
+          output.writeInt(idIndex.index(id));
+
+      for (byte[] bytes : idBytes) {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+
+      output.flush();
+
+      ByteBuffer checksumBuffer = ByteBuffer.allocate(8);
+      checksumBuffer.putLong(checksum.getValue()).rewind();
+      writeFully(channel, checksumBuffer, checksumPosition);
+    }
+  }
+
+  // an IntGraph's child rows (pass the inverse for parent rows)
+  private static void writeRows(DataOutputStream output, IntGraph intGraph) throws IOException {
+
+    int offset = 0;
+    output.writeInt(offset);
+
+    for (int index = 0; index < intGraph.indexSize(); index++) {
+      offset += intGraph.childCount(index);
+      output.writeInt(offset);
+    }
+
+    for (int index = 0; index < intGraph.indexSize(); index++)
+      for (int position = 0; position < intGraph.childCount(index); position++)
+        output.writeInt(intGraph.childIndex(index, position));
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+
+    while (buffer.hasRemaining())
+      position += channel.write(buffer, position);
+  }
+
+  // ===========================================================================
+  // load
+  // ===========================================================================
+
+  /**
+   * Load a graph from a snapshot file (a dag or tree if one was written).
+   * 
+   * @param path The file to load.
+   * @param idFormat Parses ids from the strings written by write().
+   * @return The graph.
+   */
+  public static <Id> IdGraph<Id> loadGraph(Path path, Format<Id> idFormat) throws IOException,
+      SnapshotWasMalformed {
+
+    return load(path, idFormat, graphKind);
+  }
+
+  /**
+   * Load a dag from a snapshot file (written from a dag or tree), without checking for cycles.
+   * 
+   * @param path The file to load.
+   * @param idFormat Parses ids from the strings written by write().
+   * @return The dag.
+   */
+  public static <Id> IdDag<Id> loadDag(Path path, Format<Id> idFormat) throws IOException,
+      SnapshotWasMalformed {
+
+    return (IdDag<Id>) load(path, idFormat, dagKind);
+  }
+
+  /**
+   * Load a tree from a snapshot file (written from a tree), without checking the tree structure.
+   * 
+   * @param path The file to load.
+   * @param idFormat Parses ids from the strings written by write().
+   * @return The tree.
+   */
+  public static <Id> IdTree<Id> loadTree(Path path, Format<Id> idFormat) throws IOException,
+      SnapshotWasMalformed {
+
+    return (IdTree<Id>) load(path, idFormat, treeKind);
+  }
+
+  private static <Id> IdGraph<Id> load(Path path, Format<Id> idFormat, int minKind)
+      throws IOException, SnapshotWasMalformed {
+
+    MappedByteBuffer buffer;
+
+    // the mapping stays valid after the channel is closed
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      long byteSize = channel.size();
+
+      if (byteSize < headerSize || byteSize > Integer.MAX_VALUE)
+        throw new SnapshotWasMalformed("unexpected size, path = %s, byteSize = %s", path,
+            byteSize);
+
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, byteSize);
+    }
+
+    // header
+    if (buffer.getInt(0) != magic)
+      throw new SnapshotWasMalformed("not a snapshot, path = %s", path);
+
+    if (buffer.getInt(4) != version)
+      throw new SnapshotWasMalformed("unsupported version, path = %s, version = %s", path,
+          buffer.getInt(4));
+
+    int kind = buffer.getInt(8);
+    int indexSize = buffer.getInt(12);
+    int arcSize = buffer.getInt(16);
+    boolean hasTopsort = buffer.getInt(20) == 1;
+    int idByteSize = buffer.getInt(24);
+
+    if (kind < minKind)
+      throw new SnapshotWasMalformed("unexpected kind, path = %s, kind = %s, expected kind = %s",
+          path, kind, minKind);
+
+    long expectedByteSize =
+        headerSize + 4L * (2 * (indexSize + 1L) + 2L * arcSize + (hasTopsort ? indexSize : 0))
+            + idByteSize;
+
+    if (kind > treeKind || indexSize < 0 || arcSize < 0 || idByteSize < 0
+        || (kind != graphKind && !hasTopsort) || expectedByteSize != buffer.limit())
+      throw new SnapshotWasMalformed("inconsistent header, path = %s", path);
+
+    // checksum
+    if (checksum(buffer) != buffer.getLong(checksumPosition))
+      throw new SnapshotWasMalformed("checksum mismatch, path = %s", path);
+
+    // rows
+    int position = headerSize;
+
+    IntBuffer parentOffsets = ints(buffer, position, indexSize + 1);
+    position += 4 * (indexSize + 1);
+    IntBuffer parentIndexes = ints(buffer, position, arcSize);
+    position += 4 * arcSize;
+    IntBuffer childOffsets = ints(buffer, position, indexSize + 1);
+    position += 4 * (indexSize + 1);
+    IntBuffer childIndexes = ints(buffer, position, arcSize);
+    position += 4 * arcSize;
+
+    IntGraph intGraph =
+        new MappedIntGraphClass(parentOffsets, parentIndexes, childOffsets, childIndexes);
+
+    // topsort
+    Optional<int[]> optionalTopsortIndexes = Optional.absent();
+
+    if (hasTopsort) {
+      int[] topsortIndexes = new int[indexSize];
+      ints(buffer, position, indexSize).get(topsortIndexes);
+      position += 4 * indexSize;
+      optionalTopsortIndexes = Optional.of(topsortIndexes);
+    }
+
+    // ids
+    ImmutableList.Builder<Id> idList = ImmutableList.builder();
+    ImmutableMap.Builder<Id, Integer> id__index = ImmutableMap.builder();
+
+    for (int index = 0; index < indexSize; index++) {
+
+      int length = buffer.getInt(position);
+      position += 4;
+
+      byte[] bytes = new byte[length];
+      ByteBuffer idBuffer = buffer.duplicate();
+      idBuffer.position(position);
+      idBuffer.get(bytes);
+      position += length;
+
+      Id id = idFormat.parse(new String(bytes, StandardCharsets.UTF_8));
+      idList.add(id);
+      id__index.put(id, index);
+    }
+
+    IdIndex<Id> idIndex = new IdIndexClass<Id>(idList.build(), id__index.build());
+
+    switch (kind) {
+      case treeKind:
+        return new CompactIdTreeClass<Id>(idIndex, intGraph, optionalTopsortIndexes.get());
+      case dagKind:
+        return new CompactIdDagClass<Id>(idIndex, intGraph, optionalTopsortIndexes.get());
+      default:
+        return new CompactIdGraphClass<Id>(idIndex, intGraph, optionalTopsortIndexes);
+    }
+  }
+
+  private static IntBuffer ints(ByteBuffer buffer, int position, int size) {
+
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(position);
+    slice.limit(position + 4 * size);
+
+    return slice.slice().order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+  }
+
+  // CRC32 of everything except the checksum itself
+  private static long checksum(ByteBuffer buffer) {
+
+    CRC32 checksum = new CRC32();
+    byte[] chunk = new byte[1 << 16];
+
+    ByteBuffer source = buffer.duplicate();
+    source.position(0);
+    update(checksum, source, chunk, checksumPosition);
+
+    source.position(headerSize);
+    update(checksum, source, chunk, source.remaining());
+
+    return checksum.getValue();
+  }
+
+  private static void update(CRC32 checksum, ByteBuffer source, byte[] chunk, int size) {
+
+    while (size > 0) {
+      int length = Math.min(size, chunk.length);
+      source.get(chunk, 0, length);
+      checksum.update(chunk, 0, length);
+      size -= length;
+    }
+  }
+
+}
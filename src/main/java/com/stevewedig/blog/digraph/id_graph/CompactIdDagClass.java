@@ -0,0 +1,187 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.Set;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * An implementation of IdDag backed by an IdIndex and an IntGraph (see CompactIdGraphClass).
+ */
+public class CompactIdDagClass<Id> extends CompactIdGraphClass<Id> implements IdDag<Id> {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public CompactIdDagClass(IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    super(idIndex, intGraph);
+
+    validate();
+  }
+
+  /**
+   * For dags whose topological sort is already known, such as dags loaded from a verified snapshot.
+   * The sort isn't checked, so it must be correct (this skips the cycle check).
+   */
+  public CompactIdDagClass(IdIndex<Id> idIndex, IntGraph intGraph, int[] topsortIndexes) {
+    super(idIndex, intGraph, Optional.of(topsortIndexes));
+  }
+
+  // ===========================================================================
+  // validate
+  // ===========================================================================
+
+  private void validate() throws DagCannotHaveCycle {
+
+    if (containsCycle())
+      throw new DagCannotHaveCycle();
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> filterIdGraph(Set<Id> ids) {
+
+    IdIndex<Id> filteredIdIndex = IdIndexLib.fromIds(ids);
+
+    return new CompactIdDagClass<Id>(filteredIdIndex, filterIntGraph(filteredIdIndex));
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(ancestorIdSet(ids, inclusive));
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Id id, boolean inclusive) {
+    return descendantIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(descendantIdSet(ids, inclusive));
+  }
+
+  // ===========================================================================
+  // toplogical sort
+  // ===========================================================================
+
+  @Override
+  public ImmutableList<Id> topsortIdList() {
+    return optionalTopsortIdList().get();
+  }
+
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  @Override
+  public ReachabilityIndex<Id> reachabilityIndex() {
+    if (reachabilityIndex == null)
+      reachabilityIndex = ReachabilityLib.index(idIndex(), intGraph());
+    return reachabilityIndex;
+  }
+
+  private volatile ReachabilityIndex<Id> reachabilityIndex;
+
+  @Override
+  public TransitiveClosure<Id> transitiveClosure() {
+    if (transitiveClosure == null)
+      transitiveClosure = TransitiveClosureLib.closure(topsortIdList(), idIndex(), intGraph());
+    return transitiveClosure;
+  }
+
+  private volatile TransitiveClosure<Id> transitiveClosure;
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  @Override
+  public StructureHash<Id> structureHash() {
+    if (structureHash == null)
+      structureHash = StructureHashLib.hash(idIndex(), intGraph(), topsortIdList());
+    return structureHash;
+  }
+
+  private volatile StructureHash<Id> structureHash;
+
+  // ===========================================================================
+  // equality
+  // ===========================================================================
+
+  // unequal dags almost always have different structure hashes, so only equal dags compare arcs
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || StructureHashLib.sameClassAndHash(this, other) && super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return StructureHashLib.classAndHashCode(this);
+  }
+
+  // ===========================================================================
+  // depth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> depthIdIterable() {
+    return TraverseLib.idIterable(true, true, indexes(rootIdSet()), idIndex(),
+        descendantTraversers());
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> depthIdList() {
+    if (depthIdList == null)
+      depthIdList = ImmutableList.copyOf(depthIdIterable());
+    return depthIdList;
+  }
+
+  private volatile ImmutableList<Id> depthIdList;
+
+  // ===========================================================================
+  // breadth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> breadthIdIterable() {
+    return TraverseLib.idIterable(false, true, indexes(rootIdSet()), idIndex(),
+        descendantTraversers());
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> breadthIdList() {
+    if (breadthIdList == null)
+      breadthIdList = ImmutableList.copyOf(breadthIdIterable());
+    return breadthIdList;
+  }
+
+  private volatile ImmutableList<Id> breadthIdList;
+
+}
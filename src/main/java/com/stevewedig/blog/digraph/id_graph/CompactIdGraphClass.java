@@ -0,0 +1,721 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.*;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.GraphHadUnexpectedIds;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+import com.stevewedig.blog.util.SetLib;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of IdGraph backed by an IdIndex and an IntGraph, so each arc costs a few ints
+ * instead of multimap entries. The id multimaps are only built if id__parentIds() or id__childIds()
+ * is called (which includes equals() and hashCode()). The lazily computed fields are volatile, so
+ * a published instance can be shared between threads (racing threads may compute a field more than
+ * once, but see ConcurrentGraphLib.indexed() for computing them up front).
+ */
+public class CompactIdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdIndex<Id> idIndex;
+  private final IntGraph intGraph;
+
+  @Override
+  public Object[] fields() {
+    return array("idSet", idSet(), "id__parentIds", id__parentIds());
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public CompactIdGraphClass(IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    this.idIndex = idIndex;
+    this.intGraph = intGraph;
+
+    validate();
+  }
+
+  /**
+   * For graphs whose topological sort is already known (absent if cyclic), such as graphs loaded
+   * from a verified snapshot. The sort isn't checked, so it must be correct.
+   */
+  public CompactIdGraphClass(IdIndex<Id> idIndex, IntGraph intGraph,
+      Optional<int[]> optionalTopsortIndexes) {
+
+    this(idIndex, intGraph);
+
+    this.optionalTopsortIndexes = optionalTopsortIndexes;
+  }
+
+  // ===========================================================================
+  // validate
+  // ===========================================================================
+
+  private void validate() throws GraphHadUnexpectedIds {
+
+    if (idIndex.indexSize() != intGraph.indexSize())
+      throw new GraphHadUnexpectedIds("idIndex size = %s, intGraph size = %s",
+          idIndex.indexSize(), intGraph.indexSize());
+  }
+
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idIndex;
+  }
+
+  @Override
+  public IntGraph intGraph() {
+    return intGraph;
+  }
+
+  // ===========================================================================
+  // traversers
+  // ===========================================================================
+
+  // queries reuse traversers instead of allocating arrays the size of the graph each time
+
+  protected IntTraverserPool descendantTraversers() {
+    if (descendantTraversers == null)
+      descendantTraversers = TraverseLib.intTraverserPool(intGraph);
+    return descendantTraversers;
+  }
+
+  private volatile IntTraverserPool descendantTraversers;
+
+  protected IntTraverserPool ancestorTraversers() {
+    if (ancestorTraversers == null)
+      ancestorTraversers = TraverseLib.intTraverserPool(intGraph.inverse());
+    return ancestorTraversers;
+  }
+
+  private volatile IntTraverserPool ancestorTraversers;
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public ImmutableSet<Id> idSet() {
+    return idIndex.idSet();
+  }
+
+  @Override
+  public int idSize() {
+    return idIndex.indexSize();
+  }
+
+  // ===================================
+
+  @Override
+  public void assertIdsEqual(ImmutableSet<Id> ids) {
+    SetLib.assertEquals(idSet(), ids);
+  }
+
+  @Override
+  public void assertIdsEqual(Id[] ids) {
+    assertIdsEqual(ImmutableSet.copyOf(ids));
+  }
+
+  // ===================================
+
+  @Override
+  public IdGraph<Id> filterIdGraph(Set<Id> ids) {
+
+    IdIndex<Id> filteredIdIndex = IdIndexLib.fromIds(ids);
+
+    return new CompactIdGraphClass<Id>(filteredIdIndex, filterIntGraph(filteredIdIndex));
+  }
+
+  /**
+   * The arcs between the ids in another index (ids this graph doesn't contain won't have arcs).
+   */
+  protected IntGraph filterIntGraph(IdIndex<Id> filteredIdIndex) {
+
+    int[] newIndex__oldIndex = new int[filteredIdIndex.indexSize()];
+
+    for (int newIndex = 0; newIndex < newIndex__oldIndex.length; newIndex++)
+      newIndex__oldIndex[newIndex] = idIndex.indexOf(filteredIdIndex.id(newIndex));
+
+    return IntGraphLib.filter(intGraph, newIndex__oldIndex);
+  }
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  @Override
+  public boolean isParentOf(Id id, Id potentialChild) {
+    return isChildOf(potentialChild, id);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__parentIds() {
+    if (id__parentIds == null)
+      id__parentIds = multimap(intGraph);
+    return id__parentIds;
+  }
+
+  private volatile ImmutableSetMultimap<Id, Id> id__parentIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> parentIdSet(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    if (index == -1)
+      return ImmutableSet.of();
+
+    ImmutableSet.Builder<Id> parentIds = ImmutableSet.builder();
+
+    for (int position = 0; position < intGraph.parentCount(index); position++)
+      parentIds.add(idIndex.id(intGraph.parentIndex(index, position)));
+
+    return parentIds.build();
+  }
+
+  @Override
+  public ImmutableList<Id> parentIdList(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    if (index == -1)
+      return ImmutableList.of();
+
+    return cachedIdList(idLists(true), intGraph, index);
+  }
+
+  private volatile Object[] parentIdLists;
+
+  // ===================================
+
+  // the arrays are allocated under a lock, so racing threads share one array instead of replacing
+  // each other's (and the lists cached in it)
+  private Object[] idLists(boolean parents) {
+
+    Object[] idLists = parents ? parentIdLists : childIdLists;
+
+    if (idLists == null)
+      synchronized (this) {
+
+        idLists = parents ? parentIdLists : childIdLists;
+
+        if (idLists == null) {
+
+          idLists = new Object[idSize()];
+
+          if (parents)
+            parentIdLists = idLists;
+          else
+            childIdLists = idLists;
+        }
+      }
+
+    return idLists;
+  }
+
+  // each id's list is built in row order (so stable) the first time it is requested, then reused
+  // (racing threads may build a list twice, but lists are immutable so either copy is fine),
+  // traversals that shouldn't allocate at all can index intGraph() directly
+  @SuppressWarnings("unchecked")
+  private ImmutableList<Id> cachedIdList(Object[] idLists, IntGraph parentGraph, int index) {
+
+    ImmutableList<Id> idList = (ImmutableList<Id>) idLists[index];
+
+    if (idList == null) {
+
+      ImmutableList.Builder<Id> builder = ImmutableList.builder();
+
+      for (int position = 0; position < parentGraph.parentCount(index); position++)
+        builder.add(idIndex.id(parentGraph.parentIndex(index, position)));
+
+      idList = builder.build();
+      idLists[index] = idList;
+    }
+
+    return idList;
+  }
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  @Override
+  public boolean isChildOf(Id id, Id potentialParent) {
+
+    int index = idIndex.indexOf(id);
+    int potentialParentIndex = idIndex.indexOf(potentialParent);
+
+    if (index == -1 || potentialParentIndex == -1)
+      return false;
+
+    return intGraph.isChildOf(index, potentialParentIndex);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__childIds() {
+    if (id__childIds == null)
+      id__childIds = multimap(intGraph.inverse());
+    return id__childIds;
+  }
+
+  private volatile ImmutableSetMultimap<Id, Id> id__childIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> childIdSet(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    if (index == -1)
+      return ImmutableSet.of();
+
+    ImmutableSet.Builder<Id> childIds = ImmutableSet.builder();
+
+    for (int position = 0; position < intGraph.childCount(index); position++)
+      childIds.add(idIndex.id(intGraph.childIndex(index, position)));
+
+    return childIds.build();
+  }
+
+  @Override
+  public ImmutableList<Id> childIdList(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    if (index == -1)
+      return ImmutableList.of();
+
+    return cachedIdList(idLists(false), intGraph.inverse(), index);
+  }
+
+  private volatile Object[] childIdLists;
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Id id, boolean inclusive) {
+    return ancestorIdIterable(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Set<Id> ids, boolean inclusive) {
+
+    if (!containsIds(ids))
+      return TraverseLib.idIterable(true, inclusive, ImmutableList.copyOf(ids), parentIdListFn());
+
+    return TraverseLib.idIterable(true, inclusive, indexes(ids), idIndex, ancestorTraversers());
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdGraph<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdGraph<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(ancestorIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+
+    if (!idIndex.containsId(id))
+      return TraverseLib.findId(inclusive, ImmutableList.of(id), parentIdListFn(), match, prune);
+
+    return TraverseLib.findId(inclusive, indexes(ImmutableSet.of(id)), idIndex,
+        ancestorTraversers(), match, prune);
+  }
+
+  @Override
+  public boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+
+    if (!idIndex.containsId(id))
+      return TraverseLib.countIds(inclusive, ImmutableList.of(id), parentIdListFn(), until);
+
+    return TraverseLib.countIds(inclusive, indexes(ImmutableSet.of(id)), idIndex,
+        ancestorTraversers(), until);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (id.equals(potentialAncestor))
+      return inclusive;
+
+    int index = idIndex.indexOf(id);
+    int potentialAncestorIndex = idIndex.indexOf(potentialAncestor);
+
+    if (index == -1 || potentialAncestorIndex == -1)
+      return false;
+
+    // stops as soon as the ancestor is reached, instead of collecting every ancestor
+    IntTraverser traverser = ancestorTraversers().acquire();
+
+    try {
+      IntIterator ancestorIndexes = traverser.iterator(true, false, index);
+
+      while (ancestorIndexes.hasNext())
+        if (ancestorIndexes.next() == potentialAncestorIndex)
+          return true;
+
+      return false;
+
+    } finally {
+      ancestorTraversers().release(traverser);
+    }
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Id id, boolean inclusive) {
+    return descendantIdIterable(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Set<Id> ids, boolean inclusive) {
+
+    if (!containsIds(ids))
+      return TraverseLib.idIterable(true, inclusive, ImmutableList.copyOf(ids), childIdListFn());
+
+    return TraverseLib.idIterable(true, inclusive, indexes(ids), idIndex, descendantTraversers());
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdGraph<Id> descendantIdGraph(Id id, boolean inclusive) {
+    return descendantIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdGraph<Id> descendantIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(descendantIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+
+    if (!idIndex.containsId(id))
+      return TraverseLib.findId(inclusive, ImmutableList.of(id), childIdListFn(), match, prune);
+
+    return TraverseLib.findId(inclusive, indexes(ImmutableSet.of(id)), idIndex,
+        descendantTraversers(), match, prune);
+  }
+
+  @Override
+  public boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+
+    if (!idIndex.containsId(id))
+      return TraverseLib.countIds(inclusive, ImmutableList.of(id), childIdListFn(), until);
+
+    return TraverseLib.countIds(inclusive, indexes(ImmutableSet.of(id)), idIndex,
+        descendantTraversers(), until);
+  }
+
+  // ===========================================================================
+  // roots (sources)
+  // ===========================================================================
+
+  @Override
+  public boolean isRoot(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    return index != -1 && intGraph.parentCount(index) == 0;
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> rootIdSet() {
+    if (rootIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (int index = 0; index < intGraph.indexSize(); index++)
+        if (intGraph.parentCount(index) == 0)
+          builder.add(idIndex.id(index));
+
+      rootIds = builder.build();
+    }
+
+    return rootIds;
+  }
+
+  private volatile ImmutableSet<Id> rootIds;
+
+  // ===========================================================================
+  // leaves (sinks)
+  // ===========================================================================
+
+  @Override
+  public boolean isLeaf(Id id) {
+
+    int index = idIndex.indexOf(id);
+
+    return index != -1 && intGraph.childCount(index) == 0;
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> leafIdSet() {
+    if (leafIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (int index = 0; index < intGraph.indexSize(); index++)
+        if (intGraph.childCount(index) == 0)
+          builder.add(idIndex.id(index));
+
+      leafIds = builder.build();
+    }
+
+    return leafIds;
+  }
+
+  private volatile ImmutableSet<Id> leafIds;
+
+  // ===========================================================================
+  // topological sort
+  // ===========================================================================
+
+  /**
+   * A topologically sorted index array, with roots (sources) first (will be absent if the digraph
+   * is cyclic). Not copied, so don't modify it.
+   */
+  protected Optional<int[]> optionalTopsortIndexes() {
+    if (optionalTopsortIndexes == null)
+      optionalTopsortIndexes = TopsortLib.sort(intGraph);
+    return optionalTopsortIndexes;
+  }
+
+  private volatile Optional<int[]> optionalTopsortIndexes;
+
+  // ===================================
+
+  @Override
+  public Optional<ImmutableList<Id>> optionalTopsortIdList() {
+    if (optionalTopsortIdList == null) {
+      if (optionalTopsortIndexes().isPresent())
+        optionalTopsortIdList = Optional.of(ids(optionalTopsortIndexes().get()));
+      else
+        optionalTopsortIdList = Optional.absent();
+    }
+    return optionalTopsortIdList;
+  }
+
+  private volatile Optional<ImmutableList<Id>> optionalTopsortIdList;
+
+  // ===================================
+
+  @Override
+  public boolean containsCycle() {
+    return !optionalTopsortIndexes().isPresent();
+  }
+
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  @Override
+  public StrongComponents<Id> strongComponents() {
+    if (strongComponents == null)
+      strongComponents = StrongComponentsLib.tarjan(idIndex(), intGraph());
+    return strongComponents;
+  }
+
+  private volatile StrongComponents<Id> strongComponents;
+
+  // ===========================================================================
+  // generic traversal
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdIterable(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return TraverseLib.idIterable(depthFirst, inclusive, startIds, expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdList(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return ImmutableList.copyOf(traverseIdIterable(depthFirst, inclusive, startIds, expand));
+  }
+
+  // ===========================================================================
+  // ids <-> indexes
+  // ===========================================================================
+
+  /**
+   * Whether this graph contains every id. Traversals starting from an id it doesn't contain fall
+   * back to traversing by id, so (like IdGraphClass) the id is treated as an isolated id.
+   */
+  private boolean containsIds(Iterable<Id> ids) {
+
+    for (Id id : ids)
+      if (!idIndex.containsId(id))
+        return false;
+
+    return true;
+  }
+
+  /**
+   * Converting ids to indexes, skipping ids this graph doesn't contain.
+   */
+  protected int[] indexes(Iterable<Id> ids) {
+
+    int[] indexes = new int[Iterables.size(ids)];
+    int size = 0;
+
+    for (Id id : ids) {
+
+      int index = idIndex.indexOf(id);
+
+      if (index != -1)
+        indexes[size++] = index;
+    }
+
+    return size == indexes.length ? indexes : Arrays.copyOf(indexes, size);
+  }
+
+  /**
+   * Converting indexes to an id list.
+   */
+  protected ImmutableList<Id> ids(int[] indexes) {
+
+    ImmutableList.Builder<Id> ids = ImmutableList.builder();
+
+    for (int index : indexes)
+      ids.add(idIndex.id(index));
+
+    return ids.build();
+  }
+
+  // ===================================
+
+  private Fn1<Id, List<Id>> parentIdListFn() {
+    return new Fn1<Id, List<Id>>() {
+      @Override
+      public List<Id> apply(Id id) {
+        return parentIdList(id);
+      }
+    };
+  }
+
+  private Fn1<Id, List<Id>> childIdListFn() {
+    return new Fn1<Id, List<Id>>() {
+      @Override
+      public List<Id> apply(Id id) {
+        return childIdList(id);
+      }
+    };
+  }
+
+  // ===================================
+
+  // mapping from id to the ids of its parents in intGraph (pass the inverse to map to children)
+  private ImmutableSetMultimap<Id, Id> multimap(IntGraph intGraph) {
+
+    ImmutableSetMultimap.Builder<Id, Id> builder = ImmutableSetMultimap.builder();
+
+    for (int index = 0; index < intGraph.indexSize(); index++) {
+
+      Id id = idIndex.id(index);
+
+      for (int position = 0; position < intGraph.parentCount(index); position++)
+        builder.put(id, idIndex.id(intGraph.parentIndex(index, position)));
+    }
+
+    return builder.build();
+  }
+
+}
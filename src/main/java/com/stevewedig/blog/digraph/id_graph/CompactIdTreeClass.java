@@ -0,0 +1,254 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.*;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.CollectLib;
+
+/**
+ * An implementation of IdTree backed by an IdIndex and an IntGraph (see CompactIdGraphClass).
+ */
+public class CompactIdTreeClass<Id> extends CompactIdDagClass<Id> implements IdTree<Id> {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public CompactIdTreeClass(IdIndex<Id> idIndex, IntGraph intGraph) {
+
+    super(idIndex, intGraph);
+
+    validate();
+  }
+
+  /**
+   * For trees whose topological sort is already known, such as trees loaded from a verified
+   * snapshot. Nothing is checked, so the arcs must form a tree and the sort must be correct.
+   */
+  public CompactIdTreeClass(IdIndex<Id> idIndex, IntGraph intGraph, int[] topsortIndexes) {
+    super(idIndex, intGraph, topsortIndexes);
+  }
+
+  // ===========================================================================
+  // validate
+  // ===========================================================================
+
+  private void validate() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots,
+      TreeNodesCannotHaveMultipleParents {
+
+    if (idSize() == 0)
+      throw new TreeCannotBeEmpty();
+
+    if (rootIdSet().size() > 1)
+      throw new TreeCannotHaveMultipleRoots("rootIds = %s", rootIdSet());
+
+    for (int index = 0; index < intGraph().indexSize(); index++)
+      if (intGraph().parentCount(index) >= 2)
+        throw new TreeNodesCannotHaveMultipleParents("id = %s, parentIds = %s",
+            idIndex().id(index), parentIdSet(idIndex().id(index)));
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  // not public because an arbitrary set of ids won't necessarily create a tree
+  private IdTree<Id> filterIdTree(Set<Id> ids) {
+
+    IdIndex<Id> filteredIdIndex = IdIndexLib.fromIds(ids);
+
+    return new CompactIdTreeClass<Id>(filteredIdIndex, filterIntGraph(filteredIdIndex));
+  }
+
+  // ===========================================================================
+  // parent
+  // ===========================================================================
+
+  @Override
+  public Optional<Id> parentId(Id id) {
+
+    int index = idIndex().indexOf(id);
+
+    if (index == -1 || intGraph().parentCount(index) == 0)
+      return Optional.absent();
+    else
+      return Optional.of(idIndex().id(intGraph().parentIndex(index, 0)));
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public IdTree<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdTree<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdTree(ancestorIdSet(ids, inclusive));
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> ancestorIdList(Id id, boolean inclusive) {
+
+    // collected from the id upwards, then reversed so the root is first
+    List<Id> ancestorIds = new ArrayList<>();
+    if (inclusive)
+      ancestorIds.add(id);
+
+    int index = idIndex().indexOf(id);
+
+    while (index != -1 && intGraph().parentCount(index) != 0) {
+
+      index = intGraph().parentIndex(index, 0);
+      ancestorIds.add(idIndex().id(index));
+    }
+
+    return ImmutableList.copyOf(Lists.reverse(ancestorIds));
+  }
+
+  // ===================================
+
+  @Override
+  public Optional<Id> kthAncestor(Id id, int k) {
+
+    int index = ancestorTable().kthAncestor(idIndex().index(id), k);
+
+    if (index == -1)
+      return Optional.absent();
+    else
+      return Optional.of(idIndex().id(index));
+  }
+
+  @Override
+  public Id lowestCommonAncestor(Id id, Id otherId) {
+    return idIndex().id(
+        ancestorTable().lowestCommonAncestor(idIndex().index(id), idIndex().index(otherId)));
+  }
+
+  // ===================================
+
+  protected AncestorTable ancestorTable() {
+    if (ancestorTable == null)
+      ancestorTable = AncestorTableLib.table(intGraph());
+    return ancestorTable;
+  }
+
+  private volatile AncestorTable ancestorTable;
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public IdTree<Id> descendantIdTree(Id id) {
+    return filterIdTree(descendantIdSet(id, true));
+  }
+
+  // ===================================
+
+  // compares depths and jumps up the ancestor table, instead of walking up a possibly long path
+  // (isAncestorOf() also uses this)
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    int index = idIndex().indexOf(id);
+    int potentialAncestorIndex = idIndex().indexOf(potentialAncestor);
+
+    if (index == -1 || potentialAncestorIndex == -1)
+      return super.isDescendantOf(id, potentialAncestor, inclusive);
+
+    int distance =
+        ancestorTable().depth(index) - ancestorTable().depth(potentialAncestorIndex);
+
+    if (distance < 0 || distance == 0 && !inclusive)
+      return false;
+
+    return ancestorTable().kthAncestor(index, distance) == potentialAncestorIndex;
+  }
+
+  // ===========================================================================
+  // root
+  // ===========================================================================
+
+  @Override
+  public Id rootId() {
+    return Iterables.getOnlyElement(rootIdSet());
+  }
+
+  // ===========================================================================
+  // depth
+  // ===========================================================================
+
+  @Override
+  public int depth(Id id) {
+
+    int index = idIndex().indexOf(id);
+
+    if (index == -1)
+      return 0;
+
+    return ancestorTable().depth(index);
+  }
+
+  // ===================================
+
+  @Override
+  public int maxDepth() {
+    return ancestorTable().maxDepth();
+  }
+
+  // ===================================
+
+  @Override
+  public Id mostDeep(Set<Id> ids) {
+
+    CollectLib.assertNotEmpty(ids);
+
+    Id currentId = null;
+    Integer currentDepth = null;
+
+    for (Id id : ids) {
+
+      int depth = depth(id);
+
+      if (currentId == null || depth > currentDepth) {
+        currentId = id;
+        currentDepth = depth;
+      }
+    }
+
+    return currentId;
+  }
+
+  // ===================================
+
+  @Override
+  public Id leastDeep(Set<Id> ids) {
+
+    CollectLib.assertNotEmpty(ids);
+
+    Id currentId = null;
+    Integer currentDepth = null;
+
+    for (Id id : ids) {
+
+      int depth = depth(id);
+
+      if (currentId == null || depth < currentDepth) {
+        currentId = id;
+        currentDepth = depth;
+      }
+    }
+
+    return currentId;
+  }
+
+}
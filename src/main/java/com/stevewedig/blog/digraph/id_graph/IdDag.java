@@ -3,6 +3,9 @@ package com.stevewedig.blog.digraph.id_graph;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
+import com.stevewedig.blog.digraph.alg.ReachabilityIndex;
+import com.stevewedig.blog.digraph.alg.StructureHash;
+import com.stevewedig.blog.digraph.alg.TransitiveClosure;
 
 /**
  * A dag containing ids.
@@ -45,6 +48,32 @@ public interface IdDag<Id> extends IdGraph<Id> {
    */
   ImmutableList<Id> topsortIdList();
 
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  /**
+   * A reachability index answering isAncestorOf() and isDescendantOf() in near constant time,
+   * built on first use and then cached (worthwhile when checking many pairs).
+   */
+  ReachabilityIndex<Id> reachabilityIndex();
+
+  /**
+   * The ancestor and descendant closures of every id as bitsets, built on first use and then
+   * cached (worthwhile for repeated closure queries on dags up to tens of thousands of ids).
+   */
+  TransitiveClosure<Id> transitiveClosure();
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  /**
+   * Merkle style hashes of the whole dag and each id's descendants and ancestors, built on first
+   * use and then cached (useful for comparing versions of a dag, see StructureHashLib).
+   */
+  StructureHash<Id> structureHash();
+
   // ===========================================================================
   // depth first
   // ===========================================================================
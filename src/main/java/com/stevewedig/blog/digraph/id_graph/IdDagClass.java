@@ -3,6 +3,7 @@ package com.stevewedig.blog.digraph.id_graph;
 import java.util.Set;
 
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
 import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
 
 /**
@@ -77,6 +78,57 @@ public class IdDagClass<Id> extends IdGraphClass<Id> implements IdDag<Id> {
     return optionalTopsortIdList().get();
   }
 
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  @Override
+  public ReachabilityIndex<Id> reachabilityIndex() {
+    if (reachabilityIndex == null)
+      reachabilityIndex = ReachabilityLib.index(idIndex(), intGraph());
+    return reachabilityIndex;
+  }
+
+  private ReachabilityIndex<Id> reachabilityIndex;
+
+  @Override
+  public TransitiveClosure<Id> transitiveClosure() {
+    if (transitiveClosure == null)
+      transitiveClosure = TransitiveClosureLib.closure(topsortIdList(), idIndex(), intGraph());
+    return transitiveClosure;
+  }
+
+  private TransitiveClosure<Id> transitiveClosure;
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  @Override
+  public StructureHash<Id> structureHash() {
+    if (structureHash == null)
+      structureHash = StructureHashLib.hash(idIndex(), intGraph(), topsortIdList());
+    return structureHash;
+  }
+
+  private StructureHash<Id> structureHash;
+
+  // ===========================================================================
+  // equality
+  // ===========================================================================
+
+  // unequal dags almost always have different structure hashes, so only equal dags compare arcs
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || StructureHashLib.sameClassAndHash(this, other) && super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return StructureHashLib.classAndHashCode(this);
+  }
+
   // ===========================================================================
   // depth first
   // ===========================================================================
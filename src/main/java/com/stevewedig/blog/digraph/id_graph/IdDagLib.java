@@ -1,8 +1,9 @@
 package com.stevewedig.blog.digraph.id_graph;
 
-import java.util.Set;
+import java.util.*;
 
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.MultimapLib;
 
 /**
@@ -83,4 +84,93 @@ public abstract class IdDagLib {
     return fromChildMap(MultimapLib.of(alternatingIdsAndChildIds));
   }
 
+  // ===========================================================================
+  // compact
+  // ===========================================================================
+
+  /**
+   * Create a compact IdDag, which stores arcs in int arrays instead of multimaps, from an IdIndex and an IntGraph over its indexes.
+   */
+  public static <Id> IdDag<Id> compact(IdIndex<Id> idIndex, IntGraph intGraph) {
+    return new CompactIdDagClass<Id>(idIndex, intGraph);
+  }
+
+  /**
+   * Create a compact copy of an IdDag, which stores arcs in int arrays instead of multimaps.
+   */
+  public static <Id> IdDag<Id> compact(IdDag<Id> idDag) {
+    return compact(idDag.idIndex(), idDag.intGraph());
+  }
+
+  /**
+   * Create a compact IdDag from the dag's id set and a mapping from id to parent ids (specified as a multimap), without building an intermediate ImmutableSetMultimap.
+   */
+  public static <Id> IdDag<Id> compactFromParentMap(Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    IdIndex<Id> idIndex = IdIndexLib.fromIds(idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // ===========================================================================
+  // interned
+  // ===========================================================================
+
+  /**
+   * Create a compact copy of an IdDag whose idIndex() is an InternedIdIndex, so dags over the same interner share one id dictionary and only store their ids' interned indexes and int arcs.
+   */
+  public static <Id> IdDag<Id> interned(IdInterner<Id> interner, IdDag<Id> idDag) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idDag.idSet());
+
+    return compact(idIndex, IdGraphLib.internedIntGraph(idIndex, idDag));
+  }
+
+  /**
+   * Create a compact IdDag over an interner from the dag's id set and a mapping from id to parent ids (specified as a multimap).
+   */
+  public static <Id> IdDag<Id> internedFromParentMap(IdInterner<Id> interner, Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // ===========================================================================
+  // sortNeighbors
+  // ===========================================================================
+
+  /**
+   * Copy an IdDag with its ids, and each id's parents and children, ordered by a comparator, so parentIdList(), childIdList(), and traversals follow that order.
+   */
+  public static <Id> IdDag<Id> sortNeighbors(IdDag<Id> idDag, Comparator<? super Id> comparator) {
+    return fromParentMap(IdGraphLib.sortedIdSet(idDag.idSet(), comparator),
+        MultimapLib.sorted(idDag.id__parentIds(), comparator));
+  }
+
+  // ===========================================================================
+  // view
+  // ===========================================================================
+
+  /**
+   * Wrap an IdDag in a view, whose filterIdGraph(), ancestorIdGraph(), and descendantIdGraph() return views sharing its arcs instead of validated copies.
+   */
+  public static <Id> IdDag<Id> view(IdDag<Id> idDag) {
+    return new IdDagViewClass<Id>(idDag, idDag.idSet());
+  }
+
+  /**
+   * A view of an IdDag restricted to an id set, sharing its arcs instead of copying and validating them.
+   */
+  public static <Id> IdDag<Id> view(IdDag<Id> idDag, Set<Id> ids) {
+    return new IdDagViewClass<Id>(idDag, ids);
+  }
+
+  /**
+   * Copy an IdDag (such as a view) into a standalone, validated IdDag.
+   */
+  public static <Id> IdDag<Id> materialize(IdDag<Id> idDag) {
+    return fromParentMap(idDag.idSet(), idDag.id__parentIds());
+  }
+
 }
@@ -0,0 +1,203 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.Set;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+
+/**
+ * An IdDag that is a view of another dag restricted to an id set (see IdGraphViewClass). Any
+ * subgraph of a dag is acyclic, so the view isn't checked for cycles, and its topological sort is
+ * the underlying dag's topological sort filtered to the view's ids.
+ */
+public class IdDagViewClass<Id> extends IdGraphViewClass<Id> implements IdDag<Id> {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IdDagViewClass(IdDag<Id> dag, Set<Id> ids) {
+    super(dag, ids);
+    this.dag = dag;
+  }
+
+  // ===========================================================================
+  // underlying dag
+  // ===========================================================================
+
+  @Override
+  protected IdDag<Id> graph() {
+    return dag;
+  }
+
+  private final IdDag<Id> dag;
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> filterIdGraph(Set<Id> ids) {
+    return new IdDagViewClass<Id>(canViewGraph(ids) ? graph() : this, ids);
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(ancestorIdSet(ids, inclusive));
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Id id, boolean inclusive) {
+    return descendantIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(descendantIdSet(ids, inclusive));
+  }
+
+  // ===========================================================================
+  // topological sort
+  // ===========================================================================
+
+  @Override
+  public ImmutableList<Id> topsortIdList() {
+    if (topsortIdList == null) {
+
+      ImmutableList.Builder<Id> builder = ImmutableList.builder();
+
+      for (Id id : graph().topsortIdList())
+        if (idSet().contains(id))
+          builder.add(id);
+
+      // ids not in the underlying dag have no arcs, so can go anywhere
+      for (Id id : idSet())
+        if (!graph().idSet().contains(id))
+          builder.add(id);
+
+      topsortIdList = builder.build();
+    }
+
+    return topsortIdList;
+  }
+
+  private ImmutableList<Id> topsortIdList;
+
+  // ===================================
+
+  @Override
+  public Optional<ImmutableList<Id>> optionalTopsortIdList() {
+    return Optional.of(topsortIdList());
+  }
+
+  @Override
+  public boolean containsCycle() {
+    return false;
+  }
+
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  @Override
+  public ReachabilityIndex<Id> reachabilityIndex() {
+    if (reachabilityIndex == null)
+      reachabilityIndex = ReachabilityLib.index(idIndex(), intGraph());
+    return reachabilityIndex;
+  }
+
+  private ReachabilityIndex<Id> reachabilityIndex;
+
+  @Override
+  public TransitiveClosure<Id> transitiveClosure() {
+    if (transitiveClosure == null)
+      transitiveClosure = TransitiveClosureLib.closure(topsortIdList(), idIndex(), intGraph());
+    return transitiveClosure;
+  }
+
+  private TransitiveClosure<Id> transitiveClosure;
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  @Override
+  public StructureHash<Id> structureHash() {
+    if (structureHash == null)
+      structureHash = StructureHashLib.hash(idIndex(), intGraph(), topsortIdList());
+    return structureHash;
+  }
+
+  private StructureHash<Id> structureHash;
+
+  // ===========================================================================
+  // equality
+  // ===========================================================================
+
+  // unequal dags almost always have different structure hashes, so only equal dags compare arcs
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || StructureHashLib.sameClassAndHash(this, other) && super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return StructureHashLib.classAndHashCode(this);
+  }
+
+  // ===========================================================================
+  // depth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> depthIdIterable() {
+    return traverseIdIterable(true, true, ImmutableList.copyOf(rootIdSet()), childIdListLambda());
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> depthIdList() {
+    if (depthIdList == null)
+      depthIdList = ImmutableList.copyOf(depthIdIterable());
+    return depthIdList;
+  }
+
+  private ImmutableList<Id> depthIdList;
+
+  // ===========================================================================
+  // breadth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> breadthIdIterable() {
+    return traverseIdIterable(false, true, ImmutableList.copyOf(rootIdSet()), childIdListLambda());
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> breadthIdList() {
+    if (breadthIdList == null)
+      breadthIdList = ImmutableList.copyOf(breadthIdIterable());
+    return breadthIdList;
+  }
+
+  private ImmutableList<Id> breadthIdList;
+
+}
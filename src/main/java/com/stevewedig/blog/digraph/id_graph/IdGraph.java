@@ -3,7 +3,10 @@ package com.stevewedig.blog.digraph.id_graph;
 
 import java.util.*;
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.StrongComponents;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.LambdaLib.Fn1;
 
 /**
@@ -40,6 +43,20 @@ public interface IdGraph<Id> {
    */
   IdGraph<Id> filterIdGraph(Set<Id> ids);
 
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  /**
+   * The mapping between ids and the int indexes used by intGraph().
+   */
+  IdIndex<Id> idIndex();
+
+  /**
+   * The arc structure over int indexes, for algorithms that work on int arrays.
+   */
+  IntGraph intGraph();
+
   // ===========================================================================
   // parents
   // ===========================================================================
@@ -59,6 +76,11 @@ public interface IdGraph<Id> {
    */
   ImmutableSet<Id> parentIdSet(Id id);
 
+  /**
+   * Getting an id's parent ids as a list, in a stable order (the order of parentIdSet()).
+   */
+  ImmutableList<Id> parentIdList(Id id);
+
   // ===========================================================================
   // children
   // ===========================================================================
@@ -78,6 +100,11 @@ public interface IdGraph<Id> {
    */
   ImmutableSet<Id> childIdSet(Id id);
 
+  /**
+   * Getting an id's child ids as a list, in a stable order (the order of childIdSet()).
+   */
+  ImmutableList<Id> childIdList(Id id);
+
   // ===========================================================================
   // ancestors
   // ===========================================================================
@@ -117,6 +144,30 @@ public interface IdGraph<Id> {
    */
   IdGraph<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive);
 
+  /**
+   * The nearest ancestor id matching a predicate, searching breadth first (its parents, parents' parents, and so on) and
+   * stopping as soon as one is found.
+   */
+  Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match);
+
+  /**
+   * The nearest ancestor id matching a predicate, searching breadth first and stopping as soon as
+   * one is found, without searching beyond the ids accepted by prune (which are still tested).
+   */
+  Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune);
+
+  /**
+   * Whether any ancestor id matches a predicate, stopping as soon as one is found.
+   */
+  boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match);
+
+  /**
+   * The number of ancestors reached without searching beyond the ids matching until (which are
+   * still counted).
+   */
+  int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until);
+
   // ===========================================================================
   // descendants
   // ===========================================================================
@@ -157,6 +208,30 @@ public interface IdGraph<Id> {
    */
   IdGraph<Id> descendantIdGraph(Set<Id> ids, boolean inclusive);
 
+  /**
+   * The nearest descendant id matching a predicate, searching breadth first (its children, children's children, and so on) and
+   * stopping as soon as one is found.
+   */
+  Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match);
+
+  /**
+   * The nearest descendant id matching a predicate, searching breadth first and stopping as soon as
+   * one is found, without searching beyond the ids accepted by prune (which are still tested).
+   */
+  Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune);
+
+  /**
+   * Whether any descendant id matches a predicate, stopping as soon as one is found.
+   */
+  boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match);
+
+  /**
+   * The number of descendants reached without searching beyond the ids matching until (which are
+   * still counted).
+   */
+  int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until);
+
   // ===========================================================================
   // roots (sources)
   // ===========================================================================
@@ -200,6 +275,15 @@ public interface IdGraph<Id> {
    */
   Optional<ImmutableList<Id>> optionalTopsortIdList();
 
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  /**
+   * The strongly connected components (cyclic digraphs can use the condensation dag's algorithms).
+   */
+  StrongComponents<Id> strongComponents();
+
   // ===========================================================================
   // generic traversal
   // ===========================================================================
@@ -4,6 +4,7 @@ import com.google.common.base.*;
 import com.google.common.collect.*;
 import com.stevewedig.blog.digraph.alg.*;
 import com.stevewedig.blog.digraph.errors.GraphHadUnexpectedIds;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.LambdaLib.Fn1;
 import com.stevewedig.blog.util.*;
 import com.stevewedig.blog.value_objects.ValueMixin;
@@ -89,6 +90,30 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return IdGraphLib.fromParentMap(ids, filterParentMap(ids));
   }
 
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    if (idIndex == null)
+      idIndex = IdIndexLib.fromIds(idSet());
+    return idIndex;
+  }
+
+  private IdIndex<Id> idIndex;
+
+  // ===================================
+
+  @Override
+  public IntGraph intGraph() {
+    if (intGraph == null)
+      intGraph = IntGraphLib.fromParentMap(idIndex(), id__parentIds());
+    return intGraph;
+  }
+
+  private IntGraph intGraph;
+
   // ===========================================================================
   // parents
   // ===========================================================================
@@ -114,6 +139,12 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return id__parentIds().get(id);
   }
 
+  // ImmutableSet keeps insertion order, and asList() doesn't copy
+  @Override
+  public ImmutableList<Id> parentIdList(Id id) {
+    return parentIdSet(id).asList();
+  }
+
   // ===================================
 
   protected Fn1<Id, List<Id>> parentIdListLambda() {
@@ -121,8 +152,7 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
       parentIdListLambda = new Fn1<Id, List<Id>>() {
         @Override
         public List<Id> apply(Id id) {
-          // non-deterministic ordering
-          return ImmutableList.copyOf(parentIdSet(id));
+          return parentIdList(id);
         }
       };
 
@@ -178,6 +208,12 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return id__childIds().get(id);
   }
 
+  // ImmutableSet keeps insertion order, and asList() doesn't copy
+  @Override
+  public ImmutableList<Id> childIdList(Id id) {
+    return childIdSet(id).asList();
+  }
+
   // ===================================
 
   protected Fn1<Id, List<Id>> childIdListLambda() {
@@ -185,8 +221,7 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
       childIdListLambda = new Fn1<Id, List<Id>>() {
         @Override
         public List<Id> apply(Id id) {
-          // non-deterministic ordering
-          return ImmutableList.copyOf(childIdSet(id));
+          return childIdList(id);
         }
       };
 
@@ -234,6 +269,27 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return filterIdGraph(ancestorIdSet(ids, inclusive));
   }
 
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), parentIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), parentIdListLambda(), until);
+  }
+
   // ===========================================================================
   // descendants
   // ===========================================================================
@@ -273,6 +329,27 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return filterIdGraph(descendantIdSet(ids, inclusive));
   }
 
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), childIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), childIdListLambda(), until);
+  }
+
   // ===========================================================================
   // roots (sources)
   // ===========================================================================
@@ -351,6 +428,19 @@ public class IdGraphClass<Id> extends ValueMixin implements IdGraph<Id> {
     return !optionalTopsortIdList().isPresent();
   }
 
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  @Override
+  public StrongComponents<Id> strongComponents() {
+    if (strongComponents == null)
+      strongComponents = StrongComponentsLib.tarjan(idIndex(), intGraph());
+    return strongComponents;
+  }
+
+  private StrongComponents<Id> strongComponents;
+
   // ===========================================================================
   // generic traversal
   // ===========================================================================
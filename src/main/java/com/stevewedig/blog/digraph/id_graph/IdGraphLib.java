@@ -1,8 +1,9 @@
 package com.stevewedig.blog.digraph.id_graph;
 
-import java.util.Set;
+import java.util.*;
 
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.MultimapLib;
 
 /**
@@ -83,4 +84,113 @@ public abstract class IdGraphLib {
     return fromChildMap(MultimapLib.of(alternatingIdsAndChildIds));
   }
 
+  // ===========================================================================
+  // compact
+  // ===========================================================================
+
+  /**
+   * Create a compact IdGraph, which stores arcs in int arrays instead of multimaps, from an IdIndex and an IntGraph over its indexes.
+   */
+  public static <Id> IdGraph<Id> compact(IdIndex<Id> idIndex, IntGraph intGraph) {
+    return new CompactIdGraphClass<Id>(idIndex, intGraph);
+  }
+
+  /**
+   * Create a compact copy of an IdGraph, which stores arcs in int arrays instead of multimaps.
+   */
+  public static <Id> IdGraph<Id> compact(IdGraph<Id> idGraph) {
+    return compact(idGraph.idIndex(), idGraph.intGraph());
+  }
+
+  /**
+   * Create a compact IdGraph from the graph's id set and a mapping from id to parent ids (specified as a multimap), without building an intermediate ImmutableSetMultimap.
+   */
+  public static <Id> IdGraph<Id> compactFromParentMap(Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    IdIndex<Id> idIndex = IdIndexLib.fromIds(idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // ===========================================================================
+  // interned
+  // ===========================================================================
+
+  /**
+   * Create a compact copy of an IdGraph whose idIndex() is an InternedIdIndex, so graphs over the same interner share one id dictionary and only store their ids' interned indexes and int arcs.
+   */
+  public static <Id> IdGraph<Id> interned(IdInterner<Id> interner, IdGraph<Id> idGraph) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idGraph.idSet());
+
+    return compact(idIndex, IdGraphLib.internedIntGraph(idIndex, idGraph));
+  }
+
+  /**
+   * Create a compact IdGraph over an interner from the graph's id set and a mapping from id to parent ids (specified as a multimap).
+   */
+  public static <Id> IdGraph<Id> internedFromParentMap(IdInterner<Id> interner, Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // the graph's arcs over an interned index of its ids
+  static <Id> IntGraph internedIntGraph(InternedIdIndex<Id> idIndex, IdGraph<Id> idGraph) {
+
+    int[] newIndex__oldIndex = new int[idIndex.indexSize()];
+
+    for (int index = 0; index < newIndex__oldIndex.length; index++)
+      newIndex__oldIndex[index] = idGraph.idIndex().index(idIndex.id(index));
+
+    return IntGraphLib.filter(idGraph.intGraph(), newIndex__oldIndex);
+  }
+
+  // ===========================================================================
+  // sortNeighbors
+  // ===========================================================================
+
+  /**
+   * Copy an IdGraph with its ids, and each id's parents and children, ordered by a comparator, so parentIdList(), childIdList(), and traversals follow that order.
+   */
+  public static <Id> IdGraph<Id> sortNeighbors(IdGraph<Id> idGraph, Comparator<? super Id> comparator) {
+    return fromParentMap(sortedIdSet(idGraph.idSet(), comparator),
+        MultimapLib.sorted(idGraph.id__parentIds(), comparator));
+  }
+
+  // the ids in comparator order
+  static <Id> ImmutableSet<Id> sortedIdSet(Set<Id> ids, Comparator<? super Id> comparator) {
+
+    List<Id> idList = new ArrayList<>(ids);
+    Collections.sort(idList, comparator);
+
+    return ImmutableSet.copyOf(idList);
+  }
+
+  // ===========================================================================
+  // view
+  // ===========================================================================
+
+  /**
+   * Wrap an IdGraph in a view, whose filterIdGraph(), ancestorIdGraph(), and descendantIdGraph() return views sharing its arcs instead of validated copies.
+   */
+  public static <Id> IdGraph<Id> view(IdGraph<Id> idGraph) {
+    return new IdGraphViewClass<Id>(idGraph, idGraph.idSet());
+  }
+
+  /**
+   * A view of an IdGraph restricted to an id set, sharing its arcs instead of copying and validating them.
+   */
+  public static <Id> IdGraph<Id> view(IdGraph<Id> idGraph, Set<Id> ids) {
+    return new IdGraphViewClass<Id>(idGraph, ids);
+  }
+
+  /**
+   * Copy an IdGraph (such as a view) into a standalone, validated IdGraph.
+   */
+  public static <Id> IdGraph<Id> materialize(IdGraph<Id> idGraph) {
+    return fromParentMap(idGraph.idSet(), idGraph.id__parentIds());
+  }
+
 }
@@ -0,0 +1,255 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.Arrays;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Union, intersection, and difference of IdGraphs, merging their int arcs directly into compact
+ * graphs (linear in ids plus arcs). When both graphs index their ids with the same IdInterner, ids
+ * are matched by merging interned indexes instead of hashing, and the result uses the interner too.
+ */
+public abstract class IdGraphSetLib {
+
+  // ===========================================================================
+  // union
+  // ===========================================================================
+
+  /**
+   * The ids and arcs in either graph.
+   */
+  public static <Id> IdGraph<Id> union(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+
+    IdIndex<Id> idIndex = unionIdIndex(graph1.idIndex(), graph2.idIndex());
+
+    return IdGraphLib.compact(idIndex, unionIntGraph(idIndex, graph1, graph2));
+  }
+
+  /**
+   * The ids and arcs in either dag, such as a base dag and an overlay (the union is checked for
+   * cycles).
+   */
+  public static <Id> IdDag<Id> union(IdDag<Id> dag1, IdDag<Id> dag2) throws DagCannotHaveCycle {
+
+    IdIndex<Id> idIndex = unionIdIndex(dag1.idIndex(), dag2.idIndex());
+
+    return IdDagLib.compact(idIndex, unionIntGraph(idIndex, dag1, dag2));
+  }
+
+  // ===================================
+
+  private static <Id> IdIndex<Id> unionIdIndex(IdIndex<Id> idIndex1, IdIndex<Id> idIndex2) {
+
+    if (sameInterner(idIndex1, idIndex2))
+      return IdInternerLib.union((InternedIdIndex<Id>) idIndex1, (InternedIdIndex<Id>) idIndex2);
+
+    return IdIndexLib.fromIds(Iterables.concat(idIndex1.idList(), idIndex2.idList()));
+  }
+
+  private static <Id> IntGraph unionIntGraph(IdIndex<Id> idIndex, IdGraph<Id> graph1,
+      IdGraph<Id> graph2) {
+
+    IntArcBuilder arcs =
+        IntGraphLib.arcBuilder(graph1.intGraph().arcSize() + graph2.intGraph().arcSize());
+
+    for (IdGraph<Id> graph : ImmutableList.of(graph1, graph2)) {
+
+      int[] oldIndex__newIndex = indexMap(graph.idIndex(), idIndex);
+      IntGraph intGraph = graph.intGraph();
+
+      for (int oldIndex = 0; oldIndex < oldIndex__newIndex.length; oldIndex++)
+        for (int position = 0; position < intGraph.parentCount(oldIndex); position++)
+          arcs.addArc(oldIndex__newIndex[intGraph.parentIndex(oldIndex, position)],
+              oldIndex__newIndex[oldIndex]);
+    }
+
+    // duplicate arcs are dropped
+    return arcs.build(idIndex.indexSize());
+  }
+
+  // ===========================================================================
+  // intersection
+  // ===========================================================================
+
+  /**
+   * The ids and arcs in both graphs.
+   */
+  public static <Id> IdGraph<Id> intersection(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+
+    IdIndex<Id> idIndex = intersectionIdIndex(graph1.idIndex(), graph2.idIndex());
+
+    return IdGraphLib.compact(idIndex, intersectionIntGraph(idIndex, graph1, graph2));
+  }
+
+  /**
+   * The ids and arcs in both dags, which is always a dag, so the first dag's topological sort is
+   * reused instead of sorting again.
+   */
+  public static <Id> IdDag<Id> intersection(IdDag<Id> dag1, IdDag<Id> dag2) {
+
+    IdIndex<Id> idIndex = intersectionIdIndex(dag1.idIndex(), dag2.idIndex());
+
+    return new CompactIdDagClass<Id>(idIndex, intersectionIntGraph(idIndex, dag1, dag2),
+        topsortIndexes(idIndex, dag1));
+  }
+
+  // ===================================
+
+  private static <Id> IdIndex<Id> intersectionIdIndex(IdIndex<Id> idIndex1,
+      IdIndex<Id> idIndex2) {
+
+    if (sameInterner(idIndex1, idIndex2))
+      return IdInternerLib.intersection((InternedIdIndex<Id>) idIndex1,
+          (InternedIdIndex<Id>) idIndex2);
+
+    ImmutableList.Builder<Id> ids = ImmutableList.builder();
+
+    for (Id id : idIndex1.idList())
+      if (idIndex2.containsId(id))
+        ids.add(id);
+
+    return IdIndexLib.fromIds(ids.build());
+  }
+
+  private static <Id> IntGraph intersectionIntGraph(IdIndex<Id> idIndex, IdGraph<Id> graph1,
+      IdGraph<Id> graph2) {
+
+    int[] newIndex__index1 = indexMap(idIndex, graph1.idIndex());
+    int[] newIndex__index2 = indexMap(idIndex, graph2.idIndex());
+    int[] index1__newIndex = indexMap(graph1.idIndex(), idIndex);
+
+    IntGraph intGraph1 = graph1.intGraph();
+    IntGraph intGraph2 = graph2.intGraph();
+
+    // index2 -> the new index whose graph2 parents it was last marked as
+    int[] marks = new int[intGraph2.indexSize()];
+    Arrays.fill(marks, -1);
+
+    IntArcBuilder arcs =
+        IntGraphLib.arcBuilder(Math.min(intGraph1.arcSize(), intGraph2.arcSize()));
+
+    for (int newIndex = 0; newIndex < idIndex.indexSize(); newIndex++) {
+
+      int index1 = newIndex__index1[newIndex];
+      int index2 = newIndex__index2[newIndex];
+
+      for (int position = 0; position < intGraph2.parentCount(index2); position++)
+        marks[intGraph2.parentIndex(index2, position)] = newIndex;
+
+      for (int position = 0; position < intGraph1.parentCount(index1); position++) {
+
+        int newParentIndex = index1__newIndex[intGraph1.parentIndex(index1, position)];
+
+        if (newParentIndex != -1 && marks[newIndex__index2[newParentIndex]] == newIndex)
+          arcs.addArc(newParentIndex, newIndex);
+      }
+    }
+
+    return arcs.build(idIndex.indexSize());
+  }
+
+  // ===========================================================================
+  // difference
+  // ===========================================================================
+
+  /**
+   * The first graph's ids, and its arcs that aren't in the second graph (use filterIdGraph() to
+   * remove ids).
+   */
+  public static <Id> IdGraph<Id> difference(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+    return IdGraphLib.compact(graph1.idIndex(), differenceIntGraph(graph1, graph2));
+  }
+
+  /**
+   * The first dag's ids, and its arcs that aren't in the second dag, which is always a dag, so the
+   * first dag's topological sort is reused instead of sorting again.
+   */
+  public static <Id> IdDag<Id> difference(IdDag<Id> dag1, IdDag<Id> dag2) {
+
+    IdIndex<Id> idIndex = dag1.idIndex();
+
+    return new CompactIdDagClass<Id>(idIndex, differenceIntGraph(dag1, dag2),
+        topsortIndexes(idIndex, dag1));
+  }
+
+  // ===================================
+
+  private static <Id> IntGraph differenceIntGraph(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+
+    int[] index1__index2 = indexMap(graph1.idIndex(), graph2.idIndex());
+
+    IntGraph intGraph1 = graph1.intGraph();
+    IntGraph intGraph2 = graph2.intGraph();
+
+    // index2 -> the index1 whose graph2 parents it was last marked as
+    int[] marks = new int[intGraph2.indexSize()];
+    Arrays.fill(marks, -1);
+
+    IntArcBuilder arcs = IntGraphLib.arcBuilder(intGraph1.arcSize());
+
+    for (int index1 = 0; index1 < intGraph1.indexSize(); index1++) {
+
+      int index2 = index1__index2[index1];
+
+      if (index2 != -1)
+        for (int position = 0; position < intGraph2.parentCount(index2); position++)
+          marks[intGraph2.parentIndex(index2, position)] = index1;
+
+      for (int position = 0; position < intGraph1.parentCount(index1); position++) {
+
+        int parentIndex1 = intGraph1.parentIndex(index1, position);
+        int parentIndex2 = index1__index2[parentIndex1];
+
+        if (index2 == -1 || parentIndex2 == -1 || marks[parentIndex2] != index1)
+          arcs.addArc(parentIndex1, index1);
+      }
+    }
+
+    return arcs.build(intGraph1.indexSize());
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> boolean sameInterner(IdIndex<Id> idIndex1, IdIndex<Id> idIndex2) {
+    return idIndex1 instanceof InternedIdIndex && idIndex2 instanceof InternedIdIndex
+        && ((InternedIdIndex<Id>) idIndex1).interner() == ((InternedIdIndex<Id>) idIndex2)
+            .interner();
+  }
+
+  // for each index of one IdIndex, the index of the same id in another, or -1
+  private static <Id> int[] indexMap(IdIndex<Id> fromIdIndex, IdIndex<Id> toIdIndex) {
+
+    if (sameInterner(fromIdIndex, toIdIndex))
+      return IdInternerLib.indexMap((InternedIdIndex<Id>) fromIdIndex,
+          (InternedIdIndex<Id>) toIdIndex);
+
+    int[] fromIndex__toIndex = new int[fromIdIndex.indexSize()];
+
+    for (int fromIndex = 0; fromIndex < fromIndex__toIndex.length; fromIndex++)
+      fromIndex__toIndex[fromIndex] = toIdIndex.indexOf(fromIdIndex.id(fromIndex));
+
+    return fromIndex__toIndex;
+  }
+
+  // the dag's topological sort restricted to a subset of its ids
+  private static <Id> int[] topsortIndexes(IdIndex<Id> idIndex, IdDag<Id> dag) {
+
+    int[] topsortIndexes = new int[idIndex.indexSize()];
+    int size = 0;
+
+    for (Id id : dag.topsortIdList()) {
+
+      int index = idIndex.indexOf(id);
+
+      if (index != -1)
+        topsortIndexes[size++] = index;
+    }
+
+    return topsortIndexes;
+  }
+
+}
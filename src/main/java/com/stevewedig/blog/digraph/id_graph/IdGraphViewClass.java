@@ -0,0 +1,499 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+import com.stevewedig.blog.util.SetLib;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An IdGraph that is a view of another graph restricted to an id set, without copying arcs or
+ * revalidating. Parent and child sets are filtered from the underlying graph on demand, and
+ * filterIdGraph(), ancestorIdGraph(), and descendantIdGraph() return further views. Equal to
+ * other views with the same ids and arcs.
+ */
+public class IdGraphViewClass<Id> extends ValueMixin implements IdGraph<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  @Override
+  public Object[] fields() {
+    return array("idSet", idSet(), "id__parentIds", id__parentIds());
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IdGraphViewClass(IdGraph<Id> graph, Set<Id> ids) {
+    this.graph = graph;
+    this.idSet = ImmutableSet.copyOf(ids);
+  }
+
+  // ===========================================================================
+  // underlying graph
+  // ===========================================================================
+
+  /**
+   * The graph this is a view of.
+   */
+  protected IdGraph<Id> graph() {
+    return graph;
+  }
+
+  private final IdGraph<Id> graph;
+
+  // views of views filter the underlying graph directly when possible, so filtering doesn't stack
+  protected boolean canViewGraph(Set<Id> ids) {
+    return idSet().containsAll(ids);
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public ImmutableSet<Id> idSet() {
+    return idSet;
+  }
+
+  private final ImmutableSet<Id> idSet;
+
+  // ===================================
+
+  @Override
+  public int idSize() {
+    return idSet().size();
+  }
+
+  // ===================================
+
+  @Override
+  public void assertIdsEqual(ImmutableSet<Id> ids) {
+    SetLib.assertEquals(idSet(), ids);
+  }
+
+  @Override
+  public void assertIdsEqual(Id[] ids) {
+    assertIdsEqual(ImmutableSet.copyOf(ids));
+  }
+
+  // ===================================
+
+  @Override
+  public IdGraph<Id> filterIdGraph(Set<Id> ids) {
+    return new IdGraphViewClass<Id>(canViewGraph(ids) ? graph() : this, ids);
+  }
+
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    if (idIndex == null)
+      idIndex = IdIndexLib.fromIds(idSet());
+    return idIndex;
+  }
+
+  private IdIndex<Id> idIndex;
+
+  // ===================================
+
+  @Override
+  public IntGraph intGraph() {
+    if (intGraph == null)
+      intGraph = IntGraphLib.fromParentMap(idIndex(), id__parentIds());
+    return intGraph;
+  }
+
+  private IntGraph intGraph;
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  @Override
+  public boolean isParentOf(Id id, Id potentialChild) {
+    return idSet().contains(id) && idSet().contains(potentialChild)
+        && graph().isParentOf(id, potentialChild);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__parentIds() {
+    if (id__parentIds == null) {
+
+      ImmutableSetMultimap.Builder<Id, Id> builder = ImmutableSetMultimap.builder();
+
+      for (Id id : idSet())
+        builder.putAll(id, parentIdSet(id));
+
+      id__parentIds = builder.build();
+    }
+
+    return id__parentIds;
+  }
+
+  private ImmutableSetMultimap<Id, Id> id__parentIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> parentIdSet(Id id) {
+
+    if (!idSet().contains(id))
+      return ImmutableSet.of();
+
+    return filterIds(graph().parentIdSet(id));
+  }
+
+  @Override
+  public ImmutableList<Id> parentIdList(Id id) {
+    return parentIdSet(id).asList();
+  }
+
+  // ===================================
+
+  protected Fn1<Id, List<Id>> parentIdListLambda() {
+    if (parentIdListLambda == null)
+      parentIdListLambda = new Fn1<Id, List<Id>>() {
+        @Override
+        public List<Id> apply(Id id) {
+          return parentIdList(id);
+        }
+      };
+
+    return parentIdListLambda;
+  }
+
+  private Fn1<Id, List<Id>> parentIdListLambda;
+
+  // ===================================
+
+  private ImmutableSet<Id> filterIds(Set<Id> ids) {
+
+    ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+    for (Id id : ids)
+      if (idSet().contains(id))
+        builder.add(id);
+
+    return builder.build();
+  }
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  @Override
+  public boolean isChildOf(Id id, Id potentialParent) {
+    return isParentOf(potentialParent, id);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__childIds() {
+    if (id__childIds == null) {
+
+      ImmutableSetMultimap.Builder<Id, Id> builder = ImmutableSetMultimap.builder();
+
+      for (Id id : idSet())
+        for (Id parentId : parentIdSet(id))
+          builder.put(parentId, id);
+
+      id__childIds = builder.build();
+    }
+
+    return id__childIds;
+  }
+
+  private ImmutableSetMultimap<Id, Id> id__childIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> childIdSet(Id id) {
+
+    if (!idSet().contains(id))
+      return ImmutableSet.of();
+
+    return filterIds(graph().childIdSet(id));
+  }
+
+  @Override
+  public ImmutableList<Id> childIdList(Id id) {
+    return childIdSet(id).asList();
+  }
+
+  // ===================================
+
+  protected Fn1<Id, List<Id>> childIdListLambda() {
+    if (childIdListLambda == null)
+      childIdListLambda = new Fn1<Id, List<Id>>() {
+        @Override
+        public List<Id> apply(Id id) {
+          return childIdList(id);
+        }
+      };
+
+    return childIdListLambda;
+  }
+
+  private Fn1<Id, List<Id>> childIdListLambda;
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Id id, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, id, parentIdListLambda());
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Set<Id> ids, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, ImmutableList.copyOf(ids), parentIdListLambda());
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdGraph<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdGraph<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(ancestorIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), parentIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), parentIdListLambda(), until);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+    return ancestorIdSet(id, inclusive).contains(potentialAncestor);
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Id id, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, id, childIdListLambda());
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Set<Id> ids, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, ImmutableList.copyOf(ids), childIdListLambda());
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdGraph<Id> descendantIdGraph(Id id, boolean inclusive) {
+    return descendantIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdGraph<Id> descendantIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(descendantIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), childIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), childIdListLambda(), until);
+  }
+
+  // ===========================================================================
+  // roots (sources)
+  // ===========================================================================
+
+  @Override
+  public boolean isRoot(Id id) {
+    return rootIdSet().contains(id);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> rootIdSet() {
+    if (rootIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (Id id : idSet())
+        if (parentIdSet(id).isEmpty())
+          builder.add(id);
+
+      rootIds = builder.build();
+    }
+
+    return rootIds;
+  }
+
+  private ImmutableSet<Id> rootIds;
+
+  // ===========================================================================
+  // leaves (sinks)
+  // ===========================================================================
+
+  @Override
+  public boolean isLeaf(Id id) {
+    return leafIdSet().contains(id);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> leafIdSet() {
+    if (leafIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (Id id : idSet())
+        if (childIdSet(id).isEmpty())
+          builder.add(id);
+
+      leafIds = builder.build();
+    }
+
+    return leafIds;
+  }
+
+  private ImmutableSet<Id> leafIds;
+
+  // ===========================================================================
+  // topological sort
+  // ===========================================================================
+
+  @Override
+  public Optional<ImmutableList<Id>> optionalTopsortIdList() {
+    if (optionalTopsortIdList == null)
+      optionalTopsortIdList = TopsortLib.sort(idSet(), id__parentIds());
+    return optionalTopsortIdList;
+  }
+
+  private Optional<ImmutableList<Id>> optionalTopsortIdList;
+
+  // ===================================
+
+  @Override
+  public boolean containsCycle() {
+    return !optionalTopsortIdList().isPresent();
+  }
+
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  @Override
+  public StrongComponents<Id> strongComponents() {
+    if (strongComponents == null)
+      strongComponents = StrongComponentsLib.tarjan(idIndex(), intGraph());
+    return strongComponents;
+  }
+
+  private StrongComponents<Id> strongComponents;
+
+  // ===========================================================================
+  // generic traversal
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdIterable(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return TraverseLib.idIterable(depthFirst, inclusive, startIds, expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdList(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return ImmutableList.copyOf(traverseIdIterable(depthFirst, inclusive, startIds, expand));
+  }
+
+}
@@ -55,6 +55,17 @@ public interface IdTree<Id> extends IdDag<Id> {
    */
   ImmutableList<Id> ancestorIdList(Id id, boolean inclusive);
 
+  /**
+   * Getting the ancestor k steps above an id (0 is the id itself, 1 is its parent), will be absent
+   * if k is negative or greater than the id's depth.
+   */
+  Optional<Id> kthAncestor(Id id, int k);
+
+  /**
+   * Getting the deepest id that is an inclusive ancestor of both ids.
+   */
+  Id lowestCommonAncestor(Id id, Id otherId);
+
   // ===========================================================================
   // depth
   // ===========================================================================
@@ -4,6 +4,7 @@ import java.util.*;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
 import com.stevewedig.blog.digraph.errors.*;
 import com.stevewedig.blog.util.CollectLib;
 
@@ -88,6 +89,7 @@ public class IdTreeClass<Id> extends IdDagClass<Id> implements IdTree<Id> {
   @Override
   public ImmutableList<Id> ancestorIdList(Id id, boolean inclusive) {
 
+    // collected from the id upwards, then reversed so the root is first
     List<Id> ancestorIds = new ArrayList<>();
     if (inclusive)
       ancestorIds.add(id);
@@ -101,12 +103,41 @@ public class IdTreeClass<Id> extends IdDagClass<Id> implements IdTree<Id> {
         break;
 
       currentId = parentId.get();
-      ancestorIds.add(0, currentId);
+      ancestorIds.add(currentId);
     }
 
-    return ImmutableList.copyOf(ancestorIds);
+    return ImmutableList.copyOf(Lists.reverse(ancestorIds));
   }
 
+  // ===================================
+
+  @Override
+  public Optional<Id> kthAncestor(Id id, int k) {
+
+    int index = ancestorTable().kthAncestor(idIndex().index(id), k);
+
+    if (index == -1)
+      return Optional.absent();
+    else
+      return Optional.of(idIndex().id(index));
+  }
+
+  @Override
+  public Id lowestCommonAncestor(Id id, Id otherId) {
+    return idIndex().id(
+        ancestorTable().lowestCommonAncestor(idIndex().index(id), idIndex().index(otherId)));
+  }
+
+  // ===================================
+
+  protected AncestorTable ancestorTable() {
+    if (ancestorTable == null)
+      ancestorTable = AncestorTableLib.table(intGraph());
+    return ancestorTable;
+  }
+
+  private AncestorTable ancestorTable;
+
   // ===========================================================================
   // descendants
   // ===========================================================================
@@ -116,6 +147,28 @@ public class IdTreeClass<Id> extends IdDagClass<Id> implements IdTree<Id> {
     return filterIdTree(descendantIdSet(id, true));
   }
 
+  // ===================================
+
+  // compares depths and jumps up the ancestor table, instead of walking up a possibly long path
+  // (isAncestorOf() also uses this)
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    int index = idIndex().indexOf(id);
+    int potentialAncestorIndex = idIndex().indexOf(potentialAncestor);
+
+    if (index == -1 || potentialAncestorIndex == -1)
+      return super.isDescendantOf(id, potentialAncestor, inclusive);
+
+    int distance =
+        ancestorTable().depth(index) - ancestorTable().depth(potentialAncestorIndex);
+
+    if (distance < 0 || distance == 0 && !inclusive)
+      return false;
+
+    return ancestorTable().kthAncestor(index, distance) == potentialAncestorIndex;
+  }
+
   // ===========================================================================
   // root
   // ===========================================================================
@@ -131,31 +184,22 @@ public class IdTreeClass<Id> extends IdDagClass<Id> implements IdTree<Id> {
 
   @Override
   public int depth(Id id) {
-    return ancestorIdList(id, false).size();
+
+    int index = idIndex().indexOf(id);
+
+    if (index == -1)
+      return 0;
+
+    return ancestorTable().depth(index);
   }
 
   // ===================================
 
   @Override
   public int maxDepth() {
-    if (maxDepth == null) {
-
-      maxDepth = 0;
-
-      for (Id id : idSet()) {
-
-        int depth = depth(id);
-
-        if (depth > maxDepth)
-          maxDepth = depth;
-      }
-    }
-
-    return maxDepth;
+    return ancestorTable().maxDepth();
   }
 
-  private Integer maxDepth;
-
   // ===================================
 
   @Override
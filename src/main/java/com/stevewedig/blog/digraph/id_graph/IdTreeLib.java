@@ -1,8 +1,9 @@
 package com.stevewedig.blog.digraph.id_graph;
 
-import java.util.Set;
+import java.util.*;
 
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.util.MultimapLib;
 
 /**
@@ -83,4 +84,86 @@ public abstract class IdTreeLib {
     return fromChildMap(MultimapLib.of(alternatingIdsAndChildIds));
   }
 
+  // ===========================================================================
+  // compact
+  // ===========================================================================
+
+  /**
+   * Create a compact IdTree, which stores arcs in int arrays instead of multimaps, from an IdIndex and an IntGraph over its indexes.
+   */
+  public static <Id> IdTree<Id> compact(IdIndex<Id> idIndex, IntGraph intGraph) {
+    return new CompactIdTreeClass<Id>(idIndex, intGraph);
+  }
+
+  /**
+   * Create a compact copy of an IdTree, which stores arcs in int arrays instead of multimaps.
+   */
+  public static <Id> IdTree<Id> compact(IdTree<Id> idTree) {
+    return compact(idTree.idIndex(), idTree.intGraph());
+  }
+
+  /**
+   * Create a compact IdTree from the tree's id set and a mapping from id to parent ids (specified as a multimap), without building an intermediate ImmutableSetMultimap.
+   */
+  public static <Id> IdTree<Id> compactFromParentMap(Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    IdIndex<Id> idIndex = IdIndexLib.fromIds(idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // ===========================================================================
+  // interned
+  // ===========================================================================
+
+  /**
+   * Create a compact copy of an IdTree whose idIndex() is an InternedIdIndex, so trees over the same interner share one id dictionary and only store their ids' interned indexes and int arcs.
+   */
+  public static <Id> IdTree<Id> interned(IdInterner<Id> interner, IdTree<Id> idTree) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idTree.idSet());
+
+    return compact(idIndex, IdGraphLib.internedIntGraph(idIndex, idTree));
+  }
+
+  /**
+   * Create a compact IdTree over an interner from the tree's id set and a mapping from id to parent ids (specified as a multimap).
+   */
+  public static <Id> IdTree<Id> internedFromParentMap(IdInterner<Id> interner, Set<Id> idSet, Multimap<Id, Id> id__parentIds) {
+
+    InternedIdIndex<Id> idIndex = IdInternerLib.idIndex(interner, idSet);
+
+    return compact(idIndex, IntGraphLib.fromParentMap(idIndex, id__parentIds));
+  }
+
+  // ===========================================================================
+  // sortNeighbors
+  // ===========================================================================
+
+  /**
+   * Copy an IdTree with its ids, and each id's parents and children, ordered by a comparator, so parentIdList(), childIdList(), and traversals follow that order.
+   */
+  public static <Id> IdTree<Id> sortNeighbors(IdTree<Id> idTree, Comparator<? super Id> comparator) {
+    return fromParentMap(IdGraphLib.sortedIdSet(idTree.idSet(), comparator),
+        MultimapLib.sorted(idTree.id__parentIds(), comparator));
+  }
+
+  // ===========================================================================
+  // view
+  // ===========================================================================
+
+  /**
+   * Wrap an IdTree in a view, whose filterIdGraph(), ancestorIdGraph(), descendantIdGraph(), and descendantIdTree() return views sharing its arcs instead of validated copies.
+   */
+  public static <Id> IdTree<Id> view(IdTree<Id> idTree) {
+    return new IdTreeViewClass<Id>(idTree, idTree.idSet());
+  }
+
+  /**
+   * Copy an IdTree (such as a view) into a standalone, validated IdTree.
+   */
+  public static <Id> IdTree<Id> materialize(IdTree<Id> idTree) {
+    return fromParentMap(idTree.idSet(), idTree.id__parentIds());
+  }
+
 }
@@ -0,0 +1,259 @@
+package com.stevewedig.blog.digraph.id_graph;
+
+import java.util.*;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.errors.NotContained;
+import com.stevewedig.blog.util.CollectLib;
+
+/**
+ * An IdTree that is a view of another tree restricted to an id set (see IdGraphViewClass). The id
+ * set must have a single root within the view (checked like IdTreeClass does), so it includes the
+ * path from each id up to the view's root. Depths are relative to the view's root, and ancestor
+ * queries use the underlying tree's ancestor table, so none are rebuilt.
+ */
+public class IdTreeViewClass<Id> extends IdDagViewClass<Id> implements IdTree<Id> {
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IdTreeViewClass(IdTree<Id> tree, Set<Id> ids) {
+
+    super(tree, ids);
+    this.tree = tree;
+
+    validate();
+  }
+
+  // ===========================================================================
+  // validate
+  // ===========================================================================
+
+  // ids already have at most one parent in the underlying tree, but an arbitrary id set (such as an
+  // exclusive ancestor set) can leave gaps, giving the view multiple roots
+  private void validate() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots {
+
+    if (idSize() == 0)
+      throw new TreeCannotBeEmpty();
+
+    if (rootIdSet().size() > 1)
+      throw new TreeCannotHaveMultipleRoots("rootIds = %s", rootIdSet());
+  }
+
+  // ===========================================================================
+  // underlying tree
+  // ===========================================================================
+
+  @Override
+  protected IdTree<Id> graph() {
+    return tree;
+  }
+
+  private final IdTree<Id> tree;
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  // not public because an arbitrary set of ids won't necessarily create a tree
+  private IdTree<Id> filterIdTree(Set<Id> ids) {
+    return new IdTreeViewClass<Id>(canViewGraph(ids) ? graph() : this, ids);
+  }
+
+  // ===========================================================================
+  // parent
+  // ===========================================================================
+
+  @Override
+  public Optional<Id> parentId(Id id) {
+
+    ImmutableSet<Id> parents = parentIdSet(id);
+
+    if (parents.isEmpty())
+      return Optional.absent();
+    else
+      return Optional.of(Iterables.getOnlyElement(parents));
+  }
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public IdTree<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdTree<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdTree(ancestorIdSet(ids, inclusive));
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableList<Id> ancestorIdList(Id id, boolean inclusive) {
+
+    // collected from the id upwards, then reversed so the root is first
+    List<Id> ancestorIds = new ArrayList<>();
+    if (inclusive)
+      ancestorIds.add(id);
+
+    Id currentId = id;
+    while (true) {
+
+      Optional<Id> parentId = parentId(currentId);
+
+      if (!parentId.isPresent())
+        break;
+
+      currentId = parentId.get();
+      ancestorIds.add(currentId);
+    }
+
+    return ImmutableList.copyOf(Lists.reverse(ancestorIds));
+  }
+
+  // ===================================
+
+  @Override
+  public Optional<Id> kthAncestor(Id id, int k) {
+
+    assertContains(id);
+
+    if (k < 0 || k > depth(id))
+      return Optional.absent();
+
+    return graph().kthAncestor(id, k);
+  }
+
+  @Override
+  public Id lowestCommonAncestor(Id id, Id otherId) {
+
+    assertContains(id);
+    assertContains(otherId);
+
+    // a view's ids include the path from each id up to the view's root (see validate())
+    return graph().lowestCommonAncestor(id, otherId);
+  }
+
+  // ===================================
+
+  private void assertContains(Id id) throws NotContained {
+    if (!idSet().contains(id))
+      throw new NotContained("id = %s", id);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public IdTree<Id> descendantIdTree(Id id) {
+    return filterIdTree(descendantIdSet(id, true));
+  }
+
+  // ===================================
+
+  // validate() ensures a single root, so a view's ids include the path from each id up to that
+  // root, and the underlying tree's ancestor table answers this (isAncestorOf() also uses this)
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (!idSet().contains(id) || !idSet().contains(potentialAncestor))
+      return super.isDescendantOf(id, potentialAncestor, inclusive);
+
+    return graph().isDescendantOf(id, potentialAncestor, inclusive);
+  }
+
+  // ===========================================================================
+  // root
+  // ===========================================================================
+
+  @Override
+  public Id rootId() {
+    return Iterables.getOnlyElement(rootIdSet());
+  }
+
+  // ===========================================================================
+  // depth
+  // ===========================================================================
+
+  @Override
+  public int depth(Id id) {
+
+    if (!idSet().contains(id))
+      return 0;
+
+    return graph().depth(id) - graph().depth(rootId());
+  }
+
+  // ===================================
+
+  @Override
+  public int maxDepth() {
+    if (maxDepth == null) {
+
+      int max = 0;
+
+      for (Id id : idSet())
+        max = Math.max(max, depth(id));
+
+      maxDepth = max;
+    }
+
+    return maxDepth;
+  }
+
+  private Integer maxDepth;
+
+  // ===================================
+
+  @Override
+  public Id mostDeep(Set<Id> ids) {
+
+    CollectLib.assertNotEmpty(ids);
+
+    Id currentId = null;
+    Integer currentDepth = null;
+
+    for (Id category : ids) {
+
+      int depth = depth(category);
+
+      if (currentId == null || depth > currentDepth) {
+        currentId = category;
+        currentDepth = depth;
+      }
+    }
+
+    return currentId;
+  }
+
+  // ===================================
+
+  @Override
+  public Id leastDeep(Set<Id> ids) {
+
+    CollectLib.assertNotEmpty(ids);
+
+    Id currentId = null;
+    Integer currentDepth = null;
+
+    for (Id category : ids) {
+
+      int depth = depth(category);
+
+      if (currentId == null || depth < currentDepth) {
+        currentId = category;
+        currentDepth = depth;
+      }
+    }
+
+    return currentId;
+  }
+
+}
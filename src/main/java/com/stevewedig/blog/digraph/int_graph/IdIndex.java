@@ -0,0 +1,55 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.errors.NotContained;
+
+/**
+ * A mapping between ids and dense int indexes (0 until indexSize), so arc structure can be stored
+ * in int arrays instead of collections of ids.
+ */
+public interface IdIndex<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The number of indexed ids.
+   */
+  int indexSize();
+
+  /**
+   * The indexed ids, with each id at the position of its index.
+   */
+  ImmutableList<Id> idList();
+
+  /**
+   * The indexed ids as a set, iterating in index order.
+   */
+  ImmutableSet<Id> idSet();
+
+  /**
+   * Whether an id is indexed.
+   */
+  boolean containsId(Id id);
+
+  // ===========================================================================
+  // id <-> index
+  // ===========================================================================
+
+  /**
+   * Getting the id at an index.
+   */
+  Id id(int index);
+
+  /**
+   * Getting the index of an id.
+   */
+  int index(Id id) throws NotContained;
+
+  /**
+   * Getting the index of an id, will be -1 if the id isn't indexed.
+   */
+  int indexOf(Id id);
+
+}
@@ -0,0 +1,88 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.errors.NotContained;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of IdIndex.
+ */
+public class IdIndexClass<Id> extends ValueMixin implements IdIndex<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final ImmutableList<Id> idList;
+  private final ImmutableMap<Id, Integer> id__index;
+
+  @Override
+  public Object[] fields() {
+    return array("idList", idList);
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IdIndexClass(ImmutableList<Id> idList, ImmutableMap<Id, Integer> id__index) {
+    this.idList = idList;
+    this.id__index = id__index;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public int indexSize() {
+    return idList.size();
+  }
+
+  @Override
+  public ImmutableList<Id> idList() {
+    return idList;
+  }
+
+  @Override
+  public ImmutableSet<Id> idSet() {
+    return id__index.keySet();
+  }
+
+  @Override
+  public boolean containsId(Id id) {
+    return id__index.containsKey(id);
+  }
+
+  // ===========================================================================
+  // id <-> index
+  // ===========================================================================
+
+  @Override
+  public Id id(int index) {
+    return idList.get(index);
+  }
+
+  @Override
+  public int index(Id id) throws NotContained {
+
+    Integer index = id__index.get(id);
+
+    if (index == null)
+      throw new NotContained("id = %s", id);
+
+    return index;
+  }
+
+  @Override
+  public int indexOf(Id id) {
+
+    Integer index = id__index.get(id);
+
+    if (index == null)
+      return -1;
+
+    return index;
+  }
+
+}
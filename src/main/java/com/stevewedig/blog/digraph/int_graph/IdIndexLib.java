@@ -0,0 +1,35 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import com.google.common.collect.*;
+
+/**
+ * A library for creating IdIndexes.
+ */
+public abstract class IdIndexLib {
+
+  /**
+   * Create an IdIndex from an id iterable, indexing ids in iteration order (duplicates are ignored).
+   */
+  public static <Id> IdIndex<Id> fromIds(Iterable<Id> ids) {
+
+    // copied so the list doesn't hold onto the set's hash table
+    ImmutableList<Id> idList = ImmutableList.copyOf(ImmutableSet.copyOf(ids));
+
+    ImmutableMap.Builder<Id, Integer> id__index = ImmutableMap.builder();
+
+    for (int index = 0; index < idList.size(); index++)
+      id__index.put(idList.get(index), index);
+
+    return new IdIndexClass<Id>(idList, id__index.build());
+  }
+
+  /**
+   * Create an IdIndex from an id varargs array, indexing ids in array order (duplicates are
+   * ignored).
+   */
+  @SafeVarargs
+  public static <Id> IdIndex<Id> fromIds(Id... ids) {
+    return fromIds(ImmutableList.copyOf(ids));
+  }
+
+}
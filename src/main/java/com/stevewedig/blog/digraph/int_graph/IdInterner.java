@@ -0,0 +1,54 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import com.stevewedig.blog.errors.NotContained;
+
+/**
+ * An append-only dictionary between ids and dense int indexes, shared by many graphs over the same
+ * ids (see InternedIdIndex). Indexes are never reused or reassigned. Interning is thread safe, and
+ * lookups don't lock.
+ */
+public interface IdInterner<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The number of interned ids.
+   */
+  int size();
+
+  /**
+   * Whether an id is interned.
+   */
+  boolean containsId(Id id);
+
+  // ===========================================================================
+  // interning
+  // ===========================================================================
+
+  /**
+   * Getting the index of an id, interning it at the next index if it isn't interned yet.
+   */
+  int intern(Id id);
+
+  // ===========================================================================
+  // id <-> index
+  // ===========================================================================
+
+  /**
+   * Getting the id at an index.
+   */
+  Id id(int index) throws NotContained;
+
+  /**
+   * Getting the index of an id.
+   */
+  int index(Id id) throws NotContained;
+
+  /**
+   * Getting the index of an id, will be -1 if the id isn't interned.
+   */
+  int indexOf(Id id);
+
+}
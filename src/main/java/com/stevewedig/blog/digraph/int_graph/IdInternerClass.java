@@ -0,0 +1,121 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import java.util.*;
+
+import com.google.common.collect.MapMaker;
+import com.stevewedig.blog.errors.NotContained;
+
+/**
+ * An implementation of IdInterner.
+ * 
+ * Writers lock, append the id (replacing the array when it's full), publish the new size, and only
+ * then map the id to its index. So a reader that sees an index, either from the map or below the
+ * size, also sees its id.
+ */
+public class IdInternerClass<Id> implements IdInterner<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  // a concurrent map built by MapMaker, which (unlike ConcurrentHashMap) this GWT module can use
+  private final Map<Id, Integer> id__index;
+
+  // index -> id, only read below size
+  private volatile Object[] ids;
+  private volatile int size;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IdInternerClass(int expectedSize) {
+    id__index = new MapMaker().initialCapacity(Math.max(16, expectedSize * 4 / 3 + 1)).makeMap();
+    ids = new Object[Math.max(16, expectedSize)];
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsId(Id id) {
+    return id__index.containsKey(id);
+  }
+
+  // ===========================================================================
+  // interning
+  // ===========================================================================
+
+  @Override
+  public int intern(Id id) {
+
+    Integer index = id__index.get(id);
+
+    if (index != null)
+      return index;
+
+    synchronized (this) {
+
+      index = id__index.get(id);
+
+      if (index != null)
+        return index;
+
+      int newIndex = size;
+
+      if (newIndex == ids.length)
+        ids = Arrays.copyOf(ids, newIndex * 2);
+
+      ids[newIndex] = id;
+      size = newIndex + 1;
+
+      id__index.put(id, newIndex);
+
+      return newIndex;
+    }
+  }
+
+  // ===========================================================================
+  // id <-> index
+  // ===========================================================================
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Id id(int index) throws NotContained {
+
+    // read the size before the array, so the array is at least as new
+    if (index < 0 || index >= size)
+      throw new NotContained("index = %s", index);
+
+    return (Id) ids[index];
+  }
+
+  @Override
+  public int index(Id id) throws NotContained {
+
+    Integer index = id__index.get(id);
+
+    if (index == null)
+      throw new NotContained("id = %s", id);
+
+    return index;
+  }
+
+  @Override
+  public int indexOf(Id id) {
+
+    Integer index = id__index.get(id);
+
+    if (index == null)
+      return -1;
+
+    return index;
+  }
+
+}
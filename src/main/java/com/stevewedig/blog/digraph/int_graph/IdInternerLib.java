@@ -0,0 +1,215 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import java.util.Arrays;
+
+/**
+ * A library for interning ids, and for combining InternedIdIndexes over the same interner with
+ * sorted int array merges instead of id hashing.
+ */
+public abstract class IdInternerLib {
+
+  // ===========================================================================
+  // interners
+  // ===========================================================================
+
+  /**
+   * Create an empty interner.
+   */
+  public static <Id> IdInterner<Id> interner() {
+    return interner(16);
+  }
+
+  /**
+   * Create an empty interner, sized for an expected number of ids.
+   */
+  public static <Id> IdInterner<Id> interner(int expectedSize) {
+    return new IdInternerClass<>(expectedSize);
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * Create an InternedIdIndex over some ids, interning any that aren't interned yet. Indexes follow
+   * interned order, not iteration order (duplicates are ignored).
+   */
+  public static <Id> InternedIdIndex<Id> idIndex(IdInterner<Id> interner, Iterable<Id> ids) {
+
+    int[] internedIndexes = new int[16];
+    int size = 0;
+
+    for (Id id : ids) {
+
+      if (size == internedIndexes.length)
+        internedIndexes = Arrays.copyOf(internedIndexes, size * 2);
+
+      internedIndexes[size++] = interner.intern(id);
+    }
+
+    return idIndex(interner, internedIndexes, size);
+  }
+
+  /**
+   * Create an InternedIdIndex over the first size interned indexes in an array (which is sorted in
+   * place, duplicates are ignored).
+   */
+  public static <Id> InternedIdIndex<Id> idIndex(IdInterner<Id> interner, int[] internedIndexes,
+      int size) {
+
+    Arrays.sort(internedIndexes, 0, size);
+
+    int distinctSize = 0;
+
+    for (int i = 0; i < size; i++)
+      if (distinctSize == 0 || internedIndexes[i] != internedIndexes[distinctSize - 1])
+        internedIndexes[distinctSize++] = internedIndexes[i];
+
+    return new InternedIdIndexClass<>(interner, Arrays.copyOf(internedIndexes, distinctSize));
+  }
+
+  // ===========================================================================
+  // combining indexes
+  // ===========================================================================
+
+  /**
+   * The ids in either index.
+   */
+  public static <Id> InternedIdIndex<Id> union(InternedIdIndex<Id> idIndex1,
+      InternedIdIndex<Id> idIndex2) {
+
+    IdInterner<Id> interner = sharedInterner(idIndex1, idIndex2);
+
+    int size1 = idIndex1.indexSize();
+    int size2 = idIndex2.indexSize();
+
+    int[] merged = new int[size1 + size2];
+    int size = 0;
+
+    int i1 = 0;
+    int i2 = 0;
+
+    while (i1 < size1 || i2 < size2) {
+
+      int interned1 = i1 < size1 ? idIndex1.internedIndex(i1) : Integer.MAX_VALUE;
+      int interned2 = i2 < size2 ? idIndex2.internedIndex(i2) : Integer.MAX_VALUE;
+
+      if (interned1 <= interned2)
+        i1++;
+      if (interned2 <= interned1)
+        i2++;
+
+      merged[size++] = Math.min(interned1, interned2);
+    }
+
+    return new InternedIdIndexClass<>(interner, Arrays.copyOf(merged, size));
+  }
+
+  /**
+   * The ids in both indexes.
+   */
+  public static <Id> InternedIdIndex<Id> intersection(InternedIdIndex<Id> idIndex1,
+      InternedIdIndex<Id> idIndex2) {
+
+    IdInterner<Id> interner = sharedInterner(idIndex1, idIndex2);
+
+    int size1 = idIndex1.indexSize();
+    int size2 = idIndex2.indexSize();
+
+    int[] merged = new int[Math.min(size1, size2)];
+    int size = 0;
+
+    int i1 = 0;
+    int i2 = 0;
+
+    while (i1 < size1 && i2 < size2) {
+
+      int interned1 = idIndex1.internedIndex(i1);
+      int interned2 = idIndex2.internedIndex(i2);
+
+      if (interned1 == interned2)
+        merged[size++] = interned1;
+
+      if (interned1 <= interned2)
+        i1++;
+      if (interned2 <= interned1)
+        i2++;
+    }
+
+    return new InternedIdIndexClass<>(interner, Arrays.copyOf(merged, size));
+  }
+
+  /**
+   * The ids in the first index but not the second.
+   */
+  public static <Id> InternedIdIndex<Id> difference(InternedIdIndex<Id> idIndex1,
+      InternedIdIndex<Id> idIndex2) {
+
+    IdInterner<Id> interner = sharedInterner(idIndex1, idIndex2);
+
+    int size1 = idIndex1.indexSize();
+    int size2 = idIndex2.indexSize();
+
+    int[] merged = new int[size1];
+    int size = 0;
+
+    int i2 = 0;
+
+    for (int i1 = 0; i1 < size1; i1++) {
+
+      int interned1 = idIndex1.internedIndex(i1);
+
+      while (i2 < size2 && idIndex2.internedIndex(i2) < interned1)
+        i2++;
+
+      if (i2 == size2 || idIndex2.internedIndex(i2) != interned1)
+        merged[size++] = interned1;
+    }
+
+    return new InternedIdIndexClass<>(interner, Arrays.copyOf(merged, size));
+  }
+
+  /**
+   * For each index of one index, the index of the same id in another index, or -1 if the other
+   * index doesn't contain it (such as for IntGraphLib.filter()).
+   */
+  public static <Id> int[] indexMap(InternedIdIndex<Id> fromIdIndex,
+      InternedIdIndex<Id> toIdIndex) {
+
+    sharedInterner(fromIdIndex, toIdIndex);
+
+    int fromSize = fromIdIndex.indexSize();
+    int toSize = toIdIndex.indexSize();
+
+    int[] fromIndex__toIndex = new int[fromSize];
+
+    int toIndex = 0;
+
+    for (int fromIndex = 0; fromIndex < fromSize; fromIndex++) {
+
+      int interned = fromIdIndex.internedIndex(fromIndex);
+
+      while (toIndex < toSize && toIdIndex.internedIndex(toIndex) < interned)
+        toIndex++;
+
+      if (toIndex < toSize && toIdIndex.internedIndex(toIndex) == interned)
+        fromIndex__toIndex[fromIndex] = toIndex;
+      else
+        fromIndex__toIndex[fromIndex] = -1;
+    }
+
+    return fromIndex__toIndex;
+  }
+
+  // ===================================
+
+  private static <Id> IdInterner<Id> sharedInterner(InternedIdIndex<Id> idIndex1,
+      InternedIdIndex<Id> idIndex2) {
+
+    if (idIndex1.interner() != idIndex2.interner())
+      throw new IllegalArgumentException("id indexes use different interners");
+
+    return idIndex1.interner();
+  }
+
+}
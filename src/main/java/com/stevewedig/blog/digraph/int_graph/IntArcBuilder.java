@@ -0,0 +1,34 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import com.stevewedig.blog.digraph.errors.GraphHadUnexpectedIds;
+
+/**
+ * Collects arcs between int indexes into growable parallel arrays, then builds an IntGraph from
+ * them (see IntGraphLib.fromArcs).
+ */
+public interface IntArcBuilder {
+
+  // ===========================================================================
+  // adding
+  // ===========================================================================
+
+  /**
+   * Adding an arc from a parent index to a child index (duplicates are dropped by build()).
+   */
+  IntArcBuilder addArc(int parentIndex, int childIndex);
+
+  /**
+   * The number of arcs added so far, including duplicates.
+   */
+  int arcSize();
+
+  // ===========================================================================
+  // building
+  // ===========================================================================
+
+  /**
+   * Build an IntGraph with the added arcs, over indexes [0, indexSize).
+   */
+  IntGraph build(int indexSize) throws GraphHadUnexpectedIds;
+
+}
@@ -0,0 +1,67 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import java.util.Arrays;
+
+import com.stevewedig.blog.digraph.errors.GraphHadUnexpectedIds;
+
+/**
+ * An implementation of IntArcBuilder, pre-sized for the expected number of arcs.
+ */
+public class IntArcBuilderClass implements IntArcBuilder {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  // arc i goes from arcParentIndexes[i] to arcChildIndexes[i]
+  private int[] arcParentIndexes;
+  private int[] arcChildIndexes;
+  private int arcSize;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public IntArcBuilderClass(int expectedArcSize) {
+    arcParentIndexes = new int[Math.max(expectedArcSize, 4)];
+    arcChildIndexes = new int[arcParentIndexes.length];
+  }
+
+  // ===========================================================================
+  // adding
+  // ===========================================================================
+
+  @Override
+  public IntArcBuilder addArc(int parentIndex, int childIndex) {
+
+    if (arcSize == arcParentIndexes.length) {
+
+      // doubling, without overflowing past the largest array size
+      int capacity = (int) Math.min(arcSize * 2L, Integer.MAX_VALUE - 8);
+
+      arcParentIndexes = Arrays.copyOf(arcParentIndexes, capacity);
+      arcChildIndexes = Arrays.copyOf(arcChildIndexes, capacity);
+    }
+
+    arcParentIndexes[arcSize] = parentIndex;
+    arcChildIndexes[arcSize] = childIndex;
+    arcSize++;
+
+    return this;
+  }
+
+  @Override
+  public int arcSize() {
+    return arcSize;
+  }
+
+  // ===========================================================================
+  // building
+  // ===========================================================================
+
+  @Override
+  public IntGraph build(int indexSize) throws GraphHadUnexpectedIds {
+    return IntGraphLib.fromArcs(indexSize, arcChildIndexes, arcParentIndexes, arcSize);
+  }
+
+}
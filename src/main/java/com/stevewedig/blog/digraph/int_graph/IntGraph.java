@@ -0,0 +1,70 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+/**
+ * A digraph over dense int indexes (0 until indexSize), typically paired with an IdIndex.
+ */
+public interface IntGraph {
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  /**
+   * The number of indexes.
+   */
+  int indexSize();
+
+  /**
+   * The number of arcs.
+   */
+  int arcSize();
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  /**
+   * Whether an index is a parent of another index.
+   */
+  boolean isParentOf(int index, int potentialChild);
+
+  /**
+   * Getting the number of parents of an index.
+   */
+  int parentCount(int index);
+
+  /**
+   * Getting the parent index at a position (0 until parentCount) of an index's parents.
+   */
+  int parentIndex(int index, int position);
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  /**
+   * Whether an index is a child of another index.
+   */
+  boolean isChildOf(int index, int potentialParent);
+
+  /**
+   * Getting the number of children of an index.
+   */
+  int childCount(int index);
+
+  /**
+   * Getting the child index at a position (0 until childCount) of an index's children.
+   */
+  int childIndex(int index, int position);
+
+  // ===========================================================================
+  // inverse
+  // ===========================================================================
+
+  /**
+   * The same digraph with every arc reversed, so parents become children and children become
+   * parents (useful for running child traversals over ancestors).
+   */
+  IntGraph inverse();
+
+}
@@ -0,0 +1,127 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+/**
+ * An implementation of IntGraph storing parents and children in compressed sparse row arrays.
+ * 
+ * An index's parents are parentIndexes[parentOffsets[index] until parentOffsets[index + 1]], and
+ * likewise for children. So each arc costs two ints, and an index's neighbors are contiguous in
+ * memory.
+ */
+public class IntGraphClass implements IntGraph {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final int[] parentOffsets;
+  private final int[] parentIndexes;
+  private final int[] childOffsets;
+  private final int[] childIndexes;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  /**
+   * The arrays are not copied, so they must not be modified afterwards (IntGraphLib takes care of
+   * this).
+   */
+  public IntGraphClass(int[] parentOffsets, int[] parentIndexes, int[] childOffsets,
+      int[] childIndexes) {
+
+    this.parentOffsets = parentOffsets;
+    this.parentIndexes = parentIndexes;
+    this.childOffsets = childOffsets;
+    this.childIndexes = childIndexes;
+  }
+
+  // ===========================================================================
+  // indexes
+  // ===========================================================================
+
+  @Override
+  public int indexSize() {
+    return parentOffsets.length - 1;
+  }
+
+  @Override
+  public int arcSize() {
+    return parentIndexes.length;
+  }
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  @Override
+  public boolean isParentOf(int index, int potentialChild) {
+    return isChildOf(potentialChild, index);
+  }
+
+  @Override
+  public int parentCount(int index) {
+    return parentOffsets[index + 1] - parentOffsets[index];
+  }
+
+  @Override
+  public int parentIndex(int index, int position) {
+    return parentIndexes[parentOffsets[index] + position];
+  }
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  @Override
+  public boolean isChildOf(int index, int potentialParent) {
+
+    // scan whichever side has fewer neighbors
+    if (parentCount(index) <= childCount(potentialParent))
+      return contains(parentIndexes, parentOffsets[index], parentOffsets[index + 1],
+          potentialParent);
+    else
+      return contains(childIndexes, childOffsets[potentialParent],
+          childOffsets[potentialParent + 1], index);
+  }
+
+  @Override
+  public int childCount(int index) {
+    return childOffsets[index + 1] - childOffsets[index];
+  }
+
+  @Override
+  public int childIndex(int index, int position) {
+    return childIndexes[childOffsets[index] + position];
+  }
+
+  // ===========================================================================
+  // inverse
+  // ===========================================================================
+
+  @Override
+  public IntGraph inverse() {
+    if (inverse == null) {
+      IntGraphClass inverseClass =
+          new IntGraphClass(childOffsets, childIndexes, parentOffsets, parentIndexes);
+      inverseClass.inverse = this;
+      inverse = inverseClass;
+    }
+    return inverse;
+  }
+
+  private IntGraph inverse;
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static boolean contains(int[] indexes, int start, int end, int index) {
+
+    for (int i = start; i < end; i++)
+      if (indexes[i] == index)
+        return true;
+
+    return false;
+  }
+
+}
@@ -0,0 +1,199 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import java.util.Arrays;
+
+import com.google.common.collect.Multimap;
+import com.stevewedig.blog.digraph.errors.GraphHadUnexpectedIds;
+
+/**
+ * A library for creating IntGraphs.
+ */
+public abstract class IntGraphLib {
+
+  // ===========================================================================
+  // fromArcs
+  // ===========================================================================
+
+  /**
+   * Create an IntGraph from parallel arrays of arc endpoints, so arc i goes from
+   * arcParentIndexes[i] to arcChildIndexes[i]. Neighbors keep the order of their arcs, and
+   * duplicate arcs are ignored. The arrays are not retained.
+   */
+  public static IntGraph fromArcs(int indexSize, int[] arcChildIndexes, int[] arcParentIndexes,
+      int arcSize) throws GraphHadUnexpectedIds {
+
+    for (int arc = 0; arc < arcSize; arc++) {
+      checkIndex(indexSize, arcChildIndexes[arc]);
+      checkIndex(indexSize, arcParentIndexes[arc]);
+    }
+
+    int[][] parentRows = rows(indexSize, arcChildIndexes, arcParentIndexes, arcSize);
+    int[][] childRows = rows(indexSize, arcParentIndexes, arcChildIndexes, arcSize);
+
+    return new IntGraphClass(parentRows[0], parentRows[1], childRows[0], childRows[1]);
+  }
+
+  private static void checkIndex(int indexSize, int index) throws GraphHadUnexpectedIds {
+    if (index < 0 || index >= indexSize)
+      throw new GraphHadUnexpectedIds("index = %s, indexSize = %s", index, indexSize);
+  }
+
+  /**
+   * Create an IntArcBuilder, for collecting arcs one at a time before calling fromArcs.
+   */
+  public static IntArcBuilder arcBuilder(int expectedArcSize) {
+    return new IntArcBuilderClass(expectedArcSize);
+  }
+
+  // ===========================================================================
+  // fromParentMap
+  // ===========================================================================
+
+  /**
+   * Create an IntGraph from an IdIndex and a mapping from id to parent ids. Arcs are added in index
+   * order, so each index's children are also in index order.
+   */
+  public static <Id> IntGraph fromParentMap(IdIndex<Id> idIndex, Multimap<Id, Id> id__parentIds)
+      throws GraphHadUnexpectedIds {
+
+    for (Id id : id__parentIds.keySet())
+      if (!idIndex.containsId(id))
+        throw new GraphHadUnexpectedIds("unexpectedId = %s", id);
+
+    int arcSize = id__parentIds.size();
+
+    int[] arcChildIndexes = new int[arcSize];
+    int[] arcParentIndexes = new int[arcSize];
+
+    int arc = 0;
+    for (int index = 0; index < idIndex.indexSize(); index++)
+      for (Id parentId : id__parentIds.get(idIndex.id(index))) {
+
+        int parentIndex = idIndex.indexOf(parentId);
+
+        if (parentIndex == -1)
+          throw new GraphHadUnexpectedIds("unexpectedId = %s", parentId);
+
+        arcChildIndexes[arc] = index;
+        arcParentIndexes[arc] = parentIndex;
+        arc++;
+      }
+
+    return fromArcs(idIndex.indexSize(), arcChildIndexes, arcParentIndexes, arc);
+  }
+
+  // ===========================================================================
+  // filter
+  // ===========================================================================
+
+  /**
+   * Create an IntGraph keeping a subset of another IntGraph's indexes and the arcs between them.
+   * 
+   * @param intGraph The original graph.
+   * @param newIndex__oldIndex For each index in the new graph, its index in the original graph, or
+   *        -1 for an index without arcs.
+   * @return The filtered graph.
+   */
+  public static IntGraph filter(IntGraph intGraph, int[] newIndex__oldIndex) {
+
+    int[] oldIndex__newIndex = new int[intGraph.indexSize()];
+    Arrays.fill(oldIndex__newIndex, -1);
+
+    for (int newIndex = 0; newIndex < newIndex__oldIndex.length; newIndex++)
+      if (newIndex__oldIndex[newIndex] != -1)
+        oldIndex__newIndex[newIndex__oldIndex[newIndex]] = newIndex;
+
+    int arcSize = 0;
+    int[] arcChildIndexes = new int[4];
+    int[] arcParentIndexes = new int[4];
+
+    for (int newIndex = 0; newIndex < newIndex__oldIndex.length; newIndex++) {
+
+      int oldIndex = newIndex__oldIndex[newIndex];
+
+      if (oldIndex == -1)
+        continue;
+
+      for (int position = 0; position < intGraph.parentCount(oldIndex); position++) {
+
+        int newParentIndex = oldIndex__newIndex[intGraph.parentIndex(oldIndex, position)];
+
+        if (newParentIndex == -1)
+          continue;
+
+        if (arcSize == arcChildIndexes.length) {
+          arcChildIndexes = Arrays.copyOf(arcChildIndexes, arcSize * 2);
+          arcParentIndexes = Arrays.copyOf(arcParentIndexes, arcSize * 2);
+        }
+
+        arcChildIndexes[arcSize] = newIndex;
+        arcParentIndexes[arcSize] = newParentIndex;
+        arcSize++;
+      }
+    }
+
+    return fromArcs(newIndex__oldIndex.length, arcChildIndexes, arcParentIndexes, arcSize);
+  }
+
+  // ===========================================================================
+  // compressed sparse rows
+  // ===========================================================================
+
+  // Counting sort of arcs by their "from" endpoint, returning {offsets, indexes}. Stable, so each
+  // row keeps arc order. Duplicate arcs are dropped.
+  private static int[][] rows(int indexSize, int[] from, int[] to, int arcSize) {
+
+    int[] offsets = new int[indexSize + 1];
+
+    for (int arc = 0; arc < arcSize; arc++)
+      offsets[from[arc] + 1]++;
+
+    for (int index = 0; index < indexSize; index++)
+      offsets[index + 1] += offsets[index];
+
+    int[] cursors = Arrays.copyOf(offsets, indexSize);
+    int[] indexes = new int[arcSize];
+
+    for (int arc = 0; arc < arcSize; arc++)
+      indexes[cursors[from[arc]]++] = to[arc];
+
+    return dedupe(offsets, indexes);
+  }
+
+  private static int[][] dedupe(int[] offsets, int[] indexes) {
+
+    int indexSize = offsets.length - 1;
+
+    // seenBy[neighbor] == row when neighbor was already seen in this row
+    int[] seenBy = new int[indexSize];
+    Arrays.fill(seenBy, -1);
+
+    int kept = 0;
+    int start = 0;
+
+    for (int row = 0; row < indexSize; row++) {
+
+      int end = offsets[row + 1];
+
+      for (int i = start; i < end; i++) {
+
+        int neighbor = indexes[i];
+
+        if (seenBy[neighbor] == row)
+          continue;
+
+        seenBy[neighbor] = row;
+        indexes[kept++] = neighbor;
+      }
+
+      start = end;
+      offsets[row + 1] = kept;
+    }
+
+    if (kept != indexes.length)
+      indexes = Arrays.copyOf(indexes, kept);
+
+    return new int[][] {offsets, indexes};
+  }
+
+}
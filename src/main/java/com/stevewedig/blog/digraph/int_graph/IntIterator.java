@@ -0,0 +1,18 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+/**
+ * An iterator over ints, so iterating doesn't box each int into an Integer.
+ */
+public interface IntIterator {
+
+  /**
+   * Whether there is another int.
+   */
+  boolean hasNext();
+
+  /**
+   * The next int (throws NoSuchElementException if there isn't one).
+   */
+  int next();
+
+}
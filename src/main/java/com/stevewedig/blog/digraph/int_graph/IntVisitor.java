@@ -0,0 +1,15 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+/**
+ * A callback receiving indexes during a traversal.
+ */
+public interface IntVisitor {
+
+  /**
+   * Visit an index.
+   * 
+   * @return Whether to keep traversing (false stops the traversal).
+   */
+  boolean visit(int index);
+
+}
@@ -0,0 +1,28 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+/**
+ * An IdIndex over a subset of an IdInterner's ids, storing only their interned indexes (in
+ * ascending order), so graphs over the same interner share one id dictionary.
+ */
+public interface InternedIdIndex<Id> extends IdIndex<Id> {
+
+  // ===========================================================================
+  // interner
+  // ===========================================================================
+
+  /**
+   * The shared interner.
+   */
+  IdInterner<Id> interner();
+
+  /**
+   * Getting the interned index of an index.
+   */
+  int internedIndex(int index);
+
+  /**
+   * Getting the index of an interned index, will be -1 if its id isn't indexed.
+   */
+  int indexOfInterned(int internedIndex);
+
+}
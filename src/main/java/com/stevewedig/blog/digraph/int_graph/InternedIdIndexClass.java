@@ -0,0 +1,137 @@
+package com.stevewedig.blog.digraph.int_graph;
+
+import java.util.Arrays;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.errors.NotContained;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of InternedIdIndex. Index lookups binary search the interned indexes, and the
+ * id list and set are only built if requested.
+ */
+public class InternedIdIndexClass<Id> extends ValueMixin implements InternedIdIndex<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final IdInterner<Id> interner;
+
+  // index -> interned index, ascending
+  private final int[] internedIndexes;
+
+  @Override
+  public Object[] fields() {
+    return array("idList", idList());
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  /**
+   * @param interner The shared interner.
+   * @param internedIndexes Distinct interned indexes in ascending order (not copied).
+   */
+  public InternedIdIndexClass(IdInterner<Id> interner, int[] internedIndexes) {
+    this.interner = interner;
+    this.internedIndexes = internedIndexes;
+  }
+
+  // ===========================================================================
+  // interner
+  // ===========================================================================
+
+  @Override
+  public IdInterner<Id> interner() {
+    return interner;
+  }
+
+  @Override
+  public int internedIndex(int index) {
+    return internedIndexes[index];
+  }
+
+  @Override
+  public int indexOfInterned(int internedIndex) {
+
+    int index = Arrays.binarySearch(internedIndexes, internedIndex);
+
+    if (index < 0)
+      return -1;
+
+    return index;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  @Override
+  public int indexSize() {
+    return internedIndexes.length;
+  }
+
+  @Override
+  public ImmutableList<Id> idList() {
+    if (idList == null) {
+
+      ImmutableList.Builder<Id> builder = ImmutableList.builder();
+
+      for (int internedIndex : internedIndexes)
+        builder.add(interner.id(internedIndex));
+
+      idList = builder.build();
+    }
+    return idList;
+  }
+
+  private volatile ImmutableList<Id> idList;
+
+  @Override
+  public ImmutableSet<Id> idSet() {
+    if (idSet == null)
+      idSet = ImmutableSet.copyOf(idList());
+    return idSet;
+  }
+
+  private volatile ImmutableSet<Id> idSet;
+
+  @Override
+  public boolean containsId(Id id) {
+    return indexOf(id) != -1;
+  }
+
+  // ===========================================================================
+  // id <-> index
+  // ===========================================================================
+
+  @Override
+  public Id id(int index) {
+    return interner.id(internedIndexes[index]);
+  }
+
+  @Override
+  public int index(Id id) throws NotContained {
+
+    int index = indexOf(id);
+
+    if (index == -1)
+      throw new NotContained("id = %s", id);
+
+    return index;
+  }
+
+  @Override
+  public int indexOf(Id id) {
+
+    int internedIndex = interner.indexOf(id);
+
+    if (internedIndex == -1)
+      return -1;
+
+    return indexOfInterned(internedIndex);
+  }
+
+}
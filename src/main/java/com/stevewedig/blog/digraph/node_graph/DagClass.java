@@ -3,6 +3,9 @@ package com.stevewedig.blog.digraph.node_graph;
 import java.util.Set;
 
 import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.ReachabilityIndex;
+import com.stevewedig.blog.digraph.alg.StructureHash;
+import com.stevewedig.blog.digraph.alg.TransitiveClosure;
 import com.stevewedig.blog.digraph.id_graph.*;
 
 /**
@@ -85,6 +88,29 @@ public class DagClass<Id, Node> extends GraphClass<Id, Node> implements Dag<Id,
     return optionalTopsortNodeList().get();
   }
 
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  @Override
+  public ReachabilityIndex<Id> reachabilityIndex() {
+    return idDag.reachabilityIndex();
+  }
+
+  @Override
+  public TransitiveClosure<Id> transitiveClosure() {
+    return idDag.transitiveClosure();
+  }
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  @Override
+  public StructureHash<Id> structureHash() {
+    return idDag.structureHash();
+  }
+
   // ===========================================================================
   // depth first
   // ===========================================================================
@@ -115,7 +141,7 @@ public class DagClass<Id, Node> extends GraphClass<Id, Node> implements Dag<Id,
     return depthNodeList;
   }
 
-  private ImmutableList<Node> depthNodeList;
+  private volatile ImmutableList<Node> depthNodeList;
 
   // ===========================================================================
   // breadth first
@@ -147,6 +173,6 @@ public class DagClass<Id, Node> extends GraphClass<Id, Node> implements Dag<Id,
     return breadthNodeList;
   }
 
-  private ImmutableList<Node> breadthNodeList;
+  private volatile ImmutableList<Node> breadthNodeList;
 
 }
@@ -3,6 +3,7 @@ package com.stevewedig.blog.digraph.node_graph;
 import java.util.*;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.collect.*;
 import com.stevewedig.blog.digraph.node_graph_partial.PartialGraph;
 import com.stevewedig.blog.util.LambdaLib.Fn1;
@@ -54,6 +55,18 @@ public interface Graph<Id, Node> extends PartialGraph<Id, Node> {
    */
   ImmutableSet<Node> ancestorNodeSet(Set<Id> ids, boolean inclusive);
 
+  /**
+   * The nearest ancestor node matching a predicate, searching breadth first (its parents, parents' parents, and so on).
+   */
+  Optional<Node> findAncestorNode(Id id, boolean inclusive, Predicate<Node> match);
+
+  /**
+   * The nearest ancestor node matching a predicate, searching breadth first without searching beyond
+   * the nodes accepted by prune (which are still tested).
+   */
+  Optional<Node> findAncestorNode(Id id, boolean inclusive, Predicate<Node> match,
+      Predicate<Node> prune);
+
   // ===========================================================================
   // descendants
   // ===========================================================================
@@ -78,6 +91,18 @@ public interface Graph<Id, Node> extends PartialGraph<Id, Node> {
    */
   ImmutableSet<Node> descendantNodeSet(Set<Id> ids, boolean inclusive);
 
+  /**
+   * The nearest descendant node matching a predicate, searching breadth first (its children, children's children, and so on).
+   */
+  Optional<Node> findDescendantNode(Id id, boolean inclusive, Predicate<Node> match);
+
+  /**
+   * The nearest descendant node matching a predicate, searching breadth first without searching beyond
+   * the nodes accepted by prune (which are still tested).
+   */
+  Optional<Node> findDescendantNode(Id id, boolean inclusive, Predicate<Node> match,
+      Predicate<Node> prune);
+
   // ===========================================================================
   // roots (sources)
   // ===========================================================================
@@ -0,0 +1,94 @@
+package com.stevewedig.blog.digraph.node_graph;
+
+import com.google.common.collect.ImmutableBiMap;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Collects ids, nodes, and arcs in a single pass, then builds compact graphs directly from int
+ * arrays (instead of the id sets, parent multimaps, and node maps that the node libraries build
+ * separately). Arcs can be added in any order, duplicate arcs are ignored, and ids are indexed in
+ * the order they are first added.
+ */
+public interface GraphBuilder<Id, Node> {
+
+  // ===========================================================================
+  // adding
+  // ===========================================================================
+
+  /**
+   * Add an id (ignored if already added).
+   */
+  GraphBuilder<Id, Node> addId(Id id);
+
+  /**
+   * Add an id and its node (adding the same node again is ignored).
+   */
+  GraphBuilder<Id, Node> addNode(Id id, Node node) throws NodeIdConflict;
+
+  /**
+   * Add an arc from a parent id to a child id, adding the ids if needed (adding the same arc again
+   * is ignored).
+   */
+  GraphBuilder<Id, Node> addArc(Id parentId, Id childId);
+
+  // ===========================================================================
+  // sizes
+  // ===========================================================================
+
+  /**
+   * The number of ids added so far.
+   */
+  int idSize();
+
+  /**
+   * The number of arcs added so far (including duplicates).
+   */
+  int addedArcSize();
+
+  // ===========================================================================
+  // building id graphs
+  // ===========================================================================
+
+  /**
+   * Build a compact IdGraph from the ids and arcs.
+   */
+  IdGraph<Id> buildIdGraph();
+
+  /**
+   * Build a compact IdDag from the ids and arcs.
+   */
+  IdDag<Id> buildIdDag() throws DagCannotHaveCycle;
+
+  /**
+   * Build a compact IdTree from the ids and arcs.
+   */
+  IdTree<Id> buildIdTree() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots,
+      TreeNodesCannotHaveMultipleParents;
+
+  // ===========================================================================
+  // building node graphs
+  // ===========================================================================
+
+  /**
+   * Build the mapping between id and node.
+   */
+  ImmutableBiMap<Id, Node> buildNodeMap();
+
+  /**
+   * Build a Graph from the ids, arcs, and nodes (every id needs a node).
+   */
+  Graph<Id, Node> buildGraph() throws GraphIsMissingNodes;
+
+  /**
+   * Build a Dag from the ids, arcs, and nodes (every id needs a node).
+   */
+  Dag<Id, Node> buildDag() throws DagCannotHaveCycle, GraphIsMissingNodes;
+
+  /**
+   * Build a Tree from the ids, arcs, and nodes (every id needs a node).
+   */
+  Tree<Id, Node> buildTree() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots,
+      TreeNodesCannotHaveMultipleParents, GraphIsMissingNodes;
+
+}
@@ -0,0 +1,168 @@
+package com.stevewedig.blog.digraph.node_graph;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * An implementation of GraphBuilder, pre-sized for the expected number of ids and arcs.
+ */
+public class GraphBuilderClass<Id, Node> implements GraphBuilder<Id, Node> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final Map<Id, Integer> id__index;
+  private final ArrayList<Id> idList;
+
+  // index -> node (null if the id has no node)
+  private final ArrayList<Node> nodeList;
+
+  private final IntArcBuilder arcs;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public GraphBuilderClass(int expectedIdSize, int expectedArcSize) {
+
+    id__index = Maps.newHashMapWithExpectedSize(expectedIdSize);
+    idList = new ArrayList<>(expectedIdSize);
+    nodeList = new ArrayList<>(expectedIdSize);
+
+    arcs = IntGraphLib.arcBuilder(expectedArcSize);
+  }
+
+  // ===========================================================================
+  // adding
+  // ===========================================================================
+
+  @Override
+  public GraphBuilder<Id, Node> addId(Id id) {
+    index(id);
+    return this;
+  }
+
+  @Override
+  public GraphBuilder<Id, Node> addNode(Id id, Node node) throws NodeIdConflict {
+
+    int index = index(id);
+    Node existing = nodeList.get(index);
+
+    if (existing == null)
+      nodeList.set(index, node);
+    else if (!existing.equals(node))
+      throw new NodeIdConflict("id = %s", id);
+
+    return this;
+  }
+
+  @Override
+  public GraphBuilder<Id, Node> addArc(Id parentId, Id childId) {
+
+    int parentIndex = index(parentId);
+    int childIndex = index(childId);
+
+    arcs.addArc(parentIndex, childIndex);
+
+    return this;
+  }
+
+  // ===================================
+
+  private int index(Id id) {
+
+    Integer index = id__index.get(id);
+
+    if (index != null)
+      return index;
+
+    id__index.put(id, idList.size());
+    idList.add(id);
+    nodeList.add(null);
+
+    return idList.size() - 1;
+  }
+
+  // ===========================================================================
+  // sizes
+  // ===========================================================================
+
+  @Override
+  public int idSize() {
+    return idList.size();
+  }
+
+  @Override
+  public int addedArcSize() {
+    return arcs.arcSize();
+  }
+
+  // ===========================================================================
+  // building id graphs
+  // ===========================================================================
+
+  @Override
+  public IdGraph<Id> buildIdGraph() {
+    return IdGraphLib.compact(idIndex(), intGraph());
+  }
+
+  @Override
+  public IdDag<Id> buildIdDag() throws DagCannotHaveCycle {
+    return IdDagLib.compact(idIndex(), intGraph());
+  }
+
+  @Override
+  public IdTree<Id> buildIdTree() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots,
+      TreeNodesCannotHaveMultipleParents {
+    return IdTreeLib.compact(idIndex(), intGraph());
+  }
+
+  // ===================================
+
+  private IdIndex<Id> idIndex() {
+    return new IdIndexClass<>(ImmutableList.copyOf(idList), ImmutableMap.copyOf(id__index));
+  }
+
+  // duplicate arcs are dropped here
+  private IntGraph intGraph() {
+    return arcs.build(idList.size());
+  }
+
+  // ===========================================================================
+  // building node graphs
+  // ===========================================================================
+
+  @Override
+  public ImmutableBiMap<Id, Node> buildNodeMap() {
+
+    ImmutableBiMap.Builder<Id, Node> id__node = ImmutableBiMap.builder();
+
+    for (int index = 0; index < idList.size(); index++)
+      if (nodeList.get(index) != null)
+        id__node.put(idList.get(index), nodeList.get(index));
+
+    return id__node.build();
+  }
+
+  @Override
+  public Graph<Id, Node> buildGraph() throws GraphIsMissingNodes {
+    return GraphLib.graph(buildIdGraph(), buildNodeMap());
+  }
+
+  @Override
+  public Dag<Id, Node> buildDag() throws DagCannotHaveCycle, GraphIsMissingNodes {
+    return DagLib.dag(buildIdDag(), buildNodeMap());
+  }
+
+  @Override
+  public Tree<Id, Node> buildTree() throws TreeCannotBeEmpty, TreeCannotHaveMultipleRoots,
+      TreeNodesCannotHaveMultipleParents, GraphIsMissingNodes {
+    return TreeLib.tree(buildIdTree(), buildNodeMap());
+  }
+
+}
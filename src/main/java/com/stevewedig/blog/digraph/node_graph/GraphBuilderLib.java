@@ -0,0 +1,74 @@
+package com.stevewedig.blog.digraph.node_graph;
+
+import java.util.Collection;
+
+import com.stevewedig.blog.digraph.errors.NodeIdConflict;
+import com.stevewedig.blog.digraph.node.*;
+
+/**
+ * A library for creating GraphBuilders.
+ */
+public abstract class GraphBuilderLib {
+
+  // ===========================================================================
+  // empty builders
+  // ===========================================================================
+
+  /**
+   * Create an empty GraphBuilder.
+   */
+  public static <Id, Node> GraphBuilder<Id, Node> builder() {
+    return builder(16, 16);
+  }
+
+  /**
+   * Create an empty GraphBuilder, pre-sized for the expected number of ids and arcs.
+   */
+  public static <Id, Node> GraphBuilder<Id, Node> builder(int expectedIdSize,
+      int expectedArcSize) {
+    return new GraphBuilderClass<>(expectedIdSize, expectedArcSize);
+  }
+
+  // ===========================================================================
+  // builders from nodes
+  // ===========================================================================
+
+  /**
+   * Create a GraphBuilder containing UpNodes and their arcs, in a single pass over the nodes.
+   */
+  public static <Id, Node extends UpNode<Id>> GraphBuilder<Id, Node> up(Collection<Node> nodes,
+      int expectedArcSize) throws NodeIdConflict {
+
+    GraphBuilder<Id, Node> builder = builder(nodes.size(), expectedArcSize);
+
+    for (Node node : nodes) {
+
+      builder.addNode(node.id(), node);
+
+      for (Id parentId : node.parentIds())
+        builder.addArc(parentId, node.id());
+    }
+
+    return builder;
+  }
+
+  /**
+   * Create a GraphBuilder containing DownNodes and their arcs, in a single pass over the nodes.
+   */
+  public static <Id, Node extends DownNode<Id>> GraphBuilder<Id, Node> down(
+      Collection<Node> nodes, int expectedArcSize) throws NodeIdConflict {
+
+    GraphBuilder<Id, Node> builder = builder(nodes.size(), expectedArcSize);
+
+    for (Node node : nodes) {
+
+      builder.addNode(node.id(), node);
+
+      for (Id childId : node.childIds())
+        builder.addArc(node.id(), childId);
+    }
+
+    return builder;
+  }
+
+}
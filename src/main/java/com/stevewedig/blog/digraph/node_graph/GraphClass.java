@@ -3,10 +3,12 @@ package com.stevewedig.blog.digraph.node_graph;
 import java.util.*;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.collect.*;
-import com.stevewedig.blog.digraph.alg.TraverseLib;
+import com.stevewedig.blog.digraph.alg.*;
 import com.stevewedig.blog.digraph.errors.*;
 import com.stevewedig.blog.digraph.id_graph.IdGraph;
+import com.stevewedig.blog.digraph.int_graph.*;
 import com.stevewedig.blog.errors.*;
 import com.stevewedig.blog.util.LambdaLib.Fn1;
 import com.stevewedig.blog.value_objects.ValueMixin;
@@ -99,6 +101,20 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return idGraph.filterIdGraph(ids);
   }
 
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    return idGraph.idIndex();
+  }
+
+  @Override
+  public IntGraph intGraph() {
+    return idGraph.intGraph();
+  }
+
   // ===========================================================================
   // nodeSet
   // ===========================================================================
@@ -160,7 +176,18 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return nodeLambda;
   }
 
-  private Fn1<Id, Node> nodeLambda;
+  private volatile Fn1<Id, Node> nodeLambda;
+
+  // ===================================
+
+  private Predicate<Id> nodePredicate(final Predicate<Node> nodePredicate) {
+    return new Predicate<Id>() {
+      @Override
+      public boolean apply(Id id) {
+        return nodePredicate.apply(getNode(id));
+      }
+    };
+  }
 
   // ===================================
 
@@ -171,7 +198,7 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return unboundIds;
   }
 
-  private ImmutableSet<Id> unboundIds;
+  private volatile ImmutableSet<Id> unboundIds;
 
   // ===========================================================================
   // parents
@@ -192,6 +219,11 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return idGraph.parentIdSet(id);
   }
 
+  @Override
+  public ImmutableList<Id> parentIdList(Id id) {
+    return idGraph.parentIdList(id);
+  }
+
   // ===================================
 
   @Override
@@ -218,6 +250,11 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return idGraph.childIdSet(id);
   }
 
+  @Override
+  public ImmutableList<Id> childIdList(Id id) {
+    return idGraph.childIdList(id);
+  }
+
   // ===================================
 
   @Override
@@ -264,6 +301,27 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return idGraph.ancestorIdGraph(ids, inclusive);
   }
 
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return idGraph.findAncestor(id, inclusive, match);
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return idGraph.findAncestor(id, inclusive, match, prune);
+  }
+
+  @Override
+  public boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return idGraph.anyAncestor(id, inclusive, match);
+  }
+
+  @Override
+  public int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return idGraph.countAncestorsUntil(id, inclusive, until);
+  }
+
   // ===================================
 
   @Override
@@ -286,6 +344,18 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return transformSet(ancestorIdIterable(ids, inclusive), false);
   }
 
+  @Override
+  public Optional<Node> findAncestorNode(Id id, boolean inclusive, Predicate<Node> match) {
+    return transformOptional(findAncestor(id, inclusive, nodePredicate(match)), false);
+  }
+
+  @Override
+  public Optional<Node> findAncestorNode(Id id, boolean inclusive, Predicate<Node> match,
+      Predicate<Node> prune) {
+    return transformOptional(
+        findAncestor(id, inclusive, nodePredicate(match), nodePredicate(prune)), false);
+  }
+
   // ===========================================================================
   // descendants
   // ===========================================================================
@@ -325,6 +395,27 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return idGraph.descendantIdGraph(ids, inclusive);
   }
 
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return idGraph.findDescendant(id, inclusive, match);
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return idGraph.findDescendant(id, inclusive, match, prune);
+  }
+
+  @Override
+  public boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return idGraph.anyDescendant(id, inclusive, match);
+  }
+
+  @Override
+  public int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return idGraph.countDescendantsUntil(id, inclusive, until);
+  }
+
   // ===================================
 
   @Override
@@ -347,6 +438,18 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return transformSet(descendantIdIterable(ids, inclusive), false);
   }
 
+  @Override
+  public Optional<Node> findDescendantNode(Id id, boolean inclusive, Predicate<Node> match) {
+    return transformOptional(findDescendant(id, inclusive, nodePredicate(match)), false);
+  }
+
+  @Override
+  public Optional<Node> findDescendantNode(Id id, boolean inclusive, Predicate<Node> match,
+      Predicate<Node> prune) {
+    return transformOptional(
+        findDescendant(id, inclusive, nodePredicate(match), nodePredicate(prune)), false);
+  }
+
   // ===========================================================================
   // roots (sources)
   // ===========================================================================
@@ -372,7 +475,7 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return rootNodes;
   }
 
-  private ImmutableSet<Node> rootNodes;
+  private volatile ImmutableSet<Node> rootNodes;
 
   // ===========================================================================
   // leaves (sinks)
@@ -399,7 +502,7 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return leafNodes;
   }
 
-  private ImmutableSet<Node> leafNodes;
+  private volatile ImmutableSet<Node> leafNodes;
 
   // ===========================================================================
   // topological sort
@@ -432,7 +535,16 @@ public class GraphClass<Id, Node> extends ValueMixin implements Graph<Id, Node>
     return optionalTopsortNodeList;
   }
 
-  private Optional<ImmutableList<Node>> optionalTopsortNodeList;
+  private volatile Optional<ImmutableList<Node>> optionalTopsortNodeList;
+
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  @Override
+  public StrongComponents<Id> strongComponents() {
+    return idGraph.strongComponents();
+  }
 
   // ===========================================================================
   // generic traversal
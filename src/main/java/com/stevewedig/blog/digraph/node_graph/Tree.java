@@ -36,4 +36,15 @@ public interface Tree<Id, Node> extends Dag<Id, Node>, PartialTree<Id, Node> {
    */
   ImmutableList<Node> ancestorNodeList(Id id, boolean inclusive);
 
+  /**
+   * Getting the ancestor node k steps above an id (0 is the id's node, 1 is its parent node), will be
+   * absent if k is negative or greater than the id's depth.
+   */
+  Optional<Node> kthAncestorNode(Id id, int k);
+
+  /**
+   * Getting the deepest node that is an inclusive ancestor of both ids.
+   */
+  Node lowestCommonAncestorNode(Id id, Id otherId);
+
 }
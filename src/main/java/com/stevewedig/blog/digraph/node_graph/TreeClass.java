@@ -73,6 +73,26 @@ public class TreeClass<Id, Node> extends DagClass<Id, Node> implements Tree<Id,
     return transformList(ancestorIdList(id, inclusive), false);
   }
 
+  @Override
+  public Optional<Id> kthAncestor(Id id, int k) {
+    return idTree.kthAncestor(id, k);
+  }
+
+  @Override
+  public Optional<Node> kthAncestorNode(Id id, int k) {
+    return transformOptional(kthAncestor(id, k), false);
+  }
+
+  @Override
+  public Id lowestCommonAncestor(Id id, Id otherId) {
+    return idTree.lowestCommonAncestor(id, otherId);
+  }
+
+  @Override
+  public Node lowestCommonAncestorNode(Id id, Id otherId) {
+    return getNode(lowestCommonAncestor(id, otherId));
+  }
+
   // ===========================================================================
   // descendants
   // ===========================================================================
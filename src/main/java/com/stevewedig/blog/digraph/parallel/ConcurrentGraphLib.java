@@ -0,0 +1,203 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.node_graph.*;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+/**
+ * Graphs and graph holders for sharing between threads, not compatible with GWT.
+ * 
+ * The graphs lazily compute fields like rootIdSet() and optionalTopsortIdList() on first access,
+ * so threads racing on a fresh graph duplicate that work. The indexed graphs are compact copies
+ * with those fields (and each id's parent and child lists) computed up front, so once safely
+ * published (such as through a GraphHolder) reading them computes nothing. The only writes left
+ * are traversals borrowing scratch arrays from their graph's synchronized traverser pools.
+ * Indexing costs a pass over the whole graph, so holders that publish small, frequent changes can
+ * instead hold a PersistentIdDag, whose withId()/withEdge() methods only copy what changed.
+ */
+public abstract class ConcurrentGraphLib {
+
+  // ===========================================================================
+  // indexed id graphs
+  // ===========================================================================
+
+  /**
+   * A compact copy of an IdGraph, with its lazily computed fields computed up front.
+   */
+  public static <Id> IdGraph<Id> indexed(IdGraph<Id> idGraph) {
+
+    IdGraph<Id> indexed = IdGraphLib.compact(idGraph);
+
+    indexIdGraph(indexed);
+
+    return indexed;
+  }
+
+  /**
+   * A compact copy of an IdDag, with its lazily computed fields computed up front (except
+   * transitiveClosure(), which can be quadratic).
+   */
+  public static <Id> IdDag<Id> indexed(IdDag<Id> idDag) {
+
+    IdDag<Id> indexed = IdDagLib.compact(idDag);
+
+    indexIdDag(indexed);
+
+    return indexed;
+  }
+
+  /**
+   * A compact copy of an IdTree, with its lazily computed fields computed up front (except
+   * transitiveClosure(), which can be quadratic).
+   */
+  public static <Id> IdTree<Id> indexed(IdTree<Id> idTree) {
+
+    IdTree<Id> indexed = IdTreeLib.compact(idTree);
+
+    indexIdTree(indexed);
+
+    return indexed;
+  }
+
+  // ===========================================================================
+  // indexed node graphs
+  // ===========================================================================
+
+  /**
+   * A Graph over an indexed copy of a Graph's IdGraph, with its node fields computed up front.
+   */
+  public static <Id, Node> Graph<Id, Node> indexed(Graph<Id, Node> graph) {
+
+    Graph<Id, Node> indexed = GraphLib.graph(indexed(graph.idGraph()), graph.id__node());
+
+    indexGraph(indexed);
+
+    return indexed;
+  }
+
+  /**
+   * A Dag over an indexed copy of a Dag's IdDag, with its node fields computed up front.
+   */
+  public static <Id, Node> Dag<Id, Node> indexed(Dag<Id, Node> dag) {
+
+    Dag<Id, Node> indexed = DagLib.dag(indexed(dag.idGraph()), dag.id__node());
+
+    indexDag(indexed);
+
+    return indexed;
+  }
+
+  /**
+   * A Tree over an indexed copy of a Tree's IdTree, with its node fields computed up front.
+   */
+  public static <Id, Node> Tree<Id, Node> indexed(Tree<Id, Node> tree) {
+
+    Tree<Id, Node> indexed = TreeLib.tree(indexed(tree.idGraph()), tree.id__node());
+
+    indexDag(indexed);
+
+    return indexed;
+  }
+
+  // ===========================================================================
+  // holders
+  // ===========================================================================
+
+  /**
+   * A holder publishing graphs as they are, for graphs that are cheap to change and read (such as
+   * a PersistentIdDag updated with update()).
+   */
+  public static <G> GraphHolder<G> holder(G initial) {
+
+    return new GraphHolderClass<>(initial, new Fn1<G, G>() {
+      @Override
+      public G apply(G graph) {
+        return graph;
+      }
+    });
+  }
+
+  /**
+   * A holder passing each graph through a prepare function before publishing it.
+   */
+  public static <G> GraphHolder<G> holder(G initial, Fn1<G, G> prepare) {
+    return new GraphHolderClass<>(initial, prepare);
+  }
+
+  /**
+   * A holder publishing an indexed copy of each IdDag.
+   */
+  public static <Id> GraphHolder<IdDag<Id>> indexedHolder(IdDag<Id> initial) {
+
+    return holder(initial, new Fn1<IdDag<Id>, IdDag<Id>>() {
+      @Override
+      public IdDag<Id> apply(IdDag<Id> idDag) {
+        return indexed(idDag);
+      }
+    });
+  }
+
+  /**
+   * A holder publishing an indexed copy of each Dag.
+   */
+  public static <Id, Node> GraphHolder<Dag<Id, Node>> indexedHolder(Dag<Id, Node> initial) {
+
+    return holder(initial, new Fn1<Dag<Id, Node>, Dag<Id, Node>>() {
+      @Override
+      public Dag<Id, Node> apply(Dag<Id, Node> dag) {
+        return indexed(dag);
+      }
+    });
+  }
+
+  // ===========================================================================
+  // computing lazy fields
+  // ===========================================================================
+
+  private static <Id> void indexIdGraph(IdGraph<Id> idGraph) {
+
+    // fills the neighbor list caches, before the graph is published
+    for (Id id : idGraph.idSet()) {
+      idGraph.parentIdList(id);
+      idGraph.childIdList(id);
+    }
+
+    idGraph.id__parentIds();
+    idGraph.id__childIds();
+    idGraph.rootIdSet();
+    idGraph.leafIdSet();
+    idGraph.optionalTopsortIdList();
+    idGraph.strongComponents();
+  }
+
+  private static <Id> void indexIdDag(IdDag<Id> idDag) {
+    indexIdGraph(idDag);
+    idDag.reachabilityIndex();
+    idDag.structureHash();
+    idDag.depthIdList();
+    idDag.breadthIdList();
+  }
+
+  private static <Id> void indexIdTree(IdTree<Id> idTree) {
+
+    indexIdDag(idTree);
+
+    // builds the ancestor table
+    if (idTree.idSize() > 0)
+      idTree.lowestCommonAncestor(idTree.rootId(), idTree.rootId());
+  }
+
+  private static <Id, Node> void indexGraph(Graph<Id, Node> graph) {
+    graph.unboundIdSet();
+    graph.rootNodeSet();
+    graph.leafNodeSet();
+    graph.optionalTopsortNodeList();
+  }
+
+  private static <Id, Node> void indexDag(Dag<Id, Node> dag) {
+    indexGraph(dag);
+    dag.depthNodeList();
+    dag.breadthNodeList();
+  }
+
+}
@@ -0,0 +1,64 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import com.google.common.collect.*;
+
+/**
+ * The outcome of running a task per id of a dag with DagExecutorLib, not compatible with GWT.
+ */
+public interface DagExecution<Id> {
+
+  // ===========================================================================
+  // outcome
+  // ===========================================================================
+
+  /**
+   * Whether every id's task completed without throwing.
+   */
+  boolean succeeded();
+
+  /**
+   * The ids whose tasks completed without throwing, in completion order.
+   */
+  ImmutableSet<Id> completedIdSet();
+
+  /**
+   * The ids whose tasks threw, mapped to what they threw.
+   */
+  ImmutableMap<Id, Throwable> id__error();
+
+  /**
+   * The ids whose tasks were never run because an ancestor's task threw.
+   */
+  ImmutableSet<Id> cancelledIdSet();
+
+  // ===========================================================================
+  // timing
+  // ===========================================================================
+
+  /**
+   * When each run task started, in nanoseconds since the execution started.
+   */
+  ImmutableMap<Id, Long> id__startNanos();
+
+  /**
+   * How long each run task took, in nanoseconds.
+   */
+  ImmutableMap<Id, Long> id__durationNanos();
+
+  /**
+   * How long the whole execution took, in nanoseconds.
+   */
+  long wallNanos();
+
+  /**
+   * The total time spent in tasks, in nanoseconds (divide by wallNanos for the average
+   * parallelism).
+   */
+  long taskNanos();
+
+  /**
+   * The most tasks submitted to the executor at the same time (at most maxParallelism).
+   */
+  int peakParallelism();
+
+}
@@ -0,0 +1,105 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of DagExecution.
+ */
+public class DagExecutionClass<Id> extends ValueMixin implements DagExecution<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final ImmutableSet<Id> completedIdSet;
+  private final ImmutableMap<Id, Throwable> id__error;
+  private final ImmutableSet<Id> cancelledIdSet;
+  private final ImmutableMap<Id, Long> id__startNanos;
+  private final ImmutableMap<Id, Long> id__durationNanos;
+  private final long wallNanos;
+  private final int peakParallelism;
+
+  @Override
+  protected Object[] fields() {
+    return array("completedIdSet", completedIdSet, "id__error", id__error, "cancelledIdSet",
+        cancelledIdSet, "wallNanos", wallNanos, "peakParallelism", peakParallelism);
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public DagExecutionClass(ImmutableSet<Id> completedIdSet, ImmutableMap<Id, Throwable> id__error,
+      ImmutableSet<Id> cancelledIdSet, ImmutableMap<Id, Long> id__startNanos,
+      ImmutableMap<Id, Long> id__durationNanos, long wallNanos, int peakParallelism) {
+
+    this.completedIdSet = completedIdSet;
+    this.id__error = id__error;
+    this.cancelledIdSet = cancelledIdSet;
+    this.id__startNanos = id__startNanos;
+    this.id__durationNanos = id__durationNanos;
+    this.wallNanos = wallNanos;
+    this.peakParallelism = peakParallelism;
+  }
+
+  // ===========================================================================
+  // outcome
+  // ===========================================================================
+
+  @Override
+  public boolean succeeded() {
+    return id__error.isEmpty() && cancelledIdSet.isEmpty();
+  }
+
+  @Override
+  public ImmutableSet<Id> completedIdSet() {
+    return completedIdSet;
+  }
+
+  @Override
+  public ImmutableMap<Id, Throwable> id__error() {
+    return id__error;
+  }
+
+  @Override
+  public ImmutableSet<Id> cancelledIdSet() {
+    return cancelledIdSet;
+  }
+
+  // ===========================================================================
+  // timing
+  // ===========================================================================
+
+  @Override
+  public ImmutableMap<Id, Long> id__startNanos() {
+    return id__startNanos;
+  }
+
+  @Override
+  public ImmutableMap<Id, Long> id__durationNanos() {
+    return id__durationNanos;
+  }
+
+  @Override
+  public long wallNanos() {
+    return wallNanos;
+  }
+
+  @Override
+  public long taskNanos() {
+
+    long taskNanos = 0;
+
+    for (long durationNanos : id__durationNanos.values())
+      taskNanos += durationNanos;
+
+    return taskNanos;
+  }
+
+  @Override
+  public int peakParallelism() {
+    return peakParallelism;
+  }
+
+}
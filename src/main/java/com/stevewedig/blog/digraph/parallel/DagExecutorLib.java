@@ -0,0 +1,367 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.LambdaLib.Act1;
+
+/**
+ * Running a task per id of a dag, where each id's task starts as soon as its parents' tasks
+ * complete, not compatible with GWT.
+ */
+public abstract class DagExecutorLib {
+
+  /**
+   * Run a task per id on an executor (such as a ForkJoinPool), blocking until every task has
+   * completed, thrown, or been cancelled, with parallelism limited only by the executor.
+   * 
+   * @param dag The dependencies, where each id's task runs after its parent ids' tasks.
+   * @param task The task to run for each id.
+   * @param executor The executor running the tasks.
+   * @return The execution's outcome and timing.
+   */
+  public static <Id> DagExecution<Id> execute(IdDag<Id> dag, Act1<Id> task,
+      ExecutorService executor) throws InterruptedException {
+
+    return execute(dag, task, executor, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Run a task per id on an executor (such as a ForkJoinPool), blocking until every task has
+   * completed, thrown, or been cancelled. An id's task is submitted once all of its parent ids'
+   * tasks complete, and if it throws, its descendants' tasks are cancelled (independent ids keep
+   * running). When more ids are ready than maxParallelism allows, the ids with the longest
+   * remaining dependency chains are submitted first, so the critical path isn't delayed.
+   * 
+   * @param dag The dependencies, where each id's task runs after its parent ids' tasks.
+   * @param task The task to run for each id.
+   * @param executor The executor running the tasks.
+   * @param maxParallelism The most tasks to have submitted at the same time.
+   * @return The execution's outcome and timing.
+   */
+  public static <Id> DagExecution<Id> execute(IdDag<Id> dag, Act1<Id> task,
+      ExecutorService executor, int maxParallelism) throws InterruptedException {
+
+    if (maxParallelism < 1)
+      throw new IllegalArgumentException("maxParallelism must be positive: " + maxParallelism);
+
+    Execution<Id> execution =
+        new Execution<Id>(dag.idIndex(), dag.intGraph(), dag.topsortIdList(), task, executor,
+            maxParallelism);
+
+    return execution.run();
+  }
+
+  // ===========================================================================
+  // Execution
+  // ===========================================================================
+
+  private static class Execution<Id> {
+
+    // =================================
+    // inputs
+    // =================================
+
+    private final IdIndex<Id> idIndex;
+    private final IntGraph intGraph;
+    private final Act1<Id> task;
+    private final ExecutorService executor;
+    private final int maxParallelism;
+
+    // =================================
+    // state
+    // =================================
+
+    private static final int pending = 0;
+    private static final int started = 1;
+    private static final int cancelled = 2;
+
+    private final AtomicIntegerArray states;
+
+    // parents whose tasks haven't completed yet
+    private final AtomicIntegerArray parentCounts;
+
+    // ids not yet completed, thrown, or cancelled
+    private final AtomicInteger remaining;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    // ready indexes, longest remaining chain first, and how many are submitted (guarded by this)
+    private final PriorityQueue<Integer> ready;
+    private int submitted = 0;
+    private int peakParallelism = 0;
+
+    // results
+    private final long[] startNanos;
+    private final long[] durationNanos;
+    private final Throwable[] errors;
+    private final ConcurrentLinkedQueue<Integer> completed = new ConcurrentLinkedQueue<>();
+    private long executionStartNanos;
+
+    // =================================
+    // constructor
+    // =================================
+
+    public Execution(IdIndex<Id> idIndex, IntGraph intGraph, ImmutableList<Id> topsortIdList,
+        Act1<Id> task, ExecutorService executor, int maxParallelism) {
+
+      this.idIndex = idIndex;
+      this.intGraph = intGraph;
+      this.task = task;
+      this.executor = executor;
+      this.maxParallelism = maxParallelism;
+
+      int indexSize = intGraph.indexSize();
+
+      states = new AtomicIntegerArray(indexSize);
+      parentCounts = new AtomicIntegerArray(indexSize);
+      remaining = new AtomicInteger(indexSize);
+
+      startNanos = new long[indexSize];
+      durationNanos = new long[indexSize];
+      errors = new Throwable[indexSize];
+
+      // the longest chain of tasks from each index to a leaf, computed in reverse topological order
+      final int[] chainLengths = new int[indexSize];
+
+      for (int position = topsortIdList.size() - 1; position >= 0; position--) {
+
+        int index = idIndex.index(topsortIdList.get(position));
+
+        int chainLength = 0;
+        for (int k = 0; k < intGraph.childCount(index); k++)
+          chainLength = Math.max(chainLength, chainLengths[intGraph.childIndex(index, k)]);
+
+        chainLengths[index] = chainLength + 1;
+      }
+
+      ready = new PriorityQueue<Integer>(Math.max(1, indexSize), new Comparator<Integer>() {
+        @Override
+        public int compare(Integer a, Integer b) {
+          return Integer.compare(chainLengths[b], chainLengths[a]);
+        }
+      });
+    }
+
+    // =================================
+    // run
+    // =================================
+
+    public DagExecution<Id> run() throws InterruptedException {
+
+      executionStartNanos = System.nanoTime();
+
+      int indexSize = intGraph.indexSize();
+
+      List<Integer> roots = new ArrayList<>();
+
+      for (int index = 0; index < indexSize; index++) {
+        int parentCount = intGraph.parentCount(index);
+        parentCounts.set(index, parentCount);
+        if (parentCount == 0)
+          roots.add(index);
+      }
+
+      if (indexSize > 0) {
+        for (int index : roots)
+          makeReady(index);
+        done.await();
+      }
+
+      long wallNanos = System.nanoTime() - executionStartNanos;
+
+      return result(wallNanos);
+    }
+
+    // =================================
+    // scheduling
+    // =================================
+
+    private void makeReady(int index) {
+
+      synchronized (this) {
+        ready.add(index);
+      }
+
+      submitReady();
+    }
+
+    private void submitReady() {
+
+      while (true) {
+
+        final int index;
+
+        synchronized (this) {
+
+          if (submitted >= maxParallelism || ready.isEmpty())
+            return;
+
+          index = ready.poll();
+          submitted++;
+          peakParallelism = Math.max(peakParallelism, submitted);
+        }
+
+        try {
+          executor.execute(new Runnable() {
+            @Override
+            public void run() {
+              runTask(index);
+            }
+          });
+        } catch (RejectedExecutionException e) {
+
+          // handled in this loop rather than by finish(), whose release() would call back into
+          // submitReady() once per rejected id (overflowing the stack on wide dags)
+          record(index, e);
+
+          synchronized (this) {
+            submitted--;
+          }
+
+          countDown();
+        }
+      }
+    }
+
+    // =================================
+    // tasks
+    // =================================
+
+    private void runTask(int index) {
+
+      if (!states.compareAndSet(index, pending, started)) {
+        release();
+        return;
+      }
+
+      Throwable error = null;
+
+      long start = System.nanoTime();
+
+      try {
+        task.apply(idIndex.id(index));
+      } catch (Throwable e) {
+        error = e;
+      }
+
+      startNanos[index] = start - executionStartNanos;
+      durationNanos[index] = System.nanoTime() - start;
+
+      finish(index, error);
+    }
+
+    private void finish(int index, Throwable error) {
+
+      record(index, error);
+
+      release();
+
+      countDown();
+    }
+
+    // mark an index as completed or thrown, making children ready or cancelling descendants
+    private void record(int index, Throwable error) {
+
+      states.set(index, started);
+
+      if (error == null) {
+
+        completed.add(index);
+
+        int childCount = intGraph.childCount(index);
+        for (int k = 0; k < childCount; k++) {
+          int child = intGraph.childIndex(index, k);
+          if (parentCounts.decrementAndGet(child) == 0 && states.get(child) == pending)
+            synchronized (this) {
+              ready.add(child);
+            }
+        }
+
+      } else {
+        errors[index] = error;
+        cancelDescendants(index);
+      }
+    }
+
+    private void countDown() {
+      if (remaining.decrementAndGet() == 0)
+        done.countDown();
+    }
+
+    // free the submitted slot and fill it with ready tasks
+    private void release() {
+
+      synchronized (this) {
+        submitted--;
+      }
+
+      submitReady();
+    }
+
+    private void cancelDescendants(int index) {
+
+      // descendants can't be ready, because this parent never completes
+      LinkedList<Integer> open = new LinkedList<>();
+      open.add(index);
+
+      while (!open.isEmpty()) {
+
+        int current = open.removeFirst();
+
+        int childCount = intGraph.childCount(current);
+        for (int k = 0; k < childCount; k++) {
+          int child = intGraph.childIndex(current, k);
+          if (states.compareAndSet(child, pending, cancelled)) {
+            open.addFirst(child);
+            remaining.decrementAndGet();
+          }
+        }
+      }
+    }
+
+    // =================================
+    // result
+    // =================================
+
+    private DagExecution<Id> result(long wallNanos) {
+
+      ImmutableSet.Builder<Id> completedIds = ImmutableSet.builder();
+      for (int index : completed)
+        completedIds.add(idIndex.id(index));
+
+      ImmutableMap.Builder<Id, Throwable> id__error = ImmutableMap.builder();
+      ImmutableSet.Builder<Id> cancelledIds = ImmutableSet.builder();
+      ImmutableMap.Builder<Id, Long> id__startNanos = ImmutableMap.builder();
+      ImmutableMap.Builder<Id, Long> id__durationNanos = ImmutableMap.builder();
+
+      for (int index = 0; index < intGraph.indexSize(); index++) {
+
+        Id id = idIndex.id(index);
+
+        if (errors[index] != null)
+          id__error.put(id, errors[index]);
+
+        if (states.get(index) == cancelled)
+          cancelledIds.add(id);
+        else if (!(errors[index] instanceof RejectedExecutionException)) {
+          id__startNanos.put(id, startNanos[index]);
+          id__durationNanos.put(id, durationNanos[index]);
+        }
+      }
+
+      int peak;
+      synchronized (this) {
+        peak = peakParallelism;
+      }
+
+      return new DagExecutionClass<Id>(completedIds.build(), id__error.build(),
+          cancelledIds.build(), id__startNanos.build(), id__durationNanos.build(), wallNanos, peak);
+    }
+
+  }
+
+}
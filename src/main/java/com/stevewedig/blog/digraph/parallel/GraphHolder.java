@@ -0,0 +1,55 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import com.google.common.base.Optional;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+/**
+ * An atomic reference to the current version of an immutable graph, so readers never block and
+ * writers publish new versions without locking, not compatible with GWT.
+ */
+public interface GraphHolder<G> {
+
+  // ===========================================================================
+  // reading
+  // ===========================================================================
+
+  /**
+   * The current version (a reader holding it keeps a consistent graph while newer versions are
+   * published).
+   */
+  GraphVersion<G> current();
+
+  /**
+   * The current version's graph.
+   */
+  G graph();
+
+  /**
+   * The current version's number.
+   */
+  long version();
+
+  // ===========================================================================
+  // writing
+  // ===========================================================================
+
+  /**
+   * Publish a graph as the next version, replacing whatever is current.
+   */
+  GraphVersion<G> publish(G graph);
+
+  /**
+   * Publish a graph as the next version, only if the current version is still the expected one.
+   * 
+   * @return The published version (absent if another version was published first).
+   */
+  Optional<GraphVersion<G>> publish(long expectedVersion, G graph);
+
+  /**
+   * Publish the result of applying a change to the current graph, retrying against the newer graph
+   * if another version is published first (so the change may run more than once and shouldn't have
+   * side effects).
+   */
+  GraphVersion<G> update(Fn1<G, G> change);
+
+}
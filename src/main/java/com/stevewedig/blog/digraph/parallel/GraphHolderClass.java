@@ -0,0 +1,107 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Optional;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+/**
+ * An implementation of GraphHolder. Each graph is passed through a prepare function (such as
+ * ConcurrentGraphLib.indexed()) on the writing thread before it's published, and publishing
+ * through the AtomicReference makes everything prepare wrote visible to readers.
+ */
+public class GraphHolderClass<G> implements GraphHolder<G> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final Fn1<G, G> prepare;
+
+  private final AtomicReference<GraphVersion<G>> current;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public GraphHolderClass(G initial, Fn1<G, G> prepare) {
+
+    this.prepare = prepare;
+
+    current = new AtomicReference<>(version(0, initial));
+  }
+
+  // ===========================================================================
+  // reading
+  // ===========================================================================
+
+  @Override
+  public GraphVersion<G> current() {
+    return current.get();
+  }
+
+  @Override
+  public G graph() {
+    return current().graph();
+  }
+
+  @Override
+  public long version() {
+    return current().version();
+  }
+
+  // ===========================================================================
+  // writing
+  // ===========================================================================
+
+  @Override
+  public GraphVersion<G> publish(G graph) {
+
+    G prepared = prepare.apply(graph);
+
+    while (true) {
+
+      GraphVersion<G> expected = current.get();
+      GraphVersion<G> next = new GraphVersionClass<>(expected.version() + 1, prepared);
+
+      if (current.compareAndSet(expected, next))
+        return next;
+    }
+  }
+
+  @Override
+  public Optional<GraphVersion<G>> publish(long expectedVersion, G graph) {
+
+    GraphVersion<G> expected = current.get();
+
+    if (expected.version() != expectedVersion)
+      return Optional.absent();
+
+    GraphVersion<G> next = version(expectedVersion + 1, graph);
+
+    if (!current.compareAndSet(expected, next))
+      return Optional.absent();
+
+    return Optional.of(next);
+  }
+
+  @Override
+  public GraphVersion<G> update(Fn1<G, G> change) {
+
+    while (true) {
+
+      GraphVersion<G> expected = current.get();
+      GraphVersion<G> next = version(expected.version() + 1, change.apply(expected.graph()));
+
+      if (current.compareAndSet(expected, next))
+        return next;
+    }
+  }
+
+  // ===================================
+
+  private GraphVersion<G> version(long version, G graph) {
+    return new GraphVersionClass<>(version, prepare.apply(graph));
+  }
+
+}
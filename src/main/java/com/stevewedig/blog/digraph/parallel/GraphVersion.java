@@ -0,0 +1,18 @@
+package com.stevewedig.blog.digraph.parallel;
+
+/**
+ * A graph published by a GraphHolder, with its version number, not compatible with GWT.
+ */
+public interface GraphVersion<G> {
+
+  /**
+   * The version number (0 for the initial graph, and incremented by each publish).
+   */
+  long version();
+
+  /**
+   * The graph published as this version.
+   */
+  G graph();
+
+}
@@ -0,0 +1,45 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of GraphVersion.
+ */
+public class GraphVersionClass<G> extends ValueMixin implements GraphVersion<G> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final long version;
+  private final G graph;
+
+  @Override
+  protected Object[] fields() {
+    return array("version", version, "graph", graph);
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public GraphVersionClass(long version, G graph) {
+    this.version = version;
+    this.graph = graph;
+  }
+
+  // ===========================================================================
+  // accessors
+  // ===========================================================================
+
+  @Override
+  public long version() {
+    return version;
+  }
+
+  @Override
+  public G graph() {
+    return graph;
+  }
+
+}
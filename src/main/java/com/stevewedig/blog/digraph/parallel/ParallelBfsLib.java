@@ -0,0 +1,350 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Parallel breadth first traversal, not compatible with GWT.
+ */
+public abstract class ParallelBfsLib {
+
+  // frontiers with fewer indexes than this are expanded by the calling thread, and larger
+  // frontiers are split into tasks of about this many indexes
+  private static final int taskSize = 512;
+
+  // bottom-up steps are split into tasks of this many words (64 indexes each)
+  private static final int taskWordSize = 64;
+
+  /**
+   * Switch to bottom-up steps when the frontier's arcs exceed the unexplored arcs / alpha (0 never
+   * switches).
+   */
+  public static final int defaultAlpha = 14;
+
+  /**
+   * Switch back to top-down steps when the frontier has fewer than indexSize / beta indexes (0
+   * never switches back).
+   */
+  public static final int defaultBeta = 24;
+
+  /**
+   * Level-synchronous, direction-optimizing parallel breadth first traversal, with the default
+   * switching thresholds.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The arcs to follow.
+   * @param startIndexes The indexes at distance 0.
+   * @param pool The pool running the tasks.
+   * @return The levels, the same as TraverseLib.breadthLevels().
+   */
+  public static <Id> BreadthLevels<Id> levels(IdIndex<Id> idIndex, IntGraph intGraph,
+      int[] startIndexes, ForkJoinPool pool) {
+
+    return levels(idIndex, intGraph, startIndexes, pool, defaultAlpha, defaultBeta);
+  }
+
+  /**
+   * Level-synchronous, direction-optimizing parallel breadth first traversal (Beamer et al.).
+   * 
+   * Visited indexes are tracked in a bitmap. While the frontier is small, each level is a top-down
+   * step: tasks expand the frontier's children, claiming unvisited children by atomically setting
+   * their bits. Once the frontier's arcs outnumber the unexplored arcs / alpha, levels become
+   * bottom-up steps: the frontier is also stored as a bitmap, and tasks own ranges of unvisited
+   * indexes, each checking its parents against the frontier bitmap and stopping at the first hit.
+   * Once the frontier falls below indexSize / beta indexes, levels return to top-down steps.
+   * 
+   * Each level is sorted by index, so the result doesn't depend on thread scheduling.
+   * 
+   * http://www.scottbeamer.net/pubs/beamer-sc2012.pdf
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The arcs to follow (bottom-up steps follow the reverse arcs).
+   * @param startIndexes The indexes at distance 0.
+   * @param pool The pool running the tasks.
+   * @param alpha The top-down to bottom-up switching threshold.
+   * @param beta The bottom-up to top-down switching threshold.
+   * @return The levels, the same as TraverseLib.breadthLevels().
+   */
+  public static <Id> BreadthLevels<Id> levels(IdIndex<Id> idIndex, IntGraph intGraph,
+      int[] startIndexes, ForkJoinPool pool, int alpha, int beta) {
+
+    Search search = new Search(intGraph, pool);
+
+    for (int index : startIndexes)
+      search.visitStart(index);
+
+    return search.run(idIndex, alpha, beta);
+  }
+
+  // ===========================================================================
+  // Search
+  // ===========================================================================
+
+  private static class Search {
+
+    private final IntGraph intGraph;
+    private final ForkJoinPool pool;
+    private final int indexSize;
+
+    private final int[] distances;
+    private final AtomicLongArray visitedBits;
+
+    // each level is appended to visited (tasks write to distinct positions claimed from
+    // visitedSize), and the next level is collected after it
+    private final int[] visited;
+    private final AtomicInteger visitedSize = new AtomicInteger();
+
+    // the frontier as a bitmap, only filled for bottom-up steps
+    private final long[] frontierBits;
+
+    public Search(IntGraph intGraph, ForkJoinPool pool) {
+
+      this.intGraph = intGraph;
+      this.pool = pool;
+
+      indexSize = intGraph.indexSize();
+
+      distances = new int[indexSize];
+      Arrays.fill(distances, -1);
+
+      int wordSize = (indexSize + 63) >>> 6;
+      visitedBits = new AtomicLongArray(wordSize);
+      frontierBits = new long[wordSize];
+
+      visited = new int[indexSize];
+    }
+
+    public void visitStart(int index) {
+      if (claim(index, 0))
+        visited[visitedSize.getAndIncrement()] = index;
+    }
+
+    // whether this call visited the index (exactly one caller claims each index)
+    public boolean claim(int index, int distance) {
+
+      int word = index >>> 6;
+      long bit = 1L << index;
+
+      while (true) {
+
+        long bits = visitedBits.get(word);
+
+        if ((bits & bit) != 0)
+          return false;
+
+        if (visitedBits.compareAndSet(word, bits, bits | bit)) {
+          distances[index] = distance;
+          return true;
+        }
+      }
+    }
+
+    public <Id> BreadthLevels<Id> run(IdIndex<Id> idIndex, int alpha, int beta) {
+
+      // level offsets (at most indexSize levels, plus the end offset)
+      int[] levelOffsets = new int[indexSize + 1];
+      int levelSize = 0;
+      int bottomUpLevelSize = 0;
+
+      Arrays.sort(visited, 0, visitedSize.get());
+
+      long unexploredArcs = intGraph.arcSize() - arcSize(0, visitedSize.get());
+
+      boolean bottomUp = false;
+
+      int levelStart = 0;
+
+      while (levelStart < visitedSize.get()) {
+
+        int levelEnd = visitedSize.get();
+        levelOffsets[levelSize++] = levelStart;
+
+        // choose the direction
+        long frontierArcs = arcSize(levelStart, levelEnd);
+
+        if (!bottomUp && frontierArcs * alpha > unexploredArcs)
+          bottomUp = true;
+        else if (bottomUp && (long) (levelEnd - levelStart) * beta < indexSize)
+          bottomUp = false;
+
+        // find the next level
+        if (bottomUp) {
+
+          bottomUpLevelSize++;
+
+          for (int i = levelStart; i < levelEnd; i++)
+            frontierBits[visited[i] >>> 6] |= 1L << visited[i];
+
+          new BottomUpTask(this, levelSize, 0, frontierBits.length).invokeIn(pool);
+
+          for (int i = levelStart; i < levelEnd; i++)
+            frontierBits[visited[i] >>> 6] = 0;
+
+        } else
+          new TopDownTask(this, levelSize, levelStart, levelEnd).invokeIn(pool);
+
+        // index order within a level, so the result doesn't depend on thread scheduling
+        Arrays.sort(visited, levelEnd, visitedSize.get());
+
+        unexploredArcs -= arcSize(levelEnd, visitedSize.get());
+
+        levelStart = levelEnd;
+      }
+
+      levelOffsets[levelSize] = visitedSize.get();
+
+      return new BreadthLevelsClass<Id>(idIndex, Arrays.copyOf(visited, visitedSize.get()),
+          Arrays.copyOf(levelOffsets, levelSize + 1), distances, bottomUpLevelSize);
+    }
+
+    // the number of arcs leaving visited[start] until visited[end]
+    private long arcSize(int start, int end) {
+
+      long arcSize = 0;
+
+      for (int i = start; i < end; i++)
+        arcSize += intGraph.childCount(visited[i]);
+
+      return arcSize;
+    }
+  }
+
+  // ===========================================================================
+  // TopDownTask
+  // ===========================================================================
+
+  // expands visited[start] until visited[end], claiming unvisited children
+  @SuppressWarnings("serial")
+  private static class TopDownTask extends RecursiveAction {
+
+    private final Search search;
+    private final int distance;
+    private final int start;
+    private final int end;
+
+    public TopDownTask(Search search, int distance, int start, int end) {
+      this.search = search;
+      this.distance = distance;
+      this.start = start;
+      this.end = end;
+    }
+
+    public void invokeIn(ForkJoinPool pool) {
+      if (end - start <= taskSize)
+        compute();
+      else
+        pool.invoke(this);
+    }
+
+    @Override
+    protected void compute() {
+
+      if (end - start > taskSize) {
+
+        int middle = (start + end) >>> 1;
+
+        invokeAll(new TopDownTask(search, distance, start, middle), new TopDownTask(search,
+            distance, middle, end));
+
+        return;
+      }
+
+      IntGraph intGraph = search.intGraph;
+
+      for (int i = start; i < end; i++) {
+
+        int index = search.visited[i];
+
+        int childCount = intGraph.childCount(index);
+        for (int position = 0; position < childCount; position++) {
+
+          int child = intGraph.childIndex(index, position);
+
+          if (search.claim(child, distance))
+            search.visited[search.visitedSize.getAndIncrement()] = child;
+        }
+      }
+    }
+  }
+
+  // ===========================================================================
+  // BottomUpTask
+  // ===========================================================================
+
+  // checks the unvisited indexes in words [startWord, endWord) for a parent in the frontier
+  @SuppressWarnings("serial")
+  private static class BottomUpTask extends RecursiveAction {
+
+    private final Search search;
+    private final int distance;
+    private final int startWord;
+    private final int endWord;
+
+    public BottomUpTask(Search search, int distance, int startWord, int endWord) {
+      this.search = search;
+      this.distance = distance;
+      this.startWord = startWord;
+      this.endWord = endWord;
+    }
+
+    public void invokeIn(ForkJoinPool pool) {
+      if (endWord - startWord <= taskWordSize)
+        compute();
+      else
+        pool.invoke(this);
+    }
+
+    @Override
+    protected void compute() {
+
+      if (endWord - startWord > taskWordSize) {
+
+        int middle = (startWord + endWord) >>> 1;
+
+        invokeAll(new BottomUpTask(search, distance, startWord, middle), new BottomUpTask(search,
+            distance, middle, endWord));
+
+        return;
+      }
+
+      IntGraph intGraph = search.intGraph;
+      long[] frontierBits = search.frontierBits;
+
+      for (int word = startWord; word < endWord; word++) {
+
+        // this task owns the word, so it can be updated once at the end
+        long visitedWord = search.visitedBits.get(word);
+        long found = 0;
+
+        for (long unvisited = ~visitedWord; unvisited != 0; unvisited &= unvisited - 1) {
+
+          int index = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+
+          if (index >= search.indexSize)
+            break;
+
+          int parentCount = intGraph.parentCount(index);
+          for (int position = 0; position < parentCount; position++) {
+
+            int parent = intGraph.parentIndex(index, position);
+
+            if ((frontierBits[parent >>> 6] & (1L << parent)) != 0) {
+              found |= 1L << index;
+              search.distances[index] = distance;
+              search.visited[search.visitedSize.getAndIncrement()] = index;
+              break;
+            }
+          }
+        }
+
+        if (found != 0)
+          search.visitedBits.set(word, visitedWord | found);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+package com.stevewedig.blog.digraph.parallel;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.google.common.base.Optional;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+
+/**
+ * Parallel topological sort, not compatible with GWT.
+ */
+public abstract class ParallelTopsortLib {
+
+  // levels with fewer indexes than this are closed by the calling thread, and larger levels are
+  // split into tasks of about this many indexes
+  private static final int taskSize = 512;
+
+  /**
+   * Level-synchronous parallel topological sort. Each level (wavefront) is split into tasks run by
+   * the pool, which decrement the children's parent counts atomically and collect the children
+   * reaching 0 as the next level. Produces the same result as TopsortLib.levels(): ordered by
+   * level, then by index within each level.
+   * 
+   * @param idIndex The mapping between ids and indexes.
+   * @param intGraph The dependency structure of your dag.
+   * @param pool The pool running the tasks.
+   * @return The levels, will be absent if the graph is cyclic.
+   */
+  public static <Id> Optional<TopsortLevels<Id>> levels(IdIndex<Id> idIndex, IntGraph intGraph,
+      ForkJoinPool pool) {
+
+    int indexSize = intGraph.indexSize();
+
+    // each level is appended to sorted, and the next level is collected after it (tasks write to
+    // distinct positions claimed from sortedSize)
+    int[] sorted = new int[indexSize];
+    AtomicInteger sortedSize = new AtomicInteger();
+
+    // level offsets (at most indexSize levels, plus the end offset)
+    int[] levelOffsets = new int[indexSize + 1];
+    int levelSize = 0;
+
+    // parent counts, with the graph's roots (sources) forming level 0
+    AtomicIntegerArray parentCounts = new AtomicIntegerArray(indexSize);
+    int rootSize = 0;
+    for (int index = 0; index < indexSize; index++) {
+
+      int parentCount = intGraph.parentCount(index);
+      parentCounts.set(index, parentCount);
+
+      if (parentCount == 0)
+        sorted[rootSize++] = index;
+    }
+    sortedSize.set(rootSize);
+
+    int levelStart = 0;
+
+    // loop: close a level and collect the children it opens as the next level
+    while (levelStart < sortedSize.get()) {
+
+      int levelEnd = sortedSize.get();
+      levelOffsets[levelSize++] = levelStart;
+
+      LevelTask task =
+          new LevelTask(intGraph, parentCounts, sorted, sortedSize, levelStart, levelEnd);
+
+      if (levelEnd - levelStart <= taskSize)
+        task.compute();
+      else
+        pool.invoke(task);
+
+      // index order within a level, so the result doesn't depend on thread scheduling
+      Arrays.sort(sorted, levelEnd, sortedSize.get());
+
+      levelStart = levelEnd;
+    }
+
+    // if we're missing any indexes there is a cycle
+    if (sortedSize.get() != indexSize)
+      return Optional.absent();
+
+    levelOffsets[levelSize] = indexSize;
+
+    return Optional.<TopsortLevels<Id>>of(new TopsortLevelsClass<Id>(idIndex, sorted,
+        Arrays.copyOf(levelOffsets, levelSize + 1)));
+  }
+
+  // ===========================================================================
+  // LevelTask
+  // ===========================================================================
+
+  @SuppressWarnings("serial")
+  private static class LevelTask extends RecursiveAction {
+
+    private final IntGraph intGraph;
+    private final AtomicIntegerArray parentCounts;
+    private final int[] sorted;
+    private final AtomicInteger sortedSize;
+    private final int start;
+    private final int end;
+
+    public LevelTask(IntGraph intGraph, AtomicIntegerArray parentCounts, int[] sorted,
+        AtomicInteger sortedSize, int start, int end) {
+
+      this.intGraph = intGraph;
+      this.parentCounts = parentCounts;
+      this.sorted = sorted;
+      this.sortedSize = sortedSize;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+
+      if (end - start > taskSize) {
+
+        int middle = (start + end) >>> 1;
+
+        invokeAll(new LevelTask(intGraph, parentCounts, sorted, sortedSize, start, middle),
+            new LevelTask(intGraph, parentCounts, sorted, sortedSize, middle, end));
+
+        return;
+      }
+
+      for (int i = start; i < end; i++) {
+
+        int index = sorted[i];
+
+        int childCount = intGraph.childCount(index);
+        for (int position = 0; position < childCount; position++) {
+
+          int child = intGraph.childIndex(index, position);
+
+          // exactly one task sees the count reach 0, so each child is opened once
+          if (parentCounts.decrementAndGet(child) == 0)
+            sorted[sortedSize.getAndIncrement()] = child;
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,46 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+
+/**
+ * An immutable dag containing ids, where each update returns a new dag sharing most of its structure
+ * with the old one, instead of rebuilding every map and rerunning the full cycle check.
+ */
+public interface PersistentIdDag<Id> extends IdDag<Id> {
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * A dag with an id added (will be this dag if the id is already present).
+   */
+  PersistentIdDag<Id> withId(Id id);
+
+  /**
+   * A dag with an id and its arcs removed (will be this dag if the id is missing).
+   */
+  PersistentIdDag<Id> withoutId(Id id);
+
+  // ===========================================================================
+  // edges
+  // ===========================================================================
+
+  /**
+   * A dag with an arc from a parent id to a child id added (will be this dag if the arc is already
+   * present). Only the region between the two ids in the current topological order is visited.
+   * 
+   * @throws GraphHadUnexpectedIds If either id is missing.
+   * @throws DagCannotHaveCycle If the arc would create a cycle.
+   */
+  PersistentIdDag<Id> withEdge(Id parentId, Id childId) throws GraphHadUnexpectedIds,
+      DagCannotHaveCycle;
+
+  /**
+   * A dag with an arc from a parent id to a child id removed (will be this dag if the arc is
+   * missing).
+   */
+  PersistentIdDag<Id> withoutEdge(Id parentId, Id childId);
+
+}
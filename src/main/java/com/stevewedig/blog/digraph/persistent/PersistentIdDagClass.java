@@ -0,0 +1,837 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import java.util.*;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+import com.stevewedig.blog.util.SetLib;
+import com.stevewedig.blog.value_objects.ValueMixin;
+
+/**
+ * An implementation of PersistentIdDag. Each id maps (in a PersistentMap) to an entry holding its
+ * parent ids, child ids, and its position in a topological order. Adding an arc that agrees with
+ * the order is O(log n). Adding an arc that disagrees searches only the ids between the two
+ * positions and reorders them among themselves (Pearce and Kelly's dynamic topological sort), which
+ * also detects cycles. Each id's parent and child ids are PersistentSets, so changing an arc costs
+ * O(log n + log degree) rather than copying a hub's neighbors.
+ * 
+ * The ImmutableSet and multimap views are built on first use (in O(n) or O(arcs), or O(degree log
+ * degree) for one id's parents or children), and every update returns a new dag without them.
+ * 
+ * http://www.doc.ic.ac.uk/~phjk/Publications/DynamicTopoSortAlg-JEA-07.pdf
+ */
+public class PersistentIdDagClass<Id> extends ValueMixin implements PersistentIdDag<Id> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final PersistentMap<Id, Entry<Id>> id__entry;
+
+  // the order given to the next added id
+  private final int nextOrder;
+
+  @Override
+  public Object[] fields() {
+    return array("idSet", idSet(), "id__parentIds", id__parentIds());
+  }
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public PersistentIdDagClass(PersistentMap<Id, Entry<Id>> id__entry, int nextOrder) {
+    this.id__entry = id__entry;
+    this.nextOrder = nextOrder;
+  }
+
+  // ===========================================================================
+  // Entry
+  // ===========================================================================
+
+  /**
+   * The arcs and topological order of one id.
+   */
+  public static class Entry<Id> {
+
+    private final PersistentSet<Id> parentIds;
+    private final PersistentSet<Id> childIds;
+    private final int order;
+
+    public Entry(PersistentSet<Id> parentIds, PersistentSet<Id> childIds, int order) {
+      this.parentIds = parentIds;
+      this.childIds = childIds;
+      this.order = order;
+    }
+
+    private Entry<Id> withOrder(int order) {
+      return new Entry<Id>(parentIds, childIds, order);
+    }
+
+    private Entry<Id> withParentIds(PersistentSet<Id> parentIds) {
+      return new Entry<Id>(parentIds, childIds, order);
+    }
+
+    private Entry<Id> withChildIds(PersistentSet<Id> childIds) {
+      return new Entry<Id>(parentIds, childIds, order);
+    }
+
+  }
+
+  private Entry<Id> entry(Id id) throws GraphHadUnexpectedIds {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    if (entry == null)
+      throw new GraphHadUnexpectedIds("unexpectedId = %s", id);
+
+    return entry;
+  }
+
+  // ===========================================================================
+  // updates
+  // ===========================================================================
+
+  @Override
+  public PersistentIdDag<Id> withId(Id id) {
+
+    if (id__entry.containsKey(id))
+      return this;
+
+    Entry<Id> entry =
+        new Entry<Id>(PersistentSetLib.<Id>empty(), PersistentSetLib.<Id>empty(), nextOrder);
+
+    return new PersistentIdDagClass<Id>(id__entry.with(id, entry), nextOrder + 1);
+  }
+
+  @Override
+  public PersistentIdDag<Id> withoutId(Id id) {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    if (entry == null)
+      return this;
+
+    PersistentMap<Id, Entry<Id>> updated = id__entry.without(id);
+
+    // removing arcs can't invalidate the order
+    for (Id parentId : entry.parentIds.toSet()) {
+      Entry<Id> parentEntry = updated.get(parentId);
+      updated = updated.with(parentId, parentEntry.withChildIds(parentEntry.childIds.without(id)));
+    }
+
+    for (Id childId : entry.childIds.toSet()) {
+      Entry<Id> childEntry = updated.get(childId);
+      updated = updated.with(childId, childEntry.withParentIds(childEntry.parentIds.without(id)));
+    }
+
+    return new PersistentIdDagClass<Id>(updated, nextOrder);
+  }
+
+  @Override
+  public PersistentIdDag<Id> withEdge(Id parentId, Id childId) throws GraphHadUnexpectedIds,
+      DagCannotHaveCycle {
+
+    Entry<Id> parentEntry = entry(parentId);
+    Entry<Id> childEntry = entry(childId);
+
+    if (parentId.equals(childId))
+      throw new DagCannotHaveCycle("id = %s", parentId);
+
+    if (parentEntry.childIds.contains(childId))
+      return this;
+
+    PersistentMap<Id, Entry<Id>> updated = id__entry;
+
+    // the arc disagrees with the order, so reorder the affected region
+    if (parentEntry.order > childEntry.order)
+      updated = reorder(parentId, parentEntry.order, childId, childEntry.order);
+
+    parentEntry = updated.get(parentId);
+    childEntry = updated.get(childId);
+
+    updated = updated.with(parentId, parentEntry.withChildIds(parentEntry.childIds.with(childId)));
+    updated = updated.with(childId, childEntry.withParentIds(childEntry.parentIds.with(parentId)));
+
+    return new PersistentIdDagClass<Id>(updated, nextOrder);
+  }
+
+  @Override
+  public PersistentIdDag<Id> withoutEdge(Id parentId, Id childId) {
+
+    Entry<Id> parentEntry = id__entry.get(parentId);
+
+    if (parentEntry == null || !parentEntry.childIds.contains(childId))
+      return this;
+
+    Entry<Id> childEntry = id__entry.get(childId);
+
+    // removing arcs can't invalidate the order
+    PersistentMap<Id, Entry<Id>> updated = id__entry;
+    updated =
+        updated.with(parentId, parentEntry.withChildIds(parentEntry.childIds.without(childId)));
+    updated =
+        updated.with(childId, childEntry.withParentIds(childEntry.parentIds.without(parentId)));
+
+    return new PersistentIdDagClass<Id>(updated, nextOrder);
+  }
+
+  // ===================================
+
+  // Pearce-Kelly: for a new arc parent -> child with order(parent) > order(child), find the
+  // descendants of child ordered before parent (forward) and the ancestors of parent ordered after
+  // child (backward), then give the backward ids the smallest of their combined orders
+  private PersistentMap<Id, Entry<Id>> reorder(Id parentId, int upperOrder, Id childId,
+      int lowerOrder) throws DagCannotHaveCycle {
+
+    List<Id> forward = new ArrayList<>();
+    List<Id> backward = new ArrayList<>();
+
+    // forward search from child, reaching parent means a cycle
+    Set<Id> reached = new HashSet<>();
+    LinkedList<Id> open = new LinkedList<>();
+    reached.add(childId);
+    open.addFirst(childId);
+
+    while (!open.isEmpty()) {
+
+      Id id = open.removeFirst();
+      forward.add(id);
+
+      for (Id nextId : id__entry.get(id).childIds.toSet()) {
+
+        if (nextId.equals(parentId))
+          throw new DagCannotHaveCycle("parentId = %s, childId = %s", parentId, childId);
+
+        if (id__entry.get(nextId).order < upperOrder && reached.add(nextId))
+          open.addFirst(nextId);
+      }
+    }
+
+    // backward search from parent
+    reached.clear();
+    reached.add(parentId);
+    open.addFirst(parentId);
+
+    while (!open.isEmpty()) {
+
+      Id id = open.removeFirst();
+      backward.add(id);
+
+      for (Id nextId : id__entry.get(id).parentIds.toSet())
+        if (id__entry.get(nextId).order > lowerOrder && reached.add(nextId))
+          open.addFirst(nextId);
+    }
+
+    // reuse the affected orders, backward ids first, each side keeping its relative order
+    Comparator<Id> byOrder = new Comparator<Id>() {
+      @Override
+      public int compare(Id a, Id b) {
+        return Integer.compare(id__entry.get(a).order, id__entry.get(b).order);
+      }
+    };
+
+    Collections.sort(backward, byOrder);
+    Collections.sort(forward, byOrder);
+
+    int[] orders = new int[backward.size() + forward.size()];
+    int i = 0;
+    for (Id id : backward)
+      orders[i++] = id__entry.get(id).order;
+    for (Id id : forward)
+      orders[i++] = id__entry.get(id).order;
+    Arrays.sort(orders);
+
+    PersistentMap<Id, Entry<Id>> updated = id__entry;
+
+    i = 0;
+    for (Id id : Iterables.concat(backward, forward))
+      updated = updated.with(id, updated.get(id).withOrder(orders[i++]));
+
+    return updated;
+  }
+
+  // ===========================================================================
+  // ids
+  // ===========================================================================
+
+  /**
+   * The set of ids, in topological order.
+   */
+  @Override
+  public ImmutableSet<Id> idSet() {
+    if (idSet == null)
+      idSet = ImmutableSet.copyOf(topsortIdList());
+    return idSet;
+  }
+
+  private ImmutableSet<Id> idSet;
+
+  // ===================================
+
+  @Override
+  public int idSize() {
+    return id__entry.size();
+  }
+
+  // ===================================
+
+  @Override
+  public void assertIdsEqual(ImmutableSet<Id> ids) {
+    SetLib.assertEquals(idSet(), ids);
+  }
+
+  @Override
+  public void assertIdsEqual(Id[] ids) {
+    assertIdsEqual(ImmutableSet.copyOf(ids));
+  }
+
+  // ===================================
+
+  @Override
+  public IdDag<Id> filterIdGraph(Set<Id> ids) {
+
+    ImmutableSetMultimap.Builder<Id, Id> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (Id id : ids)
+      for (Id parentId : parentIdSet(id))
+        if (ids.contains(parentId))
+          id__parentIds.put(id, parentId);
+
+    return IdDagLib.fromParentMap(ids, id__parentIds.build());
+  }
+
+  // ===========================================================================
+  // int indexes
+  // ===========================================================================
+
+  @Override
+  public IdIndex<Id> idIndex() {
+    if (idIndex == null)
+      idIndex = IdIndexLib.fromIds(idSet());
+    return idIndex;
+  }
+
+  private IdIndex<Id> idIndex;
+
+  // ===================================
+
+  @Override
+  public IntGraph intGraph() {
+    if (intGraph == null)
+      intGraph = IntGraphLib.fromParentMap(idIndex(), id__parentIds());
+    return intGraph;
+  }
+
+  private IntGraph intGraph;
+
+  // ===========================================================================
+  // parents
+  // ===========================================================================
+
+  @Override
+  public boolean isParentOf(Id id, Id potentialChild) {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    return entry != null && entry.childIds.contains(potentialChild);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__parentIds() {
+    if (id__parentIds == null) {
+
+      ImmutableSetMultimap.Builder<Id, Id> builder = ImmutableSetMultimap.builder();
+
+      for (Id id : idSet())
+        builder.putAll(id, parentIdSet(id));
+
+      id__parentIds = builder.build();
+    }
+
+    return id__parentIds;
+  }
+
+  private ImmutableSetMultimap<Id, Id> id__parentIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> parentIdSet(Id id) {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    return entry == null ? ImmutableSet.<Id>of() : entry.parentIds.toSet();
+  }
+
+  @Override
+  public ImmutableList<Id> parentIdList(Id id) {
+    return parentIdSet(id).asList();
+  }
+
+  // ===================================
+
+  private Fn1<Id, List<Id>> parentIdListLambda() {
+    if (parentIdListLambda == null)
+      parentIdListLambda = new Fn1<Id, List<Id>>() {
+        @Override
+        public List<Id> apply(Id id) {
+          return parentIdList(id);
+        }
+      };
+
+    return parentIdListLambda;
+  }
+
+  private Fn1<Id, List<Id>> parentIdListLambda;
+
+  // ===========================================================================
+  // children
+  // ===========================================================================
+
+  @Override
+  public boolean isChildOf(Id id, Id potentialParent) {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    return entry != null && entry.parentIds.contains(potentialParent);
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSetMultimap<Id, Id> id__childIds() {
+    if (id__childIds == null) {
+
+      ImmutableSetMultimap.Builder<Id, Id> builder = ImmutableSetMultimap.builder();
+
+      for (Id id : idSet())
+        builder.putAll(id, childIdSet(id));
+
+      id__childIds = builder.build();
+    }
+
+    return id__childIds;
+  }
+
+  private ImmutableSetMultimap<Id, Id> id__childIds;
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> childIdSet(Id id) {
+
+    Entry<Id> entry = id__entry.get(id);
+
+    return entry == null ? ImmutableSet.<Id>of() : entry.childIds.toSet();
+  }
+
+  @Override
+  public ImmutableList<Id> childIdList(Id id) {
+    return childIdSet(id).asList();
+  }
+
+  // ===================================
+
+  private Fn1<Id, List<Id>> childIdListLambda() {
+    if (childIdListLambda == null)
+      childIdListLambda = new Fn1<Id, List<Id>>() {
+        @Override
+        public List<Id> apply(Id id) {
+          return childIdList(id);
+        }
+      };
+
+    return childIdListLambda;
+  }
+
+  private Fn1<Id, List<Id>> childIdListLambda;
+
+  // ===========================================================================
+  // ancestors
+  // ===========================================================================
+
+  @Override
+  public boolean isAncestorOf(Id id, Id potentialDescendant, boolean inclusive) {
+    return isDescendantOf(potentialDescendant, id, inclusive);
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Id id, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, id, parentIdListLambda());
+  }
+
+  @Override
+  public Iterable<Id> ancestorIdIterable(Set<Id> ids, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, ImmutableList.copyOf(ids), parentIdListLambda());
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> ancestorIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(ancestorIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Id id, boolean inclusive) {
+    return ancestorIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> ancestorIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(ancestorIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findAncestor(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), parentIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyAncestor(Id id, boolean inclusive, Predicate<Id> match) {
+    return findAncestor(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countAncestorsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), parentIdListLambda(), until);
+  }
+
+  // ===========================================================================
+  // descendants
+  // ===========================================================================
+
+  @Override
+  public boolean isDescendantOf(Id id, Id potentialAncestor, boolean inclusive) {
+
+    if (id.equals(potentialAncestor))
+      return inclusive;
+
+    Entry<Id> entry = id__entry.get(id);
+    Entry<Id> ancestorEntry = id__entry.get(potentialAncestor);
+
+    if (entry == null || ancestorEntry == null)
+      return false;
+
+    // ancestors always come first in the order, so only ids after the potential ancestor are
+    // searched
+    int lowerOrder = ancestorEntry.order;
+
+    if (lowerOrder > entry.order)
+      return false;
+
+    Set<Id> reached = new HashSet<>();
+    LinkedList<Id> open = new LinkedList<>();
+    open.addFirst(id);
+
+    while (!open.isEmpty())
+      for (Id parentId : id__entry.get(open.removeFirst()).parentIds.toSet()) {
+
+        if (parentId.equals(potentialAncestor))
+          return true;
+
+        if (id__entry.get(parentId).order > lowerOrder && reached.add(parentId))
+          open.addFirst(parentId);
+      }
+
+    return false;
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Id id, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, id, childIdListLambda());
+  }
+
+  @Override
+  public Iterable<Id> descendantIdIterable(Set<Id> ids, boolean inclusive) {
+    return traverseIdIterable(true, inclusive, ImmutableList.copyOf(ids), childIdListLambda());
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Id id, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(id, inclusive));
+  }
+
+  @Override
+  public ImmutableSet<Id> descendantIdSet(Set<Id> ids, boolean inclusive) {
+    return ImmutableSet.copyOf(descendantIdIterable(ids, inclusive));
+  }
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Id id, boolean inclusive) {
+    return descendantIdGraph(ImmutableSet.of(id), inclusive);
+  }
+
+  @Override
+  public IdDag<Id> descendantIdGraph(Set<Id> ids, boolean inclusive) {
+    return filterIdGraph(descendantIdSet(ids, inclusive));
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match, Predicates.<Id>alwaysFalse());
+  }
+
+  @Override
+  public Optional<Id> findDescendant(Id id, boolean inclusive, Predicate<Id> match,
+      Predicate<Id> prune) {
+    return TraverseLib.findId(inclusive, ImmutableList.of(id), childIdListLambda(), match, prune);
+  }
+
+  @Override
+  public boolean anyDescendant(Id id, boolean inclusive, Predicate<Id> match) {
+    return findDescendant(id, inclusive, match).isPresent();
+  }
+
+  @Override
+  public int countDescendantsUntil(Id id, boolean inclusive, Predicate<Id> until) {
+    return TraverseLib.countIds(inclusive, ImmutableList.of(id), childIdListLambda(), until);
+  }
+
+  // ===========================================================================
+  // roots (sources)
+  // ===========================================================================
+
+  @Override
+  public boolean isRoot(Id id) {
+    return id__entry.containsKey(id) && parentIdSet(id).isEmpty();
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> rootIdSet() {
+    if (rootIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (Id id : idSet())
+        if (parentIdSet(id).isEmpty())
+          builder.add(id);
+
+      rootIds = builder.build();
+    }
+
+    return rootIds;
+  }
+
+  private ImmutableSet<Id> rootIds;
+
+  // ===========================================================================
+  // leaves (sinks)
+  // ===========================================================================
+
+  @Override
+  public boolean isLeaf(Id id) {
+    return id__entry.containsKey(id) && childIdSet(id).isEmpty();
+  }
+
+  // ===================================
+
+  @Override
+  public ImmutableSet<Id> leafIdSet() {
+    if (leafIds == null) {
+
+      ImmutableSet.Builder<Id> builder = ImmutableSet.builder();
+
+      for (Id id : idSet())
+        if (childIdSet(id).isEmpty())
+          builder.add(id);
+
+      leafIds = builder.build();
+    }
+
+    return leafIds;
+  }
+
+  private ImmutableSet<Id> leafIds;
+
+  // ===========================================================================
+  // topological sort
+  // ===========================================================================
+
+  @Override
+  public ImmutableList<Id> topsortIdList() {
+    if (topsortIdList == null) {
+
+      List<Id> ids = new ArrayList<>(id__entry.keySet());
+
+      Collections.sort(ids, new Comparator<Id>() {
+        @Override
+        public int compare(Id a, Id b) {
+          return Integer.compare(id__entry.get(a).order, id__entry.get(b).order);
+        }
+      });
+
+      topsortIdList = ImmutableList.copyOf(ids);
+    }
+
+    return topsortIdList;
+  }
+
+  private ImmutableList<Id> topsortIdList;
+
+  // ===================================
+
+  @Override
+  public Optional<ImmutableList<Id>> optionalTopsortIdList() {
+    return Optional.of(topsortIdList());
+  }
+
+  @Override
+  public boolean containsCycle() {
+    return false;
+  }
+
+  // ===========================================================================
+  // reachability
+  // ===========================================================================
+
+  @Override
+  public ReachabilityIndex<Id> reachabilityIndex() {
+    if (reachabilityIndex == null)
+      reachabilityIndex = ReachabilityLib.index(idIndex(), intGraph());
+    return reachabilityIndex;
+  }
+
+  private ReachabilityIndex<Id> reachabilityIndex;
+
+  @Override
+  public TransitiveClosure<Id> transitiveClosure() {
+    if (transitiveClosure == null)
+      transitiveClosure = TransitiveClosureLib.closure(topsortIdList(), idIndex(), intGraph());
+    return transitiveClosure;
+  }
+
+  private TransitiveClosure<Id> transitiveClosure;
+
+  // ===========================================================================
+  // structure hash
+  // ===========================================================================
+
+  @Override
+  public StructureHash<Id> structureHash() {
+    if (structureHash == null)
+      structureHash = StructureHashLib.hash(idIndex(), intGraph(), topsortIdList());
+    return structureHash;
+  }
+
+  private StructureHash<Id> structureHash;
+
+  // ===========================================================================
+  // equality
+  // ===========================================================================
+
+  // unequal dags almost always have different structure hashes, so only equal dags compare arcs
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || StructureHashLib.sameClassAndHash(this, other) && super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return StructureHashLib.classAndHashCode(this);
+  }
+
+  // ===========================================================================
+  // depth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> depthIdIterable() {
+    return traverseIdIterable(true, true, ImmutableList.copyOf(rootIdSet()), childIdListLambda());
+  }
+
+  @Override
+  public ImmutableList<Id> depthIdList() {
+    if (depthIdList == null)
+      depthIdList = ImmutableList.copyOf(depthIdIterable());
+    return depthIdList;
+  }
+
+  private ImmutableList<Id> depthIdList;
+
+  // ===========================================================================
+  // breadth first
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> breadthIdIterable() {
+    return traverseIdIterable(false, true, ImmutableList.copyOf(rootIdSet()), childIdListLambda());
+  }
+
+  @Override
+  public ImmutableList<Id> breadthIdList() {
+    if (breadthIdList == null)
+      breadthIdList = ImmutableList.copyOf(breadthIdIterable());
+    return breadthIdList;
+  }
+
+  private ImmutableList<Id> breadthIdList;
+
+  // ===========================================================================
+  // strongly connected components
+  // ===========================================================================
+
+  @Override
+  public StrongComponents<Id> strongComponents() {
+    if (strongComponents == null)
+      strongComponents = StrongComponentsLib.tarjan(idIndex(), intGraph());
+    return strongComponents;
+  }
+
+  private StrongComponents<Id> strongComponents;
+
+  // ===========================================================================
+  // generic traversal
+  // ===========================================================================
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdIterable(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public Iterable<Id> traverseIdIterable(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return TraverseLib.idIterable(depthFirst, inclusive, startIds, expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive, Id startId,
+      Fn1<Id, List<Id>> expand) {
+
+    return traverseIdList(depthFirst, inclusive, ImmutableList.of(startId), expand);
+  }
+
+  @Override
+  public ImmutableList<Id> traverseIdList(boolean depthFirst, boolean inclusive,
+      ImmutableList<Id> startIds, Fn1<Id, List<Id>> expand) {
+
+    return ImmutableList.copyOf(traverseIdIterable(depthFirst, inclusive, startIds, expand));
+  }
+
+}
@@ -0,0 +1,42 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.google.common.collect.ImmutableSet;
+import com.stevewedig.blog.digraph.id_graph.IdDag;
+import com.stevewedig.blog.digraph.persistent.PersistentIdDagClass.Entry;
+
+/**
+ * A library for creating PersistentIdDags.
+ */
+public abstract class PersistentIdDagLib {
+
+  /**
+   * Create an empty PersistentIdDag.
+   */
+  public static <Id> PersistentIdDag<Id> empty() {
+    return new PersistentIdDagClass<Id>(PersistentMapLib.<Id, Entry<Id>>empty(), 0);
+  }
+
+  /**
+   * Create a PersistentIdDag with the same ids and arcs as an IdDag, in O(n log n).
+   */
+  public static <Id> PersistentIdDag<Id> fromIdDag(IdDag<Id> idDag) {
+
+    PersistentMap<Id, Entry<Id>> id__entry = PersistentMapLib.empty();
+
+    int order = 0;
+
+    // the dag's topological sort becomes the initial order
+    for (Id id : idDag.topsortIdList()) {
+
+      ImmutableSet<Id> parentIds = idDag.parentIdSet(id);
+      ImmutableSet<Id> childIds = idDag.childIdSet(id);
+
+      id__entry =
+          id__entry.with(id, new Entry<Id>(PersistentSetLib.copyOf(parentIds),
+              PersistentSetLib.copyOf(childIds), order++));
+    }
+
+    return new PersistentIdDagClass<Id>(id__entry, order);
+  }
+
+}
@@ -0,0 +1,46 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.google.common.collect.*;
+
+/**
+ * An immutable map where with() and without() return a new map sharing most of its structure with
+ * the old one, so each update costs O(log n) instead of a full copy.
+ */
+public interface PersistentMap<K, V> {
+
+  /**
+   * The number of entries.
+   */
+  int size();
+
+  /**
+   * Whether the map contains a key.
+   */
+  boolean containsKey(K key);
+
+  /**
+   * Getting a key's value, will be null if the key is missing.
+   */
+  V get(K key);
+
+  /**
+   * A map with a key set to a value (will be this map if the key already has that value).
+   */
+  PersistentMap<K, V> with(K key, V value);
+
+  /**
+   * A map without a key (will be this map if the key is missing).
+   */
+  PersistentMap<K, V> without(K key);
+
+  /**
+   * The keys, copied into a set in O(n).
+   */
+  ImmutableSet<K> keySet();
+
+  /**
+   * The entries, copied into a map in O(n).
+   */
+  ImmutableMap<K, V> toMap();
+
+}
@@ -0,0 +1,416 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.google.common.collect.*;
+
+/**
+ * An implementation of PersistentMap as a hash array mapped trie. Each trie node covers 5 bits of
+ * the key's hash and stores only its occupied slots, found with a bitmap, so updates copy one short
+ * array per level and share the rest of the trie.
+ * 
+ * http://en.wikipedia.org/wiki/Hash_array_mapped_trie
+ */
+public class PersistentMapClass<K, V> implements PersistentMap<K, V> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  // null when empty
+  private final TrieNode root;
+  private final int size;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public PersistentMapClass() {
+    this(null, 0);
+  }
+
+  private PersistentMapClass(TrieNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  // ===========================================================================
+  // queries
+  // ===========================================================================
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(K key) {
+
+    if (root == null)
+      return null;
+
+    return (V) root.get(0, key.hashCode(), key);
+  }
+
+  // ===========================================================================
+  // updates
+  // ===========================================================================
+
+  @Override
+  public PersistentMap<K, V> with(K key, V value) {
+
+    if (value == null)
+      throw new NullPointerException("value");
+
+    boolean[] added = new boolean[1];
+
+    TrieNode newRoot =
+        (root == null ? BitmapNode.empty : root).with(0, key.hashCode(), key, value, added);
+
+    if (newRoot == root)
+      return this;
+
+    return new PersistentMapClass<K, V>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  @Override
+  public PersistentMap<K, V> without(K key) {
+
+    if (root == null)
+      return this;
+
+    TrieNode newRoot = root.without(0, key.hashCode(), key);
+
+    if (newRoot == root)
+      return this;
+
+    return new PersistentMapClass<K, V>(newRoot, size - 1);
+  }
+
+  // ===========================================================================
+  // keys
+  // ===========================================================================
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public ImmutableSet<K> keySet() {
+
+    ImmutableSet.Builder<Object> keys = ImmutableSet.builder();
+
+    if (root != null)
+      root.addKeys(keys);
+
+    return (ImmutableSet<K>) keys.build();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public ImmutableMap<K, V> toMap() {
+
+    ImmutableMap.Builder<Object, Object> entries = ImmutableMap.builder();
+
+    if (root != null)
+      root.addEntries(entries);
+
+    return (ImmutableMap<K, V>) (ImmutableMap<?, ?>) entries.build();
+  }
+
+  @Override
+  public String toString() {
+    return "PersistentMap(size = " + size + ")";
+  }
+
+  // ===========================================================================
+  // TrieNode
+  // ===========================================================================
+
+  private static interface TrieNode {
+
+    Object get(int shift, int hash, Object key);
+
+    // returns this if unchanged, sets added[0] if the key is new
+    TrieNode with(int shift, int hash, Object key, Object value, boolean[] added);
+
+    // returns this if unchanged, null if now empty
+    TrieNode without(int shift, int hash, Object key);
+
+    void addKeys(ImmutableSet.Builder<Object> keys);
+
+    void addEntries(ImmutableMap.Builder<Object, Object> entries);
+
+  }
+
+  // ===========================================================================
+  // BitmapNode
+  // ===========================================================================
+
+  // slots alternate key and value, with a null key meaning the value is a child TrieNode
+  private static class BitmapNode implements TrieNode {
+
+    static final BitmapNode empty = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] slots;
+
+    BitmapNode(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    private static int bit(int shift, int hash) {
+      return 1 << ((hash >>> shift) & 31);
+    }
+
+    private int position(int bit) {
+      return 2 * Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    public Object get(int shift, int hash, Object key) {
+
+      int bit = bit(shift, hash);
+
+      if ((bitmap & bit) == 0)
+        return null;
+
+      int position = position(bit);
+      Object slotKey = slots[position];
+      Object slotValue = slots[position + 1];
+
+      if (slotKey == null)
+        return ((TrieNode) slotValue).get(shift + 5, hash, key);
+
+      return key.equals(slotKey) ? slotValue : null;
+    }
+
+    @Override
+    public TrieNode with(int shift, int hash, Object key, Object value, boolean[] added) {
+
+      int bit = bit(shift, hash);
+      int position = position(bit);
+
+      // new slot
+      if ((bitmap & bit) == 0) {
+
+        added[0] = true;
+
+        Object[] newSlots = new Object[slots.length + 2];
+        System.arraycopy(slots, 0, newSlots, 0, position);
+        newSlots[position] = key;
+        newSlots[position + 1] = value;
+        System.arraycopy(slots, position, newSlots, position + 2, slots.length - position);
+
+        return new BitmapNode(bitmap | bit, newSlots);
+      }
+
+      Object slotKey = slots[position];
+      Object slotValue = slots[position + 1];
+
+      // child node
+      if (slotKey == null) {
+
+        TrieNode child = (TrieNode) slotValue;
+        TrieNode newChild = child.with(shift + 5, hash, key, value, added);
+
+        return newChild == child ? this : replace(position, null, newChild);
+      }
+
+      // same key
+      if (key.equals(slotKey))
+        return slotValue == value ? this : replace(position, slotKey, value);
+
+      // different key in the same slot, so push both down into a child node
+      added[0] = true;
+
+      return replace(position, null, pair(shift + 5, slotKey, slotValue, hash, key, value));
+    }
+
+    private static TrieNode pair(int shift, Object key1, Object value1, int hash2, Object key2,
+        Object value2) {
+
+      int hash1 = key1.hashCode();
+
+      if (hash1 == hash2)
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+
+      boolean[] added = new boolean[1];
+
+      return empty.with(shift, hash1, key1, value1, added).with(shift, hash2, key2, value2, added);
+    }
+
+    private BitmapNode replace(int position, Object key, Object value) {
+
+      Object[] newSlots = slots.clone();
+      newSlots[position] = key;
+      newSlots[position + 1] = value;
+
+      return new BitmapNode(bitmap, newSlots);
+    }
+
+    @Override
+    public TrieNode without(int shift, int hash, Object key) {
+
+      int bit = bit(shift, hash);
+
+      if ((bitmap & bit) == 0)
+        return this;
+
+      int position = position(bit);
+      Object slotKey = slots[position];
+      Object slotValue = slots[position + 1];
+
+      if (slotKey == null) {
+
+        TrieNode child = (TrieNode) slotValue;
+        TrieNode newChild = child.without(shift + 5, hash, key);
+
+        if (newChild == child)
+          return this;
+
+        if (newChild != null)
+          return replace(position, null, newChild);
+
+      } else if (!key.equals(slotKey))
+        return this;
+
+      // remove the slot
+      if (bitmap == bit)
+        return null;
+
+      Object[] newSlots = new Object[slots.length - 2];
+      System.arraycopy(slots, 0, newSlots, 0, position);
+      System.arraycopy(slots, position + 2, newSlots, position, slots.length - position - 2);
+
+      return new BitmapNode(bitmap & ~bit, newSlots);
+    }
+
+    @Override
+    public void addKeys(ImmutableSet.Builder<Object> keys) {
+
+      for (int position = 0; position < slots.length; position += 2)
+        if (slots[position] == null)
+          ((TrieNode) slots[position + 1]).addKeys(keys);
+        else
+          keys.add(slots[position]);
+    }
+
+    @Override
+    public void addEntries(ImmutableMap.Builder<Object, Object> entries) {
+
+      for (int position = 0; position < slots.length; position += 2)
+        if (slots[position] == null)
+          ((TrieNode) slots[position + 1]).addEntries(entries);
+        else
+          entries.put(slots[position], slots[position + 1]);
+    }
+
+  }
+
+  // ===========================================================================
+  // CollisionNode
+  // ===========================================================================
+
+  // keys with the same full hash, slots alternate key and value
+  private static class CollisionNode implements TrieNode {
+
+    private final int hash;
+    private final Object[] slots;
+
+    CollisionNode(int hash, Object[] slots) {
+      this.hash = hash;
+      this.slots = slots;
+    }
+
+    private int position(Object key) {
+
+      for (int position = 0; position < slots.length; position += 2)
+        if (key.equals(slots[position]))
+          return position;
+
+      return -1;
+    }
+
+    @Override
+    public Object get(int shift, int hash, Object key) {
+
+      if (hash != this.hash)
+        return null;
+
+      int position = position(key);
+
+      return position == -1 ? null : slots[position + 1];
+    }
+
+    @Override
+    public TrieNode with(int shift, int hash, Object key, Object value, boolean[] added) {
+
+      // a different hash, so nest this node in a bitmap node at this level
+      if (hash != this.hash)
+        return new BitmapNode(BitmapNode.bit(shift, this.hash), new Object[] {null, this}).with(
+            shift, hash, key, value, added);
+
+      int position = position(key);
+
+      if (position != -1) {
+
+        if (slots[position + 1] == value)
+          return this;
+
+        Object[] newSlots = slots.clone();
+        newSlots[position + 1] = value;
+
+        return new CollisionNode(hash, newSlots);
+      }
+
+      added[0] = true;
+
+      Object[] newSlots = new Object[slots.length + 2];
+      System.arraycopy(slots, 0, newSlots, 0, slots.length);
+      newSlots[slots.length] = key;
+      newSlots[slots.length + 1] = value;
+
+      return new CollisionNode(hash, newSlots);
+    }
+
+    @Override
+    public TrieNode without(int shift, int hash, Object key) {
+
+      if (hash != this.hash)
+        return this;
+
+      int position = position(key);
+
+      if (position == -1)
+        return this;
+
+      if (slots.length == 2)
+        return null;
+
+      Object[] newSlots = new Object[slots.length - 2];
+      System.arraycopy(slots, 0, newSlots, 0, position);
+      System.arraycopy(slots, position + 2, newSlots, position, slots.length - position - 2);
+
+      return new CollisionNode(hash, newSlots);
+    }
+
+    @Override
+    public void addKeys(ImmutableSet.Builder<Object> keys) {
+
+      for (int position = 0; position < slots.length; position += 2)
+        keys.add(slots[position]);
+    }
+
+    @Override
+    public void addEntries(ImmutableMap.Builder<Object, Object> entries) {
+
+      for (int position = 0; position < slots.length; position += 2)
+        entries.put(slots[position], slots[position + 1]);
+    }
+
+  }
+
+}
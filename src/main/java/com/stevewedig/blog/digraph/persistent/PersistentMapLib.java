@@ -0,0 +1,15 @@
+package com.stevewedig.blog.digraph.persistent;
+
+/**
+ * A library for creating PersistentMaps.
+ */
+public abstract class PersistentMapLib {
+
+  /**
+   * Create an empty PersistentMap.
+   */
+  public static <K, V> PersistentMap<K, V> empty() {
+    return new PersistentMapClass<K, V>();
+  }
+
+}
@@ -0,0 +1,37 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An immutable set where with() and without() return a new set sharing most of its structure with
+ * the old one (see PersistentMap), so each update costs O(log n) instead of a full copy. Iterating
+ * (via toSet()) follows the order items were added.
+ */
+public interface PersistentSet<T> {
+
+  /**
+   * The number of items.
+   */
+  int size();
+
+  /**
+   * Whether the set contains an item.
+   */
+  boolean contains(T item);
+
+  /**
+   * A set with an item added at the end (will be this set if the item is already present).
+   */
+  PersistentSet<T> with(T item);
+
+  /**
+   * A set without an item (will be this set if the item is missing).
+   */
+  PersistentSet<T> without(T item);
+
+  /**
+   * The items in the order they were added, copied into a set in O(n log n) on first use.
+   */
+  ImmutableSet<T> toSet();
+
+}
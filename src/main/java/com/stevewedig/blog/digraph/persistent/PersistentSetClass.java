@@ -0,0 +1,132 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+
+/**
+ * An implementation of PersistentSet as a PersistentMap from each item to the position it was added
+ * at, which orders toSet().
+ */
+public class PersistentSetClass<T> implements PersistentSet<T> {
+
+  // ===========================================================================
+  // state
+  // ===========================================================================
+
+  private final PersistentMap<T, Integer> item__position;
+
+  // the position given to the next added item
+  private final int nextPosition;
+
+  // ===========================================================================
+  // constructor
+  // ===========================================================================
+
+  public PersistentSetClass() {
+    this(PersistentMapLib.<T, Integer>empty(), 0, ImmutableSet.<T>of());
+  }
+
+  /**
+   * A set containing the items of an ImmutableSet, in its order.
+   */
+  public PersistentSetClass(ImmutableSet<T> items) {
+    this(positions(items), items.size(), items);
+  }
+
+  private PersistentSetClass(PersistentMap<T, Integer> item__position, int nextPosition,
+      ImmutableSet<T> set) {
+
+    this.item__position = item__position;
+    this.nextPosition = nextPosition;
+    this.set = set;
+  }
+
+  private static <T> PersistentMap<T, Integer> positions(ImmutableSet<T> items) {
+
+    PersistentMap<T, Integer> item__position = PersistentMapLib.empty();
+
+    int position = 0;
+
+    for (T item : items)
+      item__position = item__position.with(item, position++);
+
+    return item__position;
+  }
+
+  // ===========================================================================
+  // queries
+  // ===========================================================================
+
+  @Override
+  public int size() {
+    return item__position.size();
+  }
+
+  @Override
+  public boolean contains(T item) {
+    return item__position.containsKey(item);
+  }
+
+  // ===========================================================================
+  // updates
+  // ===========================================================================
+
+  @Override
+  public PersistentSet<T> with(T item) {
+
+    if (contains(item))
+      return this;
+
+    return new PersistentSetClass<T>(item__position.with(item, nextPosition), nextPosition + 1,
+        null);
+  }
+
+  @Override
+  public PersistentSet<T> without(T item) {
+
+    PersistentMap<T, Integer> removed = item__position.without(item);
+
+    if (removed == item__position)
+      return this;
+
+    return new PersistentSetClass<T>(removed, nextPosition, null);
+  }
+
+  // ===========================================================================
+  // set
+  // ===========================================================================
+
+  @Override
+  public ImmutableSet<T> toSet() {
+    if (set == null) {
+
+      List<Map.Entry<T, Integer>> entries = new ArrayList<>(item__position.toMap().entrySet());
+
+      Collections.sort(entries, new Comparator<Map.Entry<T, Integer>>() {
+        @Override
+        public int compare(Map.Entry<T, Integer> a, Map.Entry<T, Integer> b) {
+          return Integer.compare(a.getValue(), b.getValue());
+        }
+      });
+
+      ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+
+      for (Map.Entry<T, Integer> entry : entries)
+        builder.add(entry.getKey());
+
+      set = builder.build();
+    }
+
+    return set;
+  }
+
+  // built on first use, unless known up front
+  private ImmutableSet<T> set;
+
+  @Override
+  public String toString() {
+    return "PersistentSet(size = " + size() + ")";
+  }
+
+}
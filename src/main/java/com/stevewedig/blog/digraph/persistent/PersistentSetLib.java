@@ -0,0 +1,24 @@
+package com.stevewedig.blog.digraph.persistent;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A library for creating PersistentSets.
+ */
+public abstract class PersistentSetLib {
+
+  /**
+   * Create an empty PersistentSet.
+   */
+  public static <T> PersistentSet<T> empty() {
+    return new PersistentSetClass<T>();
+  }
+
+  /**
+   * Create a PersistentSet with the items of an ImmutableSet, in its order, in O(n log n).
+   */
+  public static <T> PersistentSet<T> copyOf(ImmutableSet<T> items) {
+    return new PersistentSetClass<T>(items);
+  }
+
+}
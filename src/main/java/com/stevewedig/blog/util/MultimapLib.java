@@ -1,5 +1,6 @@
 package com.stevewedig.blog.util;
 
+import java.util.*;
 import java.util.Map.Entry;
 
 import com.google.common.base.Predicate;
@@ -80,4 +81,24 @@ public abstract class MultimapLib {
     });
   }
 
+  /**
+   * Copying a multimap containing keys and values of the same type, ordering the keys and each
+   * key's values by a comparator.
+   * 
+   * @param key__values The multimap.
+   * @param comparator The ordering.
+   * @return The sorted multimap.
+   */
+  public static <Item> ImmutableSetMultimap<Item, Item> sorted(Multimap<Item, Item> key__values,
+      Comparator<? super Item> comparator) {
+
+    ImmutableSetMultimap.Builder<Item, Item> builder = ImmutableSetMultimap.builder();
+
+    builder.orderKeysBy(comparator).orderValuesBy(comparator);
+
+    builder.putAll(key__values);
+
+    return builder.build();
+  }
+
 }
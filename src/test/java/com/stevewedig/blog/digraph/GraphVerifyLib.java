@@ -0,0 +1,133 @@
+package com.stevewedig.blog.digraph;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Verifying that two IdGraph implementations answer every query the same way.
+ */
+public class GraphVerifyLib {
+
+  // ===========================================================================
+  // graph
+  // ===========================================================================
+
+  public static <Id> void verifySameGraph(IdGraph<Id> expected, IdGraph<Id> actual) {
+
+    // ids
+    assertEquals(expected.idSet(), actual.idSet());
+    assertEquals(expected.idSize(), actual.idSize());
+
+    // arcs
+    assertEquals(expected.id__parentIds(), actual.id__parentIds());
+    assertEquals(expected.id__childIds(), actual.id__childIds());
+
+    for (Id id : expected.idSet()) {
+
+      assertEquals(expected.parentIdSet(id), actual.parentIdSet(id));
+      assertEquals(expected.childIdSet(id), actual.childIdSet(id));
+
+      // ancestors & descendants
+      for (boolean inclusive : new boolean[] {true, false}) {
+        assertEquals(expected.ancestorIdSet(id, inclusive), actual.ancestorIdSet(id, inclusive));
+        assertEquals(expected.descendantIdSet(id, inclusive),
+            actual.descendantIdSet(id, inclusive));
+      }
+
+      for (Id other : expected.idSet()) {
+
+        assertEquals(expected.isParentOf(id, other), actual.isParentOf(id, other));
+        assertEquals(expected.isChildOf(id, other), actual.isChildOf(id, other));
+
+        for (boolean inclusive : new boolean[] {true, false}) {
+          assertEquals(expected.isAncestorOf(id, other, inclusive),
+              actual.isAncestorOf(id, other, inclusive));
+          assertEquals(expected.isDescendantOf(id, other, inclusive),
+              actual.isDescendantOf(id, other, inclusive));
+        }
+      }
+
+      assertEquals(expected.isRoot(id), actual.isRoot(id));
+      assertEquals(expected.isLeaf(id), actual.isLeaf(id));
+    }
+
+    // roots & leaves
+    assertEquals(expected.rootIdSet(), actual.rootIdSet());
+    assertEquals(expected.leafIdSet(), actual.leafIdSet());
+
+    // topological sort
+    assertEquals(expected.containsCycle(), actual.containsCycle());
+
+    if (!actual.containsCycle())
+      verifyTopsort(actual, actual.optionalTopsortIdList().get());
+  }
+
+  // ===========================================================================
+  // dag
+  // ===========================================================================
+
+  public static <Id> void verifySameDag(IdDag<Id> expected, IdDag<Id> actual) {
+
+    verifySameGraph(expected, actual);
+
+    verifyTopsort(actual, actual.topsortIdList());
+
+    assertEquals(expected.depthIdList(), actual.depthIdList());
+    assertEquals(expected.breadthIdList(), actual.breadthIdList());
+  }
+
+  // ===========================================================================
+  // tree
+  // ===========================================================================
+
+  public static <Id> void verifySameTree(IdTree<Id> expected, IdTree<Id> actual) {
+
+    verifySameDag(expected, actual);
+
+    assertEquals(expected.rootId(), actual.rootId());
+    assertEquals(expected.maxDepth(), actual.maxDepth());
+
+    for (Id id : expected.idSet()) {
+
+      assertEquals(expected.parentId(id), actual.parentId(id));
+      assertEquals(expected.depth(id), actual.depth(id));
+
+      for (boolean inclusive : new boolean[] {true, false})
+        assertEquals(expected.ancestorIdList(id, inclusive), actual.ancestorIdList(id, inclusive));
+
+      for (int k = -1; k <= expected.depth(id) + 1; k++)
+        assertEquals(expected.kthAncestor(id, k), actual.kthAncestor(id, k));
+
+      for (Id otherId : expected.idSet())
+        assertEquals(expected.lowestCommonAncestor(id, otherId),
+            actual.lowestCommonAncestor(id, otherId));
+    }
+  }
+
+  // ===========================================================================
+  // topological sort
+  // ===========================================================================
+
+  /**
+   * Verify that a list contains each id once, and that each id comes after its parents.
+   */
+  public static <Id> void verifyTopsort(IdGraph<Id> graph, List<Id> topsortIdList) {
+
+    assertEquals(graph.idSet(), ImmutableSet.copyOf(topsortIdList));
+    assertEquals(graph.idSize(), topsortIdList.size());
+
+    Set<Id> seen = new HashSet<>();
+
+    for (Id id : topsortIdList) {
+
+      assertTrue(seen.containsAll(graph.parentIdSet(id)));
+
+      seen.add(id);
+    }
+  }
+
+}
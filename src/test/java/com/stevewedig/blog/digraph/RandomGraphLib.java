@@ -0,0 +1,81 @@
+package com.stevewedig.blog.digraph;
+
+import java.util.Random;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+/**
+ * Generating random graphs with Integer ids (0 until idSize) for tests.
+ */
+public class RandomGraphLib {
+
+  /**
+   * A random dag, where each id gets up to maxParents parents with smaller ids.
+   */
+  public static IdDag<Integer> randomDag(long seed, int idSize, int maxParents) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++) {
+
+      int parentCount = random.nextInt(maxParents + 1);
+
+      for (int i = 0; i < parentCount; i++)
+        id__parentIds.put(id, random.nextInt(id));
+    }
+
+    return IdDagLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A random tree rooted at id 0, where each other id has a single parent with a smaller id.
+   */
+  public static IdTree<Integer> randomTree(long seed, int idSize) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, random.nextInt(id));
+
+    return IdTreeLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * A random graph (usually cyclic), where each id gets up to maxParents parents.
+   */
+  public static IdGraph<Integer> randomGraph(long seed, int idSize, int maxParents) {
+
+    Random random = new Random(seed);
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 0; id < idSize; id++) {
+
+      int parentCount = random.nextInt(maxParents + 1);
+
+      for (int i = 0; i < parentCount; i++)
+        id__parentIds.put(id, random.nextInt(idSize));
+    }
+
+    return IdGraphLib.fromParentMap(ids(idSize), id__parentIds.build());
+  }
+
+  /**
+   * The ids 0 until idSize.
+   */
+  public static ImmutableSet<Integer> ids(int idSize) {
+
+    ImmutableSet.Builder<Integer> ids = ImmutableSet.builder();
+
+    for (int id = 0; id < idSize; id++)
+      ids.add(id);
+
+    return ids.build();
+  }
+
+}
@@ -0,0 +1,112 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.IdIndex;
+import com.stevewedig.blog.digraph.parallel.ParallelBfsLib;
+
+public class TestDetailsBreadthLevels {
+
+  @Test
+  public void testBreadthLevels__sample() {
+
+    IdGraph<String> graph =
+        IdGraphLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d, a = e"));
+
+    IdIndex<String> idIndex = graph.idIndex();
+
+    BreadthLevels<String> levels =
+        TraverseLib.breadthLevels(idIndex, graph.intGraph(), new int[] {idIndex.index("a")});
+
+    assertEquals(4, levels.levelSize());
+    assertEquals(ImmutableList.of("a"), levels.levelIdList(0));
+    assertEquals(parseSet("b, c"), ImmutableSet.copyOf(levels.levelIdList(1)));
+    assertEquals(ImmutableList.of("d"), levels.levelIdList(2));
+    assertEquals(ImmutableList.of("e"), levels.levelIdList(3));
+
+    assertEquals(0, levels.distance("a"));
+    assertEquals(3, levels.distance("e"));
+
+    // unreached
+    assertEquals(-1, levels.distance("f"));
+    assertEquals(5, levels.reachedSize());
+    assertEquals(0, levels.bottomUpLevelSize());
+
+    // upwards, from multiple start ids (duplicates are ignored)
+    BreadthLevels<String> upLevels =
+        TraverseLib.breadthLevels(idIndex, graph.intGraph().inverse(),
+            new int[] {idIndex.index("d"), idIndex.index("f"), idIndex.index("d")});
+
+    assertEquals(parseSet("d, f"), ImmutableSet.copyOf(upLevels.levelIdList(0)));
+    assertEquals(parseSet("b, c"), ImmutableSet.copyOf(upLevels.levelIdList(1)));
+    assertEquals(1, upLevels.distance("c"));
+    assertEquals(2, upLevels.distance("a"));
+    assertEquals(3, upLevels.distance("e"));
+  }
+
+  @Test
+  public void testBreadthLevels__parallelMatchesSequential() {
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+
+      for (long seed = 0; seed < 4; seed++) {
+
+        IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 5000, 4);
+
+        int[] startIndexes = new int[] {0, (int) seed + 1};
+
+        BreadthLevels<Integer> expected =
+            TraverseLib.breadthLevels(graph.idIndex(), graph.intGraph(), startIndexes);
+
+        // default thresholds
+        verifySameLevels(expected,
+            ParallelBfsLib.levels(graph.idIndex(), graph.intGraph(), startIndexes, pool));
+
+        // always bottom-up
+        BreadthLevels<Integer> bottomUp =
+            ParallelBfsLib.levels(graph.idIndex(), graph.intGraph(), startIndexes, pool,
+                Integer.MAX_VALUE, 0);
+        verifySameLevels(expected, bottomUp);
+        assertTrue(bottomUp.bottomUpLevelSize() > 0);
+
+        // never bottom-up
+        BreadthLevels<Integer> topDown =
+            ParallelBfsLib.levels(graph.idIndex(), graph.intGraph(), startIndexes, pool, 0, 0);
+        verifySameLevels(expected, topDown);
+        assertEquals(0, topDown.bottomUpLevelSize());
+
+        // upwards
+        verifySameLevels(
+            TraverseLib.breadthLevels(graph.idIndex(), graph.intGraph().inverse(), startIndexes),
+            ParallelBfsLib.levels(graph.idIndex(), graph.intGraph().inverse(), startIndexes, pool,
+                Integer.MAX_VALUE, 0));
+      }
+
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void verifySameLevels(BreadthLevels<Integer> expected,
+      BreadthLevels<Integer> actual) {
+
+    assertEquals(expected.visitIdList(), actual.visitIdList());
+    assertEquals(expected.levelSize(), actual.levelSize());
+    assertTrue(Arrays.equals(expected.distances(), actual.distances()));
+
+    for (int level = 0; level < expected.levelSize(); level++)
+      assertEquals(expected.levelIdList(level), actual.levelIdList(level));
+  }
+
+}
@@ -0,0 +1,166 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+public class TestDetailsClosureCache {
+
+  @Test
+  public void testClosureCache__sample() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    ClosureCache<String> cache = ClosureCacheLib.lru(dag, 10);
+
+    assertSame(dag, cache.graph());
+    assertEquals(10, cache.maxSize());
+
+    assertEquals(parseSet("a, b, c, d"), cache.ancestorIdSet("e", false));
+    assertEquals(1, cache.missCount());
+    assertEquals(0, cache.hitCount());
+
+    assertEquals(parseSet("a, b, c, d, e"), cache.ancestorIdSet("e", true));
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.hitCount());
+
+    assertEquals(parseSet("d, e"), cache.descendantIdSet(parseSet("b, c"), false));
+    assertEquals(parseSet("b, c, d, e"), cache.descendantIdSet(parseSet("b, c"), true));
+
+    assertTrue(cache.isAncestorOf("a", "e", false));
+    assertTrue(cache.isDescendantOf("d", "c", false));
+    assertFalse(cache.isDescendantOf("c", "b", false));
+    assertFalse(cache.isDescendantOf("f", "a", false));
+    assertTrue(cache.isDescendantOf("a", "a", true));
+    assertFalse(cache.isDescendantOf("a", "a", false));
+
+    assertEquals(0, cache.evictionCount());
+  }
+
+  @Test
+  public void testClosureCache__matchesGraph() {
+
+    for (long seed = 0; seed < 10; seed++)
+      for (int maxSize : new int[] {0, 1, 5, 1000}) {
+
+        IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 40, 2);
+        verifyClosures(graph, ClosureCacheLib.lru(graph, maxSize));
+        verifyClosures(graph, ClosureCacheLib.lfu(graph, maxSize));
+
+        IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 40, 3);
+        verifyClosures(dag, ClosureCacheLib.lru(dag, maxSize));
+        verifyClosures(dag, ClosureCacheLib.lfu(dag, maxSize));
+      }
+  }
+
+  @Test
+  public void testClosureCache__sharedClosures() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d"), parseMultimap("b = a, c = b, d = c"));
+
+    ClosureCache<String> cache = ClosureCacheLib.lru(dag, 2);
+
+    assertEquals(parseSet("a, b"), cache.ancestorIdSet("b", true));
+
+    // computing "c" reuses (and refreshes) the cached closure of "b"
+    assertEquals(parseSet("a, b, c"), cache.ancestorIdSet("c", true));
+
+    // computing "d" reuses "c", so "b" is the least recently used and gets evicted
+    assertEquals(parseSet("a, b, c, d"), cache.ancestorIdSet("d", true));
+    assertEquals(1, cache.evictionCount());
+
+    long missCount = cache.missCount();
+    cache.ancestorIdSet("c", true);
+    assertEquals(missCount, cache.missCount());
+    cache.ancestorIdSet("b", true);
+    assertEquals(missCount + 1, cache.missCount());
+  }
+
+  @Test
+  public void testClosureCache__eviction() {
+
+    // no arcs, so computing a closure doesn't use (and refresh) other cached closures
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("b, c, d"), ImmutableSetMultimap.<String, String>of());
+
+    // lru: using "b" again makes "c" the least recently used
+    ClosureCache<String> lru = ClosureCacheLib.lru(dag, 2);
+    lru.ancestorIdSet("b", true);
+    lru.ancestorIdSet("b", true);
+    lru.ancestorIdSet("c", true);
+    lru.ancestorIdSet("b", true);
+    lru.ancestorIdSet("d", true);
+    assertEquals(1, lru.evictionCount());
+    assertEquals(2, lru.size());
+
+    long missCount = lru.missCount();
+    lru.ancestorIdSet("b", true);
+    assertEquals(missCount, lru.missCount());
+    lru.ancestorIdSet("c", true);
+    assertEquals(missCount + 1, lru.missCount());
+
+    // lfu: "c" is used more than "b", so "b" is evicted even though it was used more recently
+    ClosureCache<String> lfu = ClosureCacheLib.lfu(dag, 2);
+    lfu.ancestorIdSet("c", true);
+    lfu.ancestorIdSet("c", true);
+    lfu.ancestorIdSet("c", true);
+    lfu.ancestorIdSet("b", true);
+    lfu.ancestorIdSet("d", true);
+    assertEquals(1, lfu.evictionCount());
+    assertEquals(2, lfu.size());
+
+    missCount = lfu.missCount();
+    lfu.ancestorIdSet("c", true);
+    assertEquals(missCount, lfu.missCount());
+    lfu.ancestorIdSet("b", true);
+    assertEquals(missCount + 1, lfu.missCount());
+
+    // nothing is cached with a zero size
+    ClosureCache<String> none = ClosureCacheLib.lru(dag, 0);
+    none.ancestorIdSet("d", true);
+    none.ancestorIdSet("d", true);
+    assertEquals(0, none.size());
+    assertEquals(2, none.missCount());
+    assertEquals(0, none.hitCount());
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static void verifyClosures(IdGraph<Integer> graph, ClosureCache<Integer> cache) {
+
+    // twice, so the second pass reads from the cache
+    for (int pass = 0; pass < 2; pass++)
+      for (Integer id : graph.idSet())
+        for (boolean inclusive : new boolean[] {true, false}) {
+
+          assertEquals(graph.ancestorIdSet(id, inclusive), cache.ancestorIdSet(id, inclusive));
+          assertEquals(graph.descendantIdSet(id, inclusive), cache.descendantIdSet(id, inclusive));
+
+          ImmutableSet<Integer> ids = ImmutableSet.of(id, (id * 7) % graph.idSize());
+          assertEquals(graph.ancestorIdSet(ids, inclusive), cache.ancestorIdSet(ids, inclusive));
+          assertEquals(graph.descendantIdSet(ids, inclusive),
+              cache.descendantIdSet(ids, inclusive));
+
+          Integer other = (id * 3) % graph.idSize();
+          assertEquals(graph.isAncestorOf(id, other, inclusive),
+              cache.isAncestorOf(id, other, inclusive));
+          assertEquals(graph.isDescendantOf(id, other, inclusive),
+              cache.isDescendantOf(id, other, inclusive));
+        }
+
+    assertTrue(cache.size() <= cache.maxSize());
+    if (cache.maxSize() >= 2 * graph.idSize())
+      assertEquals(0, cache.evictionCount());
+  }
+
+}
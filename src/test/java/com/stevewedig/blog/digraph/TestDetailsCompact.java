@@ -0,0 +1,247 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.GraphVerifyLib.*;
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsCompact {
+
+  // ===========================================================================
+  // samples
+  // ===========================================================================
+
+  // same as TestSampleIdGraph (cycles a->b->c->d->a and a->e->a)
+  private static ImmutableSetMultimap<String, String> graphParentMap = parseMultimap(
+      "a = d, a = e, b = a, c = b, d = c, e = a");
+
+  // same as TestSampleIdDag (diamond a, b, c, d)
+  private static ImmutableSetMultimap<String, String> dagParentMap = parseMultimap(
+      "b = a, c = a, d = b, d = c, e = d");
+
+  // same as TestSampleIdTree
+  private static ImmutableSetMultimap<String, String> treeParentMap = parseMultimap(
+      "b = a, c = b, d = c, e = b, f = a, g = f, h = a");
+
+  @Test
+  public void testCompact__samples() {
+
+    IdGraph<String> graph = IdGraphLib.fromParentMap(parseSet("a, b, c, d, e, f"), graphParentMap);
+    verifySameGraph(graph, IdGraphLib.compact(graph));
+    verifySameGraph(graph, IdGraphLib.compactFromParentMap(graph.idSet(), graphParentMap));
+
+    IdDag<String> dag = IdDagLib.fromParentMap(dagParentMap);
+    verifySameDag(dag, IdDagLib.compact(dag));
+    verifySameDag(dag, IdDagLib.compactFromParentMap(dag.idSet(), dagParentMap));
+
+    IdTree<String> tree = IdTreeLib.fromParentMap(treeParentMap);
+    verifySameTree(tree, IdTreeLib.compact(tree));
+    verifySameTree(tree, IdTreeLib.compactFromParentMap(tree.idSet(), treeParentMap));
+  }
+
+  @Test
+  public void testCompact__unknownIds() {
+
+    IdDag<String> dag = IdDagLib.fromParentMap(dagParentMap);
+
+    for (IdDag<String> other : ImmutableList.of(IdDagLib.compact(dag), IdDagLib.view(dag)))
+      for (boolean inclusive : new boolean[] {true, false}) {
+
+        // ids a graph doesn't contain are treated as isolated ids
+        assertEquals(dag.ancestorIdSet("z", inclusive), other.ancestorIdSet("z", inclusive));
+        assertEquals(dag.descendantIdSet("z", inclusive), other.descendantIdSet("z", inclusive));
+
+        assertEquals(dag.ancestorIdSet(parseSet("z, d"), inclusive),
+            other.ancestorIdSet(parseSet("z, d"), inclusive));
+        assertEquals(dag.descendantIdSet(parseSet("z, b"), inclusive),
+            other.descendantIdSet(parseSet("z, b"), inclusive));
+
+        assertEquals(dag.findAncestor("z", inclusive, Predicates.equalTo("z")),
+            other.findAncestor("z", inclusive, Predicates.equalTo("z")));
+        assertEquals(dag.findDescendant("z", inclusive, Predicates.equalTo("z")),
+            other.findDescendant("z", inclusive, Predicates.equalTo("z")));
+
+        assertEquals(dag.countAncestorsUntil("z", inclusive, Predicates.<String>alwaysFalse()),
+            other.countAncestorsUntil("z", inclusive, Predicates.<String>alwaysFalse()));
+        assertEquals(dag.countDescendantsUntil("z", inclusive, Predicates.<String>alwaysFalse()),
+            other.countDescendantsUntil("z", inclusive, Predicates.<String>alwaysFalse()));
+
+        assertEquals(dag.isDescendantOf("z", "z", inclusive),
+            other.isDescendantOf("z", "z", inclusive));
+      }
+
+    IdDag<String> compact = IdDagLib.compact(dag);
+    assertEquals(parseSet("z"), compact.ancestorIdSet("z", true));
+    assertEquals(parseSet("z"), compact.transitiveClosure().ancestorIdSet("z", true));
+  }
+
+  @Test
+  public void testCompact__random() {
+
+    for (long seed = 0; seed < 10; seed++) {
+
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 30, 2);
+      verifySameGraph(graph, IdGraphLib.compact(graph));
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 30, 3);
+      verifySameDag(dag, IdDagLib.compact(dag));
+
+      IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 30);
+      verifySameTree(tree, IdTreeLib.compact(tree));
+    }
+  }
+
+  // ===========================================================================
+  // subgraphs
+  // ===========================================================================
+
+  @Test
+  public void testCompact__subgraphs() {
+
+    IdDag<String> dag = IdDagLib.fromParentMap(dagParentMap);
+    IdDag<String> compactDag = IdDagLib.compact(dag);
+
+    verifySameDag(dag.filterIdGraph(parseSet("a, b, c")),
+        compactDag.filterIdGraph(parseSet("a, b, c")));
+
+    verifySameDag(dag.ancestorIdGraph("d", false), compactDag.ancestorIdGraph("d", false));
+    verifySameDag(dag.descendantIdGraph("b", true), compactDag.descendantIdGraph("b", true));
+
+    // subgraphs stay compact
+    assertTrue(compactDag.filterIdGraph(parseSet("a, b")) instanceof CompactIdDagClass);
+
+    IdTree<String> tree = IdTreeLib.fromParentMap(treeParentMap);
+    IdTree<String> compactTree = IdTreeLib.compact(tree);
+
+    verifySameTree(tree.descendantIdTree("b"), compactTree.descendantIdTree("b"));
+    verifySameTree(tree.ancestorIdGraph("d", true), compactTree.ancestorIdGraph("d", true));
+  }
+
+  // ===========================================================================
+  // validation
+  // ===========================================================================
+
+  @Test
+  public void testCompact__validation() {
+
+    try {
+      IdGraphLib.compactFromParentMap(parseSet("a"), parseMultimap("a = missing"));
+      throw new NotThrown(GraphHadUnexpectedIds.class);
+    } catch (GraphHadUnexpectedIds e) {
+    }
+
+    try {
+      IdDagLib.compactFromParentMap(parseSet("a, b"), parseMultimap("a = b, b = a"));
+      throw new NotThrown(DagCannotHaveCycle.class);
+    } catch (DagCannotHaveCycle e) {
+    }
+
+    try {
+      IdTreeLib.compactFromParentMap(parseSet("a, b, c"), parseMultimap("c = a, c = b"));
+      throw new NotThrown(TreeCannotHaveMultipleRoots.class);
+    } catch (TreeCannotHaveMultipleRoots e) {
+    }
+
+    try {
+      IdTreeLib.compactFromParentMap(parseSet("a, b, c, d"), parseMultimap("b = a, c = a, d = b, d = c"));
+      throw new NotThrown(TreeNodesCannotHaveMultipleParents.class);
+    } catch (TreeNodesCannotHaveMultipleParents e) {
+    }
+
+    try {
+      IdTreeLib.compactFromParentMap(parseSet(""), parseMultimap(""));
+      throw new NotThrown(TreeCannotBeEmpty.class);
+    } catch (TreeCannotBeEmpty e) {
+    }
+  }
+
+  // ===========================================================================
+  // IntGraph
+  // ===========================================================================
+
+  @Test
+  public void testIntGraph() {
+
+    // 0 -> 1, 0 -> 2, 1 -> 2, with a duplicate 0 -> 1 arc
+    IntGraph intGraph = IntGraphLib.fromArcs(3, new int[] {1, 2, 2, 1}, new int[] {0, 0, 1, 0}, 4);
+
+    assertEquals(3, intGraph.indexSize());
+    assertEquals(3, intGraph.arcSize());
+
+    assertEquals(2, intGraph.childCount(0));
+    assertEquals(1, intGraph.childIndex(0, 0));
+    assertEquals(2, intGraph.childIndex(0, 1));
+
+    assertEquals(2, intGraph.parentCount(2));
+    assertEquals(0, intGraph.parentIndex(2, 0));
+    assertEquals(1, intGraph.parentIndex(2, 1));
+
+    assertTrue(intGraph.isParentOf(0, 1));
+    assertTrue(intGraph.isChildOf(2, 1));
+    assertFalse(intGraph.isParentOf(2, 0));
+
+    // inverse swaps parents and children
+    IntGraph inverse = intGraph.inverse();
+    assertEquals(2, inverse.parentCount(0));
+    assertEquals(0, inverse.childCount(0));
+    assertTrue(inverse.isParentOf(2, 0));
+    assertSame(intGraph, inverse.inverse().inverse().inverse());
+
+    try {
+      IntGraphLib.fromArcs(2, new int[] {2}, new int[] {0}, 1);
+      throw new NotThrown(GraphHadUnexpectedIds.class);
+    } catch (GraphHadUnexpectedIds e) {
+    }
+  }
+
+  @Test
+  public void testIntGraph__arcBuilder() {
+
+    // starts below its capacity of 4, so it grows
+    IntArcBuilder arcs = IntGraphLib.arcBuilder(0);
+
+    for (int index = 1; index < 10; index++)
+      arcs.addArc(index - 1, index).addArc(0, index);
+
+    assertEquals(18, arcs.arcSize());
+
+    // 0 -> 1 was added twice
+    IntGraph intGraph = arcs.build(10);
+
+    assertEquals(17, intGraph.arcSize());
+    assertEquals(9, intGraph.childCount(0));
+    assertEquals(1, intGraph.childIndex(0, 0));
+    assertEquals(2, intGraph.parentCount(9));
+    assertEquals(8, intGraph.parentIndex(9, 0));
+
+    try {
+      arcs.build(9);
+      throw new NotThrown(GraphHadUnexpectedIds.class);
+    } catch (GraphHadUnexpectedIds e) {
+    }
+  }
+
+  @Test
+  public void testIdIndex() {
+
+    IdIndex<String> idIndex = IdIndexLib.fromIds("b", "a", "b", "c");
+
+    assertEquals(3, idIndex.indexSize());
+    assertEquals(parseList("b, a, c"), idIndex.idList());
+    assertEquals(parseSet("a, b, c"), idIndex.idSet());
+
+    assertEquals("a", idIndex.id(1));
+    assertEquals(1, idIndex.index("a"));
+    assertEquals(-1, idIndex.indexOf("missing"));
+    assertFalse(idIndex.containsId("missing"));
+  }
+
+}
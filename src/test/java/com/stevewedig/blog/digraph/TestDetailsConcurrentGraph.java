@@ -0,0 +1,185 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.node.UpNodeLib.upNode;
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.node.UpNode;
+import com.stevewedig.blog.digraph.node_graph.*;
+import com.stevewedig.blog.digraph.parallel.*;
+import com.stevewedig.blog.digraph.persistent.*;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+public class TestDetailsConcurrentGraph {
+
+  @Test
+  public void testConcurrentGraph__indexed() {
+
+    IdDag<Integer> dag = RandomGraphLib.randomDag(0, 300, 3);
+    IdDag<Integer> indexedDag = ConcurrentGraphLib.indexed(dag);
+
+    assertSameArcs(dag, indexedDag);
+    assertEquals(dag.topsortIdList(), indexedDag.topsortIdList());
+    assertEquals(dag.rootIdSet(), indexedDag.rootIdSet());
+
+    // neighbor lists are cached while indexing, so reads return the same lists
+    for (Integer id : dag.idSet()) {
+      assertEquals(dag.parentIdList(id), indexedDag.parentIdList(id));
+      assertSame(indexedDag.parentIdList(id), indexedDag.parentIdList(id));
+      assertSame(indexedDag.childIdList(id), indexedDag.childIdList(id));
+    }
+
+    IdGraph<Integer> graph = RandomGraphLib.randomGraph(0, 300, 2);
+    assertSameArcs(graph, ConcurrentGraphLib.indexed(graph));
+
+    IdTree<Integer> tree = RandomGraphLib.randomTree(0, 300);
+    IdTree<Integer> indexedTree = ConcurrentGraphLib.indexed(tree);
+    assertSameArcs(tree, indexedTree);
+    assertEquals(tree.rootId(), indexedTree.rootId());
+
+    Dag<String, UpNode<String>> nodeDag =
+        DagLib.up(upNode("a"), upNode("b", "a"), upNode("c", "a"), upNode("d", "b", "c"));
+    Dag<String, UpNode<String>> indexedNodeDag = ConcurrentGraphLib.indexed(nodeDag);
+
+    assertSameArcs(nodeDag, indexedNodeDag);
+    assertEquals(nodeDag.id__node(), indexedNodeDag.id__node());
+    assertEquals(nodeDag.topsortNodeList(), indexedNodeDag.topsortNodeList());
+    assertEquals(ImmutableSet.of(nodeDag.getNode("a")), indexedNodeDag.rootNodeSet());
+  }
+
+  @Test
+  public void testConcurrentGraph__versions() {
+
+    GraphHolder<IdDag<String>> holder =
+        ConcurrentGraphLib.indexedHolder(IdDagLib.fromParentMap(parseSet("a, b"),
+            parseMultimap("b = a")));
+
+    assertEquals(0, holder.version());
+
+    IdDag<String> next =
+        IdDagLib.fromParentMap(parseSet("a, b, c"), parseMultimap("b = a, c = b"));
+
+    GraphVersion<IdDag<String>> published = holder.publish(next);
+    assertEquals(1, published.version());
+    assertSameArcs(next, holder.graph());
+    assertSame(published, holder.current());
+
+    // stale writers lose
+    assertEquals(Optional.absent(), holder.publish(0, next));
+    assertTrue(holder.publish(1, next).isPresent());
+    assertEquals(2, holder.version());
+
+    GraphVersion<IdDag<String>> updated = holder.update(new Fn1<IdDag<String>, IdDag<String>>() {
+      @Override
+      public IdDag<String> apply(IdDag<String> dag) {
+        return dag.filterIdGraph(parseSet("a, b"));
+      }
+    });
+
+    assertEquals(3, updated.version());
+    assertEquals(parseSet("a, b"), holder.graph().idSet());
+  }
+
+  @Test
+  public void testConcurrentGraph__readersAndWriters() throws Exception {
+
+    final GraphHolder<PersistentIdDag<Integer>> holder =
+        ConcurrentGraphLib.holder(PersistentIdDagLib.<Integer>empty().withId(0));
+
+    final int writerCount = 4;
+    final int writeSize = 200;
+
+    ExecutorService pool = Executors.newFixedThreadPool(writerCount + 2);
+
+    try {
+      final AtomicBoolean writing = new AtomicBoolean(true);
+
+      List<Future<Integer>> readers = new ArrayList<>();
+
+      for (int i = 0; i < 2; i++)
+        readers.add(pool.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() {
+
+            int reads = 0;
+            long lastVersion = 0;
+
+            while (writing.get()) {
+
+              GraphVersion<PersistentIdDag<Integer>> current = holder.current();
+
+              // versions only move forward, and each version is a consistent dag
+              assertTrue(current.version() >= lastVersion);
+              assertEquals(ImmutableSet.of(0), current.graph().rootIdSet());
+              assertEquals(current.graph().idSize(), current.graph().topsortIdList().size());
+
+              lastVersion = current.version();
+              reads++;
+            }
+
+            return reads;
+          }
+        }));
+
+      List<Future<?>> writers = new ArrayList<>();
+
+      for (int w = 0; w < writerCount; w++) {
+
+        final int writer = w;
+
+        writers.add(pool.submit(new Runnable() {
+          @Override
+          public void run() {
+            for (int i = 0; i < writeSize; i++) {
+
+              final int id = 1 + writer * writeSize + i;
+
+              holder.update(new Fn1<PersistentIdDag<Integer>, PersistentIdDag<Integer>>() {
+                @Override
+                public PersistentIdDag<Integer> apply(PersistentIdDag<Integer> dag) {
+                  return dag.withId(id).withEdge(0, id);
+                }
+              });
+            }
+          }
+        }));
+      }
+
+      for (Future<?> writer : writers)
+        writer.get();
+
+      writing.set(false);
+
+      for (Future<Integer> reader : readers)
+        reader.get();
+
+    } finally {
+      pool.shutdown();
+    }
+
+    // no update was lost
+    assertEquals(writerCount * writeSize, holder.version());
+    assertEquals(1 + writerCount * writeSize, holder.graph().idSize());
+    assertEquals(writerCount * writeSize, holder.graph().childIdSet(0).size());
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  // equals() also compares the implementation class
+  private static <Id> void assertSameArcs(IdGraph<Id> expected, IdGraph<Id> actual) {
+    assertEquals(expected.idSet(), actual.idSet());
+    assertEquals(expected.id__parentIds(), actual.id__parentIds());
+  }
+
+}
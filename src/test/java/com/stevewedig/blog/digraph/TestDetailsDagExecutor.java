@@ -0,0 +1,229 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.parallel.*;
+import com.stevewedig.blog.util.LambdaLib.Act1;
+
+public class TestDetailsDagExecutor {
+
+  @Test
+  public void testDagExecutor__sample() throws InterruptedException {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+
+      final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+
+      DagExecution<String> execution = DagExecutorLib.execute(dag, new Act1<String>() {
+        @Override
+        public void apply(String id) {
+          order.add(id);
+        }
+      }, executor);
+
+      assertTrue(execution.succeeded());
+      assertEquals(dag.idSet(), execution.completedIdSet());
+      assertEquals(ImmutableMap.of(), execution.id__error());
+      assertEquals(ImmutableSet.of(), execution.cancelledIdSet());
+      assertEquals(dag.idSet(), execution.id__durationNanos().keySet());
+      assertEquals(dag.idSet(), execution.id__startNanos().keySet());
+      assertTrue(execution.wallNanos() >= 0);
+      assertTrue(execution.taskNanos() >= 0);
+
+      GraphVerifyLib.verifyTopsort(dag, ImmutableList.copyOf(order));
+      GraphVerifyLib.verifyTopsort(dag, execution.completedIdSet().asList());
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDagExecutor__failureCancelsDescendants() throws InterruptedException {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    final RuntimeException error = new RuntimeException("b failed");
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+
+      DagExecution<String> execution = DagExecutorLib.execute(dag, new Act1<String>() {
+        @Override
+        public void apply(String id) {
+          if (id.equals("b"))
+            throw error;
+        }
+      }, executor);
+
+      assertFalse(execution.succeeded());
+      assertEquals(parseSet("a, c, f"), execution.completedIdSet());
+      assertEquals(ImmutableMap.of("b", error), execution.id__error());
+      assertEquals(parseSet("d, e"), execution.cancelledIdSet());
+      assertEquals(parseSet("a, b, c, f"), execution.id__durationNanos().keySet());
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDagExecutor__rejected() throws InterruptedException {
+
+    // a wide dag, where id 0 is the parent of every other id
+    final int childSize = 100000;
+
+    ImmutableSet.Builder<Integer> ids = ImmutableSet.builder();
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    ids.add(0);
+    for (int id = 1; id <= childSize; id++) {
+      ids.add(id);
+      id__parentIds.put(id, 0);
+    }
+
+    final IdDag<Integer> dag = IdDagLib.fromParentMap(ids.build(), id__parentIds.build());
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // id 0 shuts the executor down, so all of its children become ready at once and are rejected
+    final Act1<Integer> task = new Act1<Integer>() {
+      @Override
+      public void apply(Integer id) {
+        if (id == 0)
+          executor.shutdown();
+      }
+    };
+
+    final AtomicReference<DagExecution<Integer>> result = new AtomicReference<>();
+
+    // the rejections used to recurse once per id, overflowing the stack and never finishing
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          result.set(DagExecutorLib.execute(dag, task, executor));
+        } catch (InterruptedException e) {
+        }
+      }
+    });
+
+    thread.setDaemon(true);
+    thread.start();
+    thread.join(60000);
+
+    assertFalse("execution did not finish", thread.isAlive());
+
+    DagExecution<Integer> execution = result.get();
+
+    assertFalse(execution.succeeded());
+    assertEquals(ImmutableSet.of(0), execution.completedIdSet());
+    assertEquals(childSize, execution.id__error().size());
+
+    for (Throwable error : execution.id__error().values())
+      assertTrue(error instanceof RejectedExecutionException);
+  }
+
+  @Test
+  public void testDagExecutor__boundedParallelism() throws InterruptedException {
+
+    // a random forest, so many ids are ready at the same time
+    IdDag<Integer> dag = RandomGraphLib.randomDag(0, 40, 1);
+
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger peak = new AtomicInteger();
+
+    ForkJoinPool pool = new ForkJoinPool(8);
+    try {
+
+      DagExecution<Integer> execution = DagExecutorLib.execute(dag, new Act1<Integer>() {
+        @Override
+        public void apply(Integer id) {
+
+          int current = running.incrementAndGet();
+
+          synchronized (peak) {
+            peak.set(Math.max(peak.get(), current));
+          }
+
+          try {
+            Thread.sleep(1);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+
+          running.decrementAndGet();
+        }
+      }, pool, 2);
+
+      assertTrue(execution.succeeded());
+      assertTrue(peak.get() <= 2);
+      assertTrue(execution.peakParallelism() <= 2);
+
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testDagExecutor__randomDags() throws InterruptedException {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+
+      for (long seed = 0; seed < 10; seed++) {
+
+        final IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 200, 3);
+
+        // each task checks that its parents completed
+        final ConcurrentHashMap<Integer, Boolean> completed = new ConcurrentHashMap<>();
+        final AtomicInteger violations = new AtomicInteger();
+
+        for (int maxParallelism : new int[] {1, 3, Integer.MAX_VALUE}) {
+
+          completed.clear();
+
+          DagExecution<Integer> execution = DagExecutorLib.execute(dag, new Act1<Integer>() {
+            @Override
+            public void apply(Integer id) {
+              for (Integer parentId : dag.parentIdSet(id))
+                if (!completed.containsKey(parentId))
+                  violations.incrementAndGet();
+              completed.put(id, true);
+            }
+          }, executor, maxParallelism);
+
+          assertTrue(execution.succeeded());
+          assertEquals(dag.idSet(), execution.completedIdSet());
+          assertEquals(0, violations.get());
+        }
+      }
+
+      // empty dag
+      IdDag<Integer> empty = RandomGraphLib.randomDag(0, 0, 0);
+      assertTrue(DagExecutorLib.execute(empty, new Act1<Integer>() {
+        @Override
+        public void apply(Integer id) {}
+      }, executor).succeeded());
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
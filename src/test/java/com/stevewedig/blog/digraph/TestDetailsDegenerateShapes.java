@@ -0,0 +1,475 @@
+package com.stevewedig.blog.digraph;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.IntGraph;
+import com.stevewedig.blog.digraph.persistent.PersistentIdDagLib;
+
+/**
+ * Chains, stars, and complete bipartite layers, checking that queries don't overflow the stack on
+ * deep graphs, and that their work grows linearly (counted deterministically, so not timing based).
+ */
+public class TestDetailsDegenerateShapes {
+
+  // the large shapes have about 4 times the ids and arcs
+  private static final int smallSize = 4000;
+
+  // allowed growth in work per id and arc, quadratic work grows by about 4
+  private static final double maxGrowth = 1.5;
+
+  @Test
+  public void testDegenerateShapes__stackSafe() throws Exception {
+
+    final ImmutableSetMultimap<Integer, Integer> chain = chain(100000);
+
+    // a small stack, so recursion over the chain would overflow
+    final Throwable[] error = {null};
+
+    Thread thread = new Thread(null, new Runnable() {
+      @Override
+      public void run() {
+        try {
+
+          IdTree<Integer> tree = IdTreeLib.fromParentMap(ids(100000), chain);
+
+          for (IdDag<Integer> dag : ImmutableList.of(tree, IdTreeLib.compact(tree),
+              IdTreeLib.view(tree), PersistentIdDagLib.fromIdDag(tree)))
+            for (Query query : queries(dag instanceof IdTree).values())
+              query.run(dag, 0, 99999);
+
+        } catch (Throwable e) {
+          error[0] = e;
+        }
+      }
+    }, "deep", 256 * 1024);
+
+    // a bounded wait fails quadratic regressions instead of hanging
+    thread.setDaemon(true);
+    thread.start();
+    thread.join(120000);
+
+    assertFalse("deep graph queries did not finish", thread.isAlive());
+
+    if (error[0] != null)
+      throw new AssertionError(error[0]);
+  }
+
+  @Test
+  public void testDegenerateShapes__compactWork() {
+
+    for (Map.Entry<String, Query> entry : queries(true).entrySet()) {
+      assertLinear("chain " + entry.getKey(), compactWork(true, smallSize, 1, entry.getValue()),
+          compactWork(true, 4 * smallSize, 1, entry.getValue()));
+      assertLinear("star " + entry.getKey(), compactWork(true, smallSize, 2, entry.getValue()),
+          compactWork(true, 4 * smallSize, 2, entry.getValue()));
+    }
+
+    for (Map.Entry<String, Query> entry : queries(false).entrySet())
+      assertLinear("bipartite " + entry.getKey(),
+          compactWork(false, smallSize, 3, entry.getValue()),
+          compactWork(false, 4 * smallSize, 3, entry.getValue()));
+  }
+
+  @Test
+  public void testDegenerateShapes__idWork() {
+
+    for (Map.Entry<String, Query> entry : queries(true).entrySet()) {
+      assertLinear("chain " + entry.getKey(), idWork(true, smallSize, 1, entry.getValue()),
+          idWork(true, 4 * smallSize, 1, entry.getValue()));
+      assertLinear("star " + entry.getKey(), idWork(true, smallSize, 2, entry.getValue()),
+          idWork(true, 4 * smallSize, 2, entry.getValue()));
+    }
+
+    for (Map.Entry<String, Query> entry : queries(false).entrySet())
+      assertLinear("bipartite " + entry.getKey(), idWork(false, smallSize, 3, entry.getValue()),
+          idWork(false, 4 * smallSize, 3, entry.getValue()));
+  }
+
+  // ===========================================================================
+  // queries
+  // ===========================================================================
+
+  private abstract static class Query {
+    abstract <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId);
+  }
+
+  private static ImmutableMap<String, Query> queries(boolean tree) {
+
+    ImmutableMap.Builder<String, Query> queries = ImmutableMap.builder();
+
+    queries.put("topsortIdList", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.topsortIdList();
+      }
+    });
+
+    queries.put("depthIdList", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.depthIdList();
+      }
+    });
+
+    queries.put("breadthIdList", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.breadthIdList();
+      }
+    });
+
+    queries.put("ancestorIdSet", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.ancestorIdSet(lastId, true);
+      }
+    });
+
+    queries.put("descendantIdSet", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.descendantIdSet(firstId, true);
+      }
+    });
+
+    queries.put("isAncestorOf", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.isAncestorOf(firstId, lastId, false);
+      }
+    });
+
+    queries.put("strongComponents", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.strongComponents();
+      }
+    });
+
+    queries.put("reachabilityIndex", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.reachabilityIndex().isAncestorOf(firstId, lastId, false);
+      }
+    });
+
+    queries.put("structureHash", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.structureHash();
+      }
+    });
+
+    queries.put("criticalPathIdList", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return WeightedPathLib.criticalPathIdList(dag, ArcWeightsLib.uniform(dag, 1));
+      }
+    });
+
+    queries.put("filterIdGraph", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return dag.filterIdGraph(dag.idSet());
+      }
+    });
+
+    if (!tree)
+      return queries.build();
+
+    queries.put("ancestorIdList", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return ((IdTree<Id>) dag).ancestorIdList(lastId, true);
+      }
+    });
+
+    queries.put("maxDepth", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return ((IdTree<Id>) dag).maxDepth();
+      }
+    });
+
+    queries.put("mostDeep", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return ((IdTree<Id>) dag).mostDeep(dag.idSet());
+      }
+    });
+
+    queries.put("isDescendantOf (every id)", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+
+        IdTree<Id> tree = (IdTree<Id>) dag;
+
+        int count = 0;
+        for (Id id : tree.idSet())
+          if (tree.isDescendantOf(lastId, id, true))
+            count++;
+
+        return count;
+      }
+    });
+
+    queries.put("lowestCommonAncestor", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return ((IdTree<Id>) dag).lowestCommonAncestor(lastId, firstId);
+      }
+    });
+
+    queries.put("descendantIdTree", new Query() {
+      @Override
+      <Id> Object run(IdDag<Id> dag, Id firstId, Id lastId) {
+        return ((IdTree<Id>) dag).descendantIdTree(firstId);
+      }
+    });
+
+    return queries.build();
+  }
+
+  // ===========================================================================
+  // shapes
+  // ===========================================================================
+
+  // each id's parent is the previous id
+  private static ImmutableSetMultimap<Integer, Integer> chain(int size) {
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < size; id++)
+      id__parentIds.put(id, id - 1);
+
+    return id__parentIds.build();
+  }
+
+  // every id's parent is id 0
+  private static ImmutableSetMultimap<Integer, Integer> star(int size) {
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 1; id < size; id++)
+      id__parentIds.put(id, 0);
+
+    return id__parentIds.build();
+  }
+
+  // 4 layers, every id's parents are all of the previous layer's ids
+  private static ImmutableSetMultimap<Integer, Integer> bipartite(int width) {
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int layer = 1; layer < 4; layer++)
+      for (int i = 0; i < width; i++)
+        for (int j = 0; j < width; j++)
+          id__parentIds.put(layer * width + i, (layer - 1) * width + j);
+
+    return id__parentIds.build();
+  }
+
+  private static ImmutableSet<Integer> ids(int size) {
+    return ImmutableSet.copyOf(ContiguousSet.create(Range.closedOpen(0, size),
+        DiscreteDomain.integers()));
+  }
+
+  // shape 1 is a chain, 2 a star, and 3 bipartite layers with about size arcs
+  private static ImmutableSetMultimap<Integer, Integer> shape(int size, int shape) {
+    if (shape == 1)
+      return chain(size);
+    else if (shape == 2)
+      return star(size);
+    else
+      return bipartite(bipartiteWidth(size));
+  }
+
+  // the ids are 0 until idSize, so the last id is the end of the chain or in the last layer
+  private static int idSize(int size, int shape) {
+    return shape == 3 ? 4 * bipartiteWidth(size) : size;
+  }
+
+  // 3 layers of width^2 arcs
+  private static int bipartiteWidth(int size) {
+    return (int) Math.sqrt(size / 3);
+  }
+
+  // ===========================================================================
+  // counting work
+  // ===========================================================================
+
+  private static class Work {
+
+    final long count;
+    final int size;
+
+    Work(long count, int size) {
+      this.count = count;
+      this.size = size;
+    }
+  }
+
+  private static void assertLinear(String name, Work small, Work large) {
+
+    double smallRate = (double) small.count / small.size;
+    double largeRate = (double) large.count / large.size;
+
+    assertTrue(String.format("%s: %.1f -> %.1f per id and arc", name, smallRate, largeRate),
+        largeRate <= maxGrowth * smallRate + 1);
+  }
+
+  // IntGraph calls by a compact graph
+  private static Work compactWork(boolean tree, int size, int shape, Query query) {
+
+    ImmutableSetMultimap<Integer, Integer> id__parentIds = shape(size, shape);
+    int idSize = idSize(size, shape);
+
+    IdDag<Integer> dag = IdDagLib.fromParentMap(ids(idSize), id__parentIds);
+
+    long[] counter = {0};
+    CountingIntGraph intGraph = new CountingIntGraph(dag.intGraph(), counter);
+
+    IdDag<Integer> compact =
+        tree ? IdTreeLib.compact(dag.idIndex(), intGraph) : IdDagLib.compact(dag.idIndex(),
+            intGraph);
+
+    counter[0] = 0;
+    query.run(compact, 0, idSize - 1);
+
+    return new Work(counter[0], idSize + id__parentIds.size());
+  }
+
+  // hashCode() and equals() calls on the ids of a multimap based graph
+  private static Work idWork(boolean tree, int size, int shape, Query query) {
+
+    ImmutableSetMultimap<Integer, Integer> id__parentIds = shape(size, shape);
+    int idSize = idSize(size, shape);
+
+    long[] counter = {0};
+
+    CountingId[] countingIds = new CountingId[idSize];
+    for (int id = 0; id < idSize; id++)
+      countingIds[id] = new CountingId(id, counter);
+
+    ImmutableSetMultimap.Builder<CountingId, CountingId> countingParentIds =
+        ImmutableSetMultimap.builder();
+
+    for (Map.Entry<Integer, Integer> entry : id__parentIds.entries())
+      countingParentIds.put(countingIds[entry.getKey()], countingIds[entry.getValue()]);
+
+    ImmutableSet<CountingId> idSet = ImmutableSet.copyOf(countingIds);
+
+    IdDag<CountingId> dag =
+        tree ? IdTreeLib.fromParentMap(idSet, countingParentIds.build()) : IdDagLib
+            .fromParentMap(idSet, countingParentIds.build());
+
+    counter[0] = 0;
+    query.run(dag, countingIds[0], countingIds[idSize - 1]);
+
+    return new Work(counter[0], idSize + id__parentIds.size());
+  }
+
+  // ===================================
+
+  private static class CountingId {
+
+    private final int id;
+    private final long[] counter;
+
+    CountingId(int id, long[] counter) {
+      this.id = id;
+      this.counter = counter;
+    }
+
+    @Override
+    public int hashCode() {
+      counter[0]++;
+      return id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      counter[0]++;
+      return other instanceof CountingId && ((CountingId) other).id == id;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(id);
+    }
+  }
+
+  private static class CountingIntGraph implements IntGraph {
+
+    private final IntGraph intGraph;
+    private final long[] counter;
+
+    CountingIntGraph(IntGraph intGraph, long[] counter) {
+      this.intGraph = intGraph;
+      this.counter = counter;
+    }
+
+    @Override
+    public int indexSize() {
+      return intGraph.indexSize();
+    }
+
+    @Override
+    public int arcSize() {
+      return intGraph.arcSize();
+    }
+
+    @Override
+    public boolean isParentOf(int index, int potentialChild) {
+      counter[0]++;
+      return intGraph.isParentOf(index, potentialChild);
+    }
+
+    @Override
+    public int parentCount(int index) {
+      counter[0]++;
+      return intGraph.parentCount(index);
+    }
+
+    @Override
+    public int parentIndex(int index, int position) {
+      counter[0]++;
+      return intGraph.parentIndex(index, position);
+    }
+
+    @Override
+    public boolean isChildOf(int index, int potentialParent) {
+      counter[0]++;
+      return intGraph.isChildOf(index, potentialParent);
+    }
+
+    @Override
+    public int childCount(int index) {
+      counter[0]++;
+      return intGraph.childCount(index);
+    }
+
+    @Override
+    public int childIndex(int index, int position) {
+      counter[0]++;
+      return intGraph.childIndex(index, position);
+    }
+
+    @Override
+    public IntGraph inverse() {
+      if (inverse == null)
+        inverse = new CountingIntGraph(intGraph.inverse(), counter);
+      return inverse;
+    }
+
+    private IntGraph inverse;
+  }
+
+}
@@ -0,0 +1,168 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.EdgeListWasMalformed;
+import com.stevewedig.blog.digraph.file.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsEdgeList {
+
+  @Test
+  public void testEdgeList__text() throws IOException {
+
+    Path path = Files.createTempFile("edges", ".txt");
+    try {
+
+      String text =
+          "# comment\n" + "a b\n" + "a\tc\r\n" + "\n" + "  b d  \n" + "c d\n" + "a b\n" + "e\n"
+              + "d \u00e9";
+
+      Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+
+      IdGraph<String> expected =
+          IdGraphLib.fromParentMap(parseSet("a, b, c, d, e, \u00e9"),
+              parseMultimap("b = a, c = a, d = b, d = c, \u00e9 = d"));
+
+      // small windows split lines across mappings
+      for (int windowSize : new int[] {EdgeListLib.defaultWindowSize, 16, 11}) {
+
+        EdgeListLoad<String> load = EdgeListLib.loadText(path, windowSize);
+
+        GraphVerifyLib.verifySameGraph(expected, load.idGraph());
+
+        // duplicates are counted but not kept
+        assertEquals(6, load.arcSize());
+        assertEquals(5, load.idGraph().intGraph().arcSize());
+
+        assertEquals(Files.size(path), load.byteSize());
+        assertTrue(load.loadNanos() > 0);
+        assertTrue(load.bytesPerSecond() > 0);
+        assertTrue(load.arcsPerSecond() > 0);
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testEdgeList__malformedText() throws IOException {
+
+    Path path = Files.createTempFile("edges", ".txt");
+    try {
+
+      Files.write(path, "a b c\n".getBytes(StandardCharsets.UTF_8));
+
+      try {
+        EdgeListLib.loadText(path);
+        throw new NotThrown(EdgeListWasMalformed.class);
+      } catch (EdgeListWasMalformed e) {
+      }
+
+      Files.write(path, "longParentId longChildId\na b\n".getBytes(StandardCharsets.UTF_8));
+
+      try {
+        EdgeListLib.loadText(path, 8);
+        throw new NotThrown(EdgeListWasMalformed.class);
+      } catch (EdgeListWasMalformed e) {
+      }
+
+      try {
+        EdgeListLib.loadText(path, 0);
+        throw new NotThrown(IllegalArgumentException.class);
+      } catch (IllegalArgumentException e) {
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testEdgeList__textRoundTrip() throws IOException {
+
+    IdGraph<Integer> graph = RandomGraphLib.randomGraph(0, 3000, 3);
+
+    Path path = Files.createTempFile("edges", ".txt");
+    try {
+
+      EdgeListLib.writeText(graph, path);
+
+      IdGraph<String> loaded = EdgeListLib.loadText(path, 1024).idGraph();
+
+      assertEquals(graph.idSize(), loaded.idSize());
+
+      for (Integer id : graph.idSet()) {
+
+        ImmutableSet.Builder<String> childIds = ImmutableSet.builder();
+        for (Integer childId : graph.childIdSet(id))
+          childIds.add(childId.toString());
+
+        assertEquals(childIds.build(), loaded.childIdSet(id.toString()));
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testEdgeList__binaryRoundTrip() throws IOException {
+
+    IdGraph<Integer> graph = RandomGraphLib.randomGraph(1, 300, 2);
+
+    // ids without arcs aren't stored
+    ImmutableSet.Builder<Integer> arcIds = ImmutableSet.builder();
+    for (Integer id : graph.idSet())
+      if (!graph.parentIdSet(id).isEmpty() || !graph.childIdSet(id).isEmpty())
+        arcIds.add(id);
+
+    IdGraph<Integer> expected = graph.filterIdGraph(arcIds.build());
+
+    Path path = Files.createTempFile("edges", ".bin");
+    try {
+
+      EdgeListLib.writeBinary(graph, path);
+
+      for (int windowSize : new int[] {EdgeListLib.defaultWindowSize, 100}) {
+
+        EdgeListLoad<Integer> load = EdgeListLib.loadBinary(path, windowSize);
+
+        GraphVerifyLib.verifySameGraph(expected, load.idGraph());
+        assertEquals(Files.size(path) / 8, load.arcSize());
+      }
+
+      // windows too small to hold a pair
+      for (int windowSize : new int[] {7, 0, -8}) {
+        try {
+          EdgeListLib.loadBinary(path, windowSize);
+          throw new NotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+        }
+      }
+
+      // a partial pair
+      Files.write(path, new byte[] {0, 0, 0, 1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+      try {
+        EdgeListLib.loadBinary(path);
+        throw new NotThrown(EdgeListWasMalformed.class);
+      } catch (EdgeListWasMalformed e) {
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+}
@@ -0,0 +1,127 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.node.DownNodeLib.downNode;
+import static com.stevewedig.blog.digraph.node.UpNodeLib.upNode;
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.node.*;
+import com.stevewedig.blog.digraph.node_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsGraphBuilder {
+
+  @Test
+  public void testGraphBuilder__arcs() {
+
+    // arcs out of order, with duplicates
+    GraphBuilder<String, String> builder =
+        GraphBuilderLib.<String, String>builder(5, 4).addArc("c", "d").addArc("a", "b")
+            .addArc("a", "c").addArc("c", "d").addArc("b", "d").addArc("a", "b").addId("e")
+            .addId("a");
+
+    assertEquals(5, builder.idSize());
+    assertEquals(6, builder.addedArcSize());
+
+    IdDag<String> dag = builder.buildIdDag();
+
+    assertEquals(4, dag.intGraph().arcSize());
+    assertEquals(parseSet("a, b, c, d, e"), ImmutableSet.copyOf(dag.idSet()));
+    assertEquals(parseMultimap("b = a, c = a, d = c, d = b"), dag.id__parentIds());
+
+    // ids are indexed in the order they were first added
+    assertEquals(parseList("c, d, a, b, e"), dag.idIndex().idList());
+
+    try {
+      builder.addArc("d", "a").buildIdDag();
+      throw new NotThrown(DagCannotHaveCycle.class);
+    } catch (DagCannotHaveCycle e) {
+    }
+
+    // still a valid graph
+    assertEquals(5, builder.buildIdGraph().intGraph().arcSize());
+  }
+
+  @Test
+  public void testGraphBuilder__random() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdDag<Integer> expected = RandomGraphLib.randomDag(seed, 300, 3);
+
+      GraphBuilder<Integer, Integer> builder = GraphBuilderLib.builder(300, 600);
+
+      for (Integer id : expected.idSet())
+        builder.addId(id);
+
+      // children first, and each arc twice
+      for (int pass = 0; pass < 2; pass++)
+        for (Map.Entry<Integer, Integer> entry : expected.id__parentIds().entries())
+          builder.addArc(entry.getValue(), entry.getKey());
+
+      GraphVerifyLib.verifySameDag(expected, builder.buildIdDag());
+    }
+  }
+
+  @Test
+  public void testGraphBuilder__nodes() {
+
+    ImmutableSet<UpNode<String>> upNodes =
+        ImmutableSet.of(upNode("d", "b", "c"), upNode("b", "a"), upNode("c", "a"), upNode("a"));
+
+    Dag<String, UpNode<String>> expected = DagLib.up(upNodes);
+    Dag<String, UpNode<String>> built = GraphBuilderLib.up(upNodes, 4).buildDag();
+
+    assertEquals(expected.id__parentIds(), built.id__parentIds());
+    assertEquals(expected.id__node(), built.id__node());
+    assertEquals(expected.topsortIdList(), built.topsortIdList());
+
+    ImmutableSet<DownNode<String>> downNodes =
+        ImmutableSet.of(downNode("a", "b", "c"), downNode("b", "d"), downNode("c"),
+            downNode("d"));
+
+    Tree<String, DownNode<String>> tree = GraphBuilderLib.down(downNodes, 3).buildTree();
+
+    assertEquals(TreeLib.down(downNodes).id__parentIds(), tree.id__parentIds());
+    assertEquals(downNodes.asList().get(0), tree.rootNode());
+  }
+
+  @Test
+  public void testGraphBuilder__nodeErrors() {
+
+    GraphBuilder<String, String> builder =
+        GraphBuilderLib.<String, String>builder().addNode("a", "A").addNode("a", "A");
+
+    try {
+      builder.addNode("a", "B");
+      throw new NotThrown(NodeIdConflict.class);
+    } catch (NodeIdConflict e) {
+    }
+
+    builder.addArc("a", "b");
+
+    assertEquals(ImmutableBiMap.of("a", "A"), builder.buildNodeMap());
+
+    try {
+      builder.buildGraph();
+      throw new NotThrown(GraphIsMissingNodes.class);
+    } catch (GraphIsMissingNodes e) {
+    }
+
+    assertEquals(parseSet("b"), builder.addNode("b", "B").buildGraph().leafIdSet());
+
+    try {
+      GraphBuilderLib.up(ImmutableList.of(upNode("a", "b"), upNode("a", "c")), 2);
+      throw new NotThrown(NodeIdConflict.class);
+    } catch (NodeIdConflict e) {
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.persistent.PersistentIdDagLib;
+
+public class TestDetailsGraphDiff {
+
+  // a -> b, c
+  // b -> d
+  // c -> e
+  // f
+  private static IdDag<String> oldDag = IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+      parseMultimap("b = a, c = a, d = b, e = c"));
+
+  // removes f and the arc b -> d
+  // adds g and the arcs c -> d, d -> g
+  private static IdDag<String> newDag = IdDagLib.fromParentMap(parseSet("a, b, c, d, e, g"),
+      parseMultimap("b = a, c = a, d = c, e = c, g = d"));
+
+  @Test
+  public void testGraphDiff__changes() {
+
+    for (IdGraph<String> oldGraph : implementations(oldDag))
+      for (IdGraph<String> newGraph : implementations(newDag)) {
+
+        GraphDiff<String> diff = GraphDiffLib.diff(oldGraph, newGraph);
+
+        assertFalse(diff.isEmpty());
+        assertEquals(parseSet("g"), diff.addedIdSet());
+        assertEquals(parseSet("f"), diff.removedIdSet());
+        assertEquals(parseMultimap("d = c, g = d"), diff.id__addedParentIds());
+        assertEquals(parseMultimap("d = b"), diff.id__removedParentIds());
+        assertEquals(parseSet("b, c, d, f, g"), diff.changedIdSet());
+
+        assertEquals(parseSet("a, b, c, d, f, g"), diff.affectedAncestorIdSet());
+        assertEquals(parseSet("b, c, d, e, f, g"), diff.affectedDescendantIdSet());
+      }
+
+    // reversing swaps the changes, but the affected regions are the same
+    GraphDiff<String> forward = GraphDiffLib.diff(oldDag, newDag);
+    GraphDiff<String> backward = GraphDiffLib.diff(newDag, oldDag);
+
+    assertEquals(forward.addedIdSet(), backward.removedIdSet());
+    assertEquals(forward.id__addedParentIds(), backward.id__removedParentIds());
+    assertEquals(forward.affectedAncestorIdSet(), backward.affectedAncestorIdSet());
+    assertEquals(forward.affectedDescendantIdSet(), backward.affectedDescendantIdSet());
+  }
+
+  @Test
+  public void testGraphDiff__removedArcs() {
+
+    // removing an id removes its arcs
+    IdDag<String> smaller =
+        IdDagLib.fromParentMap(parseSet("a, b, c, e"), parseMultimap("b = a, c = a, e = c"));
+
+    GraphDiff<String> diff = GraphDiffLib.diff(oldDag.filterIdGraph(parseSet("a, b, c, d, e")),
+        smaller);
+
+    assertEquals(parseSet("d"), diff.removedIdSet());
+    assertEquals(parseMultimap("d = b"), diff.id__removedParentIds());
+    assertEquals(parseSet("a, b, d"), diff.affectedAncestorIdSet());
+    assertEquals(parseSet("b, d"), diff.affectedDescendantIdSet());
+  }
+
+  @Test
+  public void testGraphDiff__empty() {
+
+    assertTrue(GraphDiffLib.diff(oldDag, oldDag).isEmpty());
+
+    for (IdGraph<String> graph : implementations(oldDag)) {
+
+      GraphDiff<String> diff = GraphDiffLib.diff(oldDag, graph);
+
+      assertTrue(diff.isEmpty());
+      assertEquals(ImmutableSet.of(), diff.changedIdSet());
+      assertEquals(ImmutableSet.of(), diff.affectedAncestorIdSet());
+      assertEquals(ImmutableSet.of(), diff.affectedDescendantIdSet());
+      assertEquals(GraphDiffLib.diff(oldDag, oldDag), diff);
+    }
+  }
+
+  @Test
+  public void testGraphDiff__collidingIds() {
+
+    // "Aa" and "BB" have the same hashCode, so reversing the arc keeps the structure hash
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+
+    IdDag<String> forward = IdDagLib.fromParentMap(parseSet("Aa, BB"), parseMultimap("BB = Aa"));
+    IdDag<String> backward = IdDagLib.fromParentMap(parseSet("Aa, BB"), parseMultimap("Aa = BB"));
+
+    assertTrue(StructureHashLib.sameHash(forward, backward));
+    assertFalse(forward.equals(backward));
+
+    GraphDiff<String> diff = GraphDiffLib.diff(forward, backward);
+
+    assertFalse(diff.isEmpty());
+    assertEquals(parseMultimap("Aa = BB"), diff.id__addedParentIds());
+    assertEquals(parseMultimap("BB = Aa"), diff.id__removedParentIds());
+  }
+
+  @Test
+  public void testGraphDiff__random() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdGraph<Integer> oldGraph = RandomGraphLib.randomGraph(seed, 200, 3);
+      IdGraph<Integer> newGraph = RandomGraphLib.randomGraph(seed + 100, 250, 3);
+
+      GraphDiff<Integer> diff = GraphDiffLib.diff(oldGraph, IdGraphLib.compact(newGraph));
+
+      // applying the diff to the old graph produces the new graph
+      Set<Integer> ids = new HashSet<>(oldGraph.idSet());
+      ids.removeAll(diff.removedIdSet());
+      ids.addAll(diff.addedIdSet());
+
+      SetMultimap<Integer, Integer> id__parentIds = HashMultimap.create(oldGraph.id__parentIds());
+
+      for (Map.Entry<Integer, Integer> entry : diff.id__removedParentIds().entries())
+        assertTrue(id__parentIds.remove(entry.getKey(), entry.getValue()));
+
+      for (Map.Entry<Integer, Integer> entry : diff.id__addedParentIds().entries())
+        assertTrue(id__parentIds.put(entry.getKey(), entry.getValue()));
+
+      assertEquals(newGraph.idSet(), ids);
+      assertEquals(newGraph.id__parentIds(), id__parentIds);
+
+      // unaffected ids keep their descendants
+      for (Integer id : Sets.difference(oldGraph.idSet(), diff.affectedAncestorIdSet()))
+        assertEquals(oldGraph.descendantIdSet(id, true), newGraph.descendantIdSet(id, true));
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> ImmutableList<IdGraph<Id>> implementations(IdDag<Id> dag) {
+    return ImmutableList.<IdGraph<Id>>of(dag, IdDagLib.compact(dag), IdDagLib.view(dag),
+        PersistentIdDagLib.fromIdDag(dag));
+  }
+
+}
@@ -0,0 +1,145 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsGraphSet {
+
+  // a -> b, c
+  // b -> d
+  private static IdDag<String> base = IdDagLib.fromParentMap(parseSet("a, b, c, d"),
+      parseMultimap("b = a, c = a, d = b"));
+
+  // c -> d, e
+  // b -> d
+  private static IdDag<String> overlay = IdDagLib.fromParentMap(parseSet("b, c, d, e"),
+      parseMultimap("d = c, e = c, d = b"));
+
+  @Test
+  public void testGraphSet__dags() {
+
+    IdDag<String> union = IdGraphSetLib.union(base, overlay);
+
+    assertEquals(parseSet("a, b, c, d, e"), union.idSet());
+    assertEquals(parseMultimap("b = a, c = a, d = b, d = c, e = c"), union.id__parentIds());
+
+    IdDag<String> intersection = IdGraphSetLib.intersection(base, overlay);
+
+    assertEquals(parseSet("b, c, d"), intersection.idSet());
+    assertEquals(parseMultimap("d = b"), intersection.id__parentIds());
+
+    IdDag<String> difference = IdGraphSetLib.difference(base, overlay);
+
+    assertEquals(base.idSet(), difference.idSet());
+    assertEquals(parseMultimap("b = a, c = a"), difference.id__parentIds());
+
+    for (IdDag<String> dag : ImmutableList.of(union, intersection, difference))
+      GraphVerifyLib.verifyTopsort(dag, dag.topsortIdList());
+
+    // the union of dags can have cycles
+    IdDag<String> reversed =
+        IdDagLib.fromParentMap(parseSet("a, d"), parseMultimap("a = d"));
+
+    try {
+      IdGraphSetLib.union(base, reversed);
+      throw new NotThrown(DagCannotHaveCycle.class);
+    } catch (DagCannotHaveCycle e) {
+    }
+
+    IdGraph<String> cyclic = IdGraphSetLib.union((IdGraph<String>) base, reversed);
+    assertTrue(cyclic.containsCycle());
+  }
+
+  @Test
+  public void testGraphSet__random() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdDag<Integer> dag1 = RandomGraphLib.randomDag(seed, 200, 3);
+      IdDag<Integer> dag2 = RandomGraphLib.randomDag(seed + 100, 150, 3);
+
+      verifySetOperations(dag1, dag2);
+      verifySetOperations(IdDagLib.compact(dag1), dag2.filterIdGraph(dag1.idSet()));
+
+      IdInterner<Integer> interner = IdInternerLib.interner();
+      IdDag<Integer> interned1 = IdDagLib.interned(interner, dag1);
+      IdDag<Integer> interned2 = IdDagLib.interned(interner, dag2);
+
+      verifySetOperations(interned1, interned2);
+
+      // interned operands give interned results
+      IdIndex<Integer> idIndex = IdGraphSetLib.union(interned1, interned2).idIndex();
+      assertSame(interner, ((InternedIdIndex<Integer>) idIndex).interner());
+
+      IdGraph<Integer> graph1 = RandomGraphLib.randomGraph(seed, 200, 2);
+      IdGraph<Integer> graph2 = RandomGraphLib.randomGraph(seed + 100, 150, 2);
+
+      verifyGraphSetOperations(graph1, graph2);
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> void verifySetOperations(IdDag<Id> dag1, IdDag<Id> dag2) {
+
+    verifyGraphSetOperations(dag1, dag2);
+
+    IdDag<Id> intersection = IdGraphSetLib.intersection(dag1, dag2);
+    IdDag<Id> difference = IdGraphSetLib.difference(dag1, dag2);
+
+    GraphVerifyLib.verifyTopsort(intersection, intersection.topsortIdList());
+    GraphVerifyLib.verifyTopsort(difference, difference.topsortIdList());
+
+    assertSameArcs(IdGraphSetLib.intersection((IdGraph<Id>) dag1, dag2), intersection);
+    assertSameArcs(IdGraphSetLib.difference((IdGraph<Id>) dag1, dag2), difference);
+  }
+
+  private static <Id> void verifyGraphSetOperations(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+
+    SetMultimap<Id, Id> arcs1 = graph1.id__parentIds();
+    SetMultimap<Id, Id> arcs2 = graph2.id__parentIds();
+
+    IdGraph<Id> union = IdGraphSetLib.union(graph1, graph2);
+
+    assertEquals(Sets.union(graph1.idSet(), graph2.idSet()), union.idSet());
+    assertEquals(ImmutableSetMultimap.builder().putAll(arcs1).putAll(arcs2).build(),
+        union.id__parentIds());
+
+    IdGraph<Id> intersection = IdGraphSetLib.intersection(graph1, graph2);
+
+    ImmutableSetMultimap.Builder<Id, Id> sharedArcs = ImmutableSetMultimap.builder();
+    ImmutableSetMultimap.Builder<Id, Id> remainingArcs = ImmutableSetMultimap.builder();
+
+    for (Map.Entry<Id, Id> arc : arcs1.entries())
+      if (arcs2.containsEntry(arc.getKey(), arc.getValue()))
+        sharedArcs.put(arc);
+      else
+        remainingArcs.put(arc);
+
+    assertEquals(Sets.intersection(graph1.idSet(), graph2.idSet()), intersection.idSet());
+    assertEquals(sharedArcs.build(), intersection.id__parentIds());
+
+    IdGraph<Id> difference = IdGraphSetLib.difference(graph1, graph2);
+
+    assertEquals(graph1.idSet(), difference.idSet());
+    assertEquals(remainingArcs.build(), difference.id__parentIds());
+  }
+
+  private static <Id> void assertSameArcs(IdGraph<Id> expected, IdGraph<Id> actual) {
+    assertEquals(expected.idSet(), actual.idSet());
+    assertEquals(expected.id__parentIds(), actual.id__parentIds());
+  }
+
+}
@@ -0,0 +1,181 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.*;
+
+public class TestDetailsIdInterner {
+
+  @Test
+  public void testIdInterner__interning() {
+
+    IdInterner<String> interner = IdInternerLib.interner(2);
+
+    assertEquals(0, interner.intern("b"));
+    assertEquals(1, interner.intern("a"));
+    assertEquals(0, interner.intern("b"));
+
+    // grows past the expected size
+    for (String id : parseList("c, d, e, f, g"))
+      interner.intern(id);
+
+    assertEquals(7, interner.size());
+    assertEquals("g", interner.id(6));
+    assertEquals(2, interner.index("c"));
+    assertEquals(-1, interner.indexOf("h"));
+    assertFalse(interner.containsId("h"));
+
+    try {
+      interner.index("h");
+      throw new NotThrown(NotContained.class);
+    } catch (NotContained e) {
+    }
+
+    try {
+      interner.id(7);
+      throw new NotThrown(NotContained.class);
+    } catch (NotContained e) {
+    }
+
+    // indexes follow interned order
+    InternedIdIndex<String> idIndex = IdInternerLib.idIndex(interner, parseList("d, h, b, d"));
+
+    assertEquals(parseList("b, d, h"), idIndex.idList());
+    assertEquals(7, idIndex.internedIndex(2));
+    assertEquals(1, idIndex.index("d"));
+    assertEquals(-1, idIndex.indexOf("a"));
+    assertEquals(-1, idIndex.indexOf("z"));
+    assertEquals(8, interner.size());
+  }
+
+  @Test
+  public void testIdInterner__concurrent() throws Exception {
+
+    final IdInterner<Integer> interner = IdInternerLib.interner();
+
+    final int threadCount = 4;
+    final int idSize = 5000;
+
+    ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+
+    try {
+      List<Future<int[]>> futures = new ArrayList<>();
+
+      for (int t = 0; t < threadCount; t++)
+        futures.add(pool.submit(new Callable<int[]>() {
+          @Override
+          public int[] call() {
+
+            int[] id__index = new int[idSize];
+
+            for (int id = 0; id < idSize; id++) {
+              id__index[id] = interner.intern(id);
+
+              // a returned index can always be read back
+              assertEquals(Integer.valueOf(id), interner.id(id__index[id]));
+            }
+
+            return id__index;
+          }
+        }));
+
+      int[] expected = futures.get(0).get();
+
+      for (Future<int[]> future : futures)
+        assertArrayEquals(expected, future.get());
+
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(idSize, interner.size());
+
+    Set<Integer> indexes = new HashSet<>();
+    for (int id = 0; id < idSize; id++)
+      indexes.add(interner.index(id));
+
+    assertEquals(idSize, indexes.size());
+  }
+
+  @Test
+  public void testIdInterner__graphs() {
+
+    IdInterner<Integer> interner = IdInternerLib.interner();
+
+    for (long seed = 0; seed < 3; seed++) {
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 200, 3);
+      IdDag<Integer> internedDag = IdDagLib.interned(interner, dag);
+
+      GraphVerifyLib.verifySameDag(dag, internedDag);
+      assertSame(interner, ((InternedIdIndex<Integer>) internedDag.idIndex()).interner());
+
+      IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 200);
+      GraphVerifyLib.verifySameTree(tree, IdTreeLib.interned(interner, tree));
+
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 200, 2);
+      IdGraph<Integer> internedGraph = IdGraphLib.interned(interner, graph);
+
+      assertEquals(graph.idSet(), internedGraph.idSet());
+      assertEquals(graph.id__parentIds(), internedGraph.id__parentIds());
+    }
+
+    // every version shares the same 200 interned ids
+    assertEquals(200, interner.size());
+
+    IdDag<String> dag = IdDagLib.internedFromParentMap(IdInternerLib.<String>interner(),
+        parseSet("a, b, c"), parseMultimap("b = a, c = b"));
+
+    assertEquals(parseList("a, b, c"), dag.topsortIdList());
+  }
+
+  @Test
+  public void testIdInterner__combining() {
+
+    IdInterner<Integer> interner = IdInternerLib.interner();
+    Random random = new Random(0);
+
+    for (int round = 0; round < 20; round++) {
+
+      Set<Integer> ids1 = new HashSet<>();
+      Set<Integer> ids2 = new HashSet<>();
+
+      for (int i = 0; i < 50; i++) {
+        ids1.add(random.nextInt(100));
+        ids2.add(random.nextInt(100));
+      }
+
+      InternedIdIndex<Integer> idIndex1 = IdInternerLib.idIndex(interner, ids1);
+      InternedIdIndex<Integer> idIndex2 = IdInternerLib.idIndex(interner, ids2);
+
+      assertEquals(Sets.union(ids1, ids2),
+          IdInternerLib.union(idIndex1, idIndex2).idSet());
+      assertEquals(Sets.intersection(ids1, ids2),
+          IdInternerLib.intersection(idIndex1, idIndex2).idSet());
+      assertEquals(Sets.difference(ids1, ids2),
+          IdInternerLib.difference(idIndex1, idIndex2).idSet());
+
+      int[] index1__index2 = IdInternerLib.indexMap(idIndex1, idIndex2);
+
+      for (int index1 = 0; index1 < idIndex1.indexSize(); index1++)
+        assertEquals(idIndex2.indexOf(idIndex1.id(index1)), index1__index2[index1]);
+    }
+
+    try {
+      IdInternerLib.union(IdInternerLib.idIndex(interner, ImmutableList.of(1)),
+          IdInternerLib.idIndex(IdInternerLib.<Integer>interner(), ImmutableList.of(1)));
+      throw new NotThrown(IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+}
@@ -0,0 +1,164 @@
+package com.stevewedig.blog.digraph;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+import com.stevewedig.blog.util.LambdaLib.Fn1;
+
+public class TestDetailsIntTraverser {
+
+  // ===========================================================================
+  // same order as generic traversal
+  // ===========================================================================
+
+  @Test
+  public void testIntTraverser__matchesGenericTraversal() {
+
+    for (long seed = 0; seed < 10; seed++) {
+
+      final IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 40, 2);
+
+      Fn1<Integer, List<Integer>> expand = new Fn1<Integer, List<Integer>>() {
+        @Override
+        public List<Integer> apply(Integer id) {
+          return ImmutableList.copyOf(graph.childIdSet(id));
+        }
+      };
+
+      IdIndex<Integer> idIndex = graph.idIndex();
+
+      // one traverser reused for every traversal
+      IntTraverser traverser = TraverseLib.intTraverser(graph.intGraph());
+      IntTraverserPool pool = TraverseLib.intTraverserPool(graph.intGraph());
+
+      for (int startId = 0; startId < 40; startId += 7)
+        for (boolean depthFirst : new boolean[] {true, false})
+          for (boolean inclusive : new boolean[] {true, false}) {
+
+            ImmutableList<Integer> startIds = ImmutableList.of(startId, (startId + 3) % 40);
+
+            ImmutableList<Integer> expected =
+                graph.traverseIdList(depthFirst, inclusive, startIds, expand);
+
+            int[] startIndexes = {idIndex.index(startIds.get(0)), idIndex.index(startIds.get(1))};
+
+            // iterator
+            ImmutableList.Builder<Integer> iterated = ImmutableList.builder();
+            IntIterator indexes = traverser.iterator(depthFirst, inclusive, startIndexes);
+            while (indexes.hasNext())
+              iterated.add(idIndex.id(indexes.next()));
+            assertEquals(expected, iterated.build());
+
+            // visitor
+            final ImmutableList.Builder<Integer> visited = ImmutableList.builder();
+            final IdIndex<Integer> finalIdIndex = idIndex;
+            assertTrue(traverser.traverse(depthFirst, inclusive, startIndexes, new IntVisitor() {
+              @Override
+              public boolean visit(int index) {
+                visited.add(finalIdIndex.id(index));
+                return true;
+              }
+            }));
+            assertEquals(expected, visited.build());
+
+            // id iterable
+            assertEquals(expected, ImmutableList.copyOf(TraverseLib.idIterable(depthFirst,
+                inclusive, startIndexes, idIndex, pool)));
+          }
+    }
+  }
+
+  // ===========================================================================
+  // stopping and reached
+  // ===========================================================================
+
+  @Test
+  public void testIntTraverser__stopAndReached() {
+
+    // chain 0 -> 1 -> 2 -> 3, plus isolated 4
+    IntGraph intGraph = IntGraphLib.fromArcs(5, new int[] {1, 2, 3}, new int[] {0, 1, 2}, 3);
+
+    IntTraverser traverser = TraverseLib.intTraverser(intGraph);
+
+    final int[] count = {0};
+
+    boolean finished = traverser.traverse(true, true, 0, new IntVisitor() {
+      @Override
+      public boolean visit(int index) {
+        count[0]++;
+        return index != 1;
+      }
+    });
+
+    assertFalse(finished);
+    assertEquals(2, count[0]);
+
+    // 2 was discovered while expanding 1, but 3 wasn't
+    assertTrue(traverser.isReached(2));
+    assertFalse(traverser.isReached(3));
+
+    // a new traversal forgets the previous one
+    IntIterator indexes = traverser.iterator(false, false, 2);
+    assertFalse(traverser.isReached(0));
+    assertTrue(indexes.hasNext());
+    assertEquals(3, indexes.next());
+    assertFalse(indexes.hasNext());
+    assertFalse(traverser.isReached(4));
+  }
+
+  // ===========================================================================
+  // pool
+  // ===========================================================================
+
+  @Test
+  public void testIntTraverser__pool() {
+
+    // chain 0 -> 1 -> 2 -> 3, plus isolated 4
+    IntGraph intGraph = IntGraphLib.fromArcs(5, new int[] {1, 2, 3}, new int[] {0, 1, 2}, 3);
+    IdIndex<Integer> idIndex = IdIndexLib.fromIds(ImmutableList.of(0, 1, 2, 3, 4));
+
+    IntTraverserPool pool = TraverseLib.intTraverserPool(intGraph);
+
+    // nested traversals get their own traverser
+    IntTraverser outer = pool.acquire();
+    IntTraverser inner = pool.acquire();
+    assertNotSame(outer, inner);
+
+    // released traversers are reused
+    pool.release(inner);
+    assertSame(inner, pool.acquire());
+    pool.release(inner);
+
+    // an iterator acquires its traverser lazily, so one that is never iterated holds nothing
+    TraverseLib.idIterator(true, true, new int[] {0}, idIndex, pool);
+    assertSame(inner, pool.acquire());
+    pool.release(inner);
+
+    // an exhausted iterator releases its traverser, so interleaved iterators don't interfere
+    Iterator<Integer> first = TraverseLib.idIterator(true, true, new int[] {0}, idIndex, pool);
+    Iterator<Integer> second = TraverseLib.idIterator(false, false, new int[] {1}, idIndex, pool);
+
+    assertEquals(Integer.valueOf(0), first.next());
+    assertEquals(ImmutableList.of(2, 3), ImmutableList.copyOf(second));
+    assertEquals(ImmutableList.of(1, 2, 3), ImmutableList.copyOf(first));
+    assertFalse(first.hasNext());
+
+    assertSame(inner, pool.acquire());
+    assertNotSame(inner, pool.acquire());
+
+    try {
+      pool.release(TraverseLib.intTraverser(intGraph.inverse()));
+      throw new NotThrown(IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+}
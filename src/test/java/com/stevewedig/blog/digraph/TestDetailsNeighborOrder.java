@@ -0,0 +1,83 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+public class TestDetailsNeighborOrder {
+
+  @Test
+  public void testNeighborOrder__lists() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e"),
+            parseMultimap("b = a, c = a, d = a, e = b, e = c"));
+
+    assertEquals(parseList("b, c, d"), dag.childIdList("a"));
+    assertEquals(parseList("b, c"), dag.parentIdList("e"));
+    assertEquals(ImmutableList.of(), dag.childIdList("e"));
+    assertEquals(ImmutableList.of(), dag.parentIdList("missing"));
+
+    // not copied per call
+    assertSame(dag.childIdList("a"), dag.childIdList("a"));
+
+    IdDag<String> compact = IdDagLib.compact(dag);
+    assertSame(compact.childIdList("a"), compact.childIdList("a"));
+    assertSame(compact.parentIdList("e"), compact.parentIdList("e"));
+
+    // the same for every implementation
+    for (IdDag<String> other : ImmutableList.of(IdDagLib.compact(dag), IdDagLib.view(dag)))
+      for (String id : dag.idSet()) {
+        assertEquals(dag.childIdSet(id).asList(), other.childIdList(id));
+        assertEquals(dag.parentIdSet(id).asList(), other.parentIdList(id));
+      }
+  }
+
+  @Test
+  public void testNeighborOrder__stableTraversals() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 100, 3);
+
+      // an equal dag built separately traverses the same way
+      IdDag<Integer> copy = IdDagLib.fromParentMap(dag.idSet(), dag.id__parentIds());
+
+      assertEquals(dag.depthIdList(), copy.depthIdList());
+      assertEquals(dag.breadthIdList(), copy.breadthIdList());
+      assertEquals(ImmutableList.copyOf(dag.descendantIdIterable(0, true)),
+          ImmutableList.copyOf(copy.descendantIdIterable(0, true)));
+    }
+  }
+
+  @Test
+  public void testNeighborOrder__sortNeighbors() {
+
+    IdTree<String> tree =
+        IdTreeLib.fromParentMap(parseSet("a, b, c, d, e"),
+            parseMultimap("b = a, c = a, d = b, e = b"));
+
+    IdTree<String> reversed = IdTreeLib.sortNeighbors(tree, Collections.reverseOrder());
+
+    // same arcs
+    assertEquals(tree, reversed);
+
+    assertEquals(parseList("c, b"), reversed.childIdList("a"));
+    assertEquals(parseList("a, c, b, e, d"), reversed.depthIdList());
+    assertEquals(parseList("a, c, b, e, d"), reversed.breadthIdList());
+
+    IdGraph<String> sorted =
+        IdGraphLib.sortNeighbors(IdGraphLib.fromParentMap(parseSet("a, b, c"),
+            parseMultimap("a = c, a = b, b = c")), Ordering.natural());
+
+    assertEquals(parseList("b, c"), sorted.parentIdList("a"));
+    assertEquals(parseList("a, b"), sorted.childIdList("c"));
+  }
+
+}
@@ -0,0 +1,241 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.persistent.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsPersistent {
+
+  // ===========================================================================
+  // PersistentMap
+  // ===========================================================================
+
+  // only 4 distinct hashes, so most keys collide
+  private static class CollidingKey {
+
+    private final int value;
+
+    public CollidingKey(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value % 4;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof CollidingKey && ((CollidingKey) other).value == value;
+    }
+  }
+
+  @Test
+  public void testPersistentMap__matchesHashMap() {
+
+    Random random = new Random(0);
+
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentMap<Integer, Integer> map = PersistentMapLib.empty();
+
+    for (int step = 0; step < 20000; step++) {
+
+      int key = random.nextInt(2000);
+
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.without(key);
+      } else {
+        expected.put(key, step);
+        map = map.with(key, step);
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected.keySet(), map.keySet());
+    assertEquals(expected, map.toMap());
+
+    for (int key = 0; key < 2000; key++)
+      assertEquals(expected.get(key), map.get(key));
+  }
+
+  @Test
+  public void testPersistentMap__collisionsAndSharing() {
+
+    PersistentMap<CollidingKey, String> map = PersistentMapLib.empty();
+
+    for (int value = 0; value < 20; value++)
+      map = map.with(new CollidingKey(value), "v" + value);
+
+    PersistentMap<CollidingKey, String> removed = map.without(new CollidingKey(7));
+
+    // the old map is unchanged
+    assertEquals(20, map.size());
+    assertEquals("v7", map.get(new CollidingKey(7)));
+
+    assertEquals(19, removed.size());
+    assertNull(removed.get(new CollidingKey(7)));
+    assertEquals("v11", removed.get(new CollidingKey(11)));
+
+    // no-ops return the same map
+    assertSame(removed, removed.without(new CollidingKey(7)));
+    assertSame(map, map.with(new CollidingKey(3), map.get(new CollidingKey(3))));
+
+    // collision nodes contribute their entries too
+    assertEquals(19, removed.toMap().size());
+    assertEquals("v11", removed.toMap().get(new CollidingKey(11)));
+  }
+
+  // ===========================================================================
+  // PersistentSet
+  // ===========================================================================
+
+  @Test
+  public void testPersistentSet__order() {
+
+    PersistentSet<String> set = PersistentSetLib.copyOf(ImmutableSet.of("c", "a"));
+
+    PersistentSet<String> added = set.with("b").with("d");
+    PersistentSet<String> removed = added.without("a");
+
+    // toSet() keeps insertion order, like the ImmutableSets it replaces
+    assertEquals(ImmutableList.of("c", "a"), set.toSet().asList());
+    assertEquals(ImmutableList.of("c", "a", "b", "d"), added.toSet().asList());
+    assertEquals(ImmutableList.of("c", "b", "d"), removed.toSet().asList());
+
+    // re-adding goes to the end
+    assertEquals(ImmutableList.of("c", "b", "d", "a"), removed.with("a").toSet().asList());
+
+    assertEquals(3, removed.size());
+    assertTrue(removed.contains("b"));
+    assertFalse(removed.contains("a"));
+
+    // no-ops return the same set
+    assertSame(added, added.with("a"));
+    assertSame(removed, removed.without("a"));
+
+    assertTrue(PersistentSetLib.<String>empty().toSet().isEmpty());
+  }
+
+  // ===========================================================================
+  // PersistentIdDag
+  // ===========================================================================
+
+  @Test
+  public void testPersistentIdDag__sample() {
+
+    PersistentIdDag<String> dag = PersistentIdDagLib.<String>empty().withId("a").withId("b")
+        .withId("c").withId("d");
+
+    // arcs against the insertion order force reordering
+    dag = dag.withEdge("d", "c").withEdge("c", "b").withEdge("b", "a");
+
+    assertEquals(parseList("d, c, b, a"), dag.topsortIdList());
+    assertTrue(dag.isAncestorOf("d", "a", false));
+
+    try {
+      dag.withEdge("a", "d");
+      throw new NotThrown(DagCannotHaveCycle.class);
+    } catch (DagCannotHaveCycle e) {
+    }
+
+    try {
+      dag.withEdge("a", "missing");
+      throw new NotThrown(GraphHadUnexpectedIds.class);
+    } catch (GraphHadUnexpectedIds e) {
+    }
+
+    // no-ops
+    assertSame(dag, dag.withEdge("d", "c"));
+    assertSame(dag, dag.withoutEdge("a", "d"));
+    assertSame(dag, dag.withId("a"));
+    assertSame(dag, dag.withoutId("missing"));
+
+    // removing an id removes its arcs
+    PersistentIdDag<String> removed = dag.withoutId("c");
+    assertEquals(parseSet("a, b, d"), removed.idSet());
+    assertEquals(parseSet(""), removed.childIdSet("d"));
+    assertEquals(parseSet("d"), dag.parentIdSet("c"));
+
+    GraphVerifyLib.verifySameGraph(
+        IdDagLib.fromParentMap(parseSet("a, b, c, d"), parseMultimap("c = d, b = c, a = b")), dag);
+  }
+
+  @Test
+  public void testPersistentIdDag__randomUpdates() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      Random random = new Random(seed);
+
+      int idSize = 25;
+
+      PersistentIdDag<Integer> dag = PersistentIdDagLib.fromIdDag(IdDagLib.fromParentMap(
+          RandomGraphLib.ids(idSize), ImmutableSetMultimap.<Integer, Integer>of()));
+
+      Set<Integer> ids = new HashSet<>(RandomGraphLib.ids(idSize));
+      SetMultimap<Integer, Integer> id__parentIds = HashMultimap.create();
+
+      List<PersistentIdDag<Integer>> versions = new ArrayList<>();
+      List<IdGraph<Integer>> expectedVersions = new ArrayList<>();
+
+      for (int step = 0; step < 300; step++) {
+
+        int parentId = random.nextInt(idSize + 5);
+        int childId = random.nextInt(idSize + 5);
+
+        switch (random.nextInt(6)) {
+
+          case 0:
+            ids.remove(parentId);
+            id__parentIds.removeAll(parentId);
+            id__parentIds.values().removeAll(ImmutableSet.of(parentId));
+            dag = dag.withoutId(parentId);
+            break;
+
+          case 1:
+            ids.add(parentId);
+            dag = dag.withId(parentId);
+            break;
+
+          case 2:
+            id__parentIds.remove(childId, parentId);
+            dag = dag.withoutEdge(parentId, childId);
+            break;
+
+          default:
+            if (!ids.contains(parentId) || !ids.contains(childId))
+              continue;
+
+            id__parentIds.put(childId, parentId);
+            boolean cyclic = IdGraphLib.fromParentMap(ids, id__parentIds).containsCycle();
+
+            try {
+              dag = dag.withEdge(parentId, childId);
+              assertFalse(cyclic);
+            } catch (DagCannotHaveCycle e) {
+              assertTrue(cyclic);
+              id__parentIds.remove(childId, parentId);
+            }
+        }
+
+        versions.add(dag);
+        expectedVersions.add(IdGraphLib.fromParentMap(ids, id__parentIds));
+      }
+
+      // every version is still intact
+      for (int i = 0; i < versions.size(); i += 25)
+        GraphVerifyLib.verifySameGraph(expectedVersions.get(i), versions.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.DagCannotHaveCycle;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsReachability {
+
+  @Test
+  public void testReachability__sample() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    ReachabilityIndex<String> index = dag.reachabilityIndex();
+
+    // cached
+    assertSame(index, dag.reachabilityIndex());
+
+    assertTrue(index.isAncestorOf("a", "e", false));
+    assertTrue(index.isDescendantOf("d", "c", false));
+    assertFalse(index.isDescendantOf("c", "b", false));
+    assertFalse(index.isDescendantOf("f", "a", false));
+
+    assertTrue(index.isDescendantOf("a", "a", true));
+    assertFalse(index.isDescendantOf("a", "a", false));
+
+    assertFalse(index.isDescendantOf("missing", "a", false));
+
+    assertEquals(ReachabilityLib.defaultLabelSize, index.labelSize());
+    assertTrue(index.buildNanos() >= 0);
+    assertEquals(4 * 6 * (2 + 2 * ReachabilityLib.defaultLabelSize), index.memoryBytes());
+  }
+
+  @Test
+  public void testReachability__matchesGraph() {
+
+    for (long seed = 0; seed < 10; seed++)
+      for (int labelSize = 0; labelSize <= 3; labelSize++) {
+
+        IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 60, 2);
+        verifyReachability(dag,
+            ReachabilityLib.index(dag.idIndex(), dag.intGraph(), labelSize, seed));
+
+        IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 60);
+        verifyReachability(tree,
+            ReachabilityLib.index(tree.idIndex(), tree.intGraph(), labelSize, seed));
+      }
+
+    IdDag<Integer> dag = IdDagLib.compact(RandomGraphLib.randomDag(0, 200, 4));
+    verifyReachability(dag, dag.reachabilityIndex());
+  }
+
+  private static <Id> void verifyReachability(IdDag<Id> dag, ReachabilityIndex<Id> index) {
+
+    for (Id id : dag.idSet()) {
+
+      ImmutableSet<Id> ancestorIds = dag.ancestorIdSet(id, true);
+
+      for (Id potentialAncestor : dag.idSet()) {
+        assertEquals(ancestorIds.contains(potentialAncestor),
+            index.isDescendantOf(id, potentialAncestor, true));
+        assertEquals(dag.isAncestorOf(potentialAncestor, id, false),
+            index.isAncestorOf(potentialAncestor, id, false));
+      }
+    }
+  }
+
+  @Test
+  public void testReachability__deepChain() {
+
+    // a long chain would overflow a recursive labeling
+    int idSize = 100000;
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, id - 1);
+
+    IdDag<Integer> dag =
+        IdDagLib.compactFromParentMap(RandomGraphLib.ids(idSize), id__parentIds.build());
+
+    ReachabilityIndex<Integer> index = dag.reachabilityIndex();
+
+    assertTrue(index.isAncestorOf(0, idSize - 1, false));
+    assertFalse(index.isAncestorOf(idSize - 1, 0, false));
+  }
+
+  @Test
+  public void testReachability__cyclic() {
+
+    IdGraph<String> graph = IdGraphLib.fromParentMap(parseMultimap("a = b, b = a"));
+
+    try {
+      ReachabilityLib.index(graph.idIndex(), graph.intGraph());
+      throw new NotThrown(DagCannotHaveCycle.class);
+    } catch (DagCannotHaveCycle e) {
+    }
+  }
+
+}
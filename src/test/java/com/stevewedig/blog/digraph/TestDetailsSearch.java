@@ -0,0 +1,196 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.node.UpNodeLib.upNode;
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.node.UpNode;
+import com.stevewedig.blog.digraph.node_graph.*;
+import com.stevewedig.blog.digraph.persistent.PersistentIdDagLib;
+
+public class TestDetailsSearch {
+
+  // a -> b, c
+  // b -> d
+  // c -> e
+  // d, e -> f
+  // f -> g
+  private static IdDag<String> dag = IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f, g"),
+      parseMultimap("b = a, c = a, d = b, e = c, f = d, f = e, g = f"));
+
+  private static Predicate<String> is(String id) {
+    return Predicates.equalTo(id);
+  }
+
+  private static Predicate<String> in(String ids) {
+    return Predicates.in(parseSet(ids));
+  }
+
+  @Test
+  public void testSearch__find() {
+
+    for (IdDag<String> dag : implementations(TestDetailsSearch.dag)) {
+
+      assertEquals(Optional.of("a"), dag.findDescendant("a", true, is("a")));
+      assertEquals(Optional.absent(), dag.findDescendant("a", false, is("a")));
+
+      // nearest first
+      assertEquals(Optional.of("d"), dag.findDescendant("a", false, in("d, e, f")));
+      assertEquals(Optional.of("b"), dag.findAncestor("g", false, in("a, b, c")));
+
+      // pruned ids are tested, but not searched beyond
+      assertEquals(Optional.of("b"), dag.findDescendant("a", false, is("b"), is("b")));
+      assertEquals(Optional.absent(), dag.findDescendant("a", false, is("d"), is("b")));
+      assertEquals(Optional.of("f"), dag.findDescendant("a", false, is("f"), is("b")));
+      assertEquals(Optional.of("c"), dag.findAncestor("g", false, in("a, b, c"), is("d")));
+      assertEquals(Optional.absent(), dag.findDescendant("a", false, is("g"), in("b, c")));
+
+      // pruning the start id
+      assertEquals(Optional.absent(), dag.findDescendant("a", false, is("b"), is("a")));
+
+      assertTrue(dag.anyDescendant("a", false, is("g")));
+      assertFalse(dag.anyDescendant("g", false, Predicates.<String>alwaysTrue()));
+      assertTrue(dag.anyAncestor("g", true, is("g")));
+      assertFalse(dag.anyAncestor("d", false, is("c")));
+    }
+  }
+
+  @Test
+  public void testSearch__count() {
+
+    for (IdDag<String> dag : implementations(TestDetailsSearch.dag)) {
+
+      assertEquals(7, dag.countDescendantsUntil("a", true, Predicates.<String>alwaysFalse()));
+      assertEquals(6, dag.countDescendantsUntil("a", false, Predicates.<String>alwaysFalse()));
+
+      // b is counted, but d isn't reached
+      assertEquals(5, dag.countDescendantsUntil("a", false, is("b")));
+      assertEquals(2, dag.countDescendantsUntil("a", false, in("b, c")));
+
+      assertEquals(2, dag.countAncestorsUntil("g", true, is("f")));
+      assertEquals(0, dag.countAncestorsUntil("a", false, Predicates.<String>alwaysFalse()));
+    }
+  }
+
+  @Test
+  public void testSearch__shortCircuits() {
+
+    IdTree<Integer> tree = RandomGraphLib.randomTree(0, 1000);
+
+    Integer root = tree.rootId();
+    final Integer child = tree.childIdList(root).get(0);
+
+    for (IdGraph<Integer> graph : ImmutableList.of(tree, IdTreeLib.compact(tree))) {
+
+      final int[] calls = {0};
+
+      Optional<Integer> found = graph.findDescendant(root, false, new Predicate<Integer>() {
+        @Override
+        public boolean apply(Integer id) {
+          calls[0]++;
+          return id.equals(child);
+        }
+      });
+
+      assertEquals(Optional.of(child), found);
+      assertEquals(1, calls[0]);
+    }
+  }
+
+  @Test
+  public void testSearch__sameAcrossImplementations() {
+
+    Predicate<Integer> match = new Predicate<Integer>() {
+      @Override
+      public boolean apply(Integer id) {
+        return id % 7 == 3;
+      }
+    };
+
+    Predicate<Integer> prune = new Predicate<Integer>() {
+      @Override
+      public boolean apply(Integer id) {
+        return id % 5 == 0;
+      }
+    };
+
+    for (long seed = 0; seed < 3; seed++) {
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 200, 3);
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 200, 2);
+
+      ImmutableList<IdGraph<Integer>> graphs =
+          ImmutableList.<IdGraph<Integer>>builder().addAll(implementations(dag)).add(graph)
+              .add(IdGraphLib.compact(graph)).add(IdGraphLib.view(graph)).build();
+
+      for (IdGraph<Integer> expected : ImmutableList.of(graphs.get(0), graph))
+        for (IdGraph<Integer> actual : graphs) {
+
+          if (!actual.equals(expected))
+            continue;
+
+          for (Integer id : expected.idSet())
+            for (boolean inclusive : new boolean[] {true, false}) {
+
+              assertEquals(expected.findDescendant(id, inclusive, match, prune),
+                  actual.findDescendant(id, inclusive, match, prune));
+              assertEquals(expected.findAncestor(id, inclusive, match, prune),
+                  actual.findAncestor(id, inclusive, match, prune));
+              assertEquals(expected.countDescendantsUntil(id, inclusive, prune),
+                  actual.countDescendantsUntil(id, inclusive, prune));
+              assertEquals(expected.countAncestorsUntil(id, inclusive, prune),
+                  actual.countAncestorsUntil(id, inclusive, prune));
+            }
+
+          // without pruning, counts match the closures
+          Integer id = expected.idSet().asList().get(0);
+          assertEquals(expected.descendantIdSet(id, true).size(),
+              actual.countDescendantsUntil(id, true, Predicates.<Integer>alwaysFalse()));
+        }
+    }
+  }
+
+  @Test
+  public void testSearch__nodes() {
+
+    Graph<String, UpNode<String>> graph =
+        GraphLib.up(upNode("a"), upNode("b", "a"), upNode("c", "b"), upNode("d", "c"));
+
+    Predicate<UpNode<String>> isA = new Predicate<UpNode<String>>() {
+      @Override
+      public boolean apply(UpNode<String> node) {
+        return node.id().equals("a");
+      }
+    };
+
+    Predicate<UpNode<String>> isB = new Predicate<UpNode<String>>() {
+      @Override
+      public boolean apply(UpNode<String> node) {
+        return node.id().equals("b");
+      }
+    };
+
+    assertEquals(Optional.of(graph.getNode("a")), graph.findAncestorNode("d", false, isA));
+    assertEquals(Optional.absent(), graph.findAncestorNode("d", false, isA, isB));
+    assertEquals(Optional.of(graph.getNode("b")), graph.findDescendantNode("a", true, isB));
+
+    assertEquals(3, graph.countDescendantsUntil("a", false, Predicates.<String>alwaysFalse()));
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> ImmutableList<IdDag<Id>> implementations(IdDag<Id> dag) {
+    return ImmutableList.of(dag, IdDagLib.compact(dag), IdDagLib.view(dag),
+        PersistentIdDagLib.fromIdDag(dag));
+  }
+
+}
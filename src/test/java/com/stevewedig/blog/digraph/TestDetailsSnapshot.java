@@ -0,0 +1,132 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+import org.junit.Test;
+
+import com.stevewedig.blog.digraph.errors.SnapshotWasMalformed;
+import com.stevewedig.blog.digraph.file.SnapshotLib;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.errors.NotThrown;
+
+public class TestDetailsSnapshot {
+
+  @Test
+  public void testSnapshot__graph() throws IOException {
+
+    IdGraph<String> graph =
+        IdGraphLib.fromParentMap(parseSet("a, b, c, d, e"),
+            parseMultimap("b = a, c = b, a = c, d = c"));
+
+    Path path = Files.createTempFile("graph", ".snapshot");
+    try {
+
+      SnapshotLib.write(graph, strFormat, path);
+
+      IdGraph<String> loaded = SnapshotLib.loadGraph(path, strFormat);
+
+      GraphVerifyLib.verifySameGraph(graph, loaded);
+      assertTrue(loaded.containsCycle());
+
+      // not a dag
+      try {
+        SnapshotLib.loadDag(path, strFormat);
+        throw new NotThrown(SnapshotWasMalformed.class);
+      } catch (SnapshotWasMalformed e) {
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testSnapshot__dag() throws IOException {
+
+    IdDag<Integer> dag = RandomGraphLib.randomDag(0, 300, 3);
+
+    Path path = Files.createTempFile("dag", ".snapshot");
+    try {
+
+      SnapshotLib.write(dag, intFormat, path);
+
+      IdDag<Integer> loaded = SnapshotLib.loadDag(path, intFormat);
+
+      GraphVerifyLib.verifySameDag(dag, loaded);
+      assertEquals(dag.topsortIdList(), loaded.topsortIdList());
+
+      // dags are loaded as dags
+      assertTrue(SnapshotLib.loadGraph(path, intFormat) instanceof IdDag);
+
+      // the upward direction reads the same mapped rows
+      assertEquals(dag.intGraph().inverse().arcSize(), loaded.intGraph().inverse().arcSize());
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testSnapshot__tree() throws IOException {
+
+    IdTree<Integer> tree = RandomGraphLib.randomTree(0, 300);
+
+    Path path = Files.createTempFile("tree", ".snapshot");
+    try {
+
+      SnapshotLib.write(tree, intFormat, path);
+
+      IdTree<Integer> loaded = SnapshotLib.loadTree(path, intFormat);
+
+      GraphVerifyLib.verifySameTree(tree, loaded);
+      assertEquals(tree.rootId(), loaded.rootId());
+
+      for (Integer id : tree.idSet())
+        assertEquals(tree.ancestorIdList(id, true), loaded.ancestorIdList(id, true));
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testSnapshot__corrupted() throws IOException {
+
+    IdDag<Integer> dag = RandomGraphLib.randomDag(1, 100, 3);
+
+    Path path = Files.createTempFile("dag", ".snapshot");
+    try {
+
+      SnapshotLib.write(dag, intFormat, path);
+
+      byte[] bytes = Files.readAllBytes(path);
+
+      // flip a bit in the rows
+      bytes[100] ^= 1;
+      Files.write(path, bytes);
+
+      try {
+        SnapshotLib.loadDag(path, intFormat);
+        throw new NotThrown(SnapshotWasMalformed.class);
+      } catch (SnapshotWasMalformed e) {
+      }
+
+      // not a snapshot
+      Files.write(path, new byte[64]);
+
+      try {
+        SnapshotLib.loadDag(path, intFormat);
+        throw new NotThrown(SnapshotWasMalformed.class);
+      } catch (SnapshotWasMalformed e) {
+      }
+
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+}
@@ -0,0 +1,134 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+public class TestDetailsStrongComponents {
+
+  @Test
+  public void testStrongComponents__sample() {
+
+    IdGraph<String> graph =
+        IdGraphLib.fromParentMap(parseSet("a, b, c, d, e, f, g"),
+            parseMultimap("b = a, c = b, a = c, d = c, e = d, d = e, g = g"));
+
+    StrongComponents<String> components = graph.strongComponents();
+
+    // cached
+    assertSame(components, graph.strongComponents());
+
+    assertEquals(4, components.componentSize());
+
+    int abc = components.component("a");
+    int de = components.component("d");
+    int f = components.component("f");
+    int g = components.component("g");
+
+    assertEquals(parseSet("a, b, c"), components.componentIdSet(abc));
+    assertEquals(parseSet("d, e"), components.componentIdSet(de));
+    assertEquals(parseSet("f"), components.componentIdSet(f));
+    assertEquals(parseSet("g"), components.componentIdSet(g));
+
+    assertTrue(components.isSameComponent("b", "c"));
+    assertFalse(components.isSameComponent("c", "d"));
+
+    // topological numbering
+    assertTrue(abc < de);
+
+    // a self arc is a cycle
+    assertTrue(components.isCyclic(abc));
+    assertTrue(components.isCyclic(de));
+    assertFalse(components.isCyclic(f));
+    assertTrue(components.isCyclic(g));
+    assertTrue(components.containsCycle());
+    assertEquals(3, components.cyclicComponentIdSetList().size());
+
+    assertEquals(graph.idSet(), components.id__component().keySet());
+
+    IdDag<Integer> condensation = components.condensation();
+    condensation.assertIdsEqual(ImmutableSet.of(0, 1, 2, 3));
+    assertEquals(ImmutableSet.of(abc), condensation.parentIdSet(de));
+    assertEquals(ImmutableSet.of(), condensation.parentIdSet(g));
+    assertEquals(ImmutableSet.of(de), condensation.descendantIdSet(abc, false));
+  }
+
+  @Test
+  public void testStrongComponents__longCycle() {
+
+    // recursion would overflow the call stack
+    int idSize = 100000;
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+
+    for (int id = 0; id < idSize; id++)
+      id__parentIds.put((id + 1) % idSize, id);
+
+    IdGraph<Integer> graph =
+        IdGraphLib.compactFromParentMap(RandomGraphLib.ids(idSize), id__parentIds.build());
+
+    StrongComponents<Integer> components = graph.strongComponents();
+
+    assertEquals(1, components.componentSize());
+    assertTrue(components.isCyclic(0));
+    assertEquals(idSize, components.componentIdSet(0).size());
+    assertEquals(1, components.condensation().idSize());
+  }
+
+  @Test
+  public void testStrongComponents__dag() {
+
+    IdDag<Integer> dag = RandomGraphLib.randomDag(0, 200, 3);
+
+    StrongComponents<Integer> components = dag.strongComponents();
+
+    assertEquals(dag.idSize(), components.componentSize());
+    assertFalse(components.containsCycle());
+    assertEquals(ImmutableList.of(), components.cyclicComponentIdSetList());
+  }
+
+  @Test
+  public void testStrongComponents__matchesReachability() {
+
+    for (long seed = 0; seed < 10; seed++) {
+
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 60, 2);
+
+      StrongComponents<Integer> components = graph.strongComponents();
+
+      assertEquals(graph.containsCycle(), components.containsCycle());
+
+      for (Integer id : graph.idSet()) {
+
+        ImmutableSet<Integer> descendants = graph.descendantIdSet(id, true);
+
+        // same component iff mutually reachable
+        for (Integer otherId : graph.idSet())
+          assertEquals(descendants.contains(otherId) && graph.isDescendantOf(id, otherId, true),
+              components.isSameComponent(id, otherId));
+
+        // arcs never go to an earlier component
+        for (Integer childId : graph.childIdSet(id))
+          assertTrue(components.component(id) <= components.component(childId));
+      }
+
+      // the condensation reaches the same ids
+      IdDag<Integer> condensation = components.condensation();
+
+      for (Integer id : graph.idSet()) {
+
+        ImmutableSet.Builder<Integer> expected = ImmutableSet.builder();
+        for (Integer component : condensation.descendantIdSet(components.component(id), true))
+          expected.addAll(components.componentIdSet(component));
+
+        assertEquals(expected.build(), graph.descendantIdSet(id, true));
+      }
+    }
+  }
+
+}
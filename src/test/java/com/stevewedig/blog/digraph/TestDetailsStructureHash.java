@@ -0,0 +1,169 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.node.UpNodeLib.upNode;
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.node_graph.*;
+import com.stevewedig.blog.digraph.persistent.*;
+
+public class TestDetailsStructureHash {
+
+  @Test
+  public void testStructureHash__sameAcrossImplementations() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 300, 3);
+
+      // the same arcs, inserted in a different order
+      IdDag<Integer> reordered =
+          IdDagLib.fromParentMap(ImmutableSet.copyOf(Lists.reverse(dag.idSet().asList())),
+              dag.id__parentIds());
+
+      StructureHash<Integer> expected = dag.structureHash();
+
+      for (IdDag<Integer> other : ImmutableList.of(reordered, IdDagLib.compact(dag),
+          IdDagLib.view(dag), PersistentIdDagLib.fromIdDag(dag))) {
+
+        StructureHash<Integer> actual = other.structureHash();
+
+        assertEquals(expected.graphHash(), actual.graphHash());
+
+        for (Integer id : dag.idSet()) {
+          assertEquals(expected.descendantHash(id), actual.descendantHash(id));
+          assertEquals(expected.ancestorHash(id), actual.ancestorHash(id));
+        }
+      }
+
+      // cached
+      assertSame(expected, dag.structureHash());
+      assertEquals(expected.graphHash(), StructureHashLib.hash(dag).graphHash());
+    }
+
+    Dag<String, ?> nodeDag = DagLib.up(upNode("a"), upNode("b", "a"), upNode("c", "a", "b"));
+    IdDag<String> idDag =
+        IdDagLib.fromParentMap(parseSet("a, b, c"), parseMultimap("b = a, c = a, c = b"));
+
+    assertTrue(StructureHashLib.sameHash(nodeDag, idDag));
+  }
+
+  @Test
+  public void testStructureHash__differences() {
+
+    Set<Long> graphHashes = new HashSet<>();
+
+    for (long seed = 0; seed < 20; seed++)
+      graphHashes.add(RandomGraphLib.randomDag(seed, 100, 3).structureHash().graphHash());
+
+    assertEquals(20, graphHashes.size());
+
+    // same ids, different arcs
+    IdDag<String> chain =
+        IdDagLib.fromParentMap(parseSet("a, b, c"), parseMultimap("b = a, c = b"));
+    IdDag<String> fork =
+        IdDagLib.fromParentMap(parseSet("a, b, c"), parseMultimap("b = a, c = a"));
+
+    StructureHash<String> chainHash = chain.structureHash();
+    StructureHash<String> forkHash = fork.structureHash();
+
+    assertFalse(StructureHashLib.sameHash(chain, fork));
+    assertEquals(chainHash.descendantHash("c"), forkHash.descendantHash("c"));
+    assertFalse(chainHash.ancestorHash("c") == forkHash.ancestorHash("c"));
+    assertFalse(chainHash.descendantHash("a") == forkHash.descendantHash("a"));
+
+    // descendant and ancestor hashes of an isolated id agree
+    IdDag<String> single = IdDagLib.fromParentMap(parseSet("a"), parseMultimap(""));
+    assertEquals(single.structureHash().descendantHash("a"),
+        single.structureHash().ancestorHash("a"));
+  }
+
+  @Test
+  public void testStructureHash__unchangedSubtrees() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      IdTree<Integer> oldTree = RandomGraphLib.randomTree(seed, 300);
+
+      // move one subtree under a different parent
+      PersistentIdDag<Integer> persistent = PersistentIdDagLib.fromIdDag(oldTree);
+
+      Integer newParent = oldTree.rootId();
+      Integer moved = null;
+
+      for (Integer id : oldTree.idSet())
+        if (oldTree.parentIdSet(id).size() == 1 && !oldTree.parentIdSet(id).contains(newParent))
+          moved = id;
+
+      Integer oldParent = oldTree.parentIdSet(moved).iterator().next();
+
+      IdDag<Integer> newDag = persistent.withoutEdge(oldParent, moved).withEdge(newParent, moved);
+      IdTree<Integer> newTree = IdTreeLib.fromParentMap(newDag.idSet(), newDag.id__parentIds());
+
+      ImmutableSet<Integer> unchangedDescendants =
+          StructureHashLib.unchangedDescendantIdSet(oldTree, newTree);
+      ImmutableSet<Integer> unchangedAncestors =
+          StructureHashLib.unchangedAncestorIdSet(oldTree, newTree);
+
+      for (Integer id : oldTree.idSet()) {
+        assertEquals(sameArcs(oldTree.descendantIdGraph(id, true),
+            newTree.descendantIdGraph(id, true)), unchangedDescendants.contains(id));
+        assertEquals(sameArcs(oldTree.ancestorIdGraph(id, true), newTree.ancestorIdGraph(id, true)),
+            unchangedAncestors.contains(id));
+      }
+
+      assertTrue(unchangedDescendants.contains(moved));
+      assertFalse(unchangedAncestors.contains(moved));
+    }
+  }
+
+  @Test
+  public void testStructureHash__equality() {
+
+    IdDag<Integer> dag = RandomGraphLib.randomDag(0, 300, 3);
+    IdDag<Integer> copy = IdDagLib.fromParentMap(dag.idSet(), dag.id__parentIds());
+
+    assertEquals(dag, copy);
+    assertEquals(dag.hashCode(), copy.hashCode());
+    assertEquals(IdDagLib.compact(dag), IdDagLib.compact(copy));
+    assertEquals(IdDagLib.compact(dag).hashCode(), IdDagLib.compact(copy).hashCode());
+
+    // still class sensitive
+    assertFalse(dag.equals(IdDagLib.compact(dag)));
+    assertFalse(dag.equals(dag.filterIdGraph(ImmutableSet.of(0, 1))));
+
+    IdTree<Integer> tree = RandomGraphLib.randomTree(0, 100);
+    assertEquals(tree, IdTreeLib.fromParentMap(tree.idSet(), tree.id__parentIds()));
+
+    // views and persistent dags also compare hashes first
+    assertEquals(IdDagLib.view(dag), IdDagLib.view(copy));
+    assertEquals(IdDagLib.view(dag).hashCode(), IdDagLib.view(copy).hashCode());
+    assertFalse(IdDagLib.view(dag).equals(IdDagLib.view(dag, ImmutableSet.of(0, 1))));
+
+    PersistentIdDag<Integer> persistent = PersistentIdDagLib.fromIdDag(dag);
+    assertEquals(persistent, PersistentIdDagLib.fromIdDag(copy));
+    assertEquals(persistent.hashCode(), PersistentIdDagLib.fromIdDag(copy).hashCode());
+    assertFalse(persistent.equals(persistent.withId(-1)));
+
+    // diffs of equal dags exit early
+    assertTrue(GraphDiffLib.diff(dag, copy).isEmpty());
+    assertTrue(GraphDiffLib.diff(dag, IdDagLib.compact(copy)).isEmpty());
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> boolean sameArcs(IdGraph<Id> graph1, IdGraph<Id> graph2) {
+    return graph1.idSet().equals(graph2.idSet())
+        && graph1.id__parentIds().equals(graph2.id__parentIds());
+  }
+
+}
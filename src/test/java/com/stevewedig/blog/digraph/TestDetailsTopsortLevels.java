@@ -0,0 +1,84 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.parallel.ParallelTopsortLib;
+
+public class TestDetailsTopsortLevels {
+
+  @Test
+  public void testLevels__sample() {
+
+    // diamond plus a tail, and a detached root
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d, e = a"));
+
+    TopsortLevels<String> levels = TopsortLib.levels(dag.idIndex(), dag.intGraph()).get();
+
+    assertEquals(4, levels.levelSize());
+    assertEquals(parseList("a, f"), levels.levelIdList(0));
+    assertEquals(parseList("b, c"), levels.levelIdList(1));
+    assertEquals(parseList("d"), levels.levelIdList(2));
+    assertEquals(parseList("e"), levels.levelIdList(3));
+    assertEquals(parseList("a, f, b, c, d, e"), levels.topsortIdList());
+
+    assertEquals(0, levels.level("f"));
+    assertEquals(3, levels.level("e"));
+
+    // cyclic
+    IdGraph<String> graph = IdGraphLib.fromParentMap(parseMultimap("a = b, b = a, c = a"));
+    assertFalse(TopsortLib.levels(graph.idIndex(), graph.intGraph()).isPresent());
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertFalse(ParallelTopsortLib.levels(graph.idIndex(), graph.intGraph(), pool).isPresent());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testLevels__parallelMatchesSequential() {
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+
+      for (long seed = 0; seed < 3; seed++) {
+
+        IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 20000, 3);
+
+        TopsortLevels<Integer> expected = TopsortLib.levels(dag.idIndex(), dag.intGraph()).get();
+
+        Optional<TopsortLevels<Integer>> actual =
+            ParallelTopsortLib.levels(dag.idIndex(), dag.intGraph(), pool);
+
+        assertEquals(expected.levelIdLists(), actual.get().levelIdLists());
+
+        GraphVerifyLib.verifyTopsort(dag, expected.topsortIdList());
+
+        // each id is one level after its deepest parent
+        for (Integer id : dag.idSet()) {
+
+          int maxParentLevel = -1;
+          for (Integer parentId : dag.parentIdSet(id))
+            maxParentLevel = Math.max(maxParentLevel, expected.level(parentId));
+
+          assertEquals(maxParentLevel + 1, expected.level(id));
+        }
+      }
+
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
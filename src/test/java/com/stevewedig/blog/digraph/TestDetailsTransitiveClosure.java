@@ -0,0 +1,114 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+
+public class TestDetailsTransitiveClosure {
+
+  @Test
+  public void testTransitiveClosure__sample() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    TransitiveClosure<String> closure = dag.transitiveClosure();
+
+    // cached
+    assertSame(closure, dag.transitiveClosure());
+
+    assertEquals(dag.topsortIdList(), closure.topsortIdList());
+
+    assertEquals(parseSet("a, b, c, d"), closure.ancestorIdSet("e", false));
+    assertEquals(parseSet("a, b, c, d, e"), closure.ancestorIdSet("e", true));
+    assertEquals(5, closure.ancestorSize("e", true));
+    assertEquals(0, closure.ancestorSize("f", false));
+
+    assertEquals(parseSet("d, e"), closure.descendantIdSet(parseSet("b, c"), false));
+    assertEquals(parseSet("b, c, d, e"), closure.descendantIdSet(parseSet("b, c"), true));
+
+    // intersections
+    assertEquals(parseSet("a"), closure.commonAncestorIdSet(parseSet("b, c"), false));
+    assertEquals(parseSet("a, b"), closure.commonAncestorIdSet(parseSet("b, e"), true));
+    assertEquals(parseSet("d, e"), closure.commonDescendantIdSet(parseSet("b, c"), false));
+    assertEquals(ImmutableSet.of(), closure.commonDescendantIdSet(parseSet("b, f"), true));
+
+    assertTrue(closure.isAncestorOf("a", "e", false));
+    assertTrue(closure.isDescendantOf("d", "c", false));
+    assertFalse(closure.isDescendantOf("c", "b", false));
+    assertFalse(closure.isDescendantOf("f", "a", false));
+    assertTrue(closure.isDescendantOf("a", "a", true));
+    assertFalse(closure.isDescendantOf("a", "a", false));
+
+    // missing ids are only their own closures
+    assertFalse(closure.isDescendantOf("missing", "a", false));
+    assertEquals(ImmutableSet.of("missing"), closure.ancestorIdSet("missing", true));
+    assertEquals(ImmutableSet.of(), closure.descendantIdSet("missing", false));
+
+    assertTrue(closure.buildNanos() >= 0);
+    assertTrue(closure.memoryBytes() > 0);
+  }
+
+  @Test
+  public void testTransitiveClosure__matchesGraph() {
+
+    // enough ids that some closures are stored densely
+    for (long seed = 0; seed < 5; seed++) {
+      verifyClosure(RandomGraphLib.randomDag(seed, 300, 3));
+      verifyClosure(RandomGraphLib.randomTree(seed, 300));
+      verifyClosure(IdDagLib.compact(RandomGraphLib.randomDag(seed, 200, 2)));
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static void verifyClosure(IdDag<Integer> dag) {
+
+    TransitiveClosure<Integer> closure = dag.transitiveClosure();
+
+    for (Integer id : dag.idSet())
+      for (boolean inclusive : new boolean[] {true, false}) {
+
+        ImmutableSet<Integer> ancestors = closure.ancestorIdSet(id, inclusive);
+        ImmutableSet<Integer> descendants = closure.descendantIdSet(id, inclusive);
+
+        assertEquals(dag.ancestorIdSet(id, inclusive), ancestors);
+        assertEquals(dag.descendantIdSet(id, inclusive), descendants);
+
+        assertEquals(ancestors.size(), closure.ancestorSize(id, inclusive));
+        assertEquals(descendants.size(), closure.descendantSize(id, inclusive));
+
+        // topological order
+        assertEquals(Ordering.explicit(dag.topsortIdList()).sortedCopy(ancestors),
+            ancestors.asList());
+
+        Integer other = (id * 7 + 3) % dag.idSize();
+        ImmutableSet<Integer> ids = ImmutableSet.of(id, other);
+
+        assertEquals(dag.ancestorIdSet(ids, inclusive), closure.ancestorIdSet(ids, inclusive));
+        assertEquals(dag.descendantIdSet(ids, inclusive), closure.descendantIdSet(ids, inclusive));
+
+        assertEquals(
+            Sets.intersection(dag.ancestorIdSet(id, inclusive), dag.ancestorIdSet(other, inclusive)),
+            closure.commonAncestorIdSet(ids, inclusive));
+        assertEquals(
+            Sets.intersection(dag.descendantIdSet(id, inclusive),
+                dag.descendantIdSet(other, inclusive)),
+            closure.commonDescendantIdSet(ids, inclusive));
+
+        assertEquals(dag.isAncestorOf(id, other, inclusive),
+            closure.isAncestorOf(id, other, inclusive));
+        assertEquals(dag.isDescendantOf(id, other, inclusive),
+            closure.isDescendantOf(id, other, inclusive));
+      }
+  }
+
+}
@@ -0,0 +1,160 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.digraph.node.UpNodeLib.upNode;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.digraph.int_graph.IntGraphLib;
+import com.stevewedig.blog.digraph.node.UpNode;
+import com.stevewedig.blog.digraph.node_graph.*;
+
+public class TestDetailsTreeAncestors {
+
+  // ===========================================================================
+  // matches ancestor lists
+  // ===========================================================================
+
+  @Test
+  public void testTreeAncestors__matchesAncestorLists() {
+
+    for (long seed = 0; seed < 10; seed++) {
+
+      IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 50);
+
+      for (Integer id : tree.idSet()) {
+
+        ImmutableList<Integer> ancestorIds = tree.ancestorIdList(id, true);
+
+        assertEquals(ancestorIds.size() - 1, tree.depth(id));
+
+        // kth ancestor, counting back from the id
+        for (int k = 0; k < ancestorIds.size(); k++)
+          assertEquals(Optional.of(ancestorIds.get(ancestorIds.size() - 1 - k)),
+              tree.kthAncestor(id, k));
+
+        assertEquals(Optional.absent(), tree.kthAncestor(id, ancestorIds.size()));
+
+        // lowest common ancestor is the last shared entry of the ancestor lists
+        for (Integer otherId : tree.idSet()) {
+
+          ImmutableList<Integer> otherAncestorIds = tree.ancestorIdList(otherId, true);
+
+          int shared = 0;
+          while (shared < ancestorIds.size() && shared < otherAncestorIds.size()
+              && ancestorIds.get(shared).equals(otherAncestorIds.get(shared)))
+            shared++;
+
+          assertEquals(ancestorIds.get(shared - 1), tree.lowestCommonAncestor(id, otherId));
+        }
+      }
+
+      GraphVerifyLib.verifySameTree(tree, IdTreeLib.compact(tree));
+    }
+  }
+
+  // ===========================================================================
+  // sample tree
+  // ===========================================================================
+
+  // a ->
+  // b -> a
+  // c -> b
+  // d -> c
+  // e -> b
+  // f -> a
+  // g -> f
+  // h -> a
+
+  @Test
+  public void testTreeAncestors__sampleIdTree() {
+
+    ImmutableSet<String> idSet = ImmutableSet.of("a", "b", "c", "d", "e", "f", "g", "h");
+
+    ImmutableSetMultimap<String, String> id__parentIds =
+        new ImmutableSetMultimap.Builder<String, String>().put("b", "a").put("c", "b")
+            .put("d", "c").put("e", "b").put("f", "a").put("g", "f").put("h", "a").build();
+
+    IdTree<String> tree = IdTreeLib.fromParentMap(idSet, id__parentIds);
+
+    // kth ancestor
+    assertEquals(Optional.of("d"), tree.kthAncestor("d", 0));
+    assertEquals(Optional.of("c"), tree.kthAncestor("d", 1));
+    assertEquals(Optional.of("a"), tree.kthAncestor("d", 3));
+    assertEquals(Optional.absent(), tree.kthAncestor("d", 4));
+    assertEquals(Optional.absent(), tree.kthAncestor("d", -1));
+
+    // lowest common ancestor
+    assertEquals("b", tree.lowestCommonAncestor("d", "e"));
+    assertEquals("a", tree.lowestCommonAncestor("d", "g"));
+    assertEquals("b", tree.lowestCommonAncestor("b", "d"));
+    assertEquals("h", tree.lowestCommonAncestor("h", "h"));
+  }
+
+  @Test
+  public void testTreeAncestors__sampleNodeTree() {
+
+    Tree<String, UpNode<String>> tree =
+        TreeLib.up(upNode("a"), upNode("b", "a"), upNode("c", "b"), upNode("d", "c"),
+            upNode("e", "b"), upNode("f", "a"), upNode("g", "f"), upNode("h", "a"));
+
+    UpNode<String> a = tree.getNode("a");
+    UpNode<String> b = tree.getNode("b");
+
+    // kth ancestor
+    assertEquals(Optional.of(b), tree.kthAncestorNode("d", 2));
+    assertEquals(Optional.absent(), tree.kthAncestorNode("d", 4));
+
+    // lowest common ancestor
+    assertEquals(b, tree.lowestCommonAncestorNode("d", "e"));
+    assertEquals(a, tree.lowestCommonAncestorNode("g", "h"));
+  }
+
+  // ===========================================================================
+  // deep chain
+  // ===========================================================================
+
+  @Test
+  public void testTreeAncestors__deepChain() {
+
+    int idSize = 100000;
+
+    ImmutableSetMultimap.Builder<Integer, Integer> id__parentIds = ImmutableSetMultimap.builder();
+    for (int id = 1; id < idSize; id++)
+      id__parentIds.put(id, id - 1);
+
+    IdTree<Integer> tree =
+        IdTreeLib.fromParentMap(RandomGraphLib.ids(idSize), id__parentIds.build());
+
+    assertEquals(idSize - 1, tree.maxDepth());
+    assertEquals(idSize - 1, tree.depth(idSize - 1));
+    assertEquals(idSize - 1, tree.ancestorIdList(idSize - 1, false).size());
+
+    assertEquals(Optional.of(12345), tree.kthAncestor(idSize - 1, idSize - 1 - 12345));
+    assertEquals((Integer) 500, tree.lowestCommonAncestor(500, 99999));
+  }
+
+  // ===========================================================================
+  // forest
+  // ===========================================================================
+
+  @Test
+  public void testTreeAncestors__forest() {
+
+    // 0 -> 1 -> 2 and 3 -> 4
+    AncestorTable table =
+        AncestorTableLib.table(IntGraphLib.fromArcs(5, new int[] {1, 2, 4}, new int[] {0, 1, 3}, 3));
+
+    assertEquals(2, table.maxDepth());
+    assertEquals(-1, table.parentIndex(0));
+    assertEquals(1, table.parentIndex(2));
+    assertEquals(1, table.lowestCommonAncestor(1, 2));
+    assertEquals(-1, table.lowestCommonAncestor(2, 4));
+    assertEquals(-1, table.kthAncestor(4, 2));
+  }
+
+}
@@ -0,0 +1,247 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.errors.*;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.errors.*;
+
+public class TestDetailsViews {
+
+  @Test
+  public void testViews__sample() {
+
+    IdDag<String> dag =
+        IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, d = c, e = d"));
+
+    IdDag<String> view = IdDagLib.view(dag);
+
+    IdDag<String> ancestors = view.ancestorIdGraph("d", true);
+    assertTrue(ancestors instanceof IdDagViewClass);
+    ancestors.assertIdsEqual(parseSet("a, b, c, d"));
+    assertEquals(parseSet("b, c"), ancestors.parentIdSet("d"));
+    assertEquals(parseSet("b, c"), ancestors.childIdSet("a"));
+    assertEquals(ImmutableSet.of(), ancestors.childIdSet("d"));
+    assertFalse(ancestors.isParentOf("d", "e"));
+    assertEquals(parseSet("a"), ancestors.rootIdSet());
+    assertEquals(parseSet("d"), ancestors.leafIdSet());
+
+    // views of views
+    IdDag<String> bd = ancestors.descendantIdGraph("b", true);
+    assertTrue(bd instanceof IdDagViewClass);
+    bd.assertIdsEqual(parseSet("b, d"));
+    assertEquals(ImmutableList.of("b", "d"), bd.topsortIdList());
+
+    // materialize
+    IdDag<String> materialized = IdDagLib.materialize(ancestors);
+    assertTrue(materialized instanceof IdDagClass);
+    assertEquals(dag.ancestorIdGraph("d", true), materialized);
+
+    // views are equal to views with the same ids and arcs
+    assertEquals(ancestors, IdDagLib.view(dag, parseSet("a, b, c, d")));
+    assertEquals(ancestors.hashCode(), IdDagLib.view(dag, parseSet("a, b, c, d")).hashCode());
+  }
+
+  @Test
+  public void testViews__treeSample() {
+
+    IdTree<String> tree =
+        IdTreeLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+            parseMultimap("b = a, c = a, d = b, e = d, f = c"));
+
+    IdTree<String> view = IdTreeLib.view(tree);
+
+    // subtree
+    IdTree<String> subtree = view.descendantIdTree("b");
+    subtree.assertIdsEqual(parseSet("b, d, e"));
+    assertEquals("b", subtree.rootId());
+    assertEquals(0, subtree.depth("b"));
+    assertEquals(2, subtree.depth("e"));
+    assertEquals(2, subtree.maxDepth());
+    assertEquals(ImmutableList.of("b", "d", "e"), subtree.ancestorIdList("e", true));
+    assertEquals(Optional.of("b"), subtree.kthAncestor("e", 2));
+    assertEquals(Optional.absent(), subtree.kthAncestor("e", 3));
+    assertEquals("d", subtree.lowestCommonAncestor("d", "e"));
+
+    // ancestors of a subtree
+    IdTree<String> path = subtree.ancestorIdGraph("e", false);
+    path.assertIdsEqual(parseSet("b, d"));
+    assertEquals("b", path.rootId());
+    assertEquals(1, path.maxDepth());
+
+    try {
+      subtree.kthAncestor("a", 0);
+      throw new NotThrown(NotContained.class);
+    } catch (NotContained e) {
+    }
+
+    try {
+      view.ancestorIdGraph("a", false);
+      throw new NotThrown(TreeCannotBeEmpty.class);
+    } catch (TreeCannotBeEmpty e) {
+    }
+  }
+
+  @Test
+  public void testViews__matchEagerFilters() {
+
+    for (long seed = 0; seed < 10; seed++) {
+
+      Random random = new Random(seed);
+
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 30, 2);
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 30, 3);
+      IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 30);
+
+      ImmutableSet<Integer> ids = randomIds(random, 30);
+      Integer id = random.nextInt(30);
+
+      // graphs
+      GraphVerifyLib.verifySameGraph(graph.filterIdGraph(ids),
+          IdGraphLib.view(graph).filterIdGraph(ids));
+      GraphVerifyLib.verifySameGraph(graph.ancestorIdGraph(id, true),
+          IdGraphLib.view(graph).ancestorIdGraph(id, true));
+      GraphVerifyLib.verifySameGraph(graph.descendantIdGraph(ids, false),
+          IdGraphLib.view(graph).descendantIdGraph(ids, false));
+
+      // dags
+      verifySameDag(dag.filterIdGraph(ids), IdDagLib.view(dag).filterIdGraph(ids));
+      verifySameDag(dag.ancestorIdGraph(id, false), IdDagLib.view(dag).ancestorIdGraph(id, false));
+      verifySameDag(dag.descendantIdGraph(ids, true),
+          IdDagLib.view(dag).descendantIdGraph(ids, true));
+      verifySameDag(dag.filterIdGraph(ids).ancestorIdGraph(id, true),
+          IdDagLib.view(dag).filterIdGraph(ids).ancestorIdGraph(id, true));
+
+      // trees
+      verifySameTree(tree.ancestorIdGraph(ids, true),
+          IdTreeLib.view(tree).ancestorIdGraph(ids, true));
+      verifySameTree(tree.descendantIdTree(id), IdTreeLib.view(tree).descendantIdTree(id));
+      ImmutableSet<Integer> subtreeIds =
+          ImmutableSet.<Integer>builder().add(id)
+              .addAll(Sets.intersection(ids, tree.descendantIdSet(id, true))).build();
+      verifySameTree(tree.descendantIdTree(id).ancestorIdGraph(subtreeIds, true),
+          IdTreeLib.view(tree).descendantIdTree(id).ancestorIdGraph(subtreeIds, true));
+
+      // materialized
+      verifySameDag(dag.filterIdGraph(ids), IdDagLib.materialize(IdDagLib.view(dag, ids)));
+    }
+  }
+
+  @Test
+  public void testViews__treeGaps() {
+
+    // r -> a -> c -> b
+    IdTree<String> chain =
+        IdTreeLib.fromParentMap(parseSet("r, a, c, b"), parseMultimap("a = r, c = a, b = c"));
+
+    // r and c, but not the a between them
+    try {
+      IdTreeLib.view(chain).ancestorIdGraph(parseSet("a, b"), false);
+      throw new NotThrown(TreeCannotHaveMultipleRoots.class);
+    } catch (TreeCannotHaveMultipleRoots e) {
+    }
+
+    // without the gap, ancestry matches the copy
+    verifySameTree(chain.ancestorIdGraph(parseSet("c, b"), false),
+        IdTreeLib.view(chain).ancestorIdGraph(parseSet("c, b"), false));
+
+    // exclusive ancestor sets of several ids, which can leave gaps
+    for (long seed = 0; seed < 20; seed++) {
+
+      Random random = new Random(seed);
+
+      IdTree<Integer> tree = RandomGraphLib.randomTree(seed, 30);
+      ImmutableSet<Integer> ids = ImmutableSet.of(random.nextInt(30), random.nextInt(30));
+
+      IdTree<Integer> view = IdTreeLib.view(tree);
+
+      Optional<Class<?>> error = ancestorIdGraphError(tree, ids);
+      assertEquals(error, ancestorIdGraphError(view, ids));
+
+      if (!error.isPresent())
+        verifySameTree(tree.ancestorIdGraph(ids, false), view.ancestorIdGraph(ids, false));
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static ImmutableSet<Integer> randomIds(Random random, int idSize) {
+
+    ImmutableSet.Builder<Integer> ids = ImmutableSet.builder();
+
+    for (int id = 0; id < idSize; id++)
+      if (random.nextBoolean())
+        ids.add(id);
+
+    return ids.build();
+  }
+
+  private static <Id> Optional<Class<?>> ancestorIdGraphError(IdTree<Id> tree, Set<Id> ids) {
+    try {
+      tree.ancestorIdGraph(ids, false);
+      return Optional.absent();
+    } catch (TreeCannotBeEmpty | TreeCannotHaveMultipleRoots e) {
+      return Optional.<Class<?>>of(e.getClass());
+    }
+  }
+
+  // views order children like the underlying graph, so depth/breadth first orders can differ
+  private static <Id> void verifySameDag(IdDag<Id> expected, IdDag<Id> actual) {
+
+    GraphVerifyLib.verifySameGraph(expected, actual);
+
+    GraphVerifyLib.verifyTopsort(actual, actual.topsortIdList());
+
+    assertEquals(actual.idSize(), actual.depthIdList().size());
+    assertEquals(expected.idSet(), ImmutableSet.copyOf(actual.depthIdList()));
+    assertEquals(actual.idSize(), actual.breadthIdList().size());
+    assertEquals(expected.idSet(), ImmutableSet.copyOf(actual.breadthIdList()));
+
+    for (Id id : expected.idSet())
+      for (Id other : expected.idSet())
+        assertEquals(expected.isDescendantOf(id, other, false),
+            actual.reachabilityIndex().isDescendantOf(id, other, false));
+  }
+
+  private static <Id> void verifySameTree(IdTree<Id> expected, IdTree<Id> actual) {
+
+    verifySameDag(expected, actual);
+
+    assertEquals(expected.rootId(), actual.rootId());
+    assertEquals(expected.maxDepth(), actual.maxDepth());
+
+    for (Id id : expected.idSet()) {
+
+      assertEquals(expected.parentId(id), actual.parentId(id));
+      assertEquals(expected.depth(id), actual.depth(id));
+
+      for (boolean inclusive : new boolean[] {true, false})
+        assertEquals(expected.ancestorIdList(id, inclusive), actual.ancestorIdList(id, inclusive));
+
+      for (int k = -1; k <= expected.depth(id) + 1; k++)
+        assertEquals(expected.kthAncestor(id, k), actual.kthAncestor(id, k));
+
+      for (Id otherId : expected.idSet()) {
+
+        assertEquals(expected.lowestCommonAncestor(id, otherId),
+            actual.lowestCommonAncestor(id, otherId));
+
+        // tree views answer this from the underlying tree's ancestor table
+        for (boolean inclusive : new boolean[] {true, false})
+          assertEquals(actual.descendantIdSet(otherId, inclusive).contains(id),
+              actual.isDescendantOf(id, otherId, inclusive));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,230 @@
+package com.stevewedig.blog.digraph;
+
+import static com.stevewedig.blog.translate.FormatLib.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.*;
+import com.stevewedig.blog.digraph.alg.*;
+import com.stevewedig.blog.digraph.errors.ArcWeightCannotBeNegative;
+import com.stevewedig.blog.digraph.id_graph.*;
+import com.stevewedig.blog.errors.*;
+import com.stevewedig.blog.util.LambdaLib.Fn2;
+
+public class TestDetailsWeightedPaths {
+
+  // a -> b (3), a -> c (1)
+  // b -> d (2), c -> d (5)
+  // d -> e (1)
+  // f -> e (9)
+  private static IdDag<String> dag = IdDagLib.fromParentMap(parseSet("a, b, c, d, e, f"),
+      parseMultimap("b = a, c = a, d = b, d = c, e = d, e = f"));
+
+  private static ImmutableTable<String, String, Double> table =
+      ImmutableTable.<String, String, Double>builder().put("a", "b", 3.0).put("a", "c", 1.0)
+          .put("b", "d", 2.0).put("c", "d", 5.0).put("d", "e", 1.0).put("f", "e", 9.0).build();
+
+  @Test
+  public void testWeightedPaths__weights() {
+
+    for (IdDag<String> dag : ImmutableList.of(TestDetailsWeightedPaths.dag,
+        IdDagLib.compact(TestDetailsWeightedPaths.dag))) {
+
+      ArcWeights<String> weights = ArcWeightsLib.weights(dag, table);
+
+      assertEquals(5.0, weights.weight("c", "d"), 0);
+      assertEquals(9.0, weights.weight("f", "e"), 0);
+
+      try {
+        weights.weight("a", "e");
+        throw new NotThrown(NotContained.class);
+      } catch (NotContained e) {
+      }
+
+      assertEquals(1.0, ArcWeightsLib.uniform(dag, 1).weight("a", "b"), 0);
+    }
+
+    try {
+      ArcWeightsLib.weights(dag, ImmutableTable.<String, String, Double>of());
+      throw new NotThrown(NotContained.class);
+    } catch (NotContained e) {
+    }
+  }
+
+  @Test
+  public void testWeightedPaths__dag() {
+
+    ArcWeights<String> weights = ArcWeightsLib.weights(dag, table);
+
+    WeightedPaths<String> shortest = WeightedPathLib.dagShortest(dag, weights, "a");
+
+    assertEquals(5.0, shortest.distance("d"), 0);
+    assertEquals(6.0, shortest.distance("e"), 0);
+    assertEquals(parseList("a, b, d, e"), shortest.pathIdList("e"));
+    assertEquals(Optional.of("b"), shortest.previousId("d"));
+    assertEquals(Optional.absent(), shortest.previousId("a"));
+
+    assertFalse(shortest.isReachable("f"));
+    assertEquals(Double.POSITIVE_INFINITY, shortest.distance("f"), 0);
+    assertEquals(ImmutableList.of(), shortest.pathIdList("f"));
+
+    WeightedPaths<String> longest = WeightedPathLib.dagLongest(dag, weights, "a");
+
+    assertEquals(6.0, longest.distance("d"), 0);
+    assertEquals(7.0, longest.distance("e"), 0);
+    assertEquals(parseList("a, c, d, e"), longest.pathIdList("e"));
+    assertEquals(Double.NEGATIVE_INFINITY, longest.distance("f"), 0);
+
+    // f -> e outweighs every path from a
+    assertEquals(parseList("f, e"), WeightedPathLib.criticalPathIdList(dag, weights));
+    assertEquals(9.0, WeightedPathLib.criticalPaths(dag, weights).distance("e"), 0);
+
+    // counting arcs (a, b, d, e and a, c, d, e tie)
+    ImmutableList<String> mostArcs =
+        WeightedPathLib.criticalPathIdList(dag, ArcWeightsLib.uniform(dag, 1));
+    assertEquals(4, mostArcs.size());
+    assertEquals("e", mostArcs.get(3));
+  }
+
+  @Test
+  public void testWeightedPaths__dijkstra() {
+
+    ArcWeights<String> weights = ArcWeightsLib.weights(dag, table);
+
+    WeightedPaths<String> paths = WeightedPathLib.dijkstra(dag, weights, "a");
+
+    assertEquals(parseList("a, b, d, e"), paths.pathIdList("e"));
+    assertEquals(6.0, paths.distance("e"), 0);
+
+    // a cycle with a shortcut
+    IdGraph<String> graph = IdGraphLib.fromParentMap(parseSet("a, b, c"),
+        parseMultimap("b = a, c = b, a = c, c = a"));
+
+    Fn2<String, String, Double> shortcutWeight = new Fn2<String, String, Double>() {
+      @Override
+      public Double apply(String parentId, String childId) {
+        return parentId.equals("a") && childId.equals("c") ? 10.0 : 1.0;
+      }
+    };
+
+    ArcWeights<String> cycleWeights = ArcWeightsLib.weights(graph, shortcutWeight);
+
+    WeightedPaths<String> cyclePaths = WeightedPathLib.dijkstra(graph, cycleWeights, "a");
+
+    assertEquals(parseList("a, b, c"), cyclePaths.pathIdList("c"));
+    assertEquals(Optional.of("c"), cyclePaths.farthestId());
+
+    try {
+      WeightedPathLib.dijkstra(graph, ArcWeightsLib.uniform(graph, -1), "a");
+      throw new NotThrown(ArcWeightCannotBeNegative.class);
+    } catch (ArcWeightCannotBeNegative e) {
+    }
+  }
+
+  @Test
+  public void testWeightedPaths__random() {
+
+    for (long seed = 0; seed < 5; seed++) {
+
+      final Random random = new Random(seed);
+
+      Fn2<Integer, Integer, Double> randomWeight = new Fn2<Integer, Integer, Double>() {
+        @Override
+        public Double apply(Integer parentId, Integer childId) {
+          return (double) random.nextInt(20);
+        }
+      };
+
+      IdGraph<Integer> graph = RandomGraphLib.randomGraph(seed, 200, 3);
+      ArcWeights<Integer> graphWeights = ArcWeightsLib.weights(graph, randomWeight);
+
+      assertDistances(bellmanFord(graph, graphWeights, 0),
+          WeightedPathLib.dijkstra(graph, graphWeights, 0));
+
+      IdDag<Integer> dag = RandomGraphLib.randomDag(seed, 200, 3);
+      ArcWeights<Integer> dagWeights = ArcWeightsLib.weights(dag, randomWeight);
+
+      WeightedPaths<Integer> dagShortest =
+          WeightedPathLib.dagShortest(dag, dagWeights, dag.rootIdSet());
+
+      assertDistances(dagShortest, WeightedPathLib.dijkstra(dag, dagWeights, dag.rootIdSet()));
+      assertDistances(dagShortest, WeightedPathLib.dagShortest(IdDagLib.compact(dag),
+          dagWeights, dag.rootIdSet()));
+
+      // longest paths are shortest paths with negated weights
+      final ArcWeights<Integer> finalDagWeights = dagWeights;
+
+      Fn2<Integer, Integer, Double> negatedWeight = new Fn2<Integer, Integer, Double>() {
+        @Override
+        public Double apply(Integer parentId, Integer childId) {
+          return -finalDagWeights.weight(parentId, childId);
+        }
+      };
+
+      ArcWeights<Integer> negated = ArcWeightsLib.weights(dag, negatedWeight);
+
+      WeightedPaths<Integer> longest = WeightedPathLib.criticalPaths(dag, dagWeights);
+      WeightedPaths<Integer> negatedShortest =
+          WeightedPathLib.dagShortest(dag, negated, dag.rootIdSet());
+
+      for (Integer id : dag.idSet()) {
+        assertEquals(-longest.distance(id), negatedShortest.distance(id), 0);
+        assertEquals(longest.distance(id), pathWeight(dagWeights, longest.pathIdList(id)), 0);
+      }
+    }
+  }
+
+  // ===========================================================================
+  // helpers
+  // ===========================================================================
+
+  private static <Id> void assertDistances(WeightedPaths<Id> expected, WeightedPaths<Id> actual) {
+    for (Id id : expected.idIndex().idList())
+      assertEquals(expected.distance(id), actual.distance(id), 0);
+  }
+
+  private static <Id> double pathWeight(ArcWeights<Id> weights, List<Id> path) {
+
+    double weight = 0;
+
+    for (int i = 1; i < path.size(); i++)
+      weight += weights.weight(path.get(i - 1), path.get(i));
+
+    return weight;
+  }
+
+  // relaxes every arc idSize times
+  private static <Id> WeightedPaths<Id> bellmanFord(IdGraph<Id> graph, ArcWeights<Id> weights,
+      Id sourceId) {
+
+    int size = graph.idSize();
+
+    double[] distances = new double[size];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    distances[weights.idIndex().index(sourceId)] = 0;
+
+    int[] previousIndexes = new int[size];
+    Arrays.fill(previousIndexes, -1);
+
+    for (int round = 0; round < size; round++)
+      for (Map.Entry<Id, Id> entry : graph.id__childIds().entries()) {
+
+        int index = weights.idIndex().index(entry.getKey());
+        int childIndex = weights.idIndex().index(entry.getValue());
+        double distance = distances[index] + weights.weight(entry.getKey(), entry.getValue());
+
+        if (distance < distances[childIndex]) {
+          distances[childIndex] = distance;
+          previousIndexes[childIndex] = index;
+        }
+      }
+
+    return new WeightedPathsClass<>(weights.idIndex(), ImmutableSet.of(sourceId), distances,
+        previousIndexes);
+  }
+
+}